@@ -184,7 +184,7 @@ public abstract class AssertionCleartkAnalysisEngine extends
 //  public abstract FeatureSelection<String> createFeatureSelection(double threshold);
 //  public abstract URI createFeatureSelectionURI(File outputDirectoryName);
 
-   private JCas getAnnotationView( final JCas jCas ) throws AnalysisEngineProcessException {
+   JCas getAnnotationView( final JCas jCas ) throws AnalysisEngineProcessException {
       if ( this.isTraining() ) {
          try {
             return jCas.getView( this.goldViewName );
@@ -309,29 +309,7 @@ public abstract class AssertionCleartkAnalysisEngine extends
 
    @Override
    public void process( JCas jCas ) throws AnalysisEngineProcessException {
-      String documentId = DocumentIDAnnotationUtil.getDocumentID( jCas );
-      String domainId = "";
-      String domainFeature = null;
-
-      if ( this.featureFunctionExtractors.size() <= 0 ) {
-         this.ffDomainAdaptor = null;
-      }
-
-      if ( documentId != null ) {
-         logger.debug( "processing next doc: " + documentId );
-         // set the domain to be FeatureFunction'ed into all extractors
-         if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-            domainId = fileToDomain.get( documentId );
-            // if domain is not found, no warning -- just considers general domain
-            ffDomainAdaptor.setDomain( domainId );
-         } else if ( !fileToDomain.isEmpty() ) {
-            domainFeature = fileToDomain.get( documentId );
-         }
-      } else {
-         logger.debug( "processing next doc (doc id is null)" );
-      }
-
-      this.lastLabel = "<BEGIN>";
+      final String domainFeature = initializeDocument( jCas );
 
 //    // get gold standard relation instances during testing for error analysis
 //    if (! this.isTraining() && printErrors) {
@@ -368,18 +346,7 @@ public abstract class AssertionCleartkAnalysisEngine extends
          Collection<Annotation> coveredAnnotations = sentenceAnnotationMap.get(coveringSent);
          // Sort Annotations into *Mention, assertion cues and BaseTokens in one loop.
          // Faster than calling JCasUtil methods for each which has to iterate through the full cas each time.
-         entities.clear();
-         cues.clear();
-         baseTokens.clear();
-         for ( Annotation annotation : coveredAnnotations ) {
-            if ( annotation instanceof EventMention || annotation instanceof EntityMention ) {
-               entities.add( (IdentifiedAnnotation)annotation );
-            } else if ( annotation instanceof AssertionCuePhraseAnnotation ) {
-               cues.add( (AssertionCuePhraseAnnotation)annotation );
-            } else if ( annotation instanceof BaseToken ) {
-               baseTokens.add( (BaseToken)annotation );
-            }
-         }
+         sortCoveredAnnotations( coveredAnnotations, entities, cues, baseTokens );
 
          for ( IdentifiedAnnotation identifiedAnnotation : entities ) {
             if ( identifiedAnnotation.getPolarity() == -1 ) {
@@ -420,84 +387,11 @@ public abstract class AssertionCleartkAnalysisEngine extends
         }
         */
 
-            // only use extract this version if not doing domain adaptation
-            if ( ffDomainAdaptor == null ) {
-               for ( CleartkExtractor<IdentifiedAnnotation, BaseToken> extractor : this.tokenCleartkExtractors ) {
-//    		  instance.addAll(extractor.extractWithin(annotationView, entityMention, sentence));
-//                  if ( coveringSent != null ) {
-                  instance.addAll( extractor
-                        .extractWithin( annotationView, identifiedAnnotation, coveringSent ) );
-//                  } else {
-//                     instance.addAll( extractor.extract( annotationView, identifiedAnnotation ) );
-//                  }
-               }
-            }
+            addTokenFeatures( instance, annotationView, identifiedAnnotation, coveringSent );
 
-            int closest = Integer.MAX_VALUE;
-            AssertionCuePhraseAnnotation closestCue = null;
-            for ( AssertionCuePhraseAnnotation cue : cues ) {
-               // It is much faster to count between BaseTokens already isolated within the same sentence.
-               final int betweenCount = countBetween( cue, identifiedAnnotation, baseTokens );
-               if ( betweenCount < closest ) {
-                  closestCue = cue;
-                  closest = betweenCount;
-               }
+            addCueFeatures( instance, identifiedAnnotation, cues, baseTokens );
 
-//          instance.addAll(cuePhraseInWindowExtractor.extractBetween(jCas, cue, entityOrEventMention));
-            }
-            if ( closestCue != null && closest < 21 ) {
-               instance.add( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) );
-//          instance.add(new Feature("ClosestCue_Phrase", closestCue.getCuePhrase()));
-               instance.add( new Feature( "ClosestCue_PhraseFamily", closestCue.getCuePhraseAssertionFamily() ) );
-               instance.add( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) );
-
-               // add hack-ey domain adaptation to these hacked-in features
-               if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) ) );
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_PhraseFamily", closestCue
-                              .getCuePhraseAssertionFamily() ) ) );
-                  instance.addAll( ffDomainAdaptor
-                        .apply( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) ) );
-               }
-
-            }
-//            }
-//      if (cuePhraseFeatures != null && !cuePhraseFeatures.isEmpty())
-//      {
-//        instance.addAll(cuePhraseFeatures);
-//      }
-
-
-            // 7/9/13 SRH trying to make it work just for anatomical site
-            int eemTypeId = identifiedAnnotation.getTypeID();
-            if ( eemTypeId == CONST.NE_TYPE_ID_ANATOMICAL_SITE ) {
-               // 7/9/13 srh modified per tmiller so it's binary but not numeric feature
-               //instance.add(new Feature("ENTITY_TYPE_" + entityOrEventMention.getTypeID()));
-               instance.add( new Feature( "ENTITY_TYPE_ANAT_SITE" ) );
-               // add hack-ey domain adaptation to these hacked-in features
-               if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-                  instance.addAll( ffDomainAdaptor.apply( new Feature( "ENTITY_TYPE_ANAT_SITE" ) ) );
-               }
-            }
-      /* This hurts recall more than it helps precision
-      else if (eemTypeId == CONST.NE_TYPE_ID_DRUG) {
-    	  // 7/10 adding drug
-    	  instance.add(new Feature("ENTITY_TYPE_DRUG"));
-      }
-      */
-
-            // only extract these features if not doing domain adaptation
-            if ( ffDomainAdaptor == null ) {
-               for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
-                  instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-               }
-            }
-
-            for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
-               instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-            }
+            addEntityFeatures( instance, jCas, identifiedAnnotation );
 
 //      List<Feature> zoneFeatures = extractZoneFeatures(coveringZoneMap, entityOrEventMention);
 //      if (zoneFeatures != null && !zoneFeatures.isEmpty())
@@ -507,30 +401,9 @@ public abstract class AssertionCleartkAnalysisEngine extends
 
             List<Feature> feats = instance.getFeatures();
 //      List<Feature> lcFeats = new ArrayList<Feature>();
+            lowerCaseFeatureValues( feats );
 
-            for ( Feature feat : feats ) {
-               if ( feat instanceof TreeFeature ||
-                    (feat.getName() != null && (feat.getName().startsWith( "TreeFrag" ) ||
-                                                feat.getName().startsWith( "WORD" ) ||
-                                                feat.getName().startsWith( "NEG" ))) ) {
-                  continue;
-               }
-               if ( feat.getName() != null &&
-                    (feat.getName().contains( "_TreeFrag" ) || feat.getName().contains( "_WORD" ) ||
-                     feat.getName().contains( "_NEG" )) ) {
-                  continue;
-               }
-               if ( feat.getValue() instanceof String ) {
-                  feat.setValue( ((String)feat.getValue()).toLowerCase() );
-               }
-            }
-
-            if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
-               for ( FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors ) {
-                  // TODO: extend to the case where the extractors take a different argument besides entityOrEventMention
-                  instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
-               }
-            }
+            addFeatureFunctionFeatures( instance, jCas, identifiedAnnotation );
 
 
             // grab the output label
@@ -553,6 +426,201 @@ public abstract class AssertionCleartkAnalysisEngine extends
       }
    }
 
+   /**
+    * Sets the domain of the document for domain adaptation and resets the previous label.
+    *
+    * @return value of the Domain feature for the document, null if the feature is not used
+    */
+   String initializeDocument( final JCas jCas ) {
+      String documentId = DocumentIDAnnotationUtil.getDocumentID( jCas );
+      String domainId = "";
+      String domainFeature = null;
+
+      if ( this.featureFunctionExtractors.size() <= 0 ) {
+         this.ffDomainAdaptor = null;
+      }
+
+      if ( documentId != null ) {
+         logger.debug( "processing next doc: " + documentId );
+         // set the domain to be FeatureFunction'ed into all extractors
+         if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
+            domainId = fileToDomain.get( documentId );
+            // if domain is not found, no warning -- just considers general domain
+            ffDomainAdaptor.setDomain( domainId );
+         } else if ( !fileToDomain.isEmpty() ) {
+            domainFeature = fileToDomain.get( documentId );
+         }
+      } else {
+         logger.debug( "processing next doc (doc id is null)" );
+      }
+
+      this.lastLabel = "<BEGIN>";
+      return domainFeature;
+   }
+
+   /**
+    * Sorts the annotations covered by a sentence into entity and event mentions, assertion cues and base tokens.
+    * The given collections are cleared first.
+    */
+   static void sortCoveredAnnotations( final Collection<Annotation> coveredAnnotations,
+                                       final Collection<IdentifiedAnnotation> entities,
+                                       final Collection<AssertionCuePhraseAnnotation> cues,
+                                       final Collection<BaseToken> baseTokens ) {
+      entities.clear();
+      cues.clear();
+      baseTokens.clear();
+      for ( Annotation annotation : coveredAnnotations ) {
+         if ( annotation instanceof EventMention || annotation instanceof EntityMention ) {
+            entities.add( (IdentifiedAnnotation)annotation );
+         } else if ( annotation instanceof AssertionCuePhraseAnnotation ) {
+            cues.add( (AssertionCuePhraseAnnotation)annotation );
+         } else if ( annotation instanceof BaseToken ) {
+            baseTokens.add( (BaseToken)annotation );
+         }
+      }
+   }
+
+   /**
+    * Adds the token context features of the entity within its sentence.
+    * They depend only on the entity and sentence, not on the attribute being classified.
+    */
+   protected void addTokenFeatures( final Instance<String> instance, final JCas annotationView,
+                                    final IdentifiedAnnotation identifiedAnnotation, final Sentence coveringSent )
+         throws AnalysisEngineProcessException {
+      // only use extract this version if not doing domain adaptation
+      if ( ffDomainAdaptor == null ) {
+         for ( CleartkExtractor<IdentifiedAnnotation, BaseToken> extractor : this.tokenCleartkExtractors ) {
+//    		  instance.addAll(extractor.extractWithin(annotationView, entityMention, sentence));
+//                  if ( coveringSent != null ) {
+            instance.addAll( extractor
+                  .extractWithin( annotationView, identifiedAnnotation, coveringSent ) );
+//                  } else {
+//                     instance.addAll( extractor.extract( annotationView, identifiedAnnotation ) );
+//                  }
+         }
+      }
+   }
+
+   /**
+    * Adds the closest assertion cue and anatomical site features of the entity.
+    * They depend only on the entity and sentence, not on the attribute being classified.
+    *
+    * @param cues       assertion cues in the entity's sentence
+    * @param baseTokens tokens in the entity's sentence
+    */
+   protected void addCueFeatures( final Instance<String> instance, final IdentifiedAnnotation identifiedAnnotation,
+                                  final Collection<AssertionCuePhraseAnnotation> cues,
+                                  final Collection<BaseToken> baseTokens ) {
+      int closest = Integer.MAX_VALUE;
+      AssertionCuePhraseAnnotation closestCue = null;
+      for ( AssertionCuePhraseAnnotation cue : cues ) {
+         // It is much faster to count between BaseTokens already isolated within the same sentence.
+         final int betweenCount = countBetween( cue, identifiedAnnotation, baseTokens );
+         if ( betweenCount < closest ) {
+            closestCue = cue;
+            closest = betweenCount;
+         }
+
+//          instance.addAll(cuePhraseInWindowExtractor.extractBetween(jCas, cue, entityOrEventMention));
+      }
+      if ( closestCue != null && closest < 21 ) {
+         instance.add( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) );
+//          instance.add(new Feature("ClosestCue_Phrase", closestCue.getCuePhrase()));
+         instance.add( new Feature( "ClosestCue_PhraseFamily", closestCue.getCuePhraseAssertionFamily() ) );
+         instance.add( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) );
+
+         // add hack-ey domain adaptation to these hacked-in features
+         if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
+            instance.addAll( ffDomainAdaptor
+                  .apply( new Feature( "ClosestCue_Word", closestCue.getCoveredText() ) ) );
+            instance.addAll( ffDomainAdaptor
+                  .apply( new Feature( "ClosestCue_PhraseFamily", closestCue
+                        .getCuePhraseAssertionFamily() ) ) );
+            instance.addAll( ffDomainAdaptor
+                  .apply( new Feature( "ClosestCue_PhraseCategory", closestCue.getCuePhraseCategory() ) ) );
+         }
+
+      }
+//            }
+//      if (cuePhraseFeatures != null && !cuePhraseFeatures.isEmpty())
+//      {
+//        instance.addAll(cuePhraseFeatures);
+//      }
+
+
+      // 7/9/13 SRH trying to make it work just for anatomical site
+      int eemTypeId = identifiedAnnotation.getTypeID();
+      if ( eemTypeId == CONST.NE_TYPE_ID_ANATOMICAL_SITE ) {
+         // 7/9/13 srh modified per tmiller so it's binary but not numeric feature
+         //instance.add(new Feature("ENTITY_TYPE_" + entityOrEventMention.getTypeID()));
+         instance.add( new Feature( "ENTITY_TYPE_ANAT_SITE" ) );
+         // add hack-ey domain adaptation to these hacked-in features
+         if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
+            instance.addAll( ffDomainAdaptor.apply( new Feature( "ENTITY_TYPE_ANAT_SITE" ) ) );
+         }
+      }
+      /* This hurts recall more than it helps precision
+      else if (eemTypeId == CONST.NE_TYPE_ID_DRUG) {
+    	  // 7/10 adding drug
+    	  instance.add(new Feature("ENTITY_TYPE_DRUG"));
+      }
+      */
+   }
+
+   /**
+    * Adds the features of this attribute's own entity and tree extractors.
+    */
+   protected void addEntityFeatures( final Instance<String> instance, final JCas jCas,
+                                     final IdentifiedAnnotation identifiedAnnotation )
+         throws AnalysisEngineProcessException {
+      // only extract these features if not doing domain adaptation
+      if ( ffDomainAdaptor == null ) {
+         for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityFeatureExtractors ) {
+            instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+         }
+      }
+
+      for ( FeatureExtractor1<IdentifiedAnnotation> extractor : this.entityTreeExtractors ) {
+         instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+      }
+   }
+
+   /**
+    * Adds the domain adapted features of the feature function extractors, only used for domain adaptation.
+    */
+   protected void addFeatureFunctionFeatures( final Instance<String> instance, final JCas jCas,
+                                              final IdentifiedAnnotation identifiedAnnotation )
+         throws AnalysisEngineProcessException {
+      if ( !fileToDomain.isEmpty() && ffDomainAdaptor != null ) {
+         for ( FeatureFunctionExtractor<IdentifiedAnnotation> extractor : this.featureFunctionExtractors ) {
+            // TODO: extend to the case where the extractors take a different argument besides entityOrEventMention
+            instance.addAll( extractor.extract( jCas, identifiedAnnotation ) );
+         }
+      }
+   }
+
+   /**
+    * Lower cases string feature values in place, except for tree, word and negation features.
+    */
+   static void lowerCaseFeatureValues( final Iterable<Feature> features ) {
+      for ( Feature feat : features ) {
+         if ( feat instanceof TreeFeature ||
+              (feat.getName() != null && (feat.getName().startsWith( "TreeFrag" ) ||
+                                          feat.getName().startsWith( "WORD" ) ||
+                                          feat.getName().startsWith( "NEG" ))) ) {
+            continue;
+         }
+         if ( feat.getName() != null &&
+              (feat.getName().contains( "_TreeFrag" ) || feat.getName().contains( "_WORD" ) ||
+               feat.getName().contains( "_NEG" )) ) {
+            continue;
+         }
+         if ( feat.getValue() instanceof String ) {
+            feat.setValue( ((String)feat.getValue()).toLowerCase() );
+         }
+      }
+   }
+
   /*
   public List<Feature> extractZoneFeatures(Map<IdentifiedAnnotation, Collection<Zone>> coveringZoneMap, IdentifiedAnnotation entityOrEventMention)
   {
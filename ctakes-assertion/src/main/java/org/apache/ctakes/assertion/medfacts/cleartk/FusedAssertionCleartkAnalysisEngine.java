@@ -0,0 +1,281 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.log4j.Logger;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.fit.factory.UimaContextFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.NameValuePair;
+import org.cleartk.ml.Feature;
+import org.cleartk.ml.Instance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns polarity, uncertainty, history, conditional, generic and subject with one pass over the entities.
+ * <p>
+ * The separate attribute engines each extract the token context, closest cue and anatomical site features
+ * of every entity, although those features do not depend on the attribute.
+ * This engine extracts them once per entity and then runs each attribute model with only its own entity
+ * and tree features added, so the model inputs and outputs are the same as with the separate engines.
+ * Attributes are assigned in the same order as in the default pipeline, one attribute for all entities at a time,
+ * because the uncertainty features use the polarity assigned before them.
+ * </p>
+ * <p>
+ * All engines build the same token extractors in AssertionCleartkAnalysisEngine.initialize,
+ * only a NO_TOK feature configuration removes them.
+ * An engine that does domain adaptation extracts all of its own features, as it does when run separately.
+ * </p>
+ * Classification only.  Training still uses the separate engines.
+ */
+@PipeBitInfo(
+      name = "ClearTK Attribute Annotator",
+      description = "Annotates negation, uncertainty, history, conditional, generic and subject properties.",
+      dependencies = { PipeBitInfo.TypeProduct.SENTENCE, PipeBitInfo.TypeProduct.IDENTIFIED_ANNOTATION },
+      usables = { PipeBitInfo.TypeProduct.DOCUMENT_ID }
+)
+public class FusedAssertionCleartkAnalysisEngine extends JCasAnnotator_ImplBase {
+
+   static private final Logger LOGGER = Logger.getLogger( "FusedAssertionCleartkAnalysisEngine" );
+
+   public static final String PARAM_POLARITY_MODEL = "PolarityModelPath";
+   public static final String PARAM_UNCERTAINTY_MODEL = "UncertaintyModelPath";
+   public static final String PARAM_HISTORY_MODEL = "HistoryModelPath";
+   public static final String PARAM_CONDITIONAL_MODEL = "ConditionalModelPath";
+   public static final String PARAM_GENERIC_MODEL = "GenericModelPath";
+   public static final String PARAM_SUBJECT_MODEL = "SubjectModelPath";
+
+   @ConfigurationParameter(
+         name = PARAM_POLARITY_MODEL,
+         mandatory = false,
+         description = "Polarity model jar, the default polarity model if not set" )
+   private String _polarityModel;
+
+   @ConfigurationParameter(
+         name = PARAM_UNCERTAINTY_MODEL,
+         mandatory = false,
+         description = "Uncertainty model jar, the default uncertainty model if not set" )
+   private String _uncertaintyModel;
+
+   @ConfigurationParameter(
+         name = PARAM_HISTORY_MODEL,
+         mandatory = false,
+         description = "History model jar, the default history model if not set" )
+   private String _historyModel;
+
+   @ConfigurationParameter(
+         name = PARAM_CONDITIONAL_MODEL,
+         mandatory = false,
+         description = "Conditional model jar, the default conditional model if not set" )
+   private String _conditionalModel;
+
+   @ConfigurationParameter(
+         name = PARAM_GENERIC_MODEL,
+         mandatory = false,
+         description = "Generic model jar, the default generic model if not set" )
+   private String _genericModel;
+
+   @ConfigurationParameter(
+         name = PARAM_SUBJECT_MODEL,
+         mandatory = false,
+         description = "Subject model jar, the default subject model if not set" )
+   private String _subjectModel;
+
+   private final List<AssertionCleartkAnalysisEngine> _engines = new ArrayList<>();
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      super.initialize( context );
+      _engines.add( createEngine( new PolarityCleartkAnalysisEngine(),
+            _polarityModel == null ? PolarityCleartkAnalysisEngine.createAnnotatorDescription()
+                                   : PolarityCleartkAnalysisEngine.createAnnotatorDescription( _polarityModel ) ) );
+      _engines.add( createEngine( new UncertaintyCleartkAnalysisEngine(),
+            _uncertaintyModel == null ? UncertaintyCleartkAnalysisEngine.createAnnotatorDescription()
+                                      : UncertaintyCleartkAnalysisEngine.createAnnotatorDescription( _uncertaintyModel ) ) );
+      _engines.add( createEngine( new HistoryCleartkAnalysisEngine(),
+            _historyModel == null ? HistoryCleartkAnalysisEngine.createAnnotatorDescription()
+                                  : HistoryCleartkAnalysisEngine.createAnnotatorDescription( _historyModel ) ) );
+      _engines.add( createEngine( new ConditionalCleartkAnalysisEngine(),
+            _conditionalModel == null ? ConditionalCleartkAnalysisEngine.createAnnotatorDescription()
+                                      : ConditionalCleartkAnalysisEngine.createAnnotatorDescription( _conditionalModel ) ) );
+      _engines.add( createEngine( new GenericCleartkAnalysisEngine(),
+            _genericModel == null ? GenericCleartkAnalysisEngine.createAnnotatorDescription()
+                                  : GenericCleartkAnalysisEngine.createAnnotatorDescription( _genericModel ) ) );
+      _engines.add( createEngine( new SubjectCleartkAnalysisEngine(),
+            _subjectModel == null ? SubjectCleartkAnalysisEngine.createAnnotatorDescription()
+                                  : SubjectCleartkAnalysisEngine.createAnnotatorDescription( _subjectModel ) ) );
+   }
+
+   /**
+    * Initializes an attribute engine with the parameters of its description.
+    */
+   static private AssertionCleartkAnalysisEngine createEngine( final AssertionCleartkAnalysisEngine engine,
+                                                               final AnalysisEngineDescription description )
+         throws ResourceInitializationException {
+      final List<Object> parameters = new ArrayList<>();
+      for ( NameValuePair pair : description.getAnalysisEngineMetaData()
+                                            .getConfigurationParameterSettings()
+                                            .getParameterSettings() ) {
+         parameters.add( pair.getName() );
+         parameters.add( pair.getValue() );
+      }
+      engine.initialize( UimaContextFactory.createUimaContext( parameters.toArray() ) );
+      return engine;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      final String[] domainFeatures = new String[ _engines.size() ];
+      // engines that extract the shared features, null if no engine uses them
+      AssertionCleartkAnalysisEngine tokenEngine = null;
+      AssertionCleartkAnalysisEngine cueEngine = null;
+      for ( int i = 0; i < _engines.size(); i++ ) {
+         final AssertionCleartkAnalysisEngine engine = _engines.get( i );
+         domainFeatures[ i ] = engine.initializeDocument( jCas );
+         // with domain adaptation an engine extracts all of its own features
+         if ( engine.ffDomainAdaptor == null ) {
+            if ( cueEngine == null ) {
+               cueEngine = engine;
+            }
+            if ( tokenEngine == null && !engine.tokenCleartkExtractors.isEmpty() ) {
+               tokenEngine = engine;
+            }
+         }
+      }
+      final JCas annotationView = _engines.get( 0 ).getAnnotationView( jCas );
+      final Collection<EntityContext> entityContexts = new ArrayList<>();
+      final Map<Sentence, Collection<Annotation>> sentenceAnnotationMap
+            = JCasUtil.indexCovered( annotationView, Sentence.class, Annotation.class );
+      for ( Sentence sentence : JCasUtil.select( annotationView, Sentence.class ) ) {
+         final Collection<IdentifiedAnnotation> entities = new ArrayList<>();
+         final Collection<AssertionCuePhraseAnnotation> cues = new ArrayList<>();
+         final Collection<BaseToken> baseTokens = new ArrayList<>();
+         AssertionCleartkAnalysisEngine.sortCoveredAnnotations( sentenceAnnotationMap.get( sentence ),
+               entities, cues, baseTokens );
+         for ( IdentifiedAnnotation entity : entities ) {
+            final Instance<String> tokenInstance = new Instance<>();
+            if ( tokenEngine != null ) {
+               tokenEngine.addTokenFeatures( tokenInstance, annotationView, entity, sentence );
+            }
+            final Instance<String> cueInstance = new Instance<>();
+            if ( cueEngine != null ) {
+               cueEngine.addCueFeatures( cueInstance, entity, cues, baseTokens );
+            }
+            AssertionCleartkAnalysisEngine.lowerCaseFeatureValues( tokenInstance.getFeatures() );
+            AssertionCleartkAnalysisEngine.lowerCaseFeatureValues( cueInstance.getFeatures() );
+            entityContexts.add( new EntityContext( entity, sentence, cues, baseTokens,
+                  tokenInstance.getFeatures(), cueInstance.getFeatures() ) );
+         }
+      }
+      if ( entityContexts.isEmpty() ) {
+         return;
+      }
+      LOGGER.debug( "Assigning attributes to " + entityContexts.size() + " entities" );
+      for ( int i = 0; i < _engines.size(); i++ ) {
+         final AssertionCleartkAnalysisEngine engine = _engines.get( i );
+         final boolean useTokens = !engine.tokenCleartkExtractors.isEmpty();
+         for ( EntityContext entityContext : entityContexts ) {
+            final Instance<String> instance = new Instance<>();
+            if ( domainFeatures[ i ] != null ) {
+               instance.add( new Feature( "Domain", domainFeatures[ i ] ) );
+            }
+            if ( engine.ffDomainAdaptor == null ) {
+               // the shared features are already lower case and are not modified by the classifiers
+               if ( useTokens ) {
+                  instance.addAll( entityContext._tokenFeatures );
+               }
+               instance.addAll( entityContext._cueFeatures );
+            } else {
+               engine.addTokenFeatures( instance, annotationView, entityContext._entity, entityContext._sentence );
+               engine.addCueFeatures( instance, entityContext._entity, entityContext._cues,
+                     entityContext._baseTokens );
+            }
+            engine.addEntityFeatures( instance, jCas, entityContext._entity );
+            AssertionCleartkAnalysisEngine.lowerCaseFeatureValues( instance.getFeatures() );
+            engine.addFeatureFunctionFeatures( instance, jCas, entityContext._entity );
+            engine.setClassLabel( entityContext._entity, instance );
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      for ( AssertionCleartkAnalysisEngine engine : _engines ) {
+         engine.collectionProcessComplete();
+      }
+   }
+
+   /**
+    * Features of an entity that are the same for every attribute
+    */
+   static private final class EntityContext {
+      private final IdentifiedAnnotation _entity;
+      private final Sentence _sentence;
+      private final Collection<AssertionCuePhraseAnnotation> _cues;
+      private final Collection<BaseToken> _baseTokens;
+      private final List<Feature> _tokenFeatures;
+      private final List<Feature> _cueFeatures;
+
+      private EntityContext( final IdentifiedAnnotation entity,
+                             final Sentence sentence,
+                             final Collection<AssertionCuePhraseAnnotation> cues,
+                             final Collection<BaseToken> baseTokens,
+                             final List<Feature> tokenFeatures,
+                             final List<Feature> cueFeatures ) {
+         _entity = entity;
+         _sentence = sentence;
+         _cues = cues;
+         _baseTokens = baseTokens;
+         _tokenFeatures = tokenFeatures;
+         _cueFeatures = cueFeatures;
+      }
+   }
+
+   public static AnalysisEngineDescription createAnnotatorDescription() throws ResourceInitializationException {
+      return AnalysisEngineFactory.createEngineDescription( FusedAssertionCleartkAnalysisEngine.class );
+   }
+
+}
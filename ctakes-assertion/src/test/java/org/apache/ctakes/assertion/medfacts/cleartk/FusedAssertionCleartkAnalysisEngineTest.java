@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.assertion.medfacts.cleartk;
+
+import org.apache.ctakes.constituency.parser.ae.ConstituencyParser;
+import org.apache.ctakes.contexttokenizer.ae.ContextDependentTokenizerAnnotator;
+import org.apache.ctakes.core.ae.SentenceDetector;
+import org.apache.ctakes.core.ae.SimpleSegmentAnnotator;
+import org.apache.ctakes.core.ae.TokenizerAnnotatorPTB;
+import org.apache.ctakes.dependency.parser.ae.ClearNLPDependencyParserAE;
+import org.apache.ctakes.postagger.POSTagger;
+import org.apache.ctakes.typesystem.type.constants.CONST;
+import org.apache.ctakes.typesystem.type.temporary.assertion.AssertionCuePhraseAnnotation;
+import org.apache.ctakes.typesystem.type.textsem.EntityMention;
+import org.apache.ctakes.typesystem.type.textsem.EventMention;
+import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.fit.factory.AggregateBuilder;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FusedAssertionCleartkAnalysisEngineTest {
+
+   static private final String NOTE = "The patient denies chest pain but reports a history of asthma.  "
+                                      + "Her mother had breast cancer at age 50.  "
+                                      + "If the nausea returns she may take ondansetron.  "
+                                      + "There is no evidence of pneumonia, possible bronchitis.  "
+                                      + "Tenderness of the left knee was noted.";
+
+   static private final String[] DISORDERS = { "chest pain", "asthma", "breast cancer", "pneumonia", "bronchitis" };
+   static private final String[] EVENTS = { "nausea", "ondansetron", "Tenderness" };
+   static private final String[] SITES = { "chest", "left knee" };
+   static private final String[] NEGATION_CUES = { "denies", "no evidence of" };
+
+   /**
+    * The fused engine must assign the same attributes as the six separate engines run one after the other.
+    */
+   @Test
+   public void testSameAttributes() throws UIMAException {
+      final JCas jCas = JCasFactory.createJCas();
+      jCas.setDocumentText( NOTE );
+      SimplePipeline.runPipeline( jCas, getPreprocessingPipeline() );
+      addEntities( jCas );
+      SimplePipeline.runPipeline( jCas, getSeparatePipeline() );
+      final List<String> separate = getAttributes( jCas );
+      resetAttributes( jCas );
+      SimplePipeline.runPipeline( jCas, FusedAssertionCleartkAnalysisEngine.createAnnotatorDescription() );
+      assertEquals( separate, getAttributes( jCas ) );
+   }
+
+   static private AnalysisEngineDescription getPreprocessingPipeline() throws ResourceInitializationException {
+      final AggregateBuilder builder = new AggregateBuilder();
+      builder.add( SimpleSegmentAnnotator.createAnnotatorDescription() );
+      builder.add( SentenceDetector.createAnnotatorDescription() );
+      builder.add( TokenizerAnnotatorPTB.createAnnotatorDescription() );
+      builder.add( ContextDependentTokenizerAnnotator.createAnnotatorDescription() );
+      builder.add( POSTagger.createAnnotatorDescription() );
+      builder.add( ConstituencyParser.createAnnotatorDescription() );
+      builder.add( ClearNLPDependencyParserAE.createAnnotatorDescription() );
+      return builder.createAggregateDescription();
+   }
+
+   static private AnalysisEngineDescription getSeparatePipeline() throws ResourceInitializationException {
+      final AggregateBuilder builder = new AggregateBuilder();
+      builder.add( PolarityCleartkAnalysisEngine.createAnnotatorDescription() );
+      builder.add( UncertaintyCleartkAnalysisEngine.createAnnotatorDescription() );
+      builder.add( HistoryCleartkAnalysisEngine.createAnnotatorDescription() );
+      builder.add( ConditionalCleartkAnalysisEngine.createAnnotatorDescription() );
+      builder.add( GenericCleartkAnalysisEngine.createAnnotatorDescription() );
+      builder.add( SubjectCleartkAnalysisEngine.createAnnotatorDescription() );
+      return builder.createAggregateDescription();
+   }
+
+   static private void addEntities( final JCas jCas ) {
+      for ( String text : DISORDERS ) {
+         final int begin = NOTE.indexOf( text );
+         final EntityMention mention = new EntityMention( jCas, begin, begin + text.length() );
+         mention.setTypeID( CONST.NE_TYPE_ID_DISORDER );
+         mention.addToIndexes();
+      }
+      for ( String text : SITES ) {
+         final int begin = NOTE.indexOf( text );
+         final EntityMention mention = new EntityMention( jCas, begin, begin + text.length() );
+         mention.setTypeID( CONST.NE_TYPE_ID_ANATOMICAL_SITE );
+         mention.addToIndexes();
+      }
+      for ( String text : EVENTS ) {
+         final int begin = NOTE.indexOf( text );
+         new EventMention( jCas, begin, begin + text.length() ).addToIndexes();
+      }
+      for ( String text : NEGATION_CUES ) {
+         final int begin = NOTE.indexOf( text );
+         final AssertionCuePhraseAnnotation cue = new AssertionCuePhraseAnnotation( jCas, begin, begin + text.length() );
+         cue.setCuePhrase( text );
+         cue.setCuePhraseAssertionFamily( "negation" );
+         cue.setCuePhraseCategory( "negationIndicator" );
+         cue.addToIndexes();
+      }
+   }
+
+   static private List<String> getAttributes( final JCas jCas ) {
+      final List<String> attributes = new ArrayList<>();
+      for ( IdentifiedAnnotation annotation : JCasUtil.select( jCas, IdentifiedAnnotation.class ) ) {
+         attributes.add( annotation.getCoveredText()
+                         + " polarity=" + annotation.getPolarity()
+                         + " uncertainty=" + annotation.getUncertainty()
+                         + " history=" + annotation.getHistoryOf()
+                         + " conditional=" + annotation.getConditional()
+                         + " generic=" + annotation.getGeneric()
+                         + " subject=" + annotation.getSubject() );
+      }
+      return attributes;
+   }
+
+   static private void resetAttributes( final JCas jCas ) {
+      for ( IdentifiedAnnotation annotation : JCasUtil.select( jCas, IdentifiedAnnotation.class ) ) {
+         annotation.setPolarity( 0 );
+         annotation.setUncertainty( 0 );
+         annotation.setHistoryOf( 0 );
+         annotation.setConditional( false );
+         annotation.setGeneric( false );
+         annotation.setSubject( null );
+      }
+   }
+
+}
@@ -37,7 +37,9 @@ import org.apache.uima.resource.ResourceInitializationException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 // import opennlp.tools.lang.english.TreebankChunker; // no longer part of OpenNLP as of 1.5
 
@@ -97,6 +99,8 @@ public class Chunker extends JCasAnnotator_ImplBase {
 
 	private opennlp.tools.chunker.Chunker chunker;
 
+	static private final Map<String, ChunkerModel> MODELS = new HashMap<>();
+
 	ChunkCreator chunkerCreator;
 
 	@Override
@@ -104,10 +108,8 @@ public class Chunker extends JCasAnnotator_ImplBase {
 		super.initialize(uimaContext);
 
     logger.info("Chunker model file: " + chunkerModelPath); 
-		try (InputStream fis = FileLocator.getAsStream(chunkerModelPath)) {
-			ChunkerModel model = new ChunkerModel(fis);
-			chunker = new opennlp.tools.chunker.ChunkerME(model);
-
+		try {
+			chunker = new opennlp.tools.chunker.ChunkerME(getModel(chunkerModelPath));
 		} catch (IOException e) {
 			logger.info("Chunker model: " + chunkerModelPath); 
 			throw new ResourceInitializationException(e);
@@ -123,6 +125,27 @@ public class Chunker extends JCasAnnotator_ImplBase {
     chunkerCreator.initialize(uimaContext);
 	}
 
+	/**
+	 * ChunkerModel is immutable and thread safe, so a single instance is shared by all chunkers using the same path.
+	 * ChunkerME is not thread safe, so each chunker creates its own.
+	 *
+	 * @param modelPath path to the model file
+	 * @return shared model for the path
+	 * @throws IOException if the model could not be read
+	 */
+	static private ChunkerModel getModel(final String modelPath) throws IOException {
+		synchronized (MODELS) {
+			ChunkerModel model = MODELS.get(modelPath);
+			if (model == null) {
+				try (InputStream fis = FileLocator.getAsStream(modelPath)) {
+					model = new ChunkerModel(fis);
+				}
+				MODELS.put(modelPath, model);
+			}
+			return model;
+		}
+	}
+
 	@Override
   public void process(JCas jCas) throws AnalysisEngineProcessException {
 
@@ -1,12 +1,15 @@
 package org.apache.ctakes.chunker.concurrent;
 
 import org.apache.ctakes.chunker.ae.Chunker;
-import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
+import org.apache.ctakes.core.concurrent.DelegatePool;
+import org.apache.ctakes.core.concurrent.PooledThreadSafeWrapper;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.initialize.ConfigurationParameterInitializer;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -14,6 +17,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
+ * The model is shared, but each document is processed by one of a pool of chunkers so that threads do not wait on a lock.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -28,6 +32,10 @@ import org.apache.uima.resource.ResourceInitializationException;
 )
 final public class ThreadSafeChunker extends Chunker {
 
+   @ConfigurationParameter( name = DelegatePool.PARAM_POOL_SIZE, mandatory = false,
+         description = DelegatePool.DESC_POOL_SIZE, defaultValue = "0" )
+   private int _poolSize;
+
    static private final Logger LOGGER = Logger.getLogger( "ThreadSafeChunker" );
 
    /**
@@ -35,7 +43,8 @@ final public class ThreadSafeChunker extends Chunker {
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      ChunkerSingleton.getInstance().initialize( context );
+      ConfigurationParameterInitializer.initialize( this, context );
+      ChunkerSingleton.getInstance().initialize( context, _poolSize );
    }
 
    /**
@@ -65,40 +74,18 @@ final public class ThreadSafeChunker extends Chunker {
    }
 
 
-   private enum ChunkerSingleton implements ThreadSafeWrapper<Chunker> {
+   private enum ChunkerSingleton implements PooledThreadSafeWrapper<Chunker> {
       INSTANCE;
 
       static public ChunkerSingleton getInstance() {
          return INSTANCE;
       }
 
-      private final Chunker _delegate;
-      private boolean _initialized;
-
-      ChunkerSingleton() {
-         _delegate = new Chunker();
-      }
-
-      final private Object LOCK = new Object();
-
-      @Override
-      public Object getLock() {
-         return LOCK;
-      }
-
-      @Override
-      public Chunker getDelegate() {
-         return _delegate;
-      }
-
-      @Override
-      public boolean isInitialized() {
-         return _initialized;
-      }
+      private final DelegatePool<Chunker> _pool = new DelegatePool<>( Chunker::new );
 
       @Override
-      public void setInitialized( final boolean initialized ) {
-         _initialized = initialized;
+      public DelegatePool<Chunker> getPool() {
+         return _pool;
       }
    }
 
@@ -73,12 +73,8 @@ final public class ClinicalPipelineFactory {
       builder.add( getTokenProcessingPipeline() );
       builder.add( DefaultJCasTermAnnotator.createAnnotatorDescription() );
       builder.add( ClearNLPDependencyParserAE.createAnnotatorDescription() );
-      builder.add( PolarityCleartkAnalysisEngine.createAnnotatorDescription() );
-      builder.add( UncertaintyCleartkAnalysisEngine.createAnnotatorDescription() );
-      builder.add( HistoryCleartkAnalysisEngine.createAnnotatorDescription() );
-      builder.add( ConditionalCleartkAnalysisEngine.createAnnotatorDescription() );
-      builder.add( GenericCleartkAnalysisEngine.createAnnotatorDescription() );
-      builder.add( SubjectCleartkAnalysisEngine.createAnnotatorDescription() );
+      // polarity, uncertainty, history, conditional, generic and subject
+      builder.add( FusedAssertionCleartkAnalysisEngine.createAnnotatorDescription() );
       return builder.createAggregateDescription();
    }
 
@@ -20,19 +20,50 @@ package org.apache.ctakes.constituency.parser.treekernel;
 
 import opennlp.tools.parser.Parse;
 
-import org.apache.ctakes.constituency.parser.util.TreeUtils;
+import org.apache.ctakes.utils.kernel.CompactTree;
+import org.apache.ctakes.utils.kernel.FastTreeKernel;
 import org.apache.ctakes.utils.kernel.Kernel;
+import org.apache.ctakes.utils.kernel.ProductionIndex;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Subset tree kernel over opennlp {@link Parse}s.
+ * Each parse is encoded once as a {@link CompactTree} and compared with {@link FastTreeKernel#sim},
+ * which only visits node pairs with matching productions and memoizes common subtree counts.
+ */
 public class TreeKernel extends Kernel {
 
 	public static double lambda = 0.4;
 	public static double lambdaSquared = lambda * lambda;
-	private ConcurrentHashMap<String,Double> normalizers = new ConcurrentHashMap<String,Double>();
-	private int normalHits = 0;
+
+	static private final ProductionIndex.NodeAccess<Parse> PARSE_ACCESS = new ProductionIndex.NodeAccess<Parse>() {
+		public String getLabel(Parse node){
+			return node.getType();
+		}
+		public int getChildCount(Parse node){
+			return node.getChildCount();
+		}
+		public Parse getChild(Parse node, int index){
+			return node.getChildren()[index];
+		}
+	};
+
+	// encodings of the most recently compared parses, which are compared many times while filling a kernel matrix
+	private static final int MAX_CACHED_TREES = 1024;
+
+	private final ProductionIndex productionIndex = new ProductionIndex();
+	private final Map<ParseKey,CompactTree> compactTrees = Collections.synchronizedMap(
+			new LinkedHashMap<ParseKey,CompactTree>(16, 0.75f, true){
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<ParseKey,CompactTree> eldest){
+					return size() > MAX_CACHED_TREES;
+				}
+			});
+	private ConcurrentHashMap<CompactTree,Double> normalizers = new ConcurrentHashMap<CompactTree,Double>();
 	private boolean normalize = false;
 	
 	public TreeKernel(){
@@ -44,83 +75,56 @@ public class TreeKernel extends Kernel {
 	}
 	
 	public double eval(Object o1, Object o2){
-		Parse node1 = (Parse) o1;
-		Parse node2 = (Parse) o2;
-		double norm1=0.0;
-		double norm2=0.0;
+		CompactTree tree1 = getCompactTree((Parse) o1);
+		CompactTree tree2 = getCompactTree((Parse) o2);
 		if(normalize){
-			StringBuffer nodeStr = new StringBuffer();
-			node1.show(nodeStr);
-			String node1Str = nodeStr.toString();
-			if(!normalizers.containsKey(node1Str)){
-				double norm = sim(node1, node1);
-				System.out.println(node1Str);
-//				System.out.println
-				normalizers.put(node1Str, norm);
-				normalHits++;
-			}
-			nodeStr = new StringBuffer();
-			node2.show(nodeStr);
-			String node2Str = nodeStr.toString();
-			if(!normalizers.containsKey(node2Str)){
-				double norm = sim(node2, node2);
-				normalizers.put(node2Str, norm);
-				normalHits++;
-			}
+			double norm1 = getNormalizer(tree1);
+			double norm2 = getNormalizer(tree2);
+			return sim(tree1,tree2) / Math.sqrt(norm1*norm2);
+		}else return sim(tree1,tree2);
+	}
 
-			norm1 = normalizers.get(node1Str);
-			norm2 = normalizers.get(node2Str);
+	private CompactTree getCompactTree(Parse parse){
+		ParseKey key = new ParseKey(parse);
+		CompactTree tree = compactTrees.get(key);
+		if(tree == null){
+			tree = productionIndex.encode(parse, PARSE_ACCESS);
+			compactTrees.put(key, tree);
 		}
-		if(normalize){
-			return sim(node1,node2) / Math.sqrt(norm1*norm2);
-		}else return sim(node1,node2);
+		return tree;
 	}
 
-	private double sim(Parse node1, Parse node2){
-		double sim = 0.0;
-		//			hits++;
-		List<Parse> N1 = TreeUtils.getNodeList(node1);
-		List<Parse> N2 = TreeUtils.getNodeList(node2);
-		for(Parse n1 : N1){
-			for(Parse n2 : N2){
-				double cm=0.0;
-				cm = numCommonSubtrees(n1,n2);
-				sim += cm;
-			}
+	private double getNormalizer(CompactTree tree){
+		Double norm = normalizers.get(tree);
+		if(norm == null){
+			norm = sim(tree, tree);
+			normalizers.put(tree, norm);
 		}
-		return sim;
+		return norm;
 	}
-	
-	private static double numCommonSubtrees(Parse n1, Parse n2){
-		double retVal=1.0;
-		if(n1.getChildCount() != n2.getChildCount()){
-			retVal = 0;
-		}else if(!n1.getType().equals(n2.getType())){
-			retVal = 0;
-		}else if(n1.getChildCount() == 1 && n1.getChildren()[0].getChildCount() == 0 && n2.getChildren()[0].getChildCount() == 0){
-			// same productions and are both are preterminals
-			retVal = lambdaSquared;
-		}else{
-			// At this point they have the same label and same # children. Check if children the same.
-			boolean sameProd = true;
-			for(int i = 0; i < n1.getChildCount(); i++){
-				String l1 = n1.getChildren()[i].getType();
-				String l2 = n2.getChildren()[i].getType();
-				if(!l1.equals(l2)){
-					sameProd = false;
-					break;
-				}
-			}
-			if(sameProd == true){
-				// common = 1;
-				for(int i = 0; i < n1.getChildCount(); i++){
-					retVal *= (1 + numCommonSubtrees(n1.getChildren()[i], n2.getChildren()[i])); 
-				}
-				retVal = lambdaSquared * retVal;
-			}else{
-				retVal = 0;
-			}
+
+	private static double sim(CompactTree tree1, CompactTree tree2){
+		return FastTreeKernel.sim(tree1, tree2, lambdaSquared);
+	}
+
+	/**
+	 * Holds a parse by identity, whatever {@link Parse#equals(Object)} compares.
+	 */
+	private static final class ParseKey {
+		private final Parse parse;
+
+		private ParseKey(Parse parse){
+			this.parse = parse;
+		}
+
+		@Override
+		public int hashCode(){
+			return System.identityHashCode(parse);
+		}
+
+		@Override
+		public boolean equals(Object other){
+			return other instanceof ParseKey && ((ParseKey) other).parse == parse;
 		}
-		return retVal;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.constituency.parser.treekernel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import opennlp.tools.parser.Parse;
+import opennlp.tools.util.Span;
+
+import org.junit.Test;
+
+public class TreeKernelTest {
+
+	private static final String[] LABELS = { "S", "NP", "VP", "PP", "NN" };
+	private static final String[] PRETERMINAL_LABELS = { "NN", "VB", "DT", "NP" };
+	// "TK" is the type of the token leaves of real parses
+	private static final String[] WORDS = { "TK", "pain", "no", "the" };
+
+	/**
+	 * The kernel must give the same scores as the recursive count of common subtrees it replaced.
+	 */
+	@Test
+	public void testScoresUnchanged() {
+		Random random = new Random(11);
+		List<Parse> parses = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			parses.add(randomParse(random));
+		}
+		TreeKernel kernel = new TreeKernel();
+		TreeKernel normalizedKernel = new TreeKernel(true);
+		for (int i = 0; i < 20000; i++) {
+			Parse parse1 = parses.get(random.nextInt(parses.size()));
+			Parse parse2 = parses.get(random.nextInt(parses.size()));
+			double expected = referenceSim(parse1, parse2);
+			assertEquals(expected, kernel.eval(parse1, parse2), 1e-9 * Math.max(1, expected));
+			double normalized = expected / Math.sqrt(referenceSim(parse1, parse1) * referenceSim(parse2, parse2));
+			assertEquals(normalized, normalizedKernel.eval(parse1, parse2), 1e-9);
+		}
+	}
+
+	/**
+	 * The subset tree kernel as computed before the fast kernel: every pair of nodes, counted recursively.
+	 */
+	private static double referenceSim(Parse node1, Parse node2) {
+		List<Parse> nodes1 = new ArrayList<>();
+		addNodes(node1, nodes1);
+		List<Parse> nodes2 = new ArrayList<>();
+		addNodes(node2, nodes2);
+		double sim = 0.0;
+		for (Parse n1 : nodes1) {
+			for (Parse n2 : nodes2) {
+				sim += numCommonSubtrees(n1, n2);
+			}
+		}
+		return sim;
+	}
+
+	private static void addNodes(Parse node, List<Parse> nodes) {
+		nodes.add(node);
+		for (Parse child : node.getChildren()) {
+			addNodes(child, nodes);
+		}
+	}
+
+	private static double numCommonSubtrees(Parse n1, Parse n2) {
+		double retVal = 1.0;
+		if (n1.getChildCount() != n2.getChildCount()) {
+			retVal = 0;
+		} else if (!n1.getType().equals(n2.getType())) {
+			retVal = 0;
+		} else if (n1.getChildCount() == 1 && n1.getChildren()[0].getChildCount() == 0
+				&& n2.getChildren()[0].getChildCount() == 0) {
+			// same productions and are both are preterminals
+			retVal = TreeKernel.lambdaSquared;
+		} else {
+			// At this point they have the same label and same # children. Check if children the same.
+			for (int i = 0; i < n1.getChildCount(); i++) {
+				if (!n1.getChildren()[i].getType().equals(n2.getChildren()[i].getType())) {
+					return 0;
+				}
+			}
+			for (int i = 0; i < n1.getChildCount(); i++) {
+				retVal *= (1 + numCommonSubtrees(n1.getChildren()[i], n2.getChildren()[i]));
+			}
+			retVal = TreeKernel.lambdaSquared * retVal;
+		}
+		return retVal;
+	}
+
+	private static Parse randomParse(Random random) {
+		TreeShape shape = randomShape(random, 0);
+		StringBuilder text = new StringBuilder();
+		shape.appendText(text);
+		return shape.toParse(text.toString(), new int[] { 0 });
+	}
+
+	private static TreeShape randomShape(Random random, int depth) {
+		if (depth >= 4 || random.nextInt(4) == 0) {
+			// preterminal over a single word
+			TreeShape word = new TreeShape(WORDS[random.nextInt(WORDS.length)]);
+			TreeShape preterminal = new TreeShape(PRETERMINAL_LABELS[random.nextInt(PRETERMINAL_LABELS.length)]);
+			preterminal.children.add(word);
+			return preterminal;
+		}
+		TreeShape node = new TreeShape(LABELS[random.nextInt(LABELS.length)]);
+		int childCount = 1 + random.nextInt(3);
+		for (int i = 0; i < childCount; i++) {
+			node.children.add(randomShape(random, depth + 1));
+		}
+		return node;
+	}
+
+	/**
+	 * Labels and shape of a random tree, from which the text and spans of a parse are derived.
+	 */
+	private static final class TreeShape {
+		private final String label;
+		private final List<TreeShape> children = new ArrayList<>();
+
+		private TreeShape(String label) {
+			this.label = label;
+		}
+
+		private void appendText(StringBuilder text) {
+			if (children.isEmpty()) {
+				if (text.length() > 0) {
+					text.append(' ');
+				}
+				text.append(label);
+			}
+			for (TreeShape child : children) {
+				child.appendText(text);
+			}
+		}
+
+		/**
+		 * @param offset offset of the next word in the text, updated as words are consumed
+		 */
+		private Parse toParse(String text, int[] offset) {
+			if (children.isEmpty()) {
+				int begin = text.indexOf(label, offset[0]);
+				offset[0] = begin + label.length();
+				return new Parse(text, new Span(begin, offset[0]), label, 1, 0);
+			}
+			List<Parse> childParses = new ArrayList<>();
+			for (TreeShape child : children) {
+				childParses.add(child.toParse(text, offset));
+			}
+			Span span = new Span(childParses.get(0).getSpan().getStart(),
+					childParses.get(childParses.size() - 1).getSpan().getEnd());
+			Parse parse = new Parse(text, span, label, 1, 0);
+			for (Parse childParse : childParses) {
+				parse.insert(childParse);
+			}
+			return parse;
+		}
+	}
+
+}
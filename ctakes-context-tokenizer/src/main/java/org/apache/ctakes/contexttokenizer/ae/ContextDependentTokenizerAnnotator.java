@@ -61,6 +61,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 	private RangeFSM iv_rangeFSM;
 	private MeasurementFSM iv_measurementFSM;
 	private PersonTitleFSM iv_personTitleFSM;
+	private ContextDependentFSMPass iv_fsmPass;
 
 	@Override
   public void initialize(UimaContext annotCtx) throws ResourceInitializationException {
@@ -73,6 +74,8 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 		iv_rangeFSM = new RangeFSM();
 		iv_measurementFSM = new MeasurementFSM();
 		iv_personTitleFSM = new PersonTitleFSM();
+		iv_fsmPass = new ContextDependentFSMPass(iv_dateFSM, iv_timeFSM, iv_romanNumeralFSM,
+				iv_fractionFSM, iv_rangeFSM, iv_measurementFSM, iv_personTitleFSM);
 		iv_logger.info("Finite state machines loaded.");
 	}
 
@@ -108,7 +111,11 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 
 	private void executeFSMs(JCas jcas, List<? extends BaseToken> baseTokenList) throws AnalysisEngineProcessException {
 		try {
-			Set<DateToken> dateTokenSet = iv_dateFSM.execute(baseTokenList);
+			// all machines run in one pass over the tokens, ranges and
+			// measurements included
+			iv_fsmPass.execute(baseTokenList);
+
+			Set<DateToken> dateTokenSet = iv_fsmPass.getDateTokenSet();
 			Iterator<DateToken> dateTokenItr = dateTokenSet.iterator();
 			while (dateTokenItr.hasNext()) {
 				DateToken dt = dateTokenItr.next();
@@ -116,7 +123,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 				dta.addToIndexes();
 			}
 
-			Set<TimeToken> timeTokenSet = iv_timeFSM.execute(baseTokenList);
+			Set<TimeToken> timeTokenSet = iv_fsmPass.getTimeTokenSet();
 			Iterator<TimeToken> timeTokenItr = timeTokenSet.iterator();
 			while (timeTokenItr.hasNext()) {
 				TimeToken tt = timeTokenItr.next();
@@ -124,7 +131,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 				ta.addToIndexes();
 			}
 
-			Set<RomanNumeralToken> romanNumeralTokenSet = iv_romanNumeralFSM.execute(baseTokenList);
+			Set<RomanNumeralToken> romanNumeralTokenSet = iv_fsmPass.getRomanNumeralTokenSet();
 			Iterator<RomanNumeralToken> romanNumeralTokenItr = romanNumeralTokenSet.iterator();
 			while (romanNumeralTokenItr.hasNext()) {
 				RomanNumeralToken rnt = romanNumeralTokenItr.next();
@@ -132,7 +139,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 				rna.addToIndexes();
 			}
 
-			Set<FractionToken> fractionTokenSet = iv_fractionFSM.execute(baseTokenList);
+			Set<FractionToken> fractionTokenSet = iv_fsmPass.getFractionTokenSet();
 			Iterator<FractionToken> fractionTokenItr = fractionTokenSet.iterator();
 			while (fractionTokenItr.hasNext()) {
 				FractionToken ft = fractionTokenItr.next();
@@ -140,7 +147,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 				fa.addToIndexes();
 			}
 
-			Set<RangeToken> rangeTokenSet = iv_rangeFSM.execute(baseTokenList, romanNumeralTokenSet);
+			Set<RangeToken> rangeTokenSet = iv_fsmPass.getRangeTokenSet();
 			Iterator<RangeToken> rangeTokenItr = rangeTokenSet.iterator();
 			while (rangeTokenItr.hasNext()) {
 				RangeToken rt = rangeTokenItr.next();
@@ -148,7 +155,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 				ra.addToIndexes();
 			}
 
-			Set<MeasurementToken> measurementTokenSet = iv_measurementFSM.execute(baseTokenList, rangeTokenSet);
+			Set<MeasurementToken> measurementTokenSet = iv_fsmPass.getMeasurementTokenSet();
 			Iterator<MeasurementToken> measurementTokenItr = measurementTokenSet.iterator();
 			while (measurementTokenItr.hasNext()) {
 				MeasurementToken mt = measurementTokenItr.next();
@@ -156,7 +163,7 @@ public class ContextDependentTokenizerAnnotator extends JCasAnnotator_ImplBase {
 				ma.addToIndexes();
 			}
 
-			Set<PersonTitleToken> personTitleTokenSet = iv_personTitleFSM.execute(baseTokenList);
+			Set<PersonTitleToken> personTitleTokenSet = iv_fsmPass.getPersonTitleTokenSet();
 			Iterator<PersonTitleToken> personTitleTokenItr = personTitleTokenSet.iterator();
 			while (personTitleTokenItr.hasNext()) {
 				PersonTitleToken ptt = personTitleTokenItr.next();
@@ -3,8 +3,9 @@ package org.apache.ctakes.core.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.Pair;
+import org.apache.ctakes.core.util.regex.DeadlineString;
 import org.apache.ctakes.core.util.regex.RegexSpanFinder;
-import org.apache.ctakes.core.util.regex.TimeoutMatcher;
+import org.apache.ctakes.core.util.regex.RegexTimeoutException;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
@@ -50,6 +51,7 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
    static private final String SECTION_NAME_EX = "SECTION_NAME";
    static public final String DIVIDER_LINE_NAME = "DIVIDER_LINE";
    static private final Pattern DIVIDER_LINE_PATTERN = Pattern.compile( "^[\\t ]*[_\\-=]{4,}[\\t ]*$" );
+   static private final int TAG_TIMEOUT_MILLIS = 1000;
 
    private enum TagType {
       HEADER, FOOTER, DIVIDER
@@ -64,6 +66,8 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
       private final String __name;
       private final Pattern __headerPattern;
       private final Pattern __footerPattern;
+      private final boolean __headerLineAnchored;
+      private final boolean __footerLineAnchored;
       private final boolean __shouldParse;
 
       public SectionType( final String name, final String headerRegex, final String footerRegex,
@@ -73,6 +77,8 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
                .compile( headerRegex, Pattern.MULTILINE | Pattern.CASE_INSENSITIVE );
          __footerPattern = footerRegex == null ? null : Pattern
                .compile( footerRegex, Pattern.MULTILINE | Pattern.CASE_INSENSITIVE );
+         __headerLineAnchored = isLineAnchored( headerRegex );
+         __footerLineAnchored = isLineAnchored( footerRegex );
          __shouldParse = shouldParse;
       }
    }
@@ -258,16 +264,8 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
     * @param docText -
     * @return section tags mapped to index pairs
     */
-   static private Map<Pair<Integer>, SectionTag> findHeaderTags( final String docText ) {
-      final Map<Pair<Integer>, SectionTag> headerTags = new HashMap<>();
-      for ( SectionType sectionType : _sectionTypes.values() ) {
-         if ( sectionType.__headerPattern == null ) {
-            continue;
-         }
-         headerTags
-               .putAll( findSectionTags( docText, sectionType.__name, sectionType.__headerPattern, TagType.HEADER ) );
-      }
-      return headerTags;
+   static Map<Pair<Integer>, SectionTag> findHeaderTags( final String docText ) {
+      return findSectionTags( docText, TagType.HEADER );
    }
 
    /**
@@ -276,52 +274,205 @@ abstract public class RegexSectionizer extends JCasAnnotator_ImplBase {
     * @param docText -
     * @return section tags mapped to index pairs
     */
-   static private Map<Pair<Integer>, SectionTag> findFooterTags( final String docText ) {
-      final Map<Pair<Integer>, SectionTag> footerTags = new HashMap<>();
+   static Map<Pair<Integer>, SectionTag> findFooterTags( final String docText ) {
+      return findSectionTags( docText, TagType.FOOTER );
+   }
+
+   /**
+    * Patterns that must start at a line start are only tried at line starts, all in a single pass over the lines.
+    * Other patterns scan the whole text.
+    * Instead of a thread per pattern, each match is aborted by a deadline check in {@link DeadlineString}.
+    *
+    * @param docText -
+    * @param tagType header or footer
+    * @return section tags of all section types mapped to index pairs
+    */
+   static private Map<Pair<Integer>, SectionTag> findSectionTags( final String docText, final TagType tagType ) {
+      final DeadlineString text = new DeadlineString( docText, TAG_TIMEOUT_MILLIS );
+      final List<TagFinder> tagFinders = new ArrayList<>( _sectionTypes.size() );
+      final List<TagFinder> lineFinders = new ArrayList<>( _sectionTypes.size() );
       for ( SectionType sectionType : _sectionTypes.values() ) {
-         if ( sectionType.__footerPattern == null ) {
+         final Pattern tagPattern = tagType == TagType.HEADER ? sectionType.__headerPattern : sectionType.__footerPattern;
+         if ( tagPattern == null ) {
             continue;
          }
-         footerTags
-               .putAll( findSectionTags( docText, sectionType.__name, sectionType.__footerPattern, TagType.FOOTER ) );
+         final TagFinder tagFinder = new TagFinder( sectionType.__name, tagPattern.matcher( text ), tagType );
+         tagFinders.add( tagFinder );
+         if ( tagType == TagType.HEADER ? sectionType.__headerLineAnchored : sectionType.__footerLineAnchored ) {
+            lineFinders.add( tagFinder );
+         } else {
+            tagFinder.findAll( text );
+         }
+      }
+      if ( !lineFinders.isEmpty() ) {
+         int lineStart = 0;
+         while ( lineStart < docText.length() ) {
+            for ( TagFinder lineFinder : lineFinders ) {
+               lineFinder.findAt( text, lineStart );
+            }
+            lineStart = getNextLineStart( docText, lineStart );
+         }
+      }
+      // Same as separate scans per type, tags of later types replace tags of earlier types with equal bounds
+      final Map<Pair<Integer>, SectionTag> sectionTags = new HashMap<>();
+      for ( TagFinder tagFinder : tagFinders ) {
+         sectionTags.putAll( tagFinder.__sectionTags );
+      }
+      return sectionTags;
+   }
+
+   /**
+    * @param docText   -
+    * @param lineStart index of the start of a line
+    * @return index of the start of the next line as defined for {@link Pattern#MULTILINE} ^ , or the text length
+    */
+   static private int getNextLineStart( final String docText, final int lineStart ) {
+      final int length = docText.length();
+      for ( int i = lineStart; i < length; i++ ) {
+         final char c = docText.charAt( i );
+         if ( c == '\r' ) {
+            // \r\n is a single line terminator
+            return i + 1 < length && docText.charAt( i + 1 ) == '\n' ? i + 2 : i + 1;
+         }
+         if ( c == '\n' || c == '\u0085' || c == '\u2028' || c == '\u2029' ) {
+            return i + 1;
+         }
       }
-      return footerTags;
+      return length;
    }
 
    /**
-    * @param docText    -
-    * @param typeName   section type name
-    * @param tagPattern regex pattern for section type
-    * @param tagType    header or footer
-    * @return section tags mapped to index pairs
+    * @param regex regular expression for a header or footer
+    * @return true if every match of the regex must begin with a ^ at the start of a line.
+    * The regex must start with ^ and have no alternation outside of a group.
     */
-   static Map<Pair<Integer>, SectionTag> findSectionTags( final String docText,
-                                                          final String typeName,
-                                                          final Pattern tagPattern,
-                                                          final TagType tagType ) {
-      final Map<Pair<Integer>, SectionTag> sectionTags = new HashMap<>();
-      try ( TimeoutMatcher finder = new TimeoutMatcher( tagPattern, docText ) ) {
-         Matcher tagMatcher = finder.nextMatch();
-         while ( tagMatcher != null ) {
-            String name;
-            // the start tag of this tag is the start of the current match
-            // the end tag of this tag is the end of the current match, exclusive
-            final Pair<Integer> tagBounds = new Pair<>( tagMatcher.start(), tagMatcher.end() );
-            try {
-               name = tagMatcher.group( SECTION_NAME_EX );
-               if ( name == null || name.isEmpty() ) {
-                  name = typeName;
+   static boolean isLineAnchored( final String regex ) {
+      if ( regex == null || !regex.startsWith( "^" ) ) {
+         return false;
+      }
+      if ( regex.length() > 1 && "?*{".indexOf( regex.charAt( 1 ) ) >= 0 ) {
+         // the anchor is optional
+         return false;
+      }
+      int groupDepth = 0;
+      boolean inClass = false;
+      for ( int i = 1; i < regex.length(); i++ ) {
+         final char c = regex.charAt( i );
+         if ( c == '\\' ) {
+            if ( i + 1 < regex.length() && regex.charAt( i + 1 ) == 'Q' ) {
+               final int quoteEnd = regex.indexOf( "\\E", i + 2 );
+               if ( quoteEnd < 0 ) {
+                  break;
                }
-            } catch ( IllegalArgumentException iaE ) {
-               name = typeName;
+               i = quoteEnd + 1;
+            } else {
+               i++;
             }
-            sectionTags.put( tagBounds, new SectionTag( name, typeName, tagType ) );
-            tagMatcher = finder.nextMatch();
+            continue;
+         }
+         if ( inClass ) {
+            // nested classes are rare in section regex, so don't bother with them
+            inClass = c != ']';
+            continue;
+         }
+         if ( c == '[' ) {
+            inClass = true;
+            // a ] right after [ or [^ is literal
+            if ( i + 1 < regex.length() && regex.charAt( i + 1 ) == '^' ) {
+               i++;
+            }
+            if ( i + 1 < regex.length() && regex.charAt( i + 1 ) == ']' ) {
+               i++;
+            }
+         } else if ( c == '(' ) {
+            groupDepth++;
+         } else if ( c == ')' ) {
+            groupDepth--;
+            if ( groupDepth < 0 ) {
+               return false;
+            }
+         } else if ( c == '|' && groupDepth == 0 ) {
+            return false;
          }
-      } catch ( IllegalArgumentException iaE ) {
-         LOGGER.error( iaE.getMessage() );
       }
-      return sectionTags;
+      return !inClass && groupDepth == 0;
+   }
+
+   /**
+    * Finds the tags for a single section type, as a {@link Matcher#find()} scan would find them
+    */
+   static private final class TagFinder {
+      private final String __typeName;
+      private final Matcher __matcher;
+      private final TagType __tagType;
+      private final Map<Pair<Integer>, SectionTag> __sectionTags = new HashMap<>();
+      // Matches cannot overlap, so the next match must start at or after this index
+      private int __nextStart;
+      private boolean __timedOut;
+
+      private TagFinder( final String typeName, final Matcher matcher, final TagType tagType ) {
+         __typeName = typeName;
+         __matcher = matcher;
+         // lookbehind and lookahead can see beyond a line
+         __matcher.useTransparentBounds( true );
+         __tagType = tagType;
+      }
+
+      /**
+       * @param text      -
+       * @param lineStart index of the start of a line, at which a match must start
+       */
+      private void findAt( final DeadlineString text, final int lineStart ) {
+         if ( __timedOut || lineStart < __nextStart ) {
+            return;
+         }
+         __matcher.region( lineStart, text.length() );
+         text.restartClock();
+         try {
+            if ( __matcher.lookingAt() ) {
+               addTag();
+            }
+         } catch ( RegexTimeoutException rtE ) {
+            timedOut();
+         }
+      }
+
+      /**
+       * @param text whole text to scan
+       */
+      private void findAll( final DeadlineString text ) {
+         text.restartClock();
+         try {
+            while ( __matcher.find() ) {
+               addTag();
+               text.restartClock();
+            }
+         } catch ( RegexTimeoutException rtE ) {
+            timedOut();
+         }
+      }
+
+      private void addTag() {
+         String name;
+         // the start tag of this tag is the start of the current match
+         // the end tag of this tag is the end of the current match, exclusive
+         final Pair<Integer> tagBounds = new Pair<>( __matcher.start(), __matcher.end() );
+         try {
+            name = __matcher.group( SECTION_NAME_EX );
+            if ( name == null || name.isEmpty() ) {
+               name = __typeName;
+            }
+         } catch ( IllegalArgumentException iaE ) {
+            name = __typeName;
+         }
+         __sectionTags.put( tagBounds, new SectionTag( name, __typeName, __tagType ) );
+         __nextStart = __matcher.end() == __matcher.start() ? __matcher.end() + 1 : __matcher.end();
+      }
+
+      private void timedOut() {
+         __timedOut = true;
+         LOGGER.error( "Timed out while detecting " + __matcher.pattern() );
+      }
    }
 
    /**
@@ -0,0 +1,201 @@
+package org.apache.ctakes.core.concurrent;
+
+import org.apache.log4j.Logger;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_component.AnalysisComponent;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Pool of annotators that are borrowed for a single call and then returned.
+ * Each annotator is only used by one thread at a time, but different threads use different annotators concurrently.
+ * <p>
+ * The first annotator is created on initialization so that configuration problems are found immediately.
+ * Others are created and initialized when a thread finds no idle annotator and the pool is not yet full,
+ * so a pipeline running on fewer threads than the pool size never pays for unused annotators.
+ * Annotators should share large immutable model state, for instance through a static cache,
+ * so that pooling does not multiply memory use.
+ * </p>
+ */
+final public class DelegatePool<AE extends AnalysisComponent> {
+
+   static private final Logger LOGGER = Logger.getLogger( "DelegatePool" );
+
+   /**
+    * Name of configuration parameter for the maximum number of annotators in a pool.
+    */
+   static public final String PARAM_POOL_SIZE = "PoolSize";
+   static public final String DESC_POOL_SIZE
+         = "Maximum number of annotator instances for concurrent processing.  0 uses the number of processors.";
+
+   /**
+    * A call on an annotator that may throw a uima exception
+    */
+   @FunctionalInterface
+   public interface DelegateCall<AE> {
+      void call( AE delegate ) throws Exception;
+   }
+
+   private final Supplier<AE> _creator;
+   private final List<AE> _delegates = new ArrayList<>();
+   private final BlockingQueue<AE> _idle = new LinkedBlockingQueue<>();
+   private UimaContext _context;
+   private int _poolSize;
+   private volatile boolean _initialized;
+
+   /**
+    * @param creator creates a new uninitialized annotator
+    */
+   public DelegatePool( final Supplier<AE> creator ) {
+      _creator = creator;
+   }
+
+   /**
+    * Initializes the pool if and only if it has not already been initialized
+    *
+    * @param context -
+    * @throws ResourceInitializationException if the first annotator could not be initialized
+    */
+   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+      initialize( context, getPoolSize( context ) );
+   }
+
+   /**
+    * Initializes the pool if and only if it has not already been initialized
+    *
+    * @param context  -
+    * @param poolSize maximum number of annotators, 0 or less for the number of processors
+    * @throws ResourceInitializationException if the first annotator could not be initialized
+    */
+   public synchronized void initialize( final UimaContext context, final int poolSize )
+         throws ResourceInitializationException {
+      if ( _initialized ) {
+         return;
+      }
+      _context = context;
+      _poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+      _idle.add( createDelegate() );
+      _initialized = true;
+      LOGGER.info( "Using up to " + _poolSize + " concurrent instances of "
+                   + _delegates.get( 0 ).getClass().getSimpleName() );
+   }
+
+   /**
+    * @return true if initialized
+    */
+   public boolean isInitialized() {
+      return _initialized;
+   }
+
+   /**
+    * @return maximum number of annotators in the pool
+    */
+   public int getPoolSize() {
+      return _poolSize;
+   }
+
+   /**
+    * @return the first annotator in the pool, for calls that do not depend upon annotator state
+    */
+   public synchronized AE getPrimaryDelegate() {
+      return _delegates.get( 0 );
+   }
+
+   /**
+    * @return an idle annotator, a new annotator if the pool is not full, or the next annotator to become idle
+    * @throws AnalysisEngineProcessException if a new annotator could not be initialized or the wait is interrupted
+    */
+   public AE borrow() throws AnalysisEngineProcessException {
+      final AE idle = _idle.poll();
+      if ( idle != null ) {
+         return idle;
+      }
+      synchronized ( this ) {
+         if ( _delegates.size() < _poolSize ) {
+            try {
+               return createDelegate();
+            } catch ( ResourceInitializationException riE ) {
+               throw new AnalysisEngineProcessException( riE );
+            }
+         }
+      }
+      try {
+         return _idle.take();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new AnalysisEngineProcessException( intE );
+      }
+   }
+
+   /**
+    * @param delegate annotator obtained with {@link #borrow()}
+    */
+   public void release( final AE delegate ) {
+      _idle.add( delegate );
+   }
+
+   /**
+    * Waits for every annotator to become idle and then makes the call on each of them.
+    * Used for collectionProcessComplete, destroy and other calls that should reach every annotator.
+    *
+    * @param call call to make on every annotator
+    * @throws AnalysisEngineProcessException if the call throws an exception or the wait is interrupted
+    */
+   public synchronized void callAll( final DelegateCall<AE> call ) throws AnalysisEngineProcessException {
+      final Collection<AE> borrowed = new ArrayList<>( _delegates.size() );
+      try {
+         while ( borrowed.size() < _delegates.size() ) {
+            borrowed.add( _idle.take() );
+         }
+         for ( AE delegate : borrowed ) {
+            call.call( delegate );
+         }
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new AnalysisEngineProcessException( intE );
+      } catch ( AnalysisEngineProcessException aeE ) {
+         throw aeE;
+      } catch ( Exception multE ) {
+         throw new AnalysisEngineProcessException( multE );
+      } finally {
+         _idle.addAll( borrowed );
+      }
+   }
+
+   /**
+    * Must be called while holding the pool monitor
+    */
+   private AE createDelegate() throws ResourceInitializationException {
+      final AE delegate = _creator.get();
+      delegate.initialize( _context );
+      _delegates.add( delegate );
+      return delegate;
+   }
+
+   /**
+    * @param context -
+    * @return pool size set by the parameter {@link #PARAM_POOL_SIZE}, or 0 if it is not set
+    */
+   static private int getPoolSize( final UimaContext context ) {
+      final Object value = context == null ? null : context.getConfigParameterValue( PARAM_POOL_SIZE );
+      int poolSize = 0;
+      if ( value instanceof Integer ) {
+         poolSize = (Integer)value;
+      } else if ( value instanceof String ) {
+         try {
+            poolSize = Integer.parseInt( ((String)value).trim() );
+         } catch ( NumberFormatException nfE ) {
+            LOGGER.warn( "Could not parse " + PARAM_POOL_SIZE + " " + value + " as an integer" );
+         }
+      }
+      return poolSize;
+   }
+
+}
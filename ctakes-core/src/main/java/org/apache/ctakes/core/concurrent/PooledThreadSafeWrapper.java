@@ -0,0 +1,160 @@
+package org.apache.ctakes.core.concurrent;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_component.AnalysisComponent;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.analysis_engine.ResultSpecification;
+import org.apache.uima.cas.AbstractCas;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.internal.ExtendedLogger;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceConfigurationException;
+import org.apache.uima.resource.ResourceInitializationException;
+
+/**
+ * Alternative to {@link ThreadSafeWrapper} for annotators that hold per-document state.
+ * Instead of locking a single instance for every call to process, each call borrows an annotator from a
+ * {@link DelegatePool}, so up to {@link DelegatePool#PARAM_POOL_SIZE} documents are processed concurrently.
+ * Like ThreadSafeWrapper, uses jdk 8+ interface default methods so that enums can implement AnalysisComponent.
+ */
+public interface PooledThreadSafeWrapper<AE extends JCasAnnotator_ImplBase> extends AnalysisComponent {
+
+   /**
+    * @return the pool of annotators wrapped by this object
+    */
+   DelegatePool<AE> getPool();
+
+   /**
+    * Initializes the pool if and only if it has not already been initialized
+    */
+   @Override
+   default void initialize( final UimaContext context ) throws ResourceInitializationException {
+      getPool().initialize( context );
+   }
+
+   /**
+    * Initializes the pool with the given size if and only if it has not already been initialized
+    */
+   default void initialize( final UimaContext context, final int poolSize ) throws ResourceInitializationException {
+      getPool().initialize( context, poolSize );
+   }
+
+   /**
+    * Calls process on an annotator that is not being used by any other thread
+    */
+   default void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      final AE delegate = getPool().borrow();
+      try {
+         delegate.process( jCas );
+      } finally {
+         getPool().release( delegate );
+      }
+   }
+
+   /**
+    * from uimafit JCasAnnotator_ImplBase
+    *
+    * @return -
+    */
+   default ExtendedLogger getLogger() {
+      return getPool().getPrimaryDelegate().getLogger();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default void reconfigure() throws ResourceConfigurationException, ResourceInitializationException {
+      try {
+         getPool().callAll( AE::reconfigure );
+      } catch ( AnalysisEngineProcessException aeE ) {
+         throw new ResourceInitializationException( aeE );
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default void batchProcessComplete() throws AnalysisEngineProcessException {
+      getPool().callAll( AE::batchProcessComplete );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default void collectionProcessComplete() throws AnalysisEngineProcessException {
+      getPool().callAll( AE::collectionProcessComplete );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default void destroy() {
+      try {
+         getPool().callAll( AE::destroy );
+      } catch ( AnalysisEngineProcessException aeE ) {
+         getLogger().error( aeE.getMessage() );
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default void process( final AbstractCas aCas ) throws AnalysisEngineProcessException {
+      final AE delegate = getPool().borrow();
+      try {
+         delegate.process( aCas );
+      } finally {
+         getPool().release( delegate );
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default boolean hasNext() throws AnalysisEngineProcessException {
+      return getPool().getPrimaryDelegate().hasNext();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default AbstractCas next() throws AnalysisEngineProcessException {
+      return getPool().getPrimaryDelegate().next();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default Class<JCas> getRequiredCasInterface() {
+      return getPool().getPrimaryDelegate().getRequiredCasInterface();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default int getCasInstancesRequired() {
+      return getPool().getPrimaryDelegate().getCasInstancesRequired();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   default void setResultSpecification( final ResultSpecification resultSpec ) {
+      try {
+         getPool().callAll( d -> d.setResultSpecification( resultSpec ) );
+      } catch ( AnalysisEngineProcessException aeE ) {
+         getLogger().error( aeE.getMessage() );
+      }
+   }
+
+}
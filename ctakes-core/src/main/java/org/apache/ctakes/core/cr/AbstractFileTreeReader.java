@@ -28,16 +28,25 @@ import org.apache.uima.util.InvalidXMLException;
 import org.apache.uima.util.Progress;
 import org.apache.uima.util.ProgressImpl;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
+import java.io.*;
 import java.lang.reflect.Array;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 
 /**
  * Abstract to read files in a tree starting in a root directory.
  * By default, filenames are sorted with {@link NumberedSuffixComparator}.
+ * <p>
+ * By default the whole tree is listed when the reader is initialized.
+ * With {@link #PARAM_STREAM_FILES} the tree is instead listed one directory at a time as documents are read,
+ * so that reading can start immediately and memory does not grow with the size of the tree.
+ * The order of files is the same, but the count of files in {@link #getProgress()} is then an estimate.
+ * With {@link #PARAM_PREFETCH_COUNT} the next files are read into memory on a background thread
+ * while the current document is processed.  Subclasses benefit by reading files with {@link #openFile(File)}.
+ * </p>
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -85,11 +94,46 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
    )
    private String[] _explicitExtensions;
 
+   /**
+    * Name of optional configuration parameter that lists the directory tree while documents are read
+    * instead of when the reader is initialized.
+    */
+   static public final String PARAM_STREAM_FILES = "StreamFiles";
+   @ConfigurationParameter(
+         name = PARAM_STREAM_FILES,
+         description = "List the directory tree while reading documents instead of listing the whole tree first.",
+         defaultValue = "false",
+         mandatory = false
+   )
+   private boolean _streamFiles;
+
+   /**
+    * Name of optional configuration parameter that sets the number of files read ahead on a background thread.
+    */
+   static public final String PARAM_PREFETCH_COUNT = "PrefetchCount";
+   @ConfigurationParameter(
+         name = PARAM_PREFETCH_COUNT,
+         description = "Number of files to read ahead on a background thread, 0 to read each file when it is needed.",
+         defaultValue = "0",
+         mandatory = false
+   )
+   private int _prefetchCount;
+
+   static private final PrefetchedFile END_OF_FILES = new PrefetchedFile( null, null );
+
    private File _rootDir;
    private Collection<String> _validExtensions;
    private List<File> _files;
    private int _currentIndex;
    private Comparator<File> _fileComparator;
+   private Iterator<File> _fileIterator;
+   // Only set when streaming
+   private FileTreeIterator _fileTree;
+   // Only set when prefetching
+   private BlockingQueue<PrefetchedFile> _prefetchQueue;
+   private Thread _prefetchThread;
+   private PrefetchedFile _nextFile;
+   private PrefetchedFile _currentFile;
 
 
    public AbstractFileTreeReader() {
@@ -114,9 +158,12 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     * Gets the total number of documents that will be returned by this
     * collection reader.
     *
-    * @return the number of documents in the collection.
+    * @return the number of documents in the collection, or an estimate if the directory tree is streamed.
     */
    public int getNoteCount() {
+      if ( _fileTree != null ) {
+         return _fileTree.getEstimatedCount();
+      }
       if ( _files == null ) {
          LOGGER.error( "Not yet initialized" );
          return 0;
@@ -186,8 +233,77 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
       }
       _validExtensions = createValidExtensions( _explicitExtensions );
 
+      stopPrefetch();
       _currentIndex = 0;
-      _files = getDescendentFiles( getRootDir(), getValidExtensions() );
+      if ( _streamFiles ) {
+         _files = null;
+         _fileTree = new FileTreeIterator( getRootDir(), createFileComparator(),
+               f -> isExtensionValid( f, getValidExtensions() ) && !f.isHidden() );
+         _fileIterator = _fileTree;
+      } else {
+         _fileTree = null;
+         _files = getDescendentFiles( getRootDir(), getValidExtensions() );
+         _fileIterator = _files.iterator();
+      }
+      if ( _prefetchCount > 0 ) {
+         // The thread keeps its own iterator and queue so that a later initialization can not be mixed into it
+         final Iterator<File> fileIterator = _fileIterator;
+         final BlockingQueue<PrefetchedFile> prefetchQueue = new ArrayBlockingQueue<>( _prefetchCount );
+         _prefetchQueue = prefetchQueue;
+         _prefetchThread = new Thread( () -> prefetchFiles( fileIterator, prefetchQueue ),
+               "AbstractFileTreeReader Prefetch" );
+         _prefetchThread.setDaemon( true );
+         _prefetchThread.start();
+      }
+   }
+
+   /**
+    * Reads files into the prefetch queue until all files are read or the reader is closed.
+    * A file that cannot be read is queued without content so that the failure happens when it is opened.
+    *
+    * @param fileIterator  iterator over the files to read
+    * @param prefetchQueue queue for the read files, ended by {@link #END_OF_FILES}
+    */
+   private void prefetchFiles( final Iterator<File> fileIterator, final BlockingQueue<PrefetchedFile> prefetchQueue ) {
+      try {
+         while ( fileIterator.hasNext() ) {
+            final File file = fileIterator.next();
+            byte[] content = null;
+            try {
+               content = Files.readAllBytes( file.toPath() );
+            } catch ( IOException ioE ) {
+               if ( Thread.interrupted() ) {
+                  // The reader was closed while reading, which closes the channel
+                  return;
+               }
+               LOGGER.warn( "Could not prefetch " + file.getPath() + " : " + ioE.getMessage() );
+            }
+            prefetchQueue.put( new PrefetchedFile( file, content ) );
+         }
+      } catch ( InterruptedException intE ) {
+         // The reader was closed
+         return;
+      } catch ( RuntimeException rtE ) {
+         LOGGER.error( "Could not list files under " + getRootPath() + " : " + rtE.getMessage() );
+      }
+      try {
+         prefetchQueue.put( END_OF_FILES );
+      } catch ( InterruptedException intE ) {
+         // The reader was closed
+      }
+   }
+
+   /**
+    * Stops any prefetching.
+    */
+   private void stopPrefetch() {
+      if ( _prefetchThread != null ) {
+         _prefetchThread.interrupt();
+         _prefetchThread = null;
+      }
+      _prefetchQueue = null;
+      _nextFile = null;
+      _currentFile = null;
    }
 
    /**
@@ -311,7 +427,19 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     */
    @Override
    public boolean hasNext() {
-      return _currentIndex < _files.size();
+      if ( _prefetchQueue == null ) {
+         return _fileIterator.hasNext();
+      }
+      if ( _nextFile == null ) {
+         try {
+            _nextFile = _prefetchQueue.take();
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+            LOGGER.error( "Interrupted while waiting for the next file." );
+            return false;
+         }
+      }
+      return _nextFile != END_OF_FILES;
    }
 
    /**
@@ -319,11 +447,25 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
     */
    @Override
    public void getNext( final JCas jcas ) throws IOException, CollectionException {
-      final File file = _files.get( _currentIndex );
+      final File file;
+      if ( _prefetchQueue == null ) {
+         file = _fileIterator.next();
+      } else {
+         if ( !hasNext() ) {
+            throw new NoSuchElementException();
+         }
+         _currentFile = _nextFile;
+         _nextFile = null;
+         file = _currentFile._file;
+      }
       _currentIndex++;
       final String id = createDocumentID( file, getValidExtensions() );
       LOGGER.info( "Reading " + id + " : " + file.getPath() );
-      readFile( jcas, file );
+      try {
+         readFile( jcas, file );
+      } finally {
+         _currentFile = null;
+      }
       // Add document metadata based upon file path
       final DocumentID documentId = new DocumentID( jcas );
       documentId.setDocumentID( id );
@@ -339,11 +481,43 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
    }
 
 
+   /**
+    * Subclasses should read files with this method in {@link #readFile(JCas, File)}
+    * so that they use the content already read by prefetching.
+    *
+    * @param file file being read
+    * @return stream over the prefetched content of the file if it has any, otherwise over the file itself
+    * @throws IOException if the file cannot be read
+    */
+   protected InputStream openFile( final File file ) throws IOException {
+      final PrefetchedFile currentFile = _currentFile;
+      if ( currentFile != null && currentFile._content != null && currentFile._file.equals( file ) ) {
+         return new ByteArrayInputStream( currentFile._content );
+      }
+      return new FileInputStream( file );
+   }
+
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() throws IOException {
+      stopPrefetch();
+   }
+
    /**
     * {@inheritDoc}
+    * When the directory tree is streamed the total is an estimate that becomes exact when the whole tree is listed.
     */
    @Override
    public Progress[] getProgress() {
+      if ( _fileTree != null ) {
+         final int estimate = Math.max( _currentIndex, _fileTree.getEstimatedCount() );
+         return new Progress[]{
+               new ProgressImpl( _currentIndex, estimate, Progress.ENTITIES, true )
+         };
+      }
       return new Progress[]{
             new ProgressImpl( _currentIndex, _files.size(), Progress.ENTITIES )
       };
@@ -515,6 +689,19 @@ abstract public class AbstractFileTreeReader extends JCasCollectionReader_ImplBa
       }
    }
 
+   /**
+    * A file and its content, or null content if it could not be read ahead.
+    */
+   static private final class PrefetchedFile {
+      private final File _file;
+      private final byte[] _content;
+
+      private PrefetchedFile( final File file, final byte[] content ) {
+         _file = file;
+         _content = content;
+      }
+   }
+
    static private class FileComparator implements Comparator<File> {
       private final Comparator<String> __delegate = new NumberedSuffixComparator();
 
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.cr;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Lazily walks a directory tree, listing a directory only when the files before it have been returned.
+ * Files are returned in the same order as {@link AbstractFileTreeReader#getDescendentFiles(File, Collection)}:
+ * the sorted files of a directory, then the files of each sorted child directory.
+ * Only the entries of the directories on the current path are held in memory, never the whole tree.
+ * <p>
+ * Directories that cannot be listed are logged and skipped.
+ * The iterator may be used by one thread while another asks for {@link #getEstimatedCount()}.
+ * </p>
+ */
+final class FileTreeIterator implements Iterator<File> {
+
+   static private final Logger LOGGER = Logger.getLogger( "FileTreeIterator" );
+
+   private final Comparator<File> _fileComparator;
+   private final Predicate<File> _fileFilter;
+   // Unlisted directories, the next one to list on top
+   private final Deque<File> _directories = new ArrayDeque<>();
+   // Sorted files of the last listed directory that have not been returned
+   private final Deque<File> _files = new ArrayDeque<>();
+
+   private int _returnedCount;
+   private int _listedDirCount;
+   private int _listedFileCount;
+
+   /**
+    * @param rootDir        root of the tree
+    * @param fileComparator sorts files and directories within one directory
+    * @param fileFilter     true for the files that should be returned
+    */
+   FileTreeIterator( final File rootDir, final Comparator<File> fileComparator, final Predicate<File> fileFilter ) {
+      _fileComparator = fileComparator;
+      _fileFilter = fileFilter;
+      _directories.push( rootDir );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   synchronized public boolean hasNext() {
+      while ( _files.isEmpty() && !_directories.isEmpty() ) {
+         listDirectory( _directories.pop() );
+      }
+      return !_files.isEmpty();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   synchronized public File next() {
+      if ( !hasNext() ) {
+         throw new NoSuchElementException();
+      }
+      _returnedCount++;
+      return _files.poll();
+   }
+
+   /**
+    * Only the directories already listed are counted, so the estimate assumes that each unlisted directory
+    * holds as many files as the average listed directory.  It becomes exact when the walk is complete.
+    *
+    * @return estimated total number of files that will be returned
+    */
+   synchronized public int getEstimatedCount() {
+      final int knownCount = _returnedCount + _files.size();
+      if ( _directories.isEmpty() || _listedDirCount == 0 ) {
+         return knownCount;
+      }
+      final long unlistedCount = (long)_directories.size() * _listedFileCount / _listedDirCount;
+      return (int)Math.min( Integer.MAX_VALUE, knownCount + unlistedCount );
+   }
+
+   /**
+    * Adds the files of a directory to the files to return and its child directories to the directories to list.
+    *
+    * @param directory -
+    */
+   private void listDirectory( final File directory ) {
+      final List<File> childDirs = new ArrayList<>();
+      final List<File> childFiles = new ArrayList<>();
+      try ( DirectoryStream<Path> children = Files.newDirectoryStream( directory.toPath() ) ) {
+         for ( Path child : children ) {
+            final File childFile = child.toFile();
+            if ( childFile.isDirectory() ) {
+               childDirs.add( childFile );
+            } else if ( _fileFilter.test( childFile ) ) {
+               childFiles.add( childFile );
+            }
+         }
+      } catch ( IOException | SecurityException multE ) {
+         LOGGER.warn( "Could not list directory " + directory.getPath() + " : " + multE.getMessage() );
+         return;
+      }
+      childFiles.sort( _fileComparator );
+      childDirs.sort( _fileComparator );
+      _files.addAll( childFiles );
+      // Push in reverse so that the first child directory is listed first
+      for ( int i = childDirs.size() - 1; i >= 0; i-- ) {
+         _directories.push( childDirs.get( i ) );
+      }
+      _listedDirCount++;
+      _listedFileCount += childFiles.size();
+   }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ctakes.core.fsm.state.NamedState;
+
+import net.openai.util.fsm.Condition;
+import net.openai.util.fsm.Machine;
+import net.openai.util.fsm.State;
+
+/**
+ * A {@link Machine} flattened into transition tables.  States are numbered,
+ * and each state holds the ids of its transition conditions and target states
+ * in the order the machine checks them.
+ * <p>
+ * A machine can be compiled when every state reachable from its start state
+ * is a {@link NamedState} and has an unconditional transition, so that
+ * every input moves it to some state.  State enter and exit callbacks are not
+ * called; those of the named states do nothing.
+ */
+final class CompiledMachine {
+
+	static final int START = 0;
+
+	private final State[] iv_states;
+	private final boolean[] iv_startFlags;
+	private final boolean[] iv_endFlags;
+	private final int[][] iv_conditionIds;
+	private final int[][] iv_targets;
+
+	private CompiledMachine(State[] states, int[][] conditionIds, int[][] targets) {
+		iv_states = states;
+		iv_conditionIds = conditionIds;
+		iv_targets = targets;
+		iv_startFlags = new boolean[states.length];
+		iv_endFlags = new boolean[states.length];
+		for (int i = 0; i < states.length; i++) {
+			iv_startFlags[i] = states[i].getStartStateFlag();
+			iv_endFlags[i] = states[i].getEndStateFlag();
+		}
+	}
+
+	/**
+	 * @param machine machine to compile, it is reset
+	 * @param memo holds the ids of the machine's conditions
+	 * @return the compiled machine, or null if the machine cannot be compiled
+	 */
+	static CompiledMachine compile(Machine machine, ConditionMemo memo) {
+		machine.reset();
+		final List<State> states = new ArrayList<State>();
+		final Map<State, Integer> stateIds = new IdentityHashMap<State, Integer>();
+		states.add(machine.getCurrentState());
+		stateIds.put(machine.getCurrentState(), Integer.valueOf(START));
+		final List<int[]> conditionIds = new ArrayList<int[]>();
+		final List<int[]> targets = new ArrayList<int[]>();
+		for (int i = 0; i < states.size(); i++) {
+			if (!(states.get(i) instanceof NamedState)) {
+				return null;
+			}
+			final NamedState state = (NamedState) states.get(i);
+			final List<Condition> conditions = state.getTransitionConditions();
+			final List<State> nextStates = state.getTransitionStates();
+			final int[] stateConditionIds = new int[conditions.size()];
+			final int[] stateTargets = new int[conditions.size()];
+			boolean total = false;
+			for (int t = 0; t < conditions.size(); t++) {
+				stateConditionIds[t] = memo.register(conditions.get(t));
+				total |= stateConditionIds[t] == ConditionMemo.ALWAYS;
+				final State next = nextStates.get(t);
+				Integer nextId = stateIds.get(next);
+				if (nextId == null) {
+					nextId = Integer.valueOf(states.size());
+					stateIds.put(next, nextId);
+					states.add(next);
+				}
+				stateTargets[t] = nextId.intValue();
+			}
+			if (!total) {
+				return null;
+			}
+			conditionIds.add(stateConditionIds);
+			targets.add(stateTargets);
+		}
+		return new CompiledMachine(states.toArray(new State[states.size()]),
+				conditionIds.toArray(new int[conditionIds.size()][]),
+				targets.toArray(new int[targets.size()][]));
+	}
+
+	/**
+	 * @return the state reached from the given state by the token
+	 */
+	int step(int state, int tokenIndex, Object token, ConditionMemo memo) {
+		final int[] conditionIds = iv_conditionIds[state];
+		for (int t = 0; t < conditionIds.length; t++) {
+			if (memo.isSatisfied(conditionIds[t], tokenIndex, token)) {
+				return iv_targets[state][t];
+			}
+		}
+		// every compiled state has an unconditional transition
+		return state;
+	}
+
+	State getState(int state) {
+		return iv_states[state];
+	}
+
+	boolean isStartState(int state) {
+		return iv_startFlags[state];
+	}
+
+	boolean isEndState(int state) {
+		return iv_endFlags[state];
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.openai.util.fsm.AnyCondition;
+import net.openai.util.fsm.Condition;
+
+/**
+ * Remembers the outcome of each condition for each token of a pass, so that
+ * a condition shared by several states or machines is checked at most once
+ * per token.  Outcomes are stamped with a pass number instead of cleared.
+ */
+final class ConditionMemo {
+
+	/**
+	 * Id of conditions that are satisfied by any token.
+	 */
+	static final int ALWAYS = -1;
+
+	private final Map<Condition, Integer> iv_conditionIds = new IdentityHashMap<Condition, Integer>();
+	private final List<Condition> iv_conditions = new ArrayList<Condition>();
+
+	private int[] iv_stamps = new int[0];
+	private boolean[] iv_outcomes = new boolean[0];
+	private int iv_pass = 0;
+
+	int register(Condition condition) {
+		if (condition instanceof AnyCondition) {
+			return ALWAYS;
+		}
+		Integer id = iv_conditionIds.get(condition);
+		if (id == null) {
+			id = Integer.valueOf(iv_conditions.size());
+			iv_conditionIds.put(condition, id);
+			iv_conditions.add(condition);
+		}
+		return id.intValue();
+	}
+
+	/**
+	 * Forgets all outcomes of the previous pass.
+	 * @param tokenCount number of tokens in the new pass
+	 */
+	void startPass(int tokenCount) {
+		final int size = tokenCount * iv_conditions.size();
+		if (iv_stamps.length < size) {
+			iv_stamps = new int[size];
+			iv_outcomes = new boolean[size];
+			iv_pass = 0;
+		}
+		iv_pass++;
+		if (iv_pass == Integer.MAX_VALUE) {
+			Arrays.fill(iv_stamps, 0);
+			iv_pass = 1;
+		}
+	}
+
+	boolean isSatisfied(int conditionId, int tokenIndex, Object token) {
+		if (conditionId == ALWAYS) {
+			return true;
+		}
+		final int index = tokenIndex * iv_conditions.size() + conditionId;
+		if (iv_stamps[index] == iv_pass) {
+			return iv_outcomes[index];
+		}
+		final boolean outcome = iv_conditions.get(conditionId).satisfiedBy(token);
+		iv_stamps[index] = iv_pass;
+		iv_outcomes[index] = outcome;
+		return outcome;
+	}
+}
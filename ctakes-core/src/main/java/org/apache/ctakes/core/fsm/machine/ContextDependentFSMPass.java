@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ctakes.core.fsm.output.DateToken;
+import org.apache.ctakes.core.fsm.output.FractionToken;
+import org.apache.ctakes.core.fsm.output.MeasurementToken;
+import org.apache.ctakes.core.fsm.output.PersonTitleToken;
+import org.apache.ctakes.core.fsm.output.RangeToken;
+import org.apache.ctakes.core.fsm.output.RomanNumeralToken;
+import org.apache.ctakes.core.fsm.output.TimeToken;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+
+import net.openai.util.fsm.Machine;
+
+/**
+ * Runs the machines of the context dependent fsms in a single shared pass over
+ * the tokens: date, time, roman numeral, fraction, range, measurement and
+ * person title.  The machines are compiled into transition tables by
+ * {@link MachinePass}, and each condition is checked at most once per token.
+ * <p>
+ * The range machines read the tokens with roman numerals put in place, and the
+ * measurement machines read them with ranges put in place.  Both run in
+ * dependent stages of the same pass, which step each token as soon as the
+ * roman numerals or ranges that may start there are known.  The token sets are
+ * the same as those returned by the execute methods of the separate fsms.
+ */
+public class ContextDependentFSMPass {
+
+	private final MachinePass iv_pass = new MachinePass();
+
+	private Set<DateToken> iv_dateTokenSet = new HashSet<DateToken>();
+	private Set<TimeToken> iv_timeTokenSet = new HashSet<TimeToken>();
+	private Set<RomanNumeralToken> iv_romanNumeralTokenSet = new HashSet<RomanNumeralToken>();
+	private Set<FractionToken> iv_fractionTokenSet = new HashSet<FractionToken>();
+	private Set<RangeToken> iv_rangeTokenSet = new HashSet<RangeToken>();
+	private Set<MeasurementToken> iv_measurementTokenSet = new HashSet<MeasurementToken>();
+	private Set<PersonTitleToken> iv_personTitleTokenSet = new HashSet<PersonTitleToken>();
+
+	public ContextDependentFSMPass(final DateFSM dateFSM, final TimeFSM timeFSM,
+			final RomanNumeralFSM romanNumeralFSM, final FractionFSM fractionFSM,
+			final RangeFSM rangeFSM, final MeasurementFSM measurementFSM,
+			final PersonTitleFSM personTitleFSM) {
+		// roman numerals get a stage of their own so that the range stage
+		// only waits for the roman numeral machines
+		final MachinePass.Stage romanNumeralStage = iv_pass.addStage(null);
+		final MachinePass.Stage rangeStage = iv_pass.addStage(romanNumeralStage);
+		final MachinePass.Stage measurementStage = iv_pass.addStage(rangeStage);
+
+		for (final Machine fsm : dateFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_dateTokenSet.add(dateFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : timeFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_timeTokenSet.add(timeFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : fractionFSM.getMachines()) {
+			// the fraction fsm starts looking for the next fraction after the
+			// first token of the last one
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_fractionTokenSet.add(fractionFSM.createToken(fsm, tokens, start, end, state)), true);
+		}
+		for (final Machine fsm : personTitleFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_personTitleTokenSet.add(personTitleFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : romanNumeralFSM.getMachines()) {
+			romanNumeralStage.addMachine(fsm, (tokens, start, end, token, state) -> {
+				final RomanNumeralToken romanNumeralToken
+						= romanNumeralFSM.createToken(fsm, tokens, start, end, state);
+				iv_romanNumeralTokenSet.add(romanNumeralToken);
+				rangeStage.addOverrideToken(romanNumeralToken);
+			});
+		}
+		for (final Machine fsm : rangeFSM.getMachines()) {
+			rangeStage.addMachine(fsm, (tokens, start, end, token, state) -> {
+				final RangeToken rangeToken
+						= rangeFSM.createToken(fsm, tokens, start, (BaseToken) token, state);
+				iv_rangeTokenSet.add(rangeToken);
+				measurementStage.addOverrideToken(rangeToken);
+			});
+		}
+		for (final Machine fsm : measurementFSM.getMachines()) {
+			measurementStage.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_measurementTokenSet.add(measurementFSM.createToken(fsm, tokens, start, (BaseToken) token, state)));
+		}
+	}
+
+	/**
+	 * Runs all machines over the tokens.  The token sets of the previous call
+	 * are replaced, not cleared.
+	 * @param tokens fsm base tokens
+	 * @throws Exception from a machine
+	 */
+	public void execute(List<? extends BaseToken> tokens) throws Exception {
+		iv_dateTokenSet = new HashSet<DateToken>();
+		iv_timeTokenSet = new HashSet<TimeToken>();
+		iv_romanNumeralTokenSet = new HashSet<RomanNumeralToken>();
+		iv_fractionTokenSet = new HashSet<FractionToken>();
+		iv_rangeTokenSet = new HashSet<RangeToken>();
+		iv_measurementTokenSet = new HashSet<MeasurementToken>();
+		iv_personTitleTokenSet = new HashSet<PersonTitleToken>();
+		iv_pass.execute(tokens);
+	}
+
+	/**
+	 * @return DateToken objects, as {@link DateFSM#execute(List)}
+	 */
+	public Set<DateToken> getDateTokenSet() {
+		return iv_dateTokenSet;
+	}
+
+	/**
+	 * @return TimeToken objects, as {@link TimeFSM#execute(List)}
+	 */
+	public Set<TimeToken> getTimeTokenSet() {
+		return iv_timeTokenSet;
+	}
+
+	/**
+	 * @return RomanNumeralToken objects, as {@link RomanNumeralFSM#execute(List)}
+	 */
+	public Set<RomanNumeralToken> getRomanNumeralTokenSet() {
+		return iv_romanNumeralTokenSet;
+	}
+
+	/**
+	 * @return FractionToken objects, as {@link FractionFSM#execute(List)}
+	 */
+	public Set<FractionToken> getFractionTokenSet() {
+		return iv_fractionTokenSet;
+	}
+
+	/**
+	 * @return RangeToken objects, as {@link RangeFSM#execute(List, Set)} with
+	 *         the roman numeral tokens as override tokens
+	 */
+	public Set<RangeToken> getRangeTokenSet() {
+		return iv_rangeTokenSet;
+	}
+
+	/**
+	 * @return MeasurementToken objects, as {@link MeasurementFSM#execute(List, Set)}
+	 *         with the range tokens as override tokens
+	 */
+	public Set<MeasurementToken> getMeasurementTokenSet() {
+		return iv_measurementTokenSet;
+	}
+
+	/**
+	 * @return PersonTitleToken objects, as {@link PersonTitleFSM#execute(List)}
+	 */
+	public Set<PersonTitleToken> getPersonTitleTokenSet() {
+		return iv_personTitleTokenSet;
+	}
+}
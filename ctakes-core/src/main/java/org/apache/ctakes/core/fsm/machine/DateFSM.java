@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.core.fsm.machine;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -246,6 +247,34 @@ public class DateFSM {
 		return m;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the date token for the match
+	 */
+	public DateToken createToken(Machine fsm, List<? extends BaseToken> tokens,
+			int tokenStartIndex, int tokenIndex, State currentState) {
+		BaseToken startToken = tokens.get(tokenStartIndex);
+		BaseToken endToken = null;
+		if (currentState instanceof NonTerminalEndState) {
+			endToken = tokens.get(tokenIndex - 1);
+		} else {
+			endToken = tokens.get(tokenIndex);
+		}
+		return new DateToken(startToken.getStartOffset(), endToken.getEndOffset());
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -283,18 +312,8 @@ public class DateFSM {
 						// skip ahead over single token we don't want
 						tokenStartIndex++;
 					}
-					BaseToken endToken = null;
-					if (currentState instanceof NonTerminalEndState) {
-						endToken = tokens.get(i - 1);
-					} else {
-						endToken = token;
-					}
-
-					BaseToken startToken = tokens
-							.get(tokenStartIndex);
-					DateToken dateToken = new DateToken(startToken
-							.getStartOffset(), endToken.getEndOffset());
-					dateSet.add(dateToken);
+					dateSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
 					fsm.reset();
 				}
 			}
@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.core.fsm.machine;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -143,6 +144,29 @@ public class FractionFSM {
 		return m;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the fraction token for the match
+	 */
+	public FractionToken createToken(Machine fsm, List<? extends BaseToken> tokens,
+			int tokenStartIndex, int tokenIndex, State currentState) {
+		BaseToken startToken = tokens.get(tokenStartIndex);
+		BaseToken endToken = tokens.get(tokenIndex);
+		return new FractionToken(startToken.getStartOffset(), endToken.getEndOffset());
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -181,11 +205,8 @@ public class FractionFSM {
 						// skip ahead over single token we don't want
 						tokenStartIndex++;
 					}
-					BaseToken startToken = tokens.get(tokenStartIndex);
-					BaseToken endToken = token;
-					FractionToken fractionToken = new FractionToken(startToken
-							.getStartOffset(), endToken.getEndOffset());
-					fractionSet.add(fractionToken);
+					fractionSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
 					
 					//reset to START state
 					fsm.reset();
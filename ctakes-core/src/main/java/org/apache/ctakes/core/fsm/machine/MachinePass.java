@@ -0,0 +1,308 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ctakes.core.fsm.token.BaseToken;
+
+import net.openai.util.fsm.Machine;
+import net.openai.util.fsm.State;
+
+/**
+ * Steps several finite state machines together in a single scan over a token
+ * list.  Machines are compiled into transition tables when possible, see
+ * {@link CompiledMachine}, and the outcome of each condition is computed at most
+ * once per token for all machines.  Machines that cannot be compiled are
+ * stepped through {@link Machine#input(Object)} in the same scan.
+ * <p>
+ * Matches are reported exactly as the usual execute loop of the fsm classes
+ * finds them: a machine in a start state remembers the token index, and when it
+ * reaches an end state the match starts at the token after the remembered one,
+ * or at the first token if there is none.  The machine is then reset.
+ * <p>
+ * Machines are grouped in stages.  A stage created from a source stage reads
+ * the tokens with override tokens put in place, the way the fsm classes that
+ * take an override set do, for example {@link RangeFSM#execute(List, java.util.Set)}.
+ * The handlers of the source stage add the override tokens while the pass
+ * runs.  The dependent stage lags behind its source only as far as needed:
+ * it steps a token once no machine of the source stage can still report a
+ * match that starts at or before that token.
+ * <p>
+ * Not thread safe; use one pass per thread.
+ */
+public final class MachinePass {
+
+	/**
+	 * Receives the matches of one machine.
+	 */
+	public interface MatchHandler {
+		/**
+		 * @param tokens tokens of the pass
+		 * @param tokenStartIndex index of the first token of the match
+		 * @param tokenIndex index of the token that moved the machine to an end state
+		 * @param endToken token that moved the machine to an end state, an
+		 *            override token or the token at tokenIndex
+		 * @param endState the end state
+		 * @throws Exception from the handler
+		 */
+		void handleMatch(List tokens, int tokenStartIndex, int tokenIndex, Object endToken,
+				State endState) throws Exception;
+	}
+
+	/**
+	 * Machines of a pass that read the same tokens.
+	 */
+	public static final class Stage {
+
+		private final Stage iv_source;
+		private final ConditionMemo iv_memo = new ConditionMemo();
+		private final List<CompiledMachine> iv_compiledMachines = new ArrayList<CompiledMachine>();
+		private final List<Machine> iv_machines = new ArrayList<Machine>();
+		private final List<MatchHandler> iv_handlers = new ArrayList<MatchHandler>();
+		private final List<Boolean> iv_keepMatchStarts = new ArrayList<Boolean>();
+
+		private int[] iv_states = new int[0];
+		private int[] iv_tokenStartIndices = new int[0];
+
+		// key = start offset, value = override BaseToken object
+		private final Map<Integer, BaseToken> iv_overrideTokenMap = new HashMap<Integer, BaseToken>();
+		private boolean iv_overrideOn;
+		private int iv_overrideEndOffset;
+		private int iv_nextIndex;
+
+		private Stage(Stage source) {
+			iv_source = source;
+		}
+
+		/**
+		 * @param machine machine to step in each pass
+		 * @param handler receives the machine's matches
+		 * @return true if the machine was compiled
+		 */
+		public boolean addMachine(Machine machine, MatchHandler handler) {
+			return addMachine(machine, handler, false);
+		}
+
+		/**
+		 * @param machine machine to step in each pass
+		 * @param handler receives the machine's matches
+		 * @param keepMatchStart true to remember the first token of a match
+		 *            as the start index after the machine is reset, as
+		 *            {@link FractionFSM#execute(List)} does
+		 * @return true if the machine was compiled
+		 */
+		public boolean addMachine(Machine machine, MatchHandler handler, boolean keepMatchStart) {
+			final CompiledMachine compiled = CompiledMachine.compile(machine, iv_memo);
+			iv_compiledMachines.add(compiled);
+			iv_machines.add(machine);
+			iv_handlers.add(handler);
+			iv_keepMatchStarts.add(Boolean.valueOf(keepMatchStart));
+			iv_states = new int[iv_machines.size()];
+			iv_tokenStartIndices = new int[iv_machines.size()];
+			return compiled != null;
+		}
+
+		/**
+		 * Puts a token in place of the tokens it covers, starting with the
+		 * token at the same start offset.  A later token with the same start
+		 * offset replaces an earlier one.  Meant to be called by the handlers
+		 * of the source stage during a pass.
+		 * @param token override token
+		 */
+		public void addOverrideToken(BaseToken token) {
+			if (iv_source == null) {
+				throw new IllegalStateException("Stage reads plain tokens");
+			}
+			iv_overrideTokenMap.put(new Integer(token.getStartOffset()), token);
+		}
+
+		private void start(int tokenCount) {
+			iv_memo.startPass(tokenCount);
+			Arrays.fill(iv_states, CompiledMachine.START);
+			Arrays.fill(iv_tokenStartIndices, -1);
+			iv_overrideTokenMap.clear();
+			iv_overrideOn = false;
+			iv_overrideEndOffset = -1;
+			iv_nextIndex = 0;
+		}
+
+		/**
+		 * Steps the tokens up to the given index, putting override tokens in
+		 * place.
+		 */
+		private void advance(List tokens, int endIndex) throws Exception {
+			while (iv_nextIndex < endIndex) {
+				final int i = iv_nextIndex++;
+				BaseToken token = (BaseToken) tokens.get(i);
+				if (iv_overrideOn) {
+					if (token.getStartOffset() >= iv_overrideEndOffset) {
+						iv_overrideOn = false;
+						iv_overrideEndOffset = -1;
+					} else {
+						continue;
+					}
+				} else if (!iv_overrideTokenMap.isEmpty()) {
+					final BaseToken overrideToken = iv_overrideTokenMap.get(new Integer(token.getStartOffset()));
+					if (overrideToken != null) {
+						// override one or more tokens until the override
+						// token is complete
+						token = overrideToken;
+						iv_overrideOn = true;
+						iv_overrideEndOffset = token.getEndOffset();
+					}
+				}
+				step(tokens, i, token);
+			}
+		}
+
+		private void step(List tokens, int i, Object token) throws Exception {
+			for (int m = 0; m < iv_machines.size(); m++) {
+				final CompiledMachine compiled = iv_compiledMachines.get(m);
+				final boolean startState;
+				final boolean endState;
+				if (compiled != null) {
+					final int state = compiled.step(iv_states[m], i, token, iv_memo);
+					iv_states[m] = state;
+					startState = compiled.isStartState(state);
+					endState = compiled.isEndState(state);
+				} else {
+					iv_machines.get(m).input(token);
+					final State currentState = iv_machines.get(m).getCurrentState();
+					startState = currentState.getStartStateFlag();
+					endState = currentState.getEndStateFlag();
+				}
+				if (startState) {
+					iv_tokenStartIndices[m] = i;
+				}
+				if (endState) {
+					// By default, all machines start with token zero.
+					// Otherwise skip ahead over the single token we don't want.
+					final int tokenStartIndex = iv_tokenStartIndices[m] < 0 ? 0 : iv_tokenStartIndices[m] + 1;
+					final State matchState = compiled != null
+							? compiled.getState(iv_states[m]) : iv_machines.get(m).getCurrentState();
+					iv_handlers.get(m).handleMatch(tokens, tokenStartIndex, i, token, matchState);
+					if (compiled != null) {
+						iv_states[m] = CompiledMachine.START;
+					} else {
+						iv_machines.get(m).reset();
+					}
+					if (iv_keepMatchStarts.get(m).booleanValue()) {
+						iv_tokenStartIndices[m] = tokenStartIndex;
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return index of the first token at which a match of this stage may
+		 *         still start.  Remembered start indices only grow, so no
+		 *         later match starts before it.
+		 */
+		private int getFrontier() {
+			int frontier = iv_nextIndex;
+			for (int m = 0; m < iv_tokenStartIndices.length; m++) {
+				final int tokenStartIndex = iv_tokenStartIndices[m] < 0 ? 0 : iv_tokenStartIndices[m] + 1;
+				frontier = Math.min(frontier, tokenStartIndex);
+			}
+			return frontier;
+		}
+
+		private void reset() {
+			for (Machine machine : iv_machines) {
+				machine.reset();
+			}
+			iv_overrideTokenMap.clear();
+		}
+	}
+
+	private final List<Stage> iv_stages = new ArrayList<Stage>();
+	private final Stage iv_tokenStage = addStage(null);
+
+	/**
+	 * @param machine machine to step over the plain tokens in each pass
+	 * @param handler receives the machine's matches
+	 * @return true if the machine was compiled
+	 */
+	public boolean addMachine(Machine machine, MatchHandler handler) {
+		return iv_tokenStage.addMachine(machine, handler);
+	}
+
+	/**
+	 * @param machine machine to step over the plain tokens in each pass
+	 * @param handler receives the machine's matches
+	 * @param keepMatchStart see {@link Stage#addMachine(Machine, MatchHandler, boolean)}
+	 * @return true if the machine was compiled
+	 */
+	public boolean addMachine(Machine machine, MatchHandler handler, boolean keepMatchStart) {
+		return iv_tokenStage.addMachine(machine, handler, keepMatchStart);
+	}
+
+	/**
+	 * @param source stage whose handlers add override tokens to the new stage,
+	 *            or null for a stage that reads the plain tokens
+	 * @return new stage, stepped after the stages added before it
+	 */
+	public Stage addStage(Stage source) {
+		if (source != null && !iv_stages.contains(source)) {
+			throw new IllegalArgumentException("Source stage is not part of this pass");
+		}
+		final Stage stage = new Stage(source);
+		iv_stages.add(stage);
+		return stage;
+	}
+
+	/**
+	 * Runs all machines over the tokens, calling the handlers for each match.
+	 * @param tokens fsm tokens, {@link BaseToken}s if the pass has stages
+	 *            that read override tokens
+	 * @throws Exception from a handler or a machine
+	 */
+	public void execute(List tokens) throws Exception {
+		for (Stage stage : iv_stages) {
+			stage.start(tokens.size());
+		}
+		try {
+			for (int i = 0; i < tokens.size(); i++) {
+				final Object token = tokens.get(i);
+				for (Stage stage : iv_stages) {
+					if (stage.iv_source == null) {
+						stage.step(tokens, i, token);
+						stage.iv_nextIndex = i + 1;
+					} else {
+						stage.advance(tokens, stage.iv_source.getFrontier());
+					}
+				}
+			}
+			for (Stage stage : iv_stages) {
+				if (stage.iv_source != null) {
+					stage.advance(tokens, tokens.size());
+				}
+			}
+		} finally {
+			for (Stage stage : iv_stages) {
+				stage.reset();
+			}
+		}
+	}
+}
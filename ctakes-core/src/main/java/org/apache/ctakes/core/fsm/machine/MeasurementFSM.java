@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.core.fsm.machine;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -226,6 +227,29 @@ public class MeasurementFSM {
 		return m;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List, Set)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List, Set)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param endToken token that moved the machine to the end state, which
+	 *            may be an override token
+	 * @param currentState the end state
+	 * @return the measurement token for the match
+	 */
+	public MeasurementToken createToken(Machine fsm, List<? extends BaseToken> tokens,
+			int tokenStartIndex, BaseToken endToken, State currentState) {
+		BaseToken startToken = tokens.get(tokenStartIndex);
+		return new MeasurementToken(startToken.getStartOffset(), endToken.getEndOffset());
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -295,12 +319,8 @@ public class MeasurementFSM {
 						// skip ahead over single token we don't want
 						tokenStartIndex++;
 					}
-					BaseToken startToken = tokens.get(tokenStartIndex);
-					BaseToken endToken = token;
-					MeasurementToken measurementToken = new MeasurementToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset());
-					measurementSet.add(measurementToken);
+					measurementSet.add(createToken(fsm, tokens, tokenStartIndex, token,
+							currentState));
 					fsm.reset();
 				}
 			}
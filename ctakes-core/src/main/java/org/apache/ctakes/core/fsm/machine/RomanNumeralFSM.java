@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.core.fsm.machine;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -79,6 +80,29 @@ public class RomanNumeralFSM {
 		return m;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the roman numeral token for the match
+	 */
+	public RomanNumeralToken createToken(Machine fsm, List<? extends BaseToken> tokens,
+			int tokenStartIndex, int tokenIndex, State currentState) {
+		BaseToken startToken = tokens.get(tokenStartIndex);
+		BaseToken endToken = tokens.get(tokenIndex);
+		return new RomanNumeralToken(startToken.getStartOffset(), endToken.getEndOffset());
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -118,12 +142,8 @@ public class RomanNumeralFSM {
 						tokenStartIndex++;
 					}
 
-					BaseToken startToken = tokens.get(tokenStartIndex);
-					BaseToken endToken = token;
-					RomanNumeralToken rnToken = new RomanNumeralToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset());
-					romanNumeralSet.add(rnToken);
+					romanNumeralSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
 					fsm.reset();
 				}
 			}
@@ -18,20 +18,51 @@
  */
 package org.apache.ctakes.core.fsm.state;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.openai.util.fsm.Condition;
 import net.openai.util.fsm.State;
 
 /**
  * Used mainly for aiding the debugging process.
+ * Also keeps its transitions in the order they were added so that machines
+ * built from named states can be compiled, see
+ * {@link org.apache.ctakes.core.fsm.machine.CompiledMachine}.
  * 
  * @author Mayo Clinic
  */
 @SuppressWarnings("serial")
 public class NamedState extends State {
 
+	private final List<Condition> iv_transitionConditions = new ArrayList<Condition>();
+	private final List<State> iv_transitionStates = new ArrayList<State>();
+
 	public NamedState(String name) {
 		setName(name);
 	}
 
+	public void addTransition(Condition condition, State state) {
+		super.addTransition(condition, state);
+		iv_transitionConditions.add(condition);
+		iv_transitionStates.add(state);
+	}
+
+	/**
+	 * @return conditions of the transitions out of this state, in the order they are checked
+	 */
+	public List<Condition> getTransitionConditions() {
+		return Collections.unmodifiableList(iv_transitionConditions);
+	}
+
+	/**
+	 * @return target states of the transitions out of this state, parallel to {@link #getTransitionConditions()}
+	 */
+	public List<State> getTransitionStates() {
+		return Collections.unmodifiableList(iv_transitionStates);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
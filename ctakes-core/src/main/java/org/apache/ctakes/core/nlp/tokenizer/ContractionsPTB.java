@@ -21,6 +21,7 @@ package org.apache.ctakes.core.nlp.tokenizer;
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.APOSTROPHE;
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.HYPHEN_OR_MINUS_SIGN;
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.findNextNonAlphaNum;
+import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.startsWith;
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.startsWithWithoutBeingFollowedByLetter;
 
 import java.util.HashMap;
@@ -178,37 +179,44 @@ public class ContractionsPTB {
      * length is 2.  For "it's", the length is also 2.
      * @see #lenOfFirstTokenInContraction for handling contractions like "cannot" that don't have an apostrophe 
      */
-    public static ContractionResult getLengthIfNextApostIsMiddleOfContraction(int position, int nextNonLetterDigit, String lowerCasedText) {
+    public static ContractionResult getLengthIfNextApostIsMiddleOfContraction(int position, int nextNonLetterDigit, CharSequence lowerCasedText) {
 	
 	if (position<0) return null; 
-	if (lowerCasedText.length()<position+3) return null; // need at least one letter after the apostrophe and one before ('tis and 'twas handled elsewhere)
-	int apostrophePosition = lowerCasedText.indexOf(APOSTROPHE, position);
+	int length = lowerCasedText.length();
+	if (length<position+3) return null; // need at least one letter after the apostrophe and one before ('tis and 'twas handled elsewhere)
 
 	// System.out.println("getLengthIfNextApostIsMiddleOfContraction: " + position + " " + nextNonLetterDigit + " " + lowerCasedText);
 
 	// if a token break is found before the apostrophe or no apostrophe found
 	// or there is no character after the apostrophe (out of input)
 	// or no letter before the apostrophe or no letter before "n't"
-	if (nextNonLetterDigit!=apostrophePosition) return null;
-	if (apostrophePosition < 1 || apostrophePosition >= lowerCasedText.length()-1 || lowerCasedText.startsWith("n't")) {  
+	// Only the text up to the token break is searched for the apostrophe, the rest of the text can't change the result
+	if (nextNonLetterDigit<position || nextNonLetterDigit>=length || lowerCasedText.charAt(nextNonLetterDigit)!=APOSTROPHE) return null;
+	for (int i=position; i<nextNonLetterDigit; i++) {
+	    if (lowerCasedText.charAt(i)==APOSTROPHE) return null;
+	}
+	int apostrophePosition = nextNonLetterDigit;
+	if (apostrophePosition < 1 || apostrophePosition >= length-1 || startsWith(lowerCasedText, 0, "n't")) {  
 	    return null;
 	}
 
 
 	// First just check the one character after the apostrophe before we start checking in more detail
 	// because we can rule out a lot of things this way
-	String letterAfterApostrophe = lowerCasedText.substring(apostrophePosition+1, apostrophePosition+2);
-	if (!lettersAfterApostropheForMiddleOfContraction.contains(letterAfterApostrophe)) return null;
+	char letterAfterApostrophe = lowerCasedText.charAt(apostrophePosition+1);
+	if (lettersAfterApostropheForMiddleOfContraction.indexOf(letterAfterApostrophe) < 0) return null;
 
 	int subseqentNonAlphaNum = findNextNonAlphaNum(lowerCasedText, apostrophePosition+1);
-	String restStartingWithApostrophe = lowerCasedText.substring(apostrophePosition, subseqentNonAlphaNum);  // "'n he could do" or 'n or 've or 'll or 't 
+	// the rest starting with the apostrophe is lowerCasedText from apostrophePosition to subseqentNonAlphaNum
+	// "'n he could do" or 'n or 've or 'll or 't 
+	int restLength = subseqentNonAlphaNum - apostrophePosition;
 
 	char prev = lowerCasedText.charAt(apostrophePosition-1); // needed for checking for "n't"
 	
 	loop: for (String s: possibleContractionEndings) {
 	    int lenAfterApostrophe = s.length()-1; // don't count the apostrophe itself
 	    if (s.equals("n't")) lenAfterApostrophe--; // adjust for the "n" in "n't"
-	    if (lowerCasedText.length() < apostrophePosition+lenAfterApostrophe) continue loop; // not enough text for this possibleContractionEndings to be a match
+	    if (length < apostrophePosition+lenAfterApostrophe) continue loop; // not enough text for this possibleContractionEndings to be a match
 
             //	    if (s.equals("'t")) { // different in that the contraction token includes character before the apostrophe
             //		if (rest.equals(s) && (prev=='n' || prev=='N')) {
@@ -219,13 +227,15 @@ public class ContractionsPTB {
             //		}
             //	    } 
 	    
+	    boolean restStartsWithS = restLength >= s.length() && startsWith(lowerCasedText, apostrophePosition, s);
+	    
 	    // if exact match with rest (end of sentence)
-	    if (s.equals("n't") && prev=='n' && lowerCasedText.charAt(apostrophePosition+1)=='t' && lowerCasedText.length()==apostrophePosition+1+1) {
+	    if (s.equals("n't") && prev=='n' && lowerCasedText.charAt(apostrophePosition+1)=='t' && length==apostrophePosition+1+1) {
 	    ContractionResult contractionResult = new ContractionResult();
 	    contractionResult.setContractionTokenLen(3); // n't
 		contractionResult.setWordTokenLen(apostrophePosition-1 - position);
 		return contractionResult;
-	    } else if (restStartingWithApostrophe.equals(s)) {
+	    } else if (restStartsWithS && restLength==s.length()) {
 	    ContractionResult contractionResult = new ContractionResult();	    	
 		contractionResult.setContractionTokenLen(s.length());
 		contractionResult.setWordTokenLen(apostrophePosition - position);
@@ -239,21 +249,21 @@ public class ContractionsPTB {
 	    
 	    // we checked exact match above.
 	    // If same length as exact match but not an exact match, done with this one, go on
-	    if (lowerCasedText.length() == apostrophePosition + lenAfterApostrophe+1) continue loop; // if not an exact match but has same length as exact match would, then not the right one 
+	    if (length == apostrophePosition + lenAfterApostrophe+1) continue loop; // if not an exact match but has same length as exact match would, then not the right one 
 	    
 	    char after;
-	    if (restStartingWithApostrophe.length() <= position+lenAfterApostrophe+1) {
+	    if (restLength <= position+lenAfterApostrophe+1) {
 		after = '\00';
 	    } else {
-		after = restStartingWithApostrophe.charAt(position+lenAfterApostrophe+1);
+		after = lowerCasedText.charAt(apostrophePosition+position+lenAfterApostrophe+1);
 	    }
-	    if (restStartingWithApostrophe.startsWith(s) && Character.isLetter(prev) && !Character.isLetter(after)) {
+	    if (restStartsWithS && Character.isLetter(prev) && !Character.isLetter(after)) {
 		// there was at least one letter before the apostrophe and after the apostrophe, and non letter after the contraction
 	    ContractionResult contractionResult = new ContractionResult();	    	
 		contractionResult.setContractionTokenLen(s.length());
 		contractionResult.setWordTokenLen(apostrophePosition - position);
 		return contractionResult;
-	    } else if (s.equals("n't") && prev=='n' && restStartingWithApostrophe.startsWith("'t") && !Character.isLetter(after)) {
+	    } else if (s.equals("n't") && prev=='n' && restLength >= 2 && startsWith(lowerCasedText, apostrophePosition, "'t") && !Character.isLetter(after)) {
 	    ContractionResult contractionResult = new ContractionResult();		
 		contractionResult.setContractionTokenLen(3); // n't
 		contractionResult.setWordTokenLen(apostrophePosition-1 - position);
@@ -286,6 +296,18 @@ public class ContractionsPTB {
 	return MultiTokenWordLenToken1[index];
     }
 
+    /**
+     * Same as looking up <code>text.substring(begin, end).toLowerCase()</code> in MultiTokenWordsLookup,
+     * without copying the text
+     * @return the index into MultiTokenWords, or -1 if the text is not one of them
+     */
+    static int indexOfMultiTokenWord(LowerCasedText text, int begin, int end) {
+	for (int i = 0; i < MultiTokenWords.length; i++) {
+	    if (text.regionEquals(begin, end, MultiTokenWords[i])) return i;
+	}
+	return -1;
+    }
+
     static int lenOfSecondTokenInContraction(String s) {
 
 	Integer index = MultiTokenWordsLookup.get(s); 
@@ -309,10 +331,9 @@ public class ContractionsPTB {
     //    }
 
     static String [] contractionsStartingWithApostrophe = {"'tis", "'twas",};
-    static boolean isContractionThatStartsWithApostrophe(int currentPosition, String lowerCasedText) {
-	    String lowerCasedSubstring = lowerCasedText.substring(currentPosition);
+    static boolean isContractionThatStartsWithApostrophe(int currentPosition, CharSequence lowerCasedText) {
 	    for (String s:contractionsStartingWithApostrophe) {
-		if (startsWithWithoutBeingFollowedByLetter(lowerCasedSubstring, s)) return true;
+		if (startsWithWithoutBeingFollowedByLetter(lowerCasedText, currentPosition, s)) return true;
 	    }
 	    return false;
     }
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import java.util.Locale;
+
+/**
+ * Lower cased view of a text, used by {@link TokenizerPTB} in place of
+ * <code>text.toLowerCase()</code> and of lower cased substrings of the text.
+ * <p>
+ * When lower casing the text does not depend on the context of a character
+ * each character is lower cased as it is read, and nothing is copied.
+ * Otherwise (the characters that String.toLowerCase() maps to more or fewer
+ * characters or by their neighbours, and the tr, az and lt locales) the view
+ * is backed by String.toLowerCase() and regions are lower cased with it too,
+ * so the tokens are the same either way.
+ */
+final class LowerCasedText implements CharSequence {
+
+	private final CharSequence iv_text;
+	// null when each character is lower cased on its own
+	private final String iv_lowerCasedText;
+
+	LowerCasedText(CharSequence text) {
+		iv_text = text;
+		iv_lowerCasedText = isLowerCasedByCharacter(text) ? null : text.toString().toLowerCase();
+	}
+
+	private static boolean isLowerCasedByCharacter(CharSequence text) {
+		String language = Locale.getDefault().getLanguage();
+		if (language.equals("tr") || language.equals("az") || language.equals("lt")) {
+			return false;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= '\u0130' && (c == '\u0130' || c == '\u03A3' || Character.isSurrogate(c))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int length() {
+		return iv_lowerCasedText == null ? iv_text.length() : iv_lowerCasedText.length();
+	}
+
+	public char charAt(int index) {
+		return iv_lowerCasedText == null ? Character.toLowerCase(iv_text.charAt(index)) : iv_lowerCasedText.charAt(index);
+	}
+
+	public CharSequence subSequence(int start, int end) {
+		return toString(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return toString(0, length());
+	}
+
+	private String toString(int start, int end) {
+		if (iv_lowerCasedText != null) {
+			return iv_lowerCasedText.substring(start, end);
+		}
+		if (start < 0 || end > iv_text.length() || start > end) {
+			throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + iv_text.length());
+		}
+		char[] chars = new char[end - start];
+		for (int i = start; i < end; i++) {
+			chars[i - start] = Character.toLowerCase(iv_text.charAt(i));
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @return whether <code>text.substring(begin, end).toLowerCase()</code> starts with <code>prefix</code>
+	 */
+	boolean regionStartsWith(int begin, int end, String prefix) {
+		if (iv_lowerCasedText != null) {
+			return iv_text.subSequence(begin, end).toString().toLowerCase().startsWith(prefix);
+		}
+		if (end - begin < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (Character.toLowerCase(iv_text.charAt(begin + i)) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether <code>text.substring(begin, end).toLowerCase()</code> equals <code>s</code>
+	 */
+	boolean regionEquals(int begin, int end, String s) {
+		if (iv_lowerCasedText != null) {
+			return iv_text.subSequence(begin, end).toString().toLowerCase().equals(s);
+		}
+		return end - begin == s.length() && regionStartsWith(begin, end, s);
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.ContractionToken;
+import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
+import org.apache.ctakes.typesystem.type.syntax.NumToken;
+import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.SymbolToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+
+/**
+ * Reusable buffer of tokens kept as primitive (begin, end, type) triples.
+ * Filled by {@link TokenizerPTB#tokenizeTextSegment(CharSequence, int, TokenOffsetBuffer)}
+ * without creating a token object or a copy of the token text.
+ * The type is one of the TYPE fields of {@link Token}.
+ */
+public class TokenOffsetBuffer {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	// begin, end and type of token i are at 3*i, 3*i+1 and 3*i+2
+	private int[] iv_data;
+	private int iv_size = 0;
+
+	public TokenOffsetBuffer() {
+		this(INITIAL_CAPACITY);
+	}
+
+	public TokenOffsetBuffer(int initialCapacity) {
+		iv_data = new int[3 * Math.max(initialCapacity, 1)];
+	}
+
+	/**
+	 * Remove all tokens, keeping the allocated storage for reuse.
+	 */
+	public void clear() {
+		iv_size = 0;
+	}
+
+	/**
+	 * @return the number of tokens in the buffer
+	 */
+	public int size() {
+		return iv_size;
+	}
+
+	public int getBegin(int index) {
+		return iv_data[3 * checkIndex(index)];
+	}
+
+	public int getEnd(int index) {
+		return iv_data[3 * checkIndex(index) + 1];
+	}
+
+	/**
+	 * @return one of the TYPE fields of {@link Token}
+	 */
+	public int getType(int index) {
+		return iv_data[3 * checkIndex(index) + 2];
+	}
+
+	/**
+	 * @return the cTAKES type system class for the type of the token, as created by
+	 *         {@link TokenizerPTB#tokenizeTextSegment(org.apache.uima.jcas.JCas, String, int, boolean)}
+	 */
+	public Class<? extends BaseToken> getTokenClass(int index) {
+		return toTokenClass(getType(index));
+	}
+
+	void add(int begin, int end, int type) {
+		int offset = 3 * iv_size;
+		if (offset == iv_data.length) {
+			int[] data = new int[2 * iv_data.length];
+			System.arraycopy(iv_data, 0, data, 0, offset);
+			iv_data = data;
+		}
+		iv_data[offset] = begin;
+		iv_data[offset + 1] = end;
+		iv_data[offset + 2] = type;
+		iv_size++;
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= iv_size) {
+			throw new IndexOutOfBoundsException("index = " + index + " size = " + iv_size);
+		}
+		return index;
+	}
+
+	static int toType(Class<? extends BaseToken> tokenClass) {
+		if (tokenClass == WordToken.class) return Token.TYPE_WORD;
+		if (tokenClass == NumToken.class) return Token.TYPE_NUMBER;
+		if (tokenClass == PunctuationToken.class) return Token.TYPE_PUNCT;
+		if (tokenClass == NewlineToken.class) return Token.TYPE_EOL;
+		if (tokenClass == ContractionToken.class) return Token.TYPE_CONTRACTION;
+		if (tokenClass == SymbolToken.class) return Token.TYPE_SYMBOL;
+		return Token.TYPE_UNKNOWN;
+	}
+
+	static Class<? extends BaseToken> toTokenClass(int type) {
+		switch (type) {
+		case Token.TYPE_WORD:
+			return WordToken.class;
+		case Token.TYPE_NUMBER:
+			return NumToken.class;
+		case Token.TYPE_PUNCT:
+			return PunctuationToken.class;
+		case Token.TYPE_EOL:
+			return NewlineToken.class;
+		case Token.TYPE_CONTRACTION:
+			return ContractionToken.class;
+		case Token.TYPE_SYMBOL:
+			return SymbolToken.class;
+		default:
+			return BaseToken.class;
+		}
+	}
+
+}
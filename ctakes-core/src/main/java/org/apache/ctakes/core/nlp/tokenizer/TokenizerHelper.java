@@ -38,7 +38,7 @@ public class TokenizerHelper {
      * Note does NOT return -1 if the rest are all alphanumeric, returns s.length in that case
      * Returns -1 if s == null. returns s.length() if fromIndex is too big
      */
-    static public int findNextNonAlphaNum(String s, int fromIndex) {
+    static public int findNextNonAlphaNum(CharSequence s, int fromIndex) {
 	if (s==null) throw new IndexOutOfBoundsException("s==null, fromIndex = " + fromIndex);
 	for (int i=fromIndex; i<s.length(); i++) {
 	    if (!Character.isLetterOrDigit(s.charAt(i))) return i;
@@ -57,6 +57,25 @@ public class TokenizerHelper {
 	return false;
     }
 
+    // same as s.substring(offset).startsWith(prefix) but without copying s
+    static boolean startsWith(CharSequence s, int offset, String prefix) {
+	if (offset < 0 || s.length() - offset < prefix.length()) return false;
+	for (int i=0; i<prefix.length(); i++) {
+	    if (s.charAt(offset+i) != prefix.charAt(i)) return false;
+	}
+	return true;
+    }
+
+    // same as startsWithWithoutBeingFollowedByLetter(s.substring(offset), compareTo)
+    static boolean startsWithWithoutBeingFollowedByLetter(CharSequence s, int offset, String compareTo) {
+	if (startsWith(s, offset, compareTo)) {
+	    int next = offset + compareTo.length();
+	    if (s.length()==next) return true;
+	    return !Character.isLetter(s.charAt(next));
+	}
+	return false;
+    }
+
     // Copied isPunctuation from edu.mayo.bmi.nlp.tokenizer.Tokenizer
     static boolean isPunctuation(char c) {
 	if ((c == ';') || (c == ':') || (c == ',') || (c == '.') || (c == '(')
@@ -30,6 +30,7 @@ import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.HYPHEN_OR_MIN
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.NEWLINE;
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.PERIOD;
 import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.isPunctuation;
+import static org.apache.ctakes.core.nlp.tokenizer.TokenizerHelper.startsWith;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -76,20 +77,52 @@ public class TokenizerPTB {
 	 * @param includeTextNotJustOffsets whether to copy the text covered by this token into the token object itself
 	 * @return the list of new tokens
 	 */
-	public List<?> tokenizeTextSegment(JCas jcas, String textSegment, int offsetAdjustment, boolean includeTextNotJustOffsets) {
-		
-	    String lowerCasedText = textSegment.toLowerCase();
-		ArrayList<Object> tokens = new ArrayList<Object>();
-		Class<? extends BaseToken> tokenClass = null; 
+	public List<?> tokenizeTextSegment(final JCas jcas, final String textSegment, final int offsetAdjustment, boolean includeTextNotJustOffsets) {
 		
 		// if input was null or empty, return empty token list
 		if (textSegment==null || textSegment.length()==0) return emptyTokenList;
 		
+		final ArrayList<Object> tokens = new ArrayList<Object>();
+		tokenizeTextSegment(textSegment, (tokenClass, begin, end) -> tokens.add(createToken(tokenClass, textSegment, jcas, begin, end, offsetAdjustment)));
+		// if input contained only white space but not even any newlines, return empty token list 
+		if (tokens.isEmpty()) return emptyTokenList;
+		
+		return tokens;
+		
+	}
+
+	/**
+	 * Tokenize text that starts at offset offsetAdjustment within the complete text, giving the same tokens as
+	 * {@link #tokenizeTextSegment(JCas, String, int, boolean)} but as (begin, end, type) triples in a reusable
+	 * buffer.  No token objects are created and the text is not copied or lower cased as a whole, the rules
+	 * look at the characters of the original text where they are.
+	 * @param textSegment the text to tokenize
+	 * @param offsetAdjustment what to add to all offsets within textSegment to make them be offsets from the start of the text
+	 * @param tokenOffsets cleared, and then filled with the tokens in the order they are found
+	 */
+	public void tokenizeTextSegment(final CharSequence textSegment, final int offsetAdjustment, final TokenOffsetBuffer tokenOffsets) {
+		
+		tokenOffsets.clear();
+		if (textSegment==null || textSegment.length()==0) return;
+		tokenizeTextSegment(textSegment, (tokenClass, begin, end) -> addTokenOffsets(tokenOffsets, tokenClass, textSegment, begin, end, offsetAdjustment));
+		
+	}
+
+	/**
+	 * Receives the tokens in the order they are found.
+	 * A null tokenClass means the token is one character and its class is determined from that character.
+	 */
+	private interface TokenSink {
+		void add(Class<? extends BaseToken> tokenClass, int begin, int end);
+	}
+
+	private void tokenizeTextSegment(CharSequence textSegment, TokenSink tokens) {
+		
+		LowerCasedText lowerCasedText = new LowerCasedText(textSegment);
+		Class<? extends BaseToken> tokenClass = null; 
+		
 		// find first character of a token
 		int currentPosition = 0;
-		currentPosition = findFirstCharOfNextToken(textSegment, currentPosition);
-		// if input contained only white space but not even any newlines, return empty token list 
-		if (currentPosition < 0) return emptyTokenList;
 		
 		while ((currentPosition = findFirstCharOfNextToken(textSegment, currentPosition))>=0) {
 		
@@ -99,7 +132,6 @@ public class TokenizerPTB {
 			char firstCharOfToken = textSegment.charAt(currentPosition);
 			int NOT_SET_INDICATOR = -999;
 			int tokenLen = NOT_SET_INDICATOR; // should set it below to a real value
-			Object bta;
 			
 
 
@@ -177,7 +209,7 @@ public class TokenizerPTB {
 			    // is found, 2 tokens are created (elsewhere)
 			    
 			    // Check if start of a Name
-			    int len = getLengthIfNameStartingWithApostrophe(currentPosition, textSegment);
+			    int len = getLengthIfNameStartingWithApostrophe(currentPosition, textSegment, lowerCasedText);
 			    if (len > 0) {
 				tokenLen = len;
 				tokenClass = WordToken.class;
@@ -275,25 +307,20 @@ public class TokenizerPTB {
 			    } else if (obviouslyIsWord) {
 				// Check for things like "cannot" and "gonna" that appear to be one token but
 				// are supposed to be more than one according to PTB rules.
-				String lowerCasedSubstring = textSegment.substring(currentPosition, nextWhitespaceOrEndOfSegment).toLowerCase();
-				int len = ContractionsPTB.lenOfFirstTokenInContraction(lowerCasedSubstring);
-				if (len > 0) { // is a contraction that doesn't contain an apostrophe, like "gonna", create WordToken for first part, 
+				int multiTokenWord = ContractionsPTB.indexOfMultiTokenWord(lowerCasedText, currentPosition, nextWhitespaceOrEndOfSegment);
+				if (multiTokenWord >= 0) { // is a contraction that doesn't contain an apostrophe, like "gonna", create WordToken for first part, 
 				    		// and create ContractionToken for other token(s)  
-				    tokenLen = len;
+				    tokenLen = ContractionsPTB.MultiTokenWordLenToken1[multiTokenWord];
 				    tokenClass = WordToken.class;
-				    bta = createToken(tokenClass, textSegment, jcas, currentPosition, currentPosition+tokenLen, offsetAdjustment);
-				    tokens.add(bta);
+				    tokens.add(tokenClass, currentPosition, currentPosition+tokenLen);
 				    currentPosition+=tokenLen; // currentPosition
 				    
-				    len = ContractionsPTB.lenOfSecondTokenInContraction(lowerCasedSubstring);
-				    
-				    tokenLen = len;
+				    tokenLen = ContractionsPTB.MultiTokenWordLenToken2[multiTokenWord];
 				    tokenClass = ContractionToken.class;
 				    
-				    len = ContractionsPTB.lenOfThirdTokenInContraction(lowerCasedSubstring);
+				    int len = ContractionsPTB.MultiTokenWordLenToken3[multiTokenWord];
 				    if (len>0) { // if there is a 3rd, create the 2nd and set up for the 3rd to be created later
-					bta = createToken(tokenClass, textSegment, jcas, currentPosition, currentPosition+tokenLen, offsetAdjustment);
-					tokens.add(bta);
+					tokens.add(tokenClass, currentPosition, currentPosition+tokenLen);
 					currentPosition+=tokenLen; // currentPosition
 
 					tokenLen = len;
@@ -327,7 +354,7 @@ public class TokenizerPTB {
 
 				// Need to check for things like 80's before checking for contractions or else 80's looks like a contraction
 			        if (nextNonLetterOrNonDigit < lowerCasedText.length() && lowerCasedText.charAt(nextNonLetterOrNonDigit)==APOSTROPHE) {
-			            String lowerCasedSubstring = lowerCasedText.substring(currentPosition, nextWhitespaceOrEndOfSegment);
+			            String lowerCasedSubstring = lowerCasedText.subSequence(currentPosition, nextWhitespaceOrEndOfSegment).toString();
 			            len = ContractionsPTB.tokenLengthCheckingForSingleQuoteWordsToKeepTogether(lowerCasedSubstring);
 			            if (len > nextNonLetterOrNonDigit-currentPosition) { // if keeping the apostrophe attached
 			        	tokenLen = len;
@@ -346,9 +373,7 @@ public class TokenizerPTB {
 			        	    if (tokenLen < 0) throw new RuntimeException("c = " + c + "tokenLen = " + tokenLen + " currentPosition = " + currentPosition);
 			        	    // First create the WordToken (no apostrophe)
 			        	    if(tokenLen > 0){
-			        	      bta = createToken(tokenClass, textSegment, jcas, currentPosition, currentPosition+tokenLen, offsetAdjustment);
-			        	      //System.out.println("bta = " + bta + " class = " + bta.getClass() + " tokenLen = " + tokenLen + " currentPosition = " + currentPosition);
-			        	      tokens.add(bta);
+			        	      tokens.add(tokenClass, currentPosition, currentPosition+tokenLen);
 			        	      currentPosition+=tokenLen; // currentPosition
 			        	    }
 			        	    // Set up to create the second token, for other contractions, the next token will start with an 
@@ -375,7 +400,7 @@ public class TokenizerPTB {
 			            } else if ((len = lenIfIsEmailAddress(currentPosition, lowerCasedText, nextWhitespaceOrEndOfSegment)) > 0) {
 			        	tokenLen = len;
 			        	tokenClass = WordToken.class;
-			            } else if ((len = lenIfIsAbbreviation(currentPosition, textSegment, nextWhitespaceOrEndOfSegment)) > 0) {
+			            } else if ((len = lenIfIsAbbreviation(currentPosition, textSegment, lowerCasedText, nextWhitespaceOrEndOfSegment)) > 0) {
 			        	tokenLen = len;
 			        	tokenClass = WordToken.class;
 			            } else { // Still within the "isLetterOrDigit(firstCharOfToken)".
@@ -397,7 +422,7 @@ public class TokenizerPTB {
 
 			        	if (nextNonLetterOrNonDigit<lowerCasedText.length() && lowerCasedText.charAt(nextNonLetterOrNonDigit)==HYPHEN_OR_MINUS_SIGN) {
 			        	    // telephone numbers and postal codes handled above already
-				            String lowerCasedSubstring = lowerCasedText.substring(currentPosition, nextWhitespaceOrEndOfSegment);
+				            String lowerCasedSubstring = lowerCasedText.subSequence(currentPosition, nextWhitespaceOrEndOfSegment).toString();
 			        	    len = HyphenatedPTB.tokenLengthCheckingForHyphenatedTerms(lowerCasedSubstring);
 			        	    tokenLen = len;
 			        	    if (tokenLen < 0) throw new RuntimeException("tokenLen = " + tokenLen + " currentPosition = " + currentPosition + " nextNonLetterOrNonDigit = " + nextNonLetterOrNonDigit);
@@ -444,15 +469,11 @@ public class TokenizerPTB {
 			
 			// add the token created
 			if (tokenLen < 0) throw new RuntimeException("tokenLen = " + tokenLen + " currentPosition = " + currentPosition);
-			bta = createToken(tokenClass, textSegment, jcas, currentPosition, currentPosition+tokenLen, offsetAdjustment);
-			//System.out.println("bta = " + bta + " class = " + bta.getClass() + " tokenLen = " + tokenLen + " currentPosition = " + currentPosition);
-			tokens.add(bta);
+			tokens.add(tokenClass, currentPosition, currentPosition+tokenLen);
 			currentPosition+=tokenLen; // currentPosition
 
 		} // end while loop
 		
-		return tokens;
-		
 	}
 
 	/**
@@ -477,16 +498,16 @@ public class TokenizerPTB {
 	 * @param nextNonNumericChar
 	 * @return
 	 */
-	private int lenIfIsNumberContainingComma(int currentPosition, String text, int nextNonNumericChar) {
-	    String s = text.substring(0, nextNonNumericChar); // use substring so don't search until end of entire document
-	    int commaPosition = s.indexOf(COMMA, currentPosition);
+	private int lenIfIsNumberContainingComma(int currentPosition, CharSequence text, int nextNonNumericChar) {
+	    // only search up to nextNonNumericChar so don't search until end of entire document
+	    int commaPosition = indexOf(text, COMMA, currentPosition, nextNonNumericChar);
 	    if (commaPosition<0) return -1;
 	    if (commaPosition>nextNonNumericChar) return -1;
 	    int len = -1;
 	    
-	    int periodPosition = s.indexOf(PERIOD, currentPosition);
+	    int periodPosition = indexOf(text, PERIOD, currentPosition, nextNonNumericChar);
 	    int endOfWholeNumberPart = periodPosition;
-	    if (endOfWholeNumberPart<0) endOfWholeNumberPart = s.length();
+	    if (endOfWholeNumberPart<0) endOfWholeNumberPart = nextNonNumericChar;
 	    // the whole number part can contain commas as long as there are exactly 3 digits after each comma
 	    if (commaPosition>endOfWholeNumberPart) return -1; // if comma appears after the decimal point, then no commas in the whole-number-part
 	    if (commaPosition==0) return -1; // can't start with comma
@@ -497,17 +518,17 @@ public class TokenizerPTB {
 	    
 	    while (!didNotFindExactlyThreeDigitsAfterComma) {
 		len = position-currentPosition; // don't include the comma unless also can include next 3 digits
-		if (position<endOfWholeNumberPart && s.charAt(position)==COMMA) {
+		if (position<endOfWholeNumberPart && text.charAt(position)==COMMA) {
 		    position++;
 		}
 		for (int i=0; i<3; i++) { // 3 digits after the comma if comma is part of a number
-		    if (position<endOfWholeNumberPart && isDigit(s.charAt(position))) {
+		    if (position<endOfWholeNumberPart && isDigit(text.charAt(position))) {
 			position++;
 		    } else {
 			didNotFindExactlyThreeDigitsAfterComma = true;
 		    }
 		}
-		if (position<endOfWholeNumberPart && isDigit(s.charAt(position))) { // can't have 4 digits after comma like 3,4567  
+		if (position<endOfWholeNumberPart && isDigit(text.charAt(position))) { // can't have 4 digits after comma like 3,4567  
 		    didNotFindExactlyThreeDigitsAfterComma = true; 
 		}
 	    }	    
@@ -520,7 +541,7 @@ public class TokenizerPTB {
 	    if (periodPosition != text.length()-1 && // not the final period of a sentence
 		    periodPosition == currentPosition+len) { // but the period does appear right after the whole_number_part
 		len++; 
-		while (len<nextNonNumericChar-currentPosition && isDigit(s.charAt(currentPosition+len))) {
+		while (len<nextNonNumericChar-currentPosition && isDigit(text.charAt(currentPosition+len))) {
 		    len++;
 		}
 	    }
@@ -528,26 +549,33 @@ public class TokenizerPTB {
 	    return len;
 	}
 
+	// same as s.substring(0, endIndex).indexOf(c, fromIndex) without copying s
+	private static int indexOf(CharSequence s, char c, int fromIndex, int endIndex) {
+	    for (int i = Math.max(fromIndex, 0); i < endIndex; i++) {
+		if (s.charAt(i) == c) return i;
+	    }
+	    return -1;
+	}
+
 	
-	private int lenIfIsPostalCode(int currentPosition, String text, int nextNonPostalCodeChar) {
+	private int lenIfIsPostalCode(int currentPosition, CharSequence text, int nextNonPostalCodeChar) {
 	    if (nextNonPostalCodeChar < 0) return nextNonPostalCodeChar;
 	    
 	    int len = nextNonPostalCodeChar-currentPosition;
 	    
-	    String s = text.substring(currentPosition, nextNonPostalCodeChar);
 	    // 55901-0000
 	    
 	    if (len == 10) { // 55901-0001
-		if (!isDigit(s.charAt(0))) return -1;
-		if (!isDigit(s.charAt(1))) return -1;
-		if (!isDigit(s.charAt(2))) return -1;
-		if (!isDigit(s.charAt(3))) return -1;
-		if (!isDigit(s.charAt(4))) return -1;
-		if (s.charAt(5)!=DASH) return -1;
-		if (!isDigit(s.charAt(6))) return -1;
-		if (!isDigit(s.charAt(7))) return -1;
-		if (!isDigit(s.charAt(8))) return -1;
-		if (!isDigit(s.charAt(9))) return -1;
+		if (!isDigit(text.charAt(currentPosition+0))) return -1;
+		if (!isDigit(text.charAt(currentPosition+1))) return -1;
+		if (!isDigit(text.charAt(currentPosition+2))) return -1;
+		if (!isDigit(text.charAt(currentPosition+3))) return -1;
+		if (!isDigit(text.charAt(currentPosition+4))) return -1;
+		if (text.charAt(currentPosition+5)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+6))) return -1;
+		if (!isDigit(text.charAt(currentPosition+7))) return -1;
+		if (!isDigit(text.charAt(currentPosition+8))) return -1;
+		if (!isDigit(text.charAt(currentPosition+9))) return -1;
 		return len;
 	    } else {
 		return -1;
@@ -556,13 +584,12 @@ public class TokenizerPTB {
 	}
 
 	
-	private int lenIfIsTelephoneNumber(int currentPosition, String text, int nextNonTelephoneNumberChar) {
+	private int lenIfIsTelephoneNumber(int currentPosition, CharSequence text, int nextNonTelephoneNumberChar) {
 	    
 	    if (nextNonTelephoneNumberChar < 0) return nextNonTelephoneNumberChar;
 	    
 	    int len = nextNonTelephoneNumberChar-currentPosition;
 	    
-	    String s = text.substring(currentPosition, nextNonTelephoneNumberChar);
 	    // extension like 4-5555
 	    // or without area code like 555-1212
 	    // or with area code 507-555-1212
@@ -570,53 +597,53 @@ public class TokenizerPTB {
 	    // or like example in guidelines like 02-2348-2192
 	    
 	    if (len==6) {
-		if (!isDigit(s.charAt(0))) return -1;
-		if (s.charAt(1)!=DASH) return -1;
-		if (!isDigit(s.charAt(2))) return -1;
-		if (!isDigit(s.charAt(3))) return -1;
-		if (!isDigit(s.charAt(4))) return -1;
-		if (!isDigit(s.charAt(5))) return -1;
+		if (!isDigit(text.charAt(currentPosition+0))) return -1;
+		if (text.charAt(currentPosition+1)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+2))) return -1;
+		if (!isDigit(text.charAt(currentPosition+3))) return -1;
+		if (!isDigit(text.charAt(currentPosition+4))) return -1;
+		if (!isDigit(text.charAt(currentPosition+5))) return -1;
 		return len;
 	    } else if (len == 8) {
-		if (!isDigit(s.charAt(0))) return -1;
-		if (!isDigit(s.charAt(1))) return -1;
-		if (!isDigit(s.charAt(2))) return -1;
-		if (s.charAt(3)!=DASH) return -1;
-		if (!isDigit(s.charAt(4))) return -1;
-		if (!isDigit(s.charAt(5))) return -1;
-		if (!isDigit(s.charAt(6))) return -1;
-		if (!isDigit(s.charAt(7))) return -1;
+		if (!isDigit(text.charAt(currentPosition+0))) return -1;
+		if (!isDigit(text.charAt(currentPosition+1))) return -1;
+		if (!isDigit(text.charAt(currentPosition+2))) return -1;
+		if (text.charAt(currentPosition+3)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+4))) return -1;
+		if (!isDigit(text.charAt(currentPosition+5))) return -1;
+		if (!isDigit(text.charAt(currentPosition+6))) return -1;
+		if (!isDigit(text.charAt(currentPosition+7))) return -1;
 		return len;
 	    } else if (len == 12) { // two possible formats
 		// first check  507-555-1212 format
-		if (!isDigit(s.charAt(0))) return checkFormat2(s);
-		if (!isDigit(s.charAt(1))) return checkFormat2(s);
-		if (!isDigit(s.charAt(2))) return checkFormat2(s);
-		if (s.charAt(3)!=DASH) return checkFormat2(s);
-		if (!isDigit(s.charAt(4))) return checkFormat2(s);
-		if (!isDigit(s.charAt(5))) return checkFormat2(s);
-		if (!isDigit(s.charAt(6))) return checkFormat2(s);
-		if (s.charAt(7)!=DASH) return checkFormat2(s);
-		if (!isDigit(s.charAt(8))) return checkFormat2(s);
-		if (!isDigit(s.charAt(9))) return checkFormat2(s);
-		if (!isDigit(s.charAt(10))) return checkFormat2(s);
-		if (!isDigit(s.charAt(11))) return checkFormat2(s);
+		if (!isDigit(text.charAt(currentPosition+0))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+1))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+2))) return checkFormat2(text, currentPosition);
+		if (text.charAt(currentPosition+3)!=DASH) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+4))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+5))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+6))) return checkFormat2(text, currentPosition);
+		if (text.charAt(currentPosition+7)!=DASH) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+8))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+9))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+10))) return checkFormat2(text, currentPosition);
+		if (!isDigit(text.charAt(currentPosition+11))) return checkFormat2(text, currentPosition);
 		return len;
 	    } else if (len == 14) { // 1-507-555-1212
-		if (!isDigit(s.charAt(0))) return -1;
-		if (s.charAt(1)!=DASH) return -1;
-		if (!isDigit(s.charAt(2))) return -1;
-		if (!isDigit(s.charAt(3))) return -1;
-		if (!isDigit(s.charAt(4))) return -1;
-		if (s.charAt(5)!=DASH) return -1;
-		if (!isDigit(s.charAt(6))) return -1;
-		if (!isDigit(s.charAt(7))) return -1;
-		if (!isDigit(s.charAt(8))) return -1;
-		if (s.charAt(9)!=DASH) return -1;
-		if (!isDigit(s.charAt(10))) return -1;
-		if (!isDigit(s.charAt(11))) return -1;
-		if (!isDigit(s.charAt(12))) return -1;
-		if (!isDigit(s.charAt(13))) return -1;
+		if (!isDigit(text.charAt(currentPosition+0))) return -1;
+		if (text.charAt(currentPosition+1)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+2))) return -1;
+		if (!isDigit(text.charAt(currentPosition+3))) return -1;
+		if (!isDigit(text.charAt(currentPosition+4))) return -1;
+		if (text.charAt(currentPosition+5)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+6))) return -1;
+		if (!isDigit(text.charAt(currentPosition+7))) return -1;
+		if (!isDigit(text.charAt(currentPosition+8))) return -1;
+		if (text.charAt(currentPosition+9)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+10))) return -1;
+		if (!isDigit(text.charAt(currentPosition+11))) return -1;
+		if (!isDigit(text.charAt(currentPosition+12))) return -1;
+		if (!isDigit(text.charAt(currentPosition+13))) return -1;
 		return len;
 	    } else {
 		return -1;
@@ -624,19 +651,19 @@ public class TokenizerPTB {
 	    
 	}
 
-	private int checkFormat2(String s) { // 02-2348-2192
-		if (!isDigit(s.charAt(0))) return -1;
-		if (!isDigit(s.charAt(1))) return -1;
-		if (s.charAt(2)!=DASH) return -1;
-		if (!isDigit(s.charAt(3))) return -1;
-		if (!isDigit(s.charAt(4))) return -1;
-		if (!isDigit(s.charAt(5))) return -1;
-		if (!isDigit(s.charAt(6))) return -1;
-		if (s.charAt(7)!=DASH) return -1;
-		if (!isDigit(s.charAt(8))) return -1;
-		if (!isDigit(s.charAt(9))) return -1;
-		if (!isDigit(s.charAt(10))) return -1;
-		if (!isDigit(s.charAt(11))) return -1;
+	private int checkFormat2(CharSequence text, int currentPosition) { // 02-2348-2192
+		if (!isDigit(text.charAt(currentPosition+0))) return -1;
+		if (!isDigit(text.charAt(currentPosition+1))) return -1;
+		if (text.charAt(currentPosition+2)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+3))) return -1;
+		if (!isDigit(text.charAt(currentPosition+4))) return -1;
+		if (!isDigit(text.charAt(currentPosition+5))) return -1;
+		if (!isDigit(text.charAt(currentPosition+6))) return -1;
+		if (text.charAt(currentPosition+7)!=DASH) return -1;
+		if (!isDigit(text.charAt(currentPosition+8))) return -1;
+		if (!isDigit(text.charAt(currentPosition+9))) return -1;
+		if (!isDigit(text.charAt(currentPosition+10))) return -1;
+		if (!isDigit(text.charAt(currentPosition+11))) return -1;
 	    
 	    return -1;
 	}
@@ -659,7 +686,7 @@ public class TokenizerPTB {
 	    return (isDigit(ch) || ch==',' || ch=='.');
 	}
 
-	private int getLenToNextNonDigit(String s, int startingPosition) {
+	private int getLenToNextNonDigit(CharSequence s, int startingPosition) {
 	    char ch;
 	    int i = 0;
 	    while (startingPosition+i < s.length()) {
@@ -672,7 +699,7 @@ public class TokenizerPTB {
 	    return s.length()-startingPosition;
 	}
 
-	private Class<? extends BaseToken> wordTokenOrNumToken(String lowerCasedText, int currentPosition, int tokenLen) {
+	private Class<? extends BaseToken> wordTokenOrNumToken(CharSequence lowerCasedText, int currentPosition, int tokenLen) {
 	    if (containsLetter(lowerCasedText, currentPosition, tokenLen)) {
 		return WordToken.class;
 	    } else {
@@ -687,7 +714,7 @@ public class TokenizerPTB {
 	 * @param tokenLen
 	 * @return true if at least one of the characters between currentPosition and currentPosition+tokenLen is a letter
 	 */
-	private boolean containsLetter(String lowerCasedText, int currentPosition, int tokenLen) {
+	private boolean containsLetter(CharSequence lowerCasedText, int currentPosition, int tokenLen) {
 	    for (int i=currentPosition; i<currentPosition+tokenLen; i++) {
 		char c = lowerCasedText.charAt(i);
 		if (isLetter(c)) {
@@ -699,45 +726,27 @@ public class TokenizerPTB {
 
 	
 	private static String ellipsis = "...";  
-	private boolean isEllipsis(int currentPosition, String textSegment) {
-	    if (textSegment.substring(currentPosition).startsWith(ellipsis)) return true;
+	private boolean isEllipsis(int currentPosition, CharSequence textSegment) {
+	    if (startsWith(textSegment, currentPosition, ellipsis)) return true;
 	    return false;
 	}
 
 	static String [] nameStartingWithApostrophe = {"'assad", "'awarta", "'ashira", };
 	
 
-	private int getLengthIfNameStartingWithApostrophe(int currentPosition, String textSegment) {
+	private int getLengthIfNameStartingWithApostrophe(int currentPosition, CharSequence textSegment, LowerCasedText lowerCasedText) {
 	    
-	    String textLowerCased = textSegment.substring(currentPosition).toLowerCase();
-	    if (textLowerCased.length() == 1) return -1; // if no more chars after the apostrophe, it's a 1-char token
+	    if (textSegment.length() - currentPosition == 1) return -1; // if no more chars after the apostrophe, it's a 1-char token
 	    if (!isLetter(textSegment.charAt(currentPosition+1))) {
 		return -1;
 	    }
 	    
 	    // Could be the start of a quoted string like "'The boy ran', she said" or could be the start of a name like 'Assad
+	    // don't want "'The boy ran'" to have "'The" be one token so don't assume 
+	    // it's a quoted name unless it is in the specific list above
 	    for (String s:nameStartingWithApostrophe) {
-		if (s.length() == textLowerCased.length()) {
-		    // exactly matches the rest of the input....
-		    if (textLowerCased.startsWith(s)) return  s.length();
-		} else if (s.length() > textLowerCased.length()) {
-		    ; // can't be match, not long enough
-		} else if (textLowerCased.startsWith(s)) {
+		if (lowerCasedText.regionStartsWith(currentPosition, textSegment.length(), s)) {
 		    return  s.length(); // already checked above that next char after ' exists and is not letter
-		    
-		} else {
-		    
-		    // don't want "'The boy ran'" to have "'The" be one token so don't assume 
-		    // it's a quoted name unless it is in the specific list above
-		    ; // do nothing in this case, try the next from nameStartingWithApostrophe
-                    //		    int end = currentPosition+s.length();
-                    //		    char next = textSegment.charAt(end);
-                    //		    // ok as long as just more letters
-                    //		    while (isLetter(next) && end < textSegment.length()) {
-                    //			end++;			
-                    //		    }
-                    //		    return end-currentPosition; // is correct whether ran out of chars or found non letter 
-		    
 		}
 	    }
 		
@@ -746,9 +755,7 @@ public class TokenizerPTB {
 	}
 
 
-
-
-	private int getLengthIfIsNumberThatStartsWithPeriod(int currentPosition, String textSegment) {
+	private int getLengthIfIsNumberThatStartsWithPeriod(int currentPosition, CharSequence textSegment) {
 	    int len = textSegment.length() -  currentPosition;	
 	    if (len<2) return -1;
 	    int index=currentPosition+1;
@@ -773,16 +780,17 @@ public class TokenizerPTB {
 	 * the end of a sentence
 	 * @param currentPosition
 	 * @param mixedCaseText
+	 * @param lowerCasedText
 	 * @param afterEndOfInputToConsider
 	 * @return
 	 */
-	private int lenIfIsAbbreviation(int currentPosition, String mixedCaseText, int afterEndOfInputToConsider) {
+	private int lenIfIsAbbreviation(int currentPosition, CharSequence mixedCaseText, LowerCasedText lowerCasedText, int afterEndOfInputToConsider) {
 		// Determine if all up to endOfInputToConsider contains at least 1 letter and ends with period
 		// Note input is known to contain at least 1 letter or otherwise would have already been determined to be a number
 		boolean containsLetter = false;
 		// consider as single abbreviation things like e.g. but for things like 
 		// www.nlm.nih.gov (without the http) count as separate tokens 
-		if (afterEndOfInputToConsider-currentPosition >= 4 && mixedCaseText.substring(currentPosition, currentPosition+4).toLowerCase().equals("www.")) {
+		if (afterEndOfInputToConsider-currentPosition >= 4 && lowerCasedText.regionEquals(currentPosition, currentPosition+4, "www.")) {
 			return -1;
 		}
 		for (int i = currentPosition; i < afterEndOfInputToConsider; i++) { 
@@ -806,7 +814,7 @@ public class TokenizerPTB {
 				// If there are more alphanums after, also terminated by period, include that too 
 				// like in A.D. or e.g.
 				int soFar = (i + 1 - currentPosition);
-				int len = lenIfIsAbbreviation(i+1, mixedCaseText, afterEndOfInputToConsider);
+				int len = lenIfIsAbbreviation(i+1, mixedCaseText, lowerCasedText, afterEndOfInputToConsider);
 				// If what's after the period satisfies abbreviation definition itself
 				if (len>0) {
 					return (soFar + len);
@@ -846,7 +854,7 @@ public class TokenizerPTB {
 	 * @param endOfInputToConsider
 	 * @return
 	 */
-	private int lenIfIsEmailAddress(int currentPosition, String lowerCasedText, int endOfInputToConsider) {
+	private int lenIfIsEmailAddress(int currentPosition, CharSequence lowerCasedText, int endOfInputToConsider) {
 
 	    int maxLenLocalPart = 64;
 	    int maxTotalLen = 320;
@@ -857,7 +865,8 @@ public class TokenizerPTB {
 	    
 	    char AT = '@';
 	    char PERIOD = '.'; // as String not char
-	    int indexOfAt = lowerCasedText.substring(currentPosition, endOfInputToConsider).indexOf(AT);
+	    int indexOfAt = indexOf(lowerCasedText, AT, currentPosition, endOfInputToConsider);
+	    if (indexOfAt >= 0) indexOfAt -= currentPosition;
 	    if (indexOfAt < 1 || currentPosition+indexOfAt+1==endOfInputToConsider || indexOfAt > maxLenLocalPart) { // '@' can't be the first character, but must be present, and can't be last char 
 		// if no @ sign, or not in a valid position, don't bother doing anything more complicated, can't be an email address
 		return -1;
@@ -873,8 +882,7 @@ public class TokenizerPTB {
 	    //String localPart = textSegment.substring(currentPosition, currentPosition+indexOfAt);	    
 	    for (int i=currentPosition; i<currentPosition+indexOfAt; i++) {
 		char ch = lowerCasedText.charAt(i);
-		CharSequence cs = lowerCasedText.subSequence(i, i+1);
-		if (!isLetterOrDigit(ch) && !validOtherEmailAddressCharacters.contains(cs)) {
+		if (!isLetterOrDigit(ch) && validOtherEmailAddressCharacters.indexOf(ch) < 0) {
 		    return -1;
 		}
 		if (ch == PERIOD && (i==currentPosition || i == currentPosition+indexOfAt-1)) { // first and last of local name can't be period
@@ -913,14 +921,13 @@ public class TokenizerPTB {
 
 	private static String [] urlStarters = { "http://", "https://", "ftp://", "mailto:" };
 
-	private int lenIfIsUrl(int currentPosition, String lowerCasedText, int endOfInputToConsider) {
+	private int lenIfIsUrl(int currentPosition, CharSequence lowerCasedText, int endOfInputToConsider) {
 
 	    // http://host:port/path?search#fragment
 	    // mailto:joe@example.com
 	    //
-	    String potentialUrl = lowerCasedText.substring(currentPosition, endOfInputToConsider);
 	    for (String s: urlStarters) {
-		if (potentialUrl.startsWith(s) && potentialUrl.length() > s.length()) {
+		if (endOfInputToConsider - currentPosition > s.length() && startsWith(lowerCasedText, currentPosition, s)) {
 		    return endOfInputToConsider - currentPosition; // same as  potentialUrl.length()
 		}
 	    }
@@ -931,7 +938,7 @@ public class TokenizerPTB {
 
 
 	//
-	private Class<? extends BaseToken> determineTokenType(String s, int begin, int end) {
+	private Class<? extends BaseToken> determineTokenType(CharSequence s, int begin, int end) {
 		
 	    if (s==null || s.length() < end || begin+1!=end) {
 		Exception e = new Exception("ERROR: s not at least one char:  s= " + s + " begin, end = " + begin + "," + end);
@@ -960,6 +967,7 @@ public class TokenizerPTB {
 	}
 
 	private boolean verify(int begin, int end, int offsetAdjustment) {
+	    if (begin >= 0 && end >= begin && offsetAdjustment >= 0) return true;
 	    Exception e = new Exception(begin + " " + end + " " + offsetAdjustment);
 	    if (begin < 0) {
 		System.err.println("ERROR: begin = " + begin);
@@ -986,6 +994,28 @@ public class TokenizerPTB {
 	    
 	}
 	
+	/**
+	 * Same checks and token classes as {@link #createToken}, but only the offsets and type are kept
+	 */
+	private void addTokenOffsets(TokenOffsetBuffer tokenOffsets, Class<? extends BaseToken> clas, CharSequence s, int begin, int end, int offsetAdjustment) {
+
+	    int beginFromStartOfDocument = begin + offsetAdjustment;
+	    int endFromStartOfDocument = end + offsetAdjustment;
+
+	    if (!verify(beginFromStartOfDocument, endFromStartOfDocument, offsetAdjustment)) {
+		System.err.println("ERROR: so creating a BaseToken with begin = 0 end = 0 just to avoid exception");
+		tokenOffsets.add(0, 0, Token.TYPE_UNKNOWN);
+		return;
+	    }
+
+	    if (clas == null) { // determine the type for the caller
+		clas = determineTokenType(s, begin, end);
+		if (clas==null) throw new RuntimeException(" still is null");
+	    }
+	    tokenOffsets.add(beginFromStartOfDocument, endFromStartOfDocument, TokenOffsetBuffer.toType(clas));
+
+	}
+
 	/**
 	 * if clas is null, determine token class for the caller
 	 * if jcas is null,  
@@ -1216,7 +1246,7 @@ public class TokenizerPTB {
 	 * Returns -1 if there are no more tokens (eof or all white space
 	 * but no newlines)
 	 */
-	public int findFirstCharOfNextToken(String s, int startPosition) {
+	public int findFirstCharOfNextToken(CharSequence s, int startPosition) {
 
 	    for (int position = startPosition; position < s.length(); position++) {
 
@@ -10,6 +10,7 @@ import org.apache.log4j.Logger;
 import org.apache.uima.UIMAException;
 import org.apache.uima.analysis_component.AnalysisComponent;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.collection.CollectionProcessingEngine;
 import org.apache.uima.collection.CollectionReader;
 import org.apache.uima.collection.CollectionReaderDescription;
@@ -17,7 +18,6 @@ import org.apache.uima.collection.metadata.CpeDescriptorException;
 import org.apache.uima.fit.cpe.CpeBuilder;
 import org.apache.uima.fit.factory.AggregateBuilder;
 import org.apache.uima.fit.factory.CollectionReaderFactory;
-import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.fit.pipeline.SimplePipeline;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -55,6 +55,9 @@ final public class PipelineBuilder {
    private AnalysisEngineDescription _analysisEngineDesc;
    private boolean _pipelineChanged;
    private int _threadCount = 1;
+   // Kept initialized between calls to run( text ) until the pipeline changes.
+   private PooledPipeline _textPipeline;
+   private final List<StageStart> _stageStarts = new ArrayList<>();
 
    public PipelineBuilder() {
       _aeNameList = new ArrayList<>();
@@ -73,6 +76,7 @@ final public class PipelineBuilder {
       _aeEndNameList.clear();
       _aeEndViewList.clear();
       _descEndList.clear();
+      _stageStarts.clear();
       _threadCount = 1;
    }
 
@@ -356,6 +360,39 @@ final public class PipelineBuilder {
       return this;
    }
 
+   /**
+    * Starts a stage of the pipeline that runs on its own threads.
+    * Components added after this call, up to the next stage, belong to the stage.
+    * Components added before the first stage are in a stage with one thread, as are components added with addLast.
+    * When the pipeline has stages {@link #run()} uses a {@link StagedPipeline} and ignores {@link #threads(int)}.
+    * Use of this method is order-specific.
+    *
+    * @param threadCount number of threads, and of copies of the components, for the stage
+    * @param queueSize   number of documents that may wait for the stage
+    * @return this PipelineBuilder
+    */
+   public PipelineBuilder stage( final int threadCount, final int queueSize ) {
+      if ( threadCount < 1 || queueSize < 1 ) {
+         LOGGER.warn( "Stage thread count (" + threadCount + ") and queue size (" + queueSize
+                      + ") cannot be below 1.  Using 1." );
+      }
+      _stageStarts.add( new StageStart( _descList.size(), Math.max( 1, threadCount ), Math.max( 1, queueSize ) ) );
+      _pipelineChanged = true;
+      return this;
+   }
+
+   /**
+    * Starts a stage of the pipeline with a queue of twice as many documents as threads.
+    * Use of this method is order-specific.
+    *
+    * @param threadCount number of threads, and of copies of the components, for the stage
+    * @return this PipelineBuilder
+    * @see #stage(int, int)
+    */
+   public PipelineBuilder stage( final int threadCount ) {
+      return stage( threadCount, 2 * Math.max( 1, threadCount ) );
+   }
+
    /**
     * Initialize a pipeline that can be used repeatedly using {@link #run} and {@link #run(String)}.
     * A pipeline can be extended between builds, but the full pipeline will be rebuilt on each call.
@@ -374,6 +411,7 @@ final public class PipelineBuilder {
             builder.add( _descEndList.get( i ), _aeEndViewList.get( i ) );
          }
          _analysisEngineDesc = builder.createAggregateDescription();
+         closeTextPipeline();
       }
       _pipelineChanged = false;
       return this;
@@ -394,7 +432,12 @@ final public class PipelineBuilder {
          return this;
       }
       build();
-      if ( _threadCount == 1 ) {
+      if ( !_stageStarts.isEmpty() ) {
+         if ( _threadCount > 1 ) {
+            LOGGER.warn( "Pipeline has stages, ignoring thread count " + _threadCount );
+         }
+         new StagedPipeline( _readerDesc, createStages() ).run();
+      } else if ( _threadCount == 1 ) {
          SimplePipeline.runPipeline( _readerDesc, _analysisEngineDesc );
       } else {
          final CpeBuilder cpeBuilder = new CpeBuilder();
@@ -416,6 +459,10 @@ final public class PipelineBuilder {
     * Run the pipeline on the given text.
     * Use of this method is order-specific.
     * This method will call {@link #build()} if the pipeline has not already been initialized.
+    * The pipeline and its cas are initialized on the first call and reused by later calls until the pipeline changes.
+    * Collection process complete is called when the pipeline changes or on {@link #close()},
+    * not after each call, so call {@link #close()} once the last text has been run.
+    * For concurrent calls and access to the populated cas use {@link #createPooledPipeline(int)}.
     *
     * @param text text upon which to run this pipeline
     * @return this PipelineBuilder
@@ -427,13 +474,64 @@ final public class PipelineBuilder {
          LOGGER.error( "Collection Reader specified, ignoring." );
          return this;
       }
-      final JCas jcas = JCasFactory.createJCas();
-      jcas.setDocumentText( text );
       build();
-      SimplePipeline.runPipeline( jcas, _analysisEngineDesc );
+      if ( _textPipeline == null ) {
+         _textPipeline = new PooledPipeline( _analysisEngineDesc, 1 );
+      }
+      final JCas jcas = _textPipeline.process( text );
+      _textPipeline.release( jcas );
       return this;
    }
 
+   /**
+    * Completes the collection and destroys the pipeline used by {@link #run(String)}, if there is one.
+    * Components such as writers finish their output here.
+    * A later call to {@link #run(String)} initializes a new pipeline.
+    *
+    * @throws AnalysisEngineProcessException if the pipeline could not complete
+    */
+   public void close() throws AnalysisEngineProcessException {
+      if ( _textPipeline == null ) {
+         return;
+      }
+      try {
+         _textPipeline.close();
+      } finally {
+         _textPipeline = null;
+      }
+   }
+
+   /**
+    * Create an initialized pipeline that can process many texts, concurrently, without being initialized again.
+    * Use of this method is order-specific.
+    * This method will call {@link #build()} if the pipeline has not already been initialized.
+    * The caller is responsible for closing the returned pipeline.
+    *
+    * @param casCount number of cases, and therefore of concurrent documents.  0 uses the number of processors.
+    * @return a new pooled pipeline
+    * @throws IOException   if the pipeline could not be built
+    * @throws UIMAException if the pipeline could not be built
+    */
+   public PooledPipeline createPooledPipeline( final int casCount ) throws IOException, UIMAException {
+      if ( _readerDesc != null ) {
+         LOGGER.warn( "Collection Reader specified, ignoring." );
+      }
+      build();
+      return new PooledPipeline( _analysisEngineDesc, casCount );
+   }
+
+   private void closeTextPipeline() {
+      if ( _textPipeline == null ) {
+         return;
+      }
+      try {
+         _textPipeline.close();
+      } catch ( UIMAException uE ) {
+         LOGGER.warn( "Could not close previous pipeline " + uE.getMessage() );
+      }
+      _textPipeline = null;
+   }
+
    /**
     * @return an analysis engine description, for use in creating xml descriptor files, etc.
     * @throws IOException   if the description could not be built
@@ -444,6 +542,64 @@ final public class PipelineBuilder {
       return _analysisEngineDesc;
    }
 
+   /**
+    * @return the stages of the pipeline, with one thread for components before the first stage and at the end
+    * @throws ResourceInitializationException if a stage description could not be created
+    */
+   private List<StagedPipeline.Stage> createStages() throws ResourceInitializationException {
+      final List<StagedPipeline.Stage> stages = new ArrayList<>();
+      if ( _stageStarts.get( 0 )._firstIndex > 0 ) {
+         stages.add( createStage( stages.size(), _aeNameList, _aeViewList, _descList,
+               0, _stageStarts.get( 0 )._firstIndex, 1, 2 ) );
+      }
+      for ( int i = 0; i < _stageStarts.size(); i++ ) {
+         final StageStart start = _stageStarts.get( i );
+         final int end = i + 1 < _stageStarts.size() ? _stageStarts.get( i + 1 )._firstIndex : _descList.size();
+         if ( end > start._firstIndex ) {
+            stages.add( createStage( stages.size(), _aeNameList, _aeViewList, _descList,
+                  start._firstIndex, end, start._threadCount, start._queueSize ) );
+         }
+      }
+      if ( !_descEndList.isEmpty() ) {
+         stages.add( createStage( stages.size(), _aeEndNameList, _aeEndViewList, _descEndList,
+               0, _descEndList.size(), 1, 2 ) );
+      }
+      return stages;
+   }
+
+   static private StagedPipeline.Stage createStage( final int stageIndex,
+                                                    final List<String> names,
+                                                    final List<String[]> views,
+                                                    final List<AnalysisEngineDescription> descriptions,
+                                                    final int begin, final int end,
+                                                    final int threadCount, final int queueSize )
+         throws ResourceInitializationException {
+      final AggregateBuilder builder = new AggregateBuilder();
+      final StringBuilder stageName = new StringBuilder( "Stage " ).append( stageIndex + 1 );
+      for ( int i = begin; i < end; i++ ) {
+         builder.add( descriptions.get( i ), views.get( i ) );
+         final String name = names.get( i );
+         stageName.append( i == begin ? " " : ", " ).append( name.substring( name.lastIndexOf( '.' ) + 1 ) );
+      }
+      return new StagedPipeline.Stage( stageName.toString(), builder.createAggregateDescription(),
+            threadCount, queueSize );
+   }
+
+   /**
+    * Position in the pipeline at which a stage starts, with the threads and queue of the stage
+    */
+   static private final class StageStart {
+      private final int _firstIndex;
+      private final int _threadCount;
+      private final int _queueSize;
+
+      private StageStart( final int firstIndex, final int threadCount, final int queueSize ) {
+         _firstIndex = firstIndex;
+         _threadCount = threadCount;
+         _queueSize = queueSize;
+      }
+   }
+
    static private String[] toStringArray( final Collection<String> things ) {
       return new ArrayList<>( things ).toArray( new String[ things.size() ] );
    }
@@ -29,6 +29,9 @@ import java.util.regex.Pattern;
  * addLogged <i>ae_or_cc_class_name ae_parameter_name=ae_parameter_value e_parameter_name=ae_parameter_value</i> ...
  * addDescription <i>ae_or_cc_class_name</i>
  * addLast <i>ae_or_cc_class_name</i>
+ * threads <i>thread_count</i>
+ * stage <i>thread_count queue_size</i>
+ *    components added after a stage, up to the next stage, run on their own threads.  <i>queue_size</i> is optional.
  * collectCuis
  * collectEntities
  * writeXmis <i>output_directory</i>
@@ -227,6 +230,8 @@ final public class PiperFileReader {
             return true;
          case "threads":
             return setThreadCount( info );
+         case "stage":
+            return addStage( info );
          case "collectCuis":
             _builder.collectCuis();
             return true;
@@ -253,6 +258,26 @@ final public class PiperFileReader {
       }
    }
 
+   private boolean addStage( final String info ) {
+      final String[] values = SPACE_PATTERN.split( info );
+      final Object count = attemptParseInt( values[ 0 ] );
+      if ( !( count instanceof Integer ) ) {
+         LOGGER.error( "Could not parse stage thread count from " + info );
+         return false;
+      }
+      if ( values.length == 1 ) {
+         _builder.stage( (Integer) count );
+         return true;
+      }
+      final Object queueSize = attemptParseInt( values[ 1 ] );
+      if ( values.length > 2 || !( queueSize instanceof Integer ) ) {
+         LOGGER.error( "Could not parse stage queue size from " + info );
+         return false;
+      }
+      _builder.stage( (Integer) count, (Integer) queueSize );
+      return true;
+   }
+
    private boolean setThreadCount( final String info ) {
       final Object count = attemptParseInt( info );
       if ( count instanceof Integer ) {
@@ -0,0 +1,107 @@
+package org.apache.ctakes.core.pipeline;
+
+import org.apache.log4j.Logger;
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.CASException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.util.CasPool;
+
+/**
+ * A pipeline that stays initialized between documents, with a pool of cases that are reset and reused.
+ * Creating an engine and a cas is much slower than processing a short note, so a service that annotates
+ * one note at a time should create one of these once and then call {@link #process(String)} for every note.
+ * <p>
+ * {@link #process(String)} can be called by several threads at once.
+ * The engine holds one copy of the pipeline per cas in the pool, so up to that many notes are processed concurrently
+ * and further callers wait for a cas to be released.
+ * </p>
+ * Use {@link PipelineBuilder#createPooledPipeline(int)} to create one from a pipeline.
+ */
+final public class PooledPipeline implements AutoCloseable {
+
+   static private final Logger LOGGER = Logger.getLogger( "PooledPipeline" );
+
+   private final AnalysisEngine _engine;
+   private final CasPool _casPool;
+
+   /**
+    * @param description description of the pipeline
+    * @param casCount    number of cases, and therefore of concurrent documents.  0 uses the number of processors.
+    * @throws ResourceInitializationException if the pipeline could not be initialized
+    */
+   PooledPipeline( final AnalysisEngineDescription description, final int casCount )
+         throws ResourceInitializationException {
+      final int poolSize = casCount > 0 ? casCount : Runtime.getRuntime().availableProcessors();
+      _engine = UIMAFramework.produceAnalysisEngine( description, poolSize, 0 );
+      _casPool = new CasPool( poolSize, _engine );
+      LOGGER.info( "Pipeline initialized for " + poolSize + " concurrent documents." );
+   }
+
+   /**
+    * Runs the pipeline on the given text in a cas from the pool, waiting for one if all are in use.
+    * The returned cas must be given back with {@link #release(JCas)} when the caller is done with it.
+    *
+    * @param text text upon which to run this pipeline
+    * @return jcas populated by the pipeline
+    * @throws AnalysisEngineProcessException if the pipeline could not be run
+    */
+   public JCas process( final String text ) throws AnalysisEngineProcessException {
+      final CAS cas = _casPool.getCas( 0 );
+      if ( cas == null ) {
+         throw new AnalysisEngineProcessException( new IllegalStateException( "No cas available." ) );
+      }
+      boolean processed = false;
+      try {
+         final JCas jcas = cas.getJCas();
+         jcas.setDocumentText( text );
+         _engine.process( jcas );
+         processed = true;
+         return jcas;
+      } catch ( CASException casE ) {
+         throw new AnalysisEngineProcessException( casE );
+      } finally {
+         if ( !processed ) {
+            _casPool.releaseCas( cas );
+         }
+      }
+   }
+
+   /**
+    * Resets the cas of a jcas returned by {@link #process(String)} and returns it to the pool.
+    *
+    * @param jcas -
+    */
+   public void release( final JCas jcas ) {
+      _casPool.releaseCas( jcas.getCas() );
+   }
+
+   /**
+    * Signals the end of a collection to the pipeline, for instance so that writers can finish their output.
+    * This finishes the run, so {@link #close()} should follow and the pipeline should not process more documents.
+    *
+    * @throws AnalysisEngineProcessException if the pipeline could not complete
+    */
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      _engine.collectionProcessComplete();
+   }
+
+   /**
+    * Completes the collection and destroys the pipeline.
+    *
+    * @throws AnalysisEngineProcessException if the pipeline could not complete
+    */
+   @Override
+   public void close() throws AnalysisEngineProcessException {
+      try {
+         _engine.collectionProcessComplete();
+      } finally {
+         _engine.destroy();
+      }
+   }
+
+}
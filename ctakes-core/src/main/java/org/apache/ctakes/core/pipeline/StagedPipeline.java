@@ -0,0 +1,339 @@
+package org.apache.ctakes.core.pipeline;
+
+import org.apache.log4j.Logger;
+import org.apache.uima.UIMAException;
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.collection.CollectionReaderDescription;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.ProcessingResourceMetaData;
+import org.apache.uima.util.CasCreationUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a pipeline as a sequence of stages, each with its own threads and a bounded queue of cases waiting for it.
+ * <p>
+ * Running the whole pipeline on several threads copies every annotator once per thread.
+ * Here each stage only holds as many copies of its annotators as it has threads,
+ * so a cheap stage can run on one or two threads while an expensive stage runs on many,
+ * without duplicating the models of the cheap stage.
+ * The reader fills cases on the calling thread and passes them to the first stage.
+ * Each stage passes its cases to the next, and the last stage resets them for the reader.
+ * The number of cases is the total of stage threads and queue sizes, so memory is bounded.
+ * </p>
+ * Documents may finish out of order.  Queue depths and throughput of each stage are logged periodically.
+ * Use {@link PipelineBuilder#stage(int, int)} or the piper command <i>stage thread_count queue_size</i> to define stages.
+ */
+final public class StagedPipeline {
+
+   static private final Logger LOGGER = Logger.getLogger( "StagedPipeline" );
+
+   static private final long REPORT_SECONDS = 30;
+
+   /**
+    * Part of a pipeline that runs on its own threads.
+    */
+   static public final class Stage {
+      private final String _name;
+      private final AnalysisEngineDescription _description;
+      private final int _threadCount;
+      private final int _queueSize;
+
+      /**
+       * @param name        name used in reports
+       * @param description description of the annotators in the stage
+       * @param threadCount number of threads, and of annotator copies, for the stage
+       * @param queueSize   number of cases that may wait for the stage
+       */
+      public Stage( final String name, final AnalysisEngineDescription description,
+                    final int threadCount, final int queueSize ) {
+         _name = name;
+         _description = description;
+         _threadCount = Math.max( 1, threadCount );
+         _queueSize = Math.max( 1, queueSize );
+      }
+   }
+
+   private final CollectionReaderDescription _readerDesc;
+   private final List<Stage> _stages;
+
+   /**
+    * @param readerDesc collection reader that fills the cases
+    * @param stages     stages in pipeline order
+    */
+   public StagedPipeline( final CollectionReaderDescription readerDesc, final List<Stage> stages ) {
+      _readerDesc = readerDesc;
+      _stages = new ArrayList<>( stages );
+   }
+
+   /**
+    * Reads and processes the whole collection, then completes and destroys the stages.
+    *
+    * @throws IOException   if the reader fails
+    * @throws UIMAException if the pipeline could not be created or a stage fails
+    */
+   public void run() throws IOException, UIMAException {
+      final CollectionReader reader = UIMAFramework.produceCollectionReader( _readerDesc );
+      final List<RunningStage> runningStages = new ArrayList<>( _stages.size() );
+      final List<ProcessingResourceMetaData> metadata = new ArrayList<>();
+      metadata.add( reader.getProcessingResourceMetaData() );
+      int casCount = 0;
+      try {
+         for ( Stage stage : _stages ) {
+            final RunningStage runningStage = new RunningStage( stage );
+            runningStages.add( runningStage );
+            metadata.add( runningStage._engine.getProcessingResourceMetaData() );
+            casCount += stage._threadCount + stage._queueSize;
+         }
+         final BlockingQueue<CAS> freeCases = new LinkedBlockingQueue<>();
+         for ( int i = 0; i < casCount; i++ ) {
+            freeCases.add( CasCreationUtils.createCas( metadata ) );
+         }
+         final AtomicReference<Throwable> failure = new AtomicReference<>();
+         for ( int i = 0; i < runningStages.size(); i++ ) {
+            final BlockingQueue<QueuedCas> next = i + 1 < runningStages.size()
+                                                  ? runningStages.get( i + 1 )._queue : null;
+            runningStages.get( i ).start( next, freeCases, failure );
+         }
+         LOGGER.info( "Running " + runningStages.size() + " stages with " + casCount + " cases." );
+         final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor( r -> {
+            final Thread thread = new Thread( r, "StagedPipeline Report" );
+            thread.setDaemon( true );
+            return thread;
+         } );
+         reporter.scheduleAtFixedRate( () -> logReport( runningStages ),
+               REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS );
+         try {
+            readCollection( reader, runningStages.get( 0 ), freeCases, failure );
+            for ( RunningStage runningStage : runningStages ) {
+               runningStage.awaitTermination();
+            }
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+            for ( RunningStage runningStage : runningStages ) {
+               runningStage.interrupt();
+            }
+            throw new AnalysisEngineProcessException( intE );
+         } finally {
+            reporter.shutdownNow();
+         }
+         logReport( runningStages );
+         throwFailure( failure.get() );
+         for ( RunningStage runningStage : runningStages ) {
+            runningStage._engine.collectionProcessComplete();
+         }
+      } finally {
+         for ( RunningStage runningStage : runningStages ) {
+            runningStage._engine.destroy();
+         }
+         reader.close();
+         reader.destroy();
+      }
+   }
+
+   /**
+    * Fills free cases with the reader and queues them for the first stage until the collection is read
+    * or the reader or a stage fails.
+    */
+   static private void readCollection( final CollectionReader reader,
+                                       final RunningStage firstStage,
+                                       final BlockingQueue<CAS> freeCases,
+                                       final AtomicReference<Throwable> failure ) throws InterruptedException {
+      try {
+         while ( failure.get() == null && reader.hasNext() ) {
+            final CAS cas = freeCases.take();
+            try {
+               reader.getNext( cas );
+            } catch ( Throwable t ) {
+               cas.reset();
+               freeCases.add( cas );
+               throw t;
+            }
+            firstStage._queue.put( new QueuedCas( cas ) );
+         }
+      } catch ( InterruptedException intE ) {
+         throw intE;
+      } catch ( Throwable t ) {
+         LOGGER.error( "Reader failed : " + t.getMessage(), t );
+         failure.compareAndSet( null, t );
+      } finally {
+         firstStage.end();
+      }
+   }
+
+   static private void throwFailure( final Throwable failure ) throws IOException, UIMAException {
+      if ( failure == null ) {
+         return;
+      }
+      if ( failure instanceof IOException ) {
+         throw (IOException)failure;
+      }
+      if ( failure instanceof UIMAException ) {
+         throw (UIMAException)failure;
+      }
+      if ( failure instanceof Error ) {
+         throw (Error)failure;
+      }
+      throw new AnalysisEngineProcessException( failure );
+   }
+
+   static private void logReport( final Collection<RunningStage> runningStages ) {
+      for ( RunningStage runningStage : runningStages ) {
+         LOGGER.info( runningStage.getReport() );
+      }
+   }
+
+   /**
+    * A cas waiting for a stage, or the end of the collection
+    */
+   static private final class QueuedCas {
+      static private final QueuedCas END = new QueuedCas( null );
+      private final CAS _cas;
+
+      private QueuedCas( final CAS cas ) {
+         _cas = cas;
+      }
+   }
+
+   /**
+    * A stage with its engine, queue, threads and counts
+    */
+   static private final class RunningStage {
+      private final Stage _stage;
+      private final AnalysisEngine _engine;
+      private final BlockingQueue<QueuedCas> _queue;
+      private final List<Thread> _threads = new ArrayList<>();
+      private final AtomicInteger _runningCount = new AtomicInteger();
+      private final AtomicLong _documentCount = new AtomicLong();
+      private final AtomicLong _processNanos = new AtomicLong();
+      private volatile long _startNanos;
+
+      private RunningStage( final Stage stage ) throws ResourceInitializationException {
+         _stage = stage;
+         // A multiprocessing engine with one copy of the stage annotators per thread
+         _engine = UIMAFramework.produceAnalysisEngine( stage._description, stage._threadCount, 0 );
+         _queue = new ArrayBlockingQueue<>( stage._queueSize );
+      }
+
+      /**
+       * @param next      queue of the next stage, or null if this is the last stage
+       * @param freeCases cases available to the reader
+       * @param failure   first failure of any stage
+       */
+      private void start( final BlockingQueue<QueuedCas> next,
+                          final BlockingQueue<CAS> freeCases,
+                          final AtomicReference<Throwable> failure ) {
+         _runningCount.set( _stage._threadCount );
+         _startNanos = System.nanoTime();
+         for ( int i = 0; i < _stage._threadCount; i++ ) {
+            final Thread thread = new Thread( () -> work( next, freeCases, failure ), _stage._name + " " + i );
+            thread.setDaemon( true );
+            _threads.add( thread );
+            thread.start();
+         }
+      }
+
+      private void work( final BlockingQueue<QueuedCas> next,
+                         final BlockingQueue<CAS> freeCases,
+                         final AtomicReference<Throwable> failure ) {
+         try {
+            QueuedCas queued = _queue.take();
+            while ( queued != QueuedCas.END ) {
+               try {
+                  process( queued._cas, failure );
+               } finally {
+                  if ( next == null || failure.get() != null ) {
+                     queued._cas.reset();
+                     freeCases.add( queued._cas );
+                  } else {
+                     next.put( queued );
+                  }
+               }
+               queued = _queue.take();
+            }
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+         } catch ( Throwable t ) {
+            LOGGER.error( _stage._name + " failed : " + t.getMessage(), t );
+            failure.compareAndSet( null, t );
+         } finally {
+            endThread( next );
+         }
+      }
+
+      /**
+       * Passes the end on once the last thread of the stage is done, also after a failure,
+       * so that the later stages finish.
+       */
+      private void endThread( final BlockingQueue<QueuedCas> next ) {
+         try {
+            if ( _runningCount.decrementAndGet() > 0 ) {
+               // Let the other threads of this stage see the end
+               _queue.put( QueuedCas.END );
+            } else if ( next != null ) {
+               next.put( QueuedCas.END );
+            }
+         } catch ( InterruptedException intE ) {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      private void process( final CAS cas, final AtomicReference<Throwable> failure ) {
+         if ( failure.get() != null ) {
+            return;
+         }
+         final long start = System.nanoTime();
+         try {
+            _engine.process( cas );
+         } catch ( Throwable t ) {
+            // Errors too, or the stage thread would die without passing its cas or the end on
+            LOGGER.error( _stage._name + " failed : " + t.getMessage(), t );
+            failure.compareAndSet( null, t );
+         }
+         _processNanos.addAndGet( System.nanoTime() - start );
+         _documentCount.incrementAndGet();
+      }
+
+      /**
+       * Signals that no more cases will be queued for this stage.
+       */
+      private void end() throws InterruptedException {
+         _queue.put( QueuedCas.END );
+      }
+
+      private void awaitTermination() throws InterruptedException {
+         for ( Thread thread : _threads ) {
+            thread.join();
+         }
+      }
+
+      private void interrupt() {
+         _threads.forEach( Thread::interrupt );
+      }
+
+      /**
+       * @return queue depth, document count, throughput and average document time of the stage
+       */
+      private String getReport() {
+         final long documents = _documentCount.get();
+         final double seconds = Math.max( 1, System.nanoTime() - _startNanos ) / 1e9;
+         final double averageMillis = documents == 0 ? 0 : _processNanos.get() / 1e6 / documents;
+         return String.format( "%s : %d threads, queue %d/%d, %d documents, %.2f documents/second, %.1f ms/document",
+               _stage._name, _stage._threadCount, _queue.size(), _stage._queueSize, documents,
+               documents / seconds, averageMillis );
+      }
+   }
+
+}
@@ -0,0 +1,189 @@
+package org.apache.ctakes.core.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe, size-bounded cache keyed by primitive long.
+ * Keys are never boxed; they are held in an open addressing table over fixed arrays.
+ * When full, an entry is evicted with the clock (second chance) approximation of least recently used.
+ * Hits and misses are counted so that the effectiveness of the cache can be logged.
+ */
+final public class LongKeyCache<V> {
+
+   private final int _maxSize;
+   private final int _mask;
+   // hash table of slot index + 1, 0 is empty
+   private final int[] _table;
+   private final long[] _slotKeys;
+   private final Object[] _slotValues;
+   private final boolean[] _referenced;
+   private int _size;
+   private int _clockHand;
+   private long _hitCount;
+   private long _missCount;
+
+   /**
+    * @param maxSize maximum number of entries held by the cache
+    */
+   public LongKeyCache( final int maxSize ) {
+      _maxSize = Math.max( 1, maxSize );
+      int tableSize = Integer.highestOneBit( _maxSize * 2 - 1 ) << 1;
+      _table = new int[ tableSize ];
+      _mask = tableSize - 1;
+      _slotKeys = new long[ _maxSize ];
+      _slotValues = new Object[ _maxSize ];
+      _referenced = new boolean[ _maxSize ];
+   }
+
+   /**
+    * @param key -
+    * @return the cached value or null if the key is not in the cache
+    */
+   @SuppressWarnings( "unchecked" )
+   public synchronized V get( final long key ) {
+      final int position = findPosition( key );
+      if ( _table[ position ] == 0 ) {
+         _missCount++;
+         return null;
+      }
+      _hitCount++;
+      final int slot = _table[ position ] - 1;
+      _referenced[ slot ] = true;
+      return (V)_slotValues[ slot ];
+   }
+
+   /**
+    * @param key -
+    * @return true if the key is in the cache.  Does not change hit and miss counts or eviction order.
+    */
+   public synchronized boolean containsKey( final long key ) {
+      return _table[ findPosition( key ) ] != 0;
+   }
+
+   /**
+    * @param key   -
+    * @param value -
+    */
+   public synchronized void put( final long key, final V value ) {
+      final int position = findPosition( key );
+      if ( _table[ position ] != 0 ) {
+         final int slot = _table[ position ] - 1;
+         _slotValues[ slot ] = value;
+         _referenced[ slot ] = true;
+         return;
+      }
+      final int slot;
+      if ( _size < _maxSize ) {
+         slot = _size;
+         _size++;
+      } else {
+         slot = evict();
+      }
+      _slotKeys[ slot ] = key;
+      _slotValues[ slot ] = value;
+      _referenced[ slot ] = false;
+      // eviction may have shifted table entries, so find the position again
+      _table[ findPosition( key ) ] = slot + 1;
+   }
+
+   public synchronized int size() {
+      return _size;
+   }
+
+   public int getMaxSize() {
+      return _maxSize;
+   }
+
+   public synchronized long getHitCount() {
+      return _hitCount;
+   }
+
+   public synchronized long getMissCount() {
+      return _missCount;
+   }
+
+   /**
+    * @return fraction of requests that were cache hits, 0 if there have been no requests
+    */
+   public synchronized double getHitRate() {
+      final long total = _hitCount + _missCount;
+      return total == 0 ? 0 : (double)_hitCount / total;
+   }
+
+   public synchronized void clear() {
+      Arrays.fill( _table, 0 );
+      Arrays.fill( _slotValues, null );
+      Arrays.fill( _referenced, false );
+      _size = 0;
+      _clockHand = 0;
+      _hitCount = 0;
+      _missCount = 0;
+   }
+
+   /**
+    * @return summary of size, hits and misses suitable for logging
+    */
+   @Override
+   public synchronized String toString() {
+      return "Cache size " + _size + " of " + _maxSize
+             + ", hits " + _hitCount + ", misses " + _missCount
+             + String.format( ", hit rate %.1f%%", getHitRate() * 100 );
+   }
+
+   /**
+    * Advances the clock hand past recently referenced slots and removes the first unreferenced entry
+    *
+    * @return the freed slot
+    */
+   private int evict() {
+      while ( _referenced[ _clockHand ] ) {
+         _referenced[ _clockHand ] = false;
+         _clockHand = (_clockHand + 1) % _maxSize;
+      }
+      final int slot = _clockHand;
+      _clockHand = (_clockHand + 1) % _maxSize;
+      removePosition( findPosition( _slotKeys[ slot ] ) );
+      _slotValues[ slot ] = null;
+      return slot;
+   }
+
+   /**
+    * @return table position holding the key, or the empty position at which it would be placed
+    */
+   private int findPosition( final long key ) {
+      int position = hash( key ) & _mask;
+      while ( _table[ position ] != 0 && _slotKeys[ _table[ position ] - 1 ] != key ) {
+         position = (position + 1) & _mask;
+      }
+      return position;
+   }
+
+   /**
+    * Linear probing removal that shifts following entries back so that no tombstones are needed
+    */
+   private void removePosition( int position ) {
+      int next = position;
+      while ( true ) {
+         next = (next + 1) & _mask;
+         if ( _table[ next ] == 0 ) {
+            _table[ position ] = 0;
+            return;
+         }
+         final int home = hash( _slotKeys[ _table[ next ] - 1 ] ) & _mask;
+         // move the entry back if its home is not cyclically within (position, next]
+         final boolean inRange = position <= next
+                                 ? position < home && home <= next
+                                 : position < home || home <= next;
+         if ( !inRange ) {
+            _table[ position ] = _table[ next ];
+            position = next;
+         }
+      }
+   }
+
+   static private int hash( final long key ) {
+      final long h = key * 0x9E3779B97F4A7C15L;
+      return (int)(h ^ (h >>> 32));
+   }
+
+}
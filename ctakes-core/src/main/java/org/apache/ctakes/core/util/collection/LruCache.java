@@ -0,0 +1,132 @@
+package org.apache.ctakes.core.util.collection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Thread-safe, size-bounded cache that evicts the least recently used entry.
+ * Hits and misses are counted so that the effectiveness of the cache can be logged.
+ */
+final public class LruCache<K, V> {
+
+   private final int _maxSize;
+   private final Map<K, V> _map;
+   private long _hitCount;
+   private long _missCount;
+
+   /**
+    * @param maxSize maximum number of entries held by the cache
+    */
+   public LruCache( final int maxSize ) {
+      _maxSize = Math.max( 1, maxSize );
+      _map = new LinkedHashMap<K, V>( Math.min( _maxSize, 1024 ), 0.75f, true ) {
+         @Override
+         protected boolean removeEldestEntry( final Map.Entry<K, V> eldest ) {
+            return size() > _maxSize;
+         }
+      };
+   }
+
+   /**
+    * @param key -
+    * @return the cached value or null if the key is not in the cache
+    */
+   public synchronized V get( final K key ) {
+      final V value = _map.get( key );
+      if ( value == null ) {
+         _missCount++;
+      } else {
+         _hitCount++;
+      }
+      return value;
+   }
+
+   /**
+    * @param key    -
+    * @param loader creates the value for the key on a cache miss.  It is called outside of the cache lock.
+    * @return the cached or newly loaded value
+    */
+   public V get( final K key, final Function<K, V> loader ) {
+      final V cached = get( key );
+      if ( cached != null ) {
+         return cached;
+      }
+      final V value = loader.apply( key );
+      if ( value != null ) {
+         put( key, value );
+      }
+      return value;
+   }
+
+   /**
+    * @param key -
+    * @return true if the key is in the cache.  Does not change hit and miss counts or eviction order.
+    */
+   public synchronized boolean containsKey( final K key ) {
+      return _map.containsKey( key );
+   }
+
+   /**
+    * @param key   -
+    * @param value -
+    */
+   public synchronized void put( final K key, final V value ) {
+      _map.put( key, value );
+   }
+
+   /**
+    * @param map entries to add to the cache
+    */
+   public synchronized void putAll( final Map<? extends K, ? extends V> map ) {
+      _map.putAll( map );
+   }
+
+   /**
+    * @return copy of the cache contents in order from least to most recently used
+    */
+   public synchronized Map<K, V> toMap() {
+      return new LinkedHashMap<>( _map );
+   }
+
+   public synchronized int size() {
+      return _map.size();
+   }
+
+   public int getMaxSize() {
+      return _maxSize;
+   }
+
+   public synchronized long getHitCount() {
+      return _hitCount;
+   }
+
+   public synchronized long getMissCount() {
+      return _missCount;
+   }
+
+   /**
+    * @return fraction of requests that were cache hits, 0 if there have been no requests
+    */
+   public synchronized double getHitRate() {
+      final long total = _hitCount + _missCount;
+      return total == 0 ? 0 : (double)_hitCount / total;
+   }
+
+   public synchronized void clear() {
+      _map.clear();
+      _hitCount = 0;
+      _missCount = 0;
+   }
+
+   /**
+    * @return summary of size, hits and misses suitable for logging
+    */
+   @Override
+   public synchronized String toString() {
+      return "Cache size " + _map.size() + " of " + _maxSize
+             + ", hits " + _hitCount + ", misses " + _missCount
+             + String.format( ", hit rate %.1f%%", getHitRate() * 100 );
+   }
+
+}
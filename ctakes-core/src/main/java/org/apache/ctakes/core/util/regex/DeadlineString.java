@@ -0,0 +1,85 @@
+package org.apache.ctakes.core.util.regex;
+
+/**
+ * A representation of text that aborts a regex match that runs past a deadline.
+ * No other thread is involved: every 1024 calls to charAt(..) the clock is compared to the deadline,
+ * which is cheap enough to restart for every one of many small matches.
+ * {@link TimeoutMatcher} and {@link RegexSpanFinder} use it to abort their matches.
+ * <p>
+ * Proper usage is:
+ * final DeadlineString text = new DeadlineString( docText, 1000 );
+ * final Matcher matcher = pattern.matcher( text );
+ * try {
+ * text.restartClock();
+ * while ( matcher.find() ) {
+ * ...
+ * text.restartClock();
+ * }
+ * } catch ( RegexTimeoutException rtE ) {
+ * ...
+ * }
+ * </p>
+ * Not thread safe, each thread should wrap its own text.
+ */
+final public class DeadlineString implements CharSequence {
+
+   static private final int CHECK_MASK = 0x3ff;
+
+   private final CharSequence _delegate;
+   private final long _timeoutNanos;
+   private long _deadline;
+   private int _count;
+
+   /**
+    * The clock starts immediately
+    *
+    * @param delegate      text to wrap
+    * @param timeoutMillis milliseconds after which a match should be aborted
+    */
+   public DeadlineString( final CharSequence delegate, final long timeoutMillis ) {
+      _delegate = delegate;
+      _timeoutNanos = timeoutMillis * 1000000L;
+      restartClock();
+   }
+
+   /**
+    * Gives the next match a full timeout
+    */
+   public void restartClock() {
+      _deadline = System.nanoTime() + _timeoutNanos;
+      _count = 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    *
+    * @throws RegexTimeoutException if the deadline has passed
+    */
+   @Override
+   public char charAt( final int index ) {
+      if ( (++_count & CHECK_MASK) == 0 && System.nanoTime() - _deadline > 0 ) {
+         throw new RegexTimeoutException( "Regex match exceeded " + (_timeoutNanos / 1000000L) + " milliseconds" );
+      }
+      return _delegate.charAt( index );
+   }
+
+   @Override
+   public int length() {
+      return _delegate.length();
+   }
+
+   /**
+    * Subsequences are used for group text after a match, so they are not checked
+    * {@inheritDoc}
+    */
+   @Override
+   public CharSequence subSequence( final int start, final int end ) {
+      return _delegate.subSequence( start, end );
+   }
+
+   @Override
+   public String toString() {
+      return _delegate.toString();
+   }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util.regex;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the regex matches that were aborted at their timeout, keyed by the pattern's regular expression.
+ * {@link TimeoutMatcher} and {@link RegexSpanFinder} count their timeouts here,
+ * so that the expressions that time out most often can be found and rewritten.
+ */
+public enum RegexTimeoutCounter {
+   INSTANCE;
+
+   private final Map<String, LongAdder> _timeoutCounts = new ConcurrentHashMap<>();
+
+   public static RegexTimeoutCounter getInstance() {
+      return INSTANCE;
+   }
+
+   /**
+    * @param pattern pattern whose match timed out
+    */
+   void countTimeout( final Pattern pattern ) {
+      _timeoutCounts.computeIfAbsent( pattern.pattern(), p -> new LongAdder() ).increment();
+   }
+
+   /**
+    * @param regex regular expression
+    * @return number of matches using the regular expression that timed out
+    */
+   public long getTimeoutCount( final String regex ) {
+      final LongAdder count = _timeoutCounts.get( regex );
+      return count == null ? 0 : count.sum();
+   }
+
+   /**
+    * @return map of each regular expression that has timed out to its number of timeouts
+    */
+   public Map<String, Long> getTimeoutCounts() {
+      final Map<String, Long> timeoutCounts = new HashMap<>( _timeoutCounts.size() );
+      _timeoutCounts.forEach( ( regex, count ) -> timeoutCounts.put( regex, count.sum() ) );
+      return Collections.unmodifiableMap( timeoutCounts );
+   }
+
+}
@@ -0,0 +1,13 @@
+package org.apache.ctakes.core.util.regex;
+
+/**
+ * Thrown when a regular expression match runs longer than its allowed time,
+ * usually because of catastrophic backtracking in a poorly-built expression.
+ */
+public class RegexTimeoutException extends RuntimeException {
+
+   public RegexTimeoutException( final String message ) {
+      super( message );
+   }
+
+}
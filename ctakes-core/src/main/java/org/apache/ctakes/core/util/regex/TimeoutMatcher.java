@@ -3,19 +3,21 @@ package org.apache.ctakes.core.util.regex;
 import org.apache.log4j.Logger;
 
 import java.io.Closeable;
-import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * Class that can / should be used to find text spans using regular expressions.
- * It runs Matcher find {@link Matcher#find()} in a separate thread so that it may be interrupted at a set timeout.
+ * It runs Matcher find {@link Matcher#find()} on the calling thread over a {@link DeadlineString},
+ * so that it is aborted at a set timeout.
  * This prevents infinite loop problems that can be caused by poorly-built expressions or unexpected text contents.
  * The timeout can be specified in milliseconds between 100 and 10,000.  Large timeouts are unadvised.  If a large
  * amount of text needs to be parsed then it is better to split up the text logically and use smaller timeouts.
  * The default timeout is 1000 milliseconds.
- * Extending Matcher would be better, but it is final
+ * Extending Matcher would be better, but it is final.
+ * A TimeoutMatcher should only be used by one thread.
+ * Timeouts are counted per pattern by the {@link RegexTimeoutCounter}.
  * <p>
  * <p>
  * Proper usage is:
@@ -36,15 +38,15 @@ import java.util.regex.PatternSyntaxException;
  */
 public class TimeoutMatcher implements Closeable {
 
-   static private final Logger LOGGER = Logger.getLogger( "TimeoutMatcher" );
-
    static private final int DEFAULT_TIMEOUT_MILLIS = 1000;
    static private final int MIN_TIMEOUT_MILLIS = 100;
    static private final int MAX_TIMEOUT_MILLIS = 10000;
 
-   private final ExecutorService _executor;
-   private final int _timeoutMillis;
+   static private final Logger LOGGER = Logger.getLogger( "TimeoutMatcher" );
+
+   private final DeadlineString _text;
    private final Matcher _matcher;
+   private boolean _done;
 
 
    /**
@@ -97,65 +99,40 @@ public class TimeoutMatcher implements Closeable {
          throw new IllegalArgumentException( "Timeout must be between "
                                              + MIN_TIMEOUT_MILLIS + " and " + MAX_TIMEOUT_MILLIS );
       }
-      _matcher = pattern.matcher( new ThreadString( text ) );
-      _timeoutMillis = timeoutMillis;
-      _executor = Executors.newSingleThreadExecutor();
+      _text = new DeadlineString( text, timeoutMillis );
+      _matcher = pattern.matcher( _text );
    }
 
 
    /**
-    * @return a matcher representing the next call to {@link Matcher#find()}
+    * @return a matcher representing the next call to {@link Matcher#find()},
+    * or null if there is no other find or the find timed out
     */
    public Matcher nextMatch() {
-      final Callable<Matcher> callable = new RegexCallable();
-      final Future<Matcher> future = _executor.submit( callable );
+      if ( _done ) {
+         return null;
+      }
+      _text.restartClock();
       try {
-         return future.get( _timeoutMillis, TimeUnit.MILLISECONDS );
-      } catch ( InterruptedException | ExecutionException | TimeoutException multE ) {
-         LOGGER.debug( "Timeout for " + _matcher.pattern() );
-         if ( !future.cancel( true ) ) {
-            LOGGER.error( "Timed out but could not be cancelled while detecting " + _matcher.pattern() );
+         if ( _matcher.find() ) {
+            return _matcher;
          }
+      } catch ( RegexTimeoutException rtE ) {
+         // After a timeout the matcher state is unusable
+         LOGGER.error( rtE.getMessage() + " while detecting " + _matcher.pattern() );
+         RegexTimeoutCounter.getInstance().countTimeout( _matcher.pattern() );
       }
-      if ( future.isCancelled() ) {
-         LOGGER.error( "Cancelled while detecting " + _matcher.pattern() );
-      } else if ( !future.isDone() ) {
-         LOGGER.error( "Not cancelled but didn't complete while detecting " + _matcher.pattern() );
-      }
+      _done = true;
       return null;
    }
 
 
    /**
-    * shut down the executor
+    * There is no longer an executor to shut down
     * {@inheritDoc}
     */
    @Override
    public void close() {
-      _executor.shutdownNow();
-   }
-
-
-   /**
-    * Simple Callable that runs a {@link Matcher} on text
-    */
-   private final class RegexCallable implements Callable<Matcher> {
-
-      private RegexCallable() {
-      }
-
-      /**
-       * {@inheritDoc}
-       *
-       * @return matcher if there is another find, else null
-       */
-      @Override
-      public Matcher call() {
-         if ( _matcher.find() ) {
-            return _matcher;
-         }
-         return null;
-      }
    }
 
 }
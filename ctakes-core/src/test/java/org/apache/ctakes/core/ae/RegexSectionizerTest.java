@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.ae;
+
+import org.apache.ctakes.core.util.Pair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RegexSectionizerTest {
+
+   static private final String[] HEADER_REGEXES = {
+         "^[\\t ]*(?:CHIEF|PRIMARY) COMPLAINTS?[\\t ]*:?[\\t ]*$",
+         "^[\\t ]*((?:CURRENT )?MEDICATIONS?)[\\t ]*:?[\\t ]*$",
+         // top level alternation, only the first alternative is anchored
+         "^[\\t ]*(?:FAMILY (?:MEDICAL )?HISTORY)|(?:FAM HX)|FHX[\\t ]*:?[\\t ]*$",
+         // not anchored
+         "IMPRESSION:",
+         // spans several lines
+         "^PLAN:\\s+ONE\\s+TWO$"
+   };
+
+   static private final String TEXT = "Chief Complaint:\r\nchest pain\r\n\r\n"
+                                      + "  MEDICATIONS  \n aspirin fhx: none\rFamily History\n"
+                                      + "IMPRESSION: stable.  Impression: also "
+                                      + "PLAN:\nONE\nTWO\nCurrent Medication";
+
+   @BeforeClass
+   static public void addSectionTypes() {
+      for ( int i = 0; i < HEADER_REGEXES.length; i++ ) {
+         RegexSectionizer.addSectionType(
+               new RegexSectionizer.SectionType( "TestType" + i, HEADER_REGEXES[ i ], null, true ) );
+      }
+   }
+
+   @Test
+   public void testLineAnchored() {
+      assertTrue( RegexSectionizer.isLineAnchored( HEADER_REGEXES[ 0 ] ) );
+      assertTrue( RegexSectionizer.isLineAnchored( HEADER_REGEXES[ 1 ] ) );
+      assertFalse( RegexSectionizer.isLineAnchored( HEADER_REGEXES[ 2 ] ) );
+      assertFalse( RegexSectionizer.isLineAnchored( HEADER_REGEXES[ 3 ] ) );
+      assertTrue( RegexSectionizer.isLineAnchored( "^[|(]A" ) );
+      assertTrue( RegexSectionizer.isLineAnchored( "^\\|A" ) );
+      assertFalse( RegexSectionizer.isLineAnchored( "^?A" ) );
+   }
+
+   @Test
+   public void testSameAsFind() {
+      final Map<Pair<Integer>, RegexSectionizer.SectionTag> headerTags = RegexSectionizer.findHeaderTags( TEXT );
+      final Set<Pair<Integer>> expected = new HashSet<>();
+      for ( String regex : HEADER_REGEXES ) {
+         final Matcher matcher = Pattern.compile( regex, Pattern.MULTILINE | Pattern.CASE_INSENSITIVE )
+                                        .matcher( TEXT );
+         while ( matcher.find() ) {
+            expected.add( new Pair<>( matcher.start(), matcher.end() ) );
+         }
+      }
+      assertEquals( 7, expected.size() );
+      assertEquals( expected, headerTags.keySet() );
+   }
+
+}
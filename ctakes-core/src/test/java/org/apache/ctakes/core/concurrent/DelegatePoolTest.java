@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.concurrent;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.factory.UimaContextFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DelegatePoolTest {
+
+   static private final AtomicInteger CREATED = new AtomicInteger();
+   static private final AtomicInteger RUNNING = new AtomicInteger();
+   static private final AtomicInteger MAX_RUNNING = new AtomicInteger();
+   static private final AtomicInteger COMPLETED = new AtomicInteger();
+
+   static public class SlowAnnotator extends JCasAnnotator_ImplBase {
+      private boolean _busy;
+
+      public SlowAnnotator() {
+         CREATED.incrementAndGet();
+      }
+
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         if ( _busy ) {
+            throw new AnalysisEngineProcessException( new IllegalStateException( "Annotator used concurrently" ) );
+         }
+         _busy = true;
+         final int running = RUNNING.incrementAndGet();
+         MAX_RUNNING.accumulateAndGet( running, Math::max );
+         try {
+            Thread.sleep( 20 );
+         } catch ( InterruptedException intE ) {
+            throw new AnalysisEngineProcessException( intE );
+         }
+         RUNNING.decrementAndGet();
+         _busy = false;
+      }
+
+      @Override
+      public void collectionProcessComplete() {
+         COMPLETED.incrementAndGet();
+      }
+   }
+
+   @Test
+   public void testConcurrentProcessing() throws Exception {
+      final UimaContext context = UimaContextFactory.createUimaContext( DelegatePool.PARAM_POOL_SIZE, 3 );
+      final DelegatePool<SlowAnnotator> pool = new DelegatePool<>( SlowAnnotator::new );
+      pool.initialize( context );
+      assertEquals( 3, pool.getPoolSize() );
+      assertEquals( "Only one annotator should be created on initialization", 1, CREATED.get() );
+      final ExecutorService executor = Executors.newFixedThreadPool( 6 );
+      final Collection<Future<?>> futures = new ArrayList<>();
+      for ( int i = 0; i < 24; i++ ) {
+         futures.add( executor.submit( () -> {
+            final SlowAnnotator annotator = pool.borrow();
+            try {
+               annotator.process( (JCas)null );
+            } finally {
+               pool.release( annotator );
+            }
+            return null;
+         } ) );
+      }
+      for ( Future<?> future : futures ) {
+         future.get();
+      }
+      executor.shutdown();
+      assertTrue( "Pool size exceeded", CREATED.get() <= 3 );
+      assertTrue( "Pool size exceeded", MAX_RUNNING.get() <= 3 );
+      assertTrue( "No concurrent processing", MAX_RUNNING.get() > 1 );
+      pool.callAll( SlowAnnotator::collectionProcessComplete );
+      assertEquals( CREATED.get(), COMPLETED.get() );
+   }
+
+}
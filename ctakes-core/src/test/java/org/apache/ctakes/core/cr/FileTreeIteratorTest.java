@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.cr;
+
+import org.apache.ctakes.core.config.ConfigParameterConstants;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.CollectionReaderFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.util.Progress;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FileTreeIteratorTest {
+
+   @Rule
+   public TemporaryFolder _tempFolder = new TemporaryFolder();
+
+   private File createTree() throws IOException {
+      final File root = _tempFolder.newFolder( "root" );
+      for ( String path : new String[]{ "note10.txt", "note2.txt", "skip.bsv", "a/note1.txt", "a/b/note3.txt",
+                                        "a/b/note1.txt", "b10/note.txt", "b2/note.txt", "c/d/e/note.txt" } ) {
+         final File file = new File( root, path );
+         file.getParentFile().mkdirs();
+         Files.write( file.toPath(), path.getBytes( StandardCharsets.UTF_8 ) );
+      }
+      new File( root, "empty/emptier" ).mkdirs();
+      return root;
+   }
+
+   @Test
+   public void testSameOrderAsListing() throws IOException {
+      final File root = createTree();
+      final TextFileReader reader = new TextFileReader();
+      final List<File> listed = reader.getDescendentFiles( root, Collections.singletonList( ".txt" ) );
+      final FileTreeIterator iterator = new FileTreeIterator( root, reader.createFileComparator(),
+            f -> f.getName().endsWith( ".txt" ) );
+      final List<File> streamed = new ArrayList<>();
+      while ( iterator.hasNext() ) {
+         streamed.add( iterator.next() );
+      }
+      assertEquals( "Streamed files should be in listing order", listed, streamed );
+      assertEquals( "Estimate should be exact after the walk", listed.size(), iterator.getEstimatedCount() );
+   }
+
+   @Test
+   public void testStreamedPrefetchedReader() throws Exception {
+      final File root = createTree();
+      final CollectionReader reader = CollectionReaderFactory.createReader( TextFileReader.class,
+            ConfigParameterConstants.PARAM_INPUTDIR, root.getPath(),
+            AbstractFileTreeReader.PARAM_EXTENSIONS, new String[]{ "txt" },
+            AbstractFileTreeReader.PARAM_STREAM_FILES, true,
+            AbstractFileTreeReader.PARAM_PREFETCH_COUNT, 2 );
+      final JCas jCas = JCasFactory.createJCas();
+      final List<String> texts = new ArrayList<>();
+      while ( reader.hasNext() ) {
+         jCas.reset();
+         reader.getNext( jCas.getCas() );
+         texts.add( jCas.getDocumentText() );
+         final Progress progress = reader.getProgress()[ 0 ];
+         assertTrue( "Streamed progress should be approximate", progress.isApproximate() );
+         assertTrue( progress.getCompleted() <= progress.getTotal() );
+      }
+      reader.close();
+      final List<String> expected = new ArrayList<>();
+      for ( File file : new TextFileReader().getDescendentFiles( root, Collections.singletonList( ".txt" ) ) ) {
+         expected.add( root.toPath().relativize( file.toPath() ).toString().replace( File.separatorChar, '/' ) );
+      }
+      assertEquals( "Streamed prefetched reader should read the listed files", expected, texts );
+   }
+
+   static public final class TextFileReader extends AbstractFileTreeReader {
+      @Override
+      protected void readFile( final JCas jCas, final File file ) throws IOException {
+         try ( BufferedReader reader
+                     = new BufferedReader( new InputStreamReader( openFile( file ), StandardCharsets.UTF_8 ) ) ) {
+            jCas.setDocumentText( reader.readLine() );
+         }
+      }
+   }
+
+}
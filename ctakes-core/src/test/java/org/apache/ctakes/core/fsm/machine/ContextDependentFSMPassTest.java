@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.fsm.machine;
+
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.core.fsm.token.IntegerToken;
+import org.apache.ctakes.core.fsm.token.NumberToken;
+import org.apache.ctakes.core.fsm.token.PunctuationToken;
+import org.apache.ctakes.core.fsm.token.WordToken;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class ContextDependentFSMPassTest {
+
+   static private final String[] WORDS = ( "i ii iii iv v x mix dr mr mrs am pm jan march may sept one two three"
+                                           + " five ten half third mg ml cc kg l lb oz tsp hour min of and the at" ).split( " " );
+
+   private final DateFSM _dateFSM = new DateFSM();
+   private final TimeFSM _timeFSM = new TimeFSM();
+   private final RomanNumeralFSM _romanNumeralFSM = new RomanNumeralFSM();
+   private final FractionFSM _fractionFSM = new FractionFSM();
+   private final RangeFSM _rangeFSM = new RangeFSM();
+   private final MeasurementFSM _measurementFSM = new MeasurementFSM();
+   private final PersonTitleFSM _personTitleFSM = new PersonTitleFSM();
+   private final ContextDependentFSMPass _pass = new ContextDependentFSMPass( _dateFSM, _timeFSM, _romanNumeralFSM,
+         _fractionFSM, _rangeFSM, _measurementFSM, _personTitleFSM );
+
+   @Test
+   public void testRangeOfRomanNumerals() throws Exception {
+      final List<BaseToken> tokens = tokenize( "stage II - IV disease" );
+      _pass.execute( tokens );
+      assertEquals( Arrays.asList( "6-8", "11-13" ), spans( _pass.getRomanNumeralTokenSet() ) );
+      assertEquals( Collections.singletonList( "6-13" ), spans( _pass.getRangeTokenSet() ) );
+   }
+
+   @Test
+   public void testMeasurementOfRange() throws Exception {
+      final List<BaseToken> tokens = tokenize( "took 250 - 300 mg daily" );
+      _pass.execute( tokens );
+      assertEquals( Collections.singletonList( "5-14" ), spans( _pass.getRangeTokenSet() ) );
+      assertEquals( Collections.singletonList( "5-17" ), spans( _pass.getMeasurementTokenSet() ) );
+   }
+
+   @Test
+   public void testRandomAgainstSeparateFsms() throws Exception {
+      final Random random = new Random( 11 );
+      for ( int i = 0; i < 5000; i++ ) {
+         final StringBuilder sb = new StringBuilder();
+         final int count = 1 + random.nextInt( 30 );
+         for ( int j = 0; j < count; j++ ) {
+            final int kind = random.nextInt( 10 );
+            if ( kind < 6 ) {
+               sb.append( WORDS[ random.nextInt( WORDS.length ) ] );
+            } else if ( kind < 8 ) {
+               sb.append( random.nextInt( 4 ) == 0 ? random.nextInt( 200 ) : random.nextInt( 32 ) );
+            } else {
+               sb.append( "-/:.,".charAt( random.nextInt( 5 ) ) );
+            }
+            sb.append( ' ' );
+         }
+         final List<BaseToken> tokens = tokenize( sb.toString() );
+         _pass.execute( tokens );
+         // override tokens with the same start offset are put in the order they were found
+         final Set<BaseToken> romanNumerals = ordered( _romanNumeralFSM.execute( tokens ) );
+         final Set<BaseToken> ranges = ordered( _rangeFSM.execute( tokens, romanNumerals ) );
+         final String text = sb.toString();
+         assertEquals( text, spans( _dateFSM.execute( tokens ) ), spans( _pass.getDateTokenSet() ) );
+         assertEquals( text, spans( _timeFSM.execute( tokens ) ), spans( _pass.getTimeTokenSet() ) );
+         assertEquals( text, spans( romanNumerals ), spans( _pass.getRomanNumeralTokenSet() ) );
+         assertEquals( text, spans( _fractionFSM.execute( tokens ) ), spans( _pass.getFractionTokenSet() ) );
+         assertEquals( text, spans( ranges ), spans( _pass.getRangeTokenSet() ) );
+         assertEquals( text, spans( _measurementFSM.execute( tokens, ranges ) ),
+               spans( _pass.getMeasurementTokenSet() ) );
+         assertEquals( text, spans( _personTitleFSM.execute( tokens ) ), spans( _pass.getPersonTitleTokenSet() ) );
+      }
+   }
+
+   static private Set<BaseToken> ordered( final Set<? extends BaseToken> tokens ) {
+      final List<BaseToken> list = new ArrayList<>( tokens );
+      list.sort( Comparator.comparingInt( BaseToken::getStartOffset ).thenComparingInt( BaseToken::getEndOffset ) );
+      return new LinkedHashSet<>( list );
+   }
+
+   static private List<String> spans( final Set<? extends BaseToken> tokens ) {
+      final List<String> spans = new ArrayList<>();
+      for ( BaseToken token : tokens ) {
+         spans.add( token.getStartOffset() + "-" + token.getEndOffset() );
+      }
+      spans.sort( Comparator.comparingInt( ( String s ) -> Integer.parseInt( s.substring( 0, s.indexOf( '-' ) ) ) )
+            .thenComparing( Comparator.naturalOrder() ) );
+      return spans;
+   }
+
+   /**
+    * Splits text on spaces into integer, punctuation and word tokens.
+    */
+   static private List<BaseToken> tokenize( final String text ) {
+      final List<BaseToken> tokens = new ArrayList<>();
+      int start = 0;
+      for ( String part : text.split( " " ) ) {
+         if ( !part.isEmpty() ) {
+            final int begin = start;
+            final int end = start + part.length();
+            if ( Character.isDigit( part.charAt( 0 ) ) ) {
+               tokens.add( new TestInteger( Long.parseLong( part ), begin, end ) );
+            } else if ( !Character.isLetter( part.charAt( 0 ) ) ) {
+               tokens.add( new TestPunctuation( part.charAt( 0 ), begin ) );
+            } else {
+               tokens.add( new TestWord( part, begin ) );
+            }
+         }
+         start += part.length() + 1;
+      }
+      return tokens;
+   }
+
+   static private final class TestWord implements WordToken {
+      private final String _text;
+      private final int _begin;
+
+      private TestWord( final String text, final int begin ) {
+         _text = text;
+         _begin = begin;
+      }
+
+      public String getText() {
+         return _text;
+      }
+
+      public byte getCaps() {
+         return CAPS_NONE;
+      }
+
+      public byte getNumPosition() {
+         return NUM_NONE;
+      }
+
+      public int getStartOffset() {
+         return _begin;
+      }
+
+      public int getEndOffset() {
+         return _begin + _text.length();
+      }
+   }
+
+   static private final class TestInteger implements IntegerToken, NumberToken {
+      private final long _value;
+      private final int _begin;
+      private final int _end;
+
+      private TestInteger( final long value, final int begin, final int end ) {
+         _value = value;
+         _begin = begin;
+         _end = end;
+      }
+
+      public long getValue() {
+         return _value;
+      }
+
+      public boolean getPositive() {
+         return true;
+      }
+
+      public int getStartOffset() {
+         return _begin;
+      }
+
+      public int getEndOffset() {
+         return _end;
+      }
+   }
+
+   static private final class TestPunctuation implements PunctuationToken {
+      private final char _char;
+      private final int _begin;
+
+      private TestPunctuation( final char c, final int begin ) {
+         _char = c;
+         _begin = begin;
+      }
+
+      public char getChar() {
+         return _char;
+      }
+
+      public int getStartOffset() {
+         return _begin;
+      }
+
+      public int getEndOffset() {
+         return _begin + 1;
+      }
+   }
+}
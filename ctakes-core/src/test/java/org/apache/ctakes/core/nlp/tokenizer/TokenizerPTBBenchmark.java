@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the token objects made by {@link TokenizerPTB#tokenize(String)} to the offsets put in a
+ * {@link TokenOffsetBuffer} by {@link TokenizerPTB#tokenizeTextSegment(CharSequence, int, TokenOffsetBuffer)}
+ * over the lines of a clinical note corpus.
+ * The corpus is every file in the directory given by the corpusDirectory parameter,
+ * or by default copies of a short built in note.
+ * Run with the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 3 )
+@Fork( 1 )
+public class TokenizerPTBBenchmark {
+
+   static private final String[] NOTE_LINES = {
+         "HISTORY OF PRESENT ILLNESS:  The patient is a 67-year-old male with a history of CHF, s/p CABG x3 in 2009,",
+         "who presents with 2 days of worsening dyspnea on exertion and 3+ pitting edema.  He can't lie flat and",
+         "sleeps on 3 pillows.  He denies chest pain, fever or chills.  Wife states he's been gonna see Dr. Smith.",
+         "MEDICATIONS:  Lasix 40 mg p.o. b.i.d., metoprolol 25 mg p.o. q.d., aspirin 81 mg daily, K-Dur 20 mEq.",
+         "VITALS:  T 98.6 F, BP 142/88, HR 96, RR 22, O2 sat 91% on RA.  Weight 104.5 kg (230 lbs).",
+         "LABS:  Na 134, K 3.9, BUN 38, Cr 1.6, BNP 1,240.  CXR shows bilateral pleural effusions ... follow-up",
+         "ASSESSMENT AND PLAN:  Acute on chronic systolic CHF exacerbation, likely due to diet non-compliance.",
+         "Will diurese with IV Lasix, check daily weights, strict I's and O's, and a 2-g Na diet.  Call 507-555-1212",
+         "or e-mail cardiology@example.org with questions; see http://example.org/chf for the patient's handout.",
+         "" };
+
+   @Param( { "" } )
+   public String _corpusDirectory;
+
+   @Param( { "1000" } )
+   public int _noteCopies;
+
+   private final TokenizerPTB _tokenizer = new TokenizerPTB();
+   private final TokenOffsetBuffer _tokenOffsets = new TokenOffsetBuffer();
+   private List<String> _lines;
+
+   @Setup
+   public void readCorpus() throws IOException {
+      _lines = new ArrayList<>();
+      if ( _corpusDirectory.isEmpty() ) {
+         for ( int i = 0; i < _noteCopies; i++ ) {
+            for ( String line : NOTE_LINES ) {
+               _lines.add( line );
+            }
+         }
+         return;
+      }
+      final File[] files = new File( _corpusDirectory ).listFiles();
+      if ( files == null ) {
+         throw new IOException( "Not a directory " + _corpusDirectory );
+      }
+      for ( File file : files ) {
+         if ( file.isFile() ) {
+            _lines.addAll( Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 ) );
+         }
+      }
+   }
+
+   @Benchmark
+   public int tokenObjects() {
+      int count = 0;
+      for ( String line : _lines ) {
+         count += _tokenizer.tokenize( line ).size();
+      }
+      return count;
+   }
+
+   @Benchmark
+   public int tokenOffsets() {
+      int count = 0;
+      for ( String line : _lines ) {
+         _tokenizer.tokenizeTextSegment( line, 0, _tokenOffsets );
+         count += _tokenOffsets.size();
+      }
+      return count;
+   }
+
+   public static void main( final String... args ) throws RunnerException {
+      final Options options = new OptionsBuilder()
+            .include( TokenizerPTBBenchmark.class.getSimpleName() )
+            .build();
+      new Runner( options ).run();
+   }
+
+}
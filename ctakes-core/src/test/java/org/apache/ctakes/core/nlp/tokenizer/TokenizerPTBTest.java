@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.nlp.tokenizer;
+
+import org.apache.ctakes.typesystem.type.syntax.ContractionToken;
+import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
+import org.apache.ctakes.typesystem.type.syntax.NumToken;
+import org.apache.ctakes.typesystem.type.syntax.PunctuationToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenizerPTBTest {
+
+   static private final String[] SEGMENTS = {
+         "Pt has been on a 3-day calorie count and has had an average intake of 1,100 calories.",
+         "He can't take 2.5mg b.i.d. and won't gonna WHATCHA cannot 'tis should've more'n the 80's-esque P'yongyang James' x",
+         "Phone contact: 507-555-1212 or 1-507-555-1212, zip 55901-0000, see www.nlm.nih.gov ... e.g.[1] follow-up x-ray",
+         "Mail j.doe@example.org or http://example.org/notes?id=3 ; BP 120/80 mmHg, T 98.6 F, .5 mg q.d.\r\nNext line\rCR",
+         "'Assad and 'The boy ran' ; mm-hm uh-oh salon-o-torium anti-inflammatory 3,4567 2J3. 2'3. -400 10.",
+         "\u0130buprofen 200 \u00B5g \u03A3 'ASHIRA rock'n'roll \uD83D\uDE00 na\u00EFve O'Brien",
+         "   \n  ",
+         "x" };
+
+   /**
+    * Token spans of the segments as tokenized by the original TokenizerPTB, which built a Token object per token.
+    */
+   static private final String[] EXPECTED_SPANS = {
+         "0-2 3-6 7-11 12-14 15-16 17-18 18-19 19-22 23-30 31-36 37-40 41-44 45-48 49-51 52-59 60-66 67-69 70-75 76-84 84-85",
+         "0-2 3-5 5-8 9-13 14-17 17-19 20-26 27-30 31-33 33-36 37-40 40-42 43-46 46-47 47-50 51-54 54-57 58-60 60-62 63-69 69-72 73-77 77-79 80-83 84-94 95-105 106-111 111-112 113-114",
+         "0-5 6-13 13-14 15-27 28-30 31-45 45-46 47-50 51-61 61-62 63-66 67-70 70-71 71-74 74-75 75-78 78-79 79-82 83-86 87-90 90-91 91-92 92-93 93-94 95-101 101-102 102-104 105-110",
+         "0-4 5-6 6-7 7-22 23-25 26-55 56-57 58-60 61-64 64-65 65-67 68-72 72-73 74-75 76-80 81-82 82-83 84-86 87-89 90-94 94-95 95-96 96-100 101-105 105-106 106-108",
+         "0-6 7-10 11-12 12-15 16-19 20-23 23-24 25-26 27-32 33-38 39-53 54-71 72-73 73-74 74-78 79-82 82-83 84-85 85-86 86-88 89-90 90-93 94-96 96-97",
+         "0-9 10-13 14-16 17-18 19-26 27-31 31-32 32-33 33-34 34-38 39-40 40-41 42-47 48-49 49-50 50-55",
+         "3-4",
+         "0-1" };
+
+   @Test
+   public void testExpectedSpans() {
+      final TokenizerPTB tokenizer = new TokenizerPTB();
+      final TokenOffsetBuffer tokenOffsets = new TokenOffsetBuffer();
+      for ( int i = 0; i < SEGMENTS.length; i++ ) {
+         final StringBuilder tokenSpans = new StringBuilder();
+         for ( Object token : tokenizer.tokenize( SEGMENTS[ i ] ) ) {
+            appendSpan( tokenSpans, ((Token)token).getStartOffset(), ((Token)token).getEndOffset() );
+         }
+         assertEquals( SEGMENTS[ i ], EXPECTED_SPANS[ i ], tokenSpans.toString() );
+         tokenizer.tokenizeTextSegment( SEGMENTS[ i ], 0, tokenOffsets );
+         final StringBuilder bufferSpans = new StringBuilder();
+         for ( int j = 0; j < tokenOffsets.size(); j++ ) {
+            appendSpan( bufferSpans, tokenOffsets.getBegin( j ), tokenOffsets.getEnd( j ) );
+         }
+         assertEquals( SEGMENTS[ i ], EXPECTED_SPANS[ i ], bufferSpans.toString() );
+      }
+   }
+
+   static private void appendSpan( final StringBuilder sb, final int begin, final int end ) {
+      if ( sb.length() > 0 ) {
+         sb.append( ' ' );
+      }
+      sb.append( begin ).append( '-' ).append( end );
+   }
+
+   @Test
+   public void testSameTokensAsTokenObjects() {
+      final TokenizerPTB tokenizer = new TokenizerPTB();
+      final TokenOffsetBuffer tokenOffsets = new TokenOffsetBuffer( 4 );
+      for ( String segment : SEGMENTS ) {
+         final List<?> tokens = tokenizer.tokenize( segment );
+         tokenizer.tokenizeTextSegment( segment, 0, tokenOffsets );
+         assertEquals( segment, tokens.size(), tokenOffsets.size() );
+         for ( int i = 0; i < tokens.size(); i++ ) {
+            final Token token = (Token)tokens.get( i );
+            assertEquals( segment, token.getStartOffset(), tokenOffsets.getBegin( i ) );
+            assertEquals( segment, token.getEndOffset(), tokenOffsets.getEnd( i ) );
+         }
+      }
+   }
+
+   @Test
+   public void testTypes() {
+      final TokenOffsetBuffer tokenOffsets = new TokenOffsetBuffer();
+      new TokenizerPTB().tokenizeTextSegment( new StringBuilder( "I can't take 2.5 mg.\nOK." ), 0, tokenOffsets );
+      // "mg." is an abbreviation, the period that ends the segment is punctuation
+      final Object[] expected = { WordToken.class, WordToken.class, ContractionToken.class, WordToken.class,
+            NumToken.class, WordToken.class, NewlineToken.class, WordToken.class, PunctuationToken.class };
+      assertEquals( expected.length, tokenOffsets.size() );
+      for ( int i = 0; i < expected.length; i++ ) {
+         assertEquals( expected[ i ], tokenOffsets.getTokenClass( i ) );
+      }
+      assertEquals( Token.TYPE_CONTRACTION, tokenOffsets.getType( 2 ) );
+      assertEquals( 4, tokenOffsets.getBegin( 2 ) );
+      assertEquals( 7, tokenOffsets.getEnd( 2 ) );
+   }
+
+   @Test
+   public void testReuseWithOffsetAdjustment() {
+      final TokenizerPTB tokenizer = new TokenizerPTB();
+      final TokenOffsetBuffer tokenOffsets = new TokenOffsetBuffer( 1 );
+      tokenizer.tokenizeTextSegment( SEGMENTS[ 0 ], 0, tokenOffsets );
+      tokenizer.tokenizeTextSegment( "Denies chest pain.", 100, tokenOffsets );
+      assertEquals( 4, tokenOffsets.size() );
+      assertEquals( 100, tokenOffsets.getBegin( 0 ) );
+      assertEquals( 106, tokenOffsets.getEnd( 0 ) );
+      assertEquals( 117, tokenOffsets.getBegin( 3 ) );
+      assertEquals( 118, tokenOffsets.getEnd( 3 ) );
+      tokenizer.tokenizeTextSegment( "", 0, tokenOffsets );
+      assertEquals( 0, tokenOffsets.size() );
+   }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.pipeline;
+
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class PooledPipelineTest {
+
+   static private final AtomicInteger CREATED = new AtomicInteger();
+   static private final AtomicInteger COMPLETED = new AtomicInteger();
+
+   static public class WholeTextSentencer extends JCasAnnotator_ImplBase {
+      public WholeTextSentencer() {
+         CREATED.incrementAndGet();
+      }
+
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         new Sentence( jCas, 0, jCas.getDocumentText().length() ).addToIndexes();
+      }
+
+      @Override
+      public void collectionProcessComplete() throws AnalysisEngineProcessException {
+         super.collectionProcessComplete();
+         COMPLETED.incrementAndGet();
+      }
+   }
+
+   @Test
+   public void testConcurrentProcess() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder().add( WholeTextSentencer.class );
+      final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+      try ( PooledPipeline pipeline = builder.createPooledPipeline( 2 ) ) {
+         final Collection<Future<String>> futures = new ArrayList<>();
+         for ( int i = 0; i < 20; i++ ) {
+            final String text = "Note number " + i;
+            futures.add( executor.submit( () -> {
+               final JCas jcas = pipeline.process( text );
+               try {
+                  assertEquals( text, jcas.getDocumentText() );
+                  assertEquals( 1, JCasUtil.select( jcas, Sentence.class ).size() );
+                  return JCasUtil.selectSingle( jcas, Sentence.class ).getCoveredText();
+               } finally {
+                  pipeline.release( jcas );
+               }
+            } ) );
+         }
+         int i = 0;
+         for ( Future<String> future : futures ) {
+            assertEquals( "Note number " + i, future.get( 10, TimeUnit.SECONDS ) );
+            i++;
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testRunTextReusesPipeline() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder().add( WholeTextSentencer.class );
+      builder.run( "first" );
+      final int created = CREATED.get();
+      builder.run( "second" );
+      builder.run( "third" );
+      assertEquals( "Repeated runs should not create the pipeline again", created, CREATED.get() );
+      builder.close();
+   }
+
+   @Test
+   public void testRunTextCompletesOnClose() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder().add( WholeTextSentencer.class );
+      final int completed = COMPLETED.get();
+      builder.run( "first" );
+      builder.run( "second" );
+      assertEquals( "Runs should not complete the collection", completed, COMPLETED.get() );
+      builder.add( WholeTextSentencer.class );
+      builder.run( "third" );
+      assertEquals( "A changed pipeline should complete the previous one", completed + 1, COMPLETED.get() );
+      builder.close();
+      assertEquals( "Close should complete the collection once per engine", completed + 3, COMPLETED.get() );
+      builder.close();
+      assertEquals( "A second close should do nothing", completed + 3, COMPLETED.get() );
+   }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.pipeline;
+
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.collection.CollectionException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.component.JCasCollectionReader_ImplBase;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.util.Progress;
+import org.apache.uima.util.ProgressImpl;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StagedPipelineTest {
+
+   static private final int DOCUMENT_COUNT = 40;
+
+   static private final Set<String> WRITTEN = ConcurrentHashMap.newKeySet();
+   static private final AtomicInteger RUNNING = new AtomicInteger();
+   static private final AtomicInteger MAX_RUNNING = new AtomicInteger();
+   static private final AtomicInteger COMPLETED = new AtomicInteger();
+
+   static public class CountingReader extends JCasCollectionReader_ImplBase {
+      private int _index;
+
+      @Override
+      public boolean hasNext() {
+         return _index < DOCUMENT_COUNT;
+      }
+
+      @Override
+      public void getNext( final JCas jCas ) throws CollectionException {
+         jCas.setDocumentText( "Document " + _index );
+         _index++;
+      }
+
+      @Override
+      public Progress[] getProgress() {
+         return new Progress[]{ new ProgressImpl( _index, DOCUMENT_COUNT, Progress.ENTITIES ) };
+      }
+   }
+
+   static public class WholeTextSentencer extends JCasAnnotator_ImplBase {
+      @Override
+      public void process( final JCas jCas ) {
+         new Sentence( jCas, 0, jCas.getDocumentText().length() ).addToIndexes();
+      }
+   }
+
+   static public class SlowSentenceChecker extends JCasAnnotator_ImplBase {
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         final int running = RUNNING.incrementAndGet();
+         MAX_RUNNING.accumulateAndGet( running, Math::max );
+         try {
+            Thread.sleep( 10 );
+         } catch ( InterruptedException intE ) {
+            throw new AnalysisEngineProcessException( intE );
+         }
+         RUNNING.decrementAndGet();
+         if ( JCasUtil.select( jCas, Sentence.class ).size() != 1 ) {
+            throw new AnalysisEngineProcessException( new IllegalStateException( "Earlier stage did not run" ) );
+         }
+      }
+
+      @Override
+      public void collectionProcessComplete() {
+         COMPLETED.incrementAndGet();
+      }
+   }
+
+   static public class Writer extends JCasAnnotator_ImplBase {
+      @Override
+      public void process( final JCas jCas ) {
+         WRITTEN.add( JCasUtil.selectSingle( jCas, Sentence.class ).getCoveredText() );
+      }
+   }
+
+   @Test
+   public void testStages() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder()
+            .reader( CountingReader.class )
+            .add( WholeTextSentencer.class )
+            .stage( 4, 2 )
+            .add( SlowSentenceChecker.class )
+            .addLast( Writer.class, Collections.emptyList() );
+      builder.run();
+      assertEquals( "Every document should reach the last stage", DOCUMENT_COUNT, WRITTEN.size() );
+      assertTrue( "Stage threads should run concurrently", MAX_RUNNING.get() > 1 );
+      assertTrue( "Stage threads should not exceed the stage thread count", MAX_RUNNING.get() <= 4 );
+      assertEquals( "Each copy in the stage should complete", 4, COMPLETED.get() );
+   }
+
+   static public class FailingAnnotator extends JCasAnnotator_ImplBase {
+      @Override
+      public void process( final JCas jCas ) {
+         if ( jCas.getDocumentText().equals( "Document 7" ) ) {
+            throw new StageError();
+         }
+      }
+   }
+
+   static private final class StageError extends Error {
+   }
+
+   @Test( timeout = 60000 )
+   public void testStageError() throws Exception {
+      final PipelineBuilder builder = new PipelineBuilder()
+            .reader( CountingReader.class )
+            .add( WholeTextSentencer.class )
+            .stage( 2, 2 )
+            .add( FailingAnnotator.class )
+            .stage( 2, 2 )
+            .add( Writer.class );
+      try {
+         builder.run();
+         fail( "The error of a stage should end the run" );
+      } catch ( Throwable t ) {
+         Throwable cause = t;
+         while ( cause != null && !(cause instanceof StageError) ) {
+            cause = cause.getCause();
+         }
+         assertNotNull( "The error of a stage should be thrown by the run", cause );
+      }
+   }
+
+   @Test
+   public void testPiperStage() throws Exception {
+      final PiperFileReader reader = new PiperFileReader();
+      assertTrue( reader.parsePipelineLine( "stage 4" ) );
+      assertTrue( reader.parsePipelineLine( "stage 16 32" ) );
+      assertFalse( reader.parsePipelineLine( "stage many" ) );
+      assertFalse( reader.parsePipelineLine( "stage 4 many" ) );
+   }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util.collection;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongKeyCacheTest {
+
+   @Test
+   public void testPutGet() {
+      final LongKeyCache<String> cache = new LongKeyCache<>( 10 );
+      cache.put( 5L, "five" );
+      cache.put( -7L, "minus seven" );
+      assertEquals( "five", cache.get( 5L ) );
+      assertEquals( "minus seven", cache.get( -7L ) );
+      assertNull( cache.get( 6L ) );
+      assertEquals( 2, cache.getHitCount() );
+      assertEquals( 1, cache.getMissCount() );
+      cache.put( 5L, "FIVE" );
+      assertEquals( "FIVE", cache.get( 5L ) );
+      assertEquals( 2, cache.size() );
+   }
+
+   @Test
+   public void testReferencedEntrySurvivesEviction() {
+      final LongKeyCache<Long> cache = new LongKeyCache<>( 3 );
+      cache.put( 1L, 1L );
+      cache.put( 2L, 2L );
+      cache.put( 3L, 3L );
+      cache.get( 1L );
+      cache.put( 4L, 4L );
+      assertTrue( cache.containsKey( 1L ) );
+      assertFalse( cache.containsKey( 2L ) );
+      assertTrue( cache.containsKey( 4L ) );
+      assertEquals( 3, cache.size() );
+   }
+
+   @Test
+   public void testRandomAgainstMap() {
+      final int maxSize = 64;
+      final LongKeyCache<Long> cache = new LongKeyCache<>( maxSize );
+      final Map<Long, Long> reference = new HashMap<>();
+      final Random random = new Random( 17 );
+      for ( int i = 0; i < 20000; i++ ) {
+         // small key range so that probe chains collide and wrap
+         final long key = random.nextInt( 300 ) * 1024L;
+         if ( random.nextBoolean() ) {
+            final long value = random.nextLong();
+            cache.put( key, value );
+            reference.put( key, value );
+         } else {
+            final Long cached = cache.get( key );
+            if ( cached != null ) {
+               assertEquals( reference.get( key ), cached );
+            }
+         }
+         assertTrue( cache.size() <= maxSize );
+      }
+      int present = 0;
+      for ( long key = 0; key < 300 * 1024L; key += 1024 ) {
+         if ( cache.containsKey( key ) ) {
+            present++;
+         }
+      }
+      assertEquals( maxSize, present );
+   }
+
+}
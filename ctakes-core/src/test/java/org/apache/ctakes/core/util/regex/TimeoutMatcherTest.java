@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.core.util.regex;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TimeoutMatcherTest {
+
+   @Test
+   public void testTimeout() {
+      // catastrophic backtracking, with a back reference so that the jdk cannot memoize its way out
+      final Pattern pattern = Pattern.compile( "(a+)+\\1b" );
+      final long timeoutCount = RegexTimeoutCounter.getInstance().getTimeoutCount( pattern.pattern() );
+      final StringBuilder sb = new StringBuilder();
+      for ( int i = 0; i < 40; i++ ) {
+         sb.append( 'a' );
+      }
+      sb.append( 'c' );
+      try ( TimeoutMatcher finder = new TimeoutMatcher( pattern, sb.toString(), 100 ) ) {
+         assertNull( finder.nextMatch() );
+         assertNull( finder.nextMatch() );
+      }
+      assertTrue( new RegexSpanFinder( pattern, 100 ).findSpans( sb.toString() ).isEmpty() );
+      assertEquals( timeoutCount + 2, RegexTimeoutCounter.getInstance().getTimeoutCount( pattern.pattern() ) );
+   }
+
+   @Test
+   public void testConcurrentMatches() throws Exception {
+      final Pattern pattern = Pattern.compile( "\\b\\w+\\b" );
+      final RegexSpanFinder spanFinder = new RegexSpanFinder( pattern );
+      final ExecutorService executor = Executors.newFixedThreadPool( 8 );
+      final Collection<Future<?>> futures = new ArrayList<>();
+      for ( int i = 0; i < 200; i++ ) {
+         futures.add( executor.submit( () -> {
+            assertEquals( 3, spanFinder.findSpans( "one two three" ).size() );
+            int count = 0;
+            try ( TimeoutMatcher finder = new TimeoutMatcher( pattern, "four five" ) ) {
+               Matcher matcher = finder.nextMatch();
+               while ( matcher != null ) {
+                  count++;
+                  matcher = finder.nextMatch();
+               }
+            }
+            assertEquals( 2, count );
+            return null;
+         } ) );
+      }
+      for ( Future<?> future : futures ) {
+         future.get();
+      }
+      executor.shutdown();
+   }
+
+}
@@ -166,11 +166,23 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
 //               processWindow( jcas, (Annotation)window, dictionaryTermsMap );
 //            }
 //         }
+         // Gather the lookup tokens of all windows first so that dictionaries can fetch terms in bulk
+         final List<List<FastLookupToken>> allWindowTokens = new ArrayList<>( windowTokens.size() );
+         final List<List<Integer>> allLookupTokenIndices = new ArrayList<>( windowTokens.size() );
          for ( Map.Entry<Annotation, Collection<BaseToken>> entry : windowTokens.entrySet() ) {
 //            if ( isWindowOk( entry.getKey() ) ) {
-            processWindow( jcas, entry.getValue(), dictionaryTermsMap );
+            final List<FastLookupToken> allTokens = new ArrayList<>();
+            final List<Integer> lookupTokenIndices = new ArrayList<>();
+            getAnnotationsInWindow( jcas, entry.getValue(), allTokens, lookupTokenIndices );
+            allWindowTokens.add( allTokens );
+            allLookupTokenIndices.add( lookupTokenIndices );
 //            }
          }
+         prefetchRareWordHits( getDictionaries(), allWindowTokens, allLookupTokenIndices );
+         for ( int i = 0; i < allWindowTokens.size(); i++ ) {
+            findTerms( getDictionaries(), allWindowTokens.get( i ), allLookupTokenIndices.get( i ),
+                  dictionaryTermsMap );
+         }
       } catch ( ArrayIndexOutOfBoundsException iobE ) {
          // JCasHashMap will throw this every once in a while.  Assume the windows are done and move on
          LOGGER.warn( iobE.getMessage() );
@@ -199,6 +211,19 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
    }
 
 
+   /**
+    * Closes the dictionaries and concept factories.
+    * {@inheritDoc}
+    */
+   @Override
+   public void destroy() {
+      if ( _dictionarySpec != null ) {
+         _dictionarySpec.getDictionaries().forEach( RareWordDictionary::close );
+         _dictionarySpec.getConceptFactories().forEach( ConceptFactory::close );
+      }
+      super.destroy();
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -246,6 +271,35 @@ abstract public class AbstractJCasTermAnnotator extends JCasAnnotator_ImplBase
       findTerms( getDictionaries(), allTokens, lookupTokenIndices, dictionaryTerms );
    }
 
+   /**
+    * Lets each dictionary fetch terms for the text and variants of all lookup tokens in a document at once
+    *
+    * @param dictionaries          -
+    * @param allWindowTokens       all tokens in each window
+    * @param allLookupTokenIndices indices of lookup tokens in each window
+    */
+   static private void prefetchRareWordHits( final Iterable<RareWordDictionary> dictionaries,
+                                             final List<List<FastLookupToken>> allWindowTokens,
+                                             final List<List<Integer>> allLookupTokenIndices ) {
+      final Collection<String> lookupTexts = new HashSet<>();
+      for ( int i = 0; i < allWindowTokens.size(); i++ ) {
+         final List<FastLookupToken> allTokens = allWindowTokens.get( i );
+         for ( Integer lookupTokenIndex : allLookupTokenIndices.get( i ) ) {
+            final FastLookupToken lookupToken = allTokens.get( lookupTokenIndex );
+            lookupTexts.add( lookupToken.getText() );
+            if ( lookupToken.getVariant() != null ) {
+               lookupTexts.add( lookupToken.getVariant() );
+            }
+         }
+      }
+      if ( lookupTexts.isEmpty() ) {
+         return;
+      }
+      for ( RareWordDictionary dictionary : dictionaries ) {
+         dictionary.prefetchRareWordHits( lookupTexts );
+      }
+   }
+
    /**
     * Given a set of dictionaries, tokens, and lookup token indices, populate a terms map with discovered terms
     *
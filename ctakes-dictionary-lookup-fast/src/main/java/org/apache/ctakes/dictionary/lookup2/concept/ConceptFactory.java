@@ -32,4 +32,11 @@ public interface ConceptFactory {
     */
    public Map<Long, Concept> createConcepts( final Collection<Long> cuiCodes );
 
+   /**
+    * Release resources held by the concept factory, such as database connections.
+    * The default implementation does nothing.
+    */
+   default void close() {
+   }
+
 }
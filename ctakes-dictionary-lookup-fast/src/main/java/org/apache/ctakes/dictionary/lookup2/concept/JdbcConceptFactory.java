@@ -2,8 +2,10 @@ package org.apache.ctakes.dictionary.lookup2.concept;
 
 import org.apache.ctakes.core.util.collection.CollectionMap;
 import org.apache.ctakes.core.util.collection.HashSetMap;
+import org.apache.ctakes.core.util.collection.LongKeyCache;
 import org.apache.ctakes.dictionary.lookup2.util.CuiCodeUtil;
 import org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory;
+import org.apache.ctakes.dictionary.lookup2.util.JdbcStatementPool;
 import org.apache.ctakes.dictionary.lookup2.util.TuiCodeUtil;
 import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
@@ -14,6 +16,13 @@ import java.util.*;
 import static org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory.*;
 
 /**
+ * Concepts for a set of cuis are created with one {@code CUI IN (...)} query per concept table
+ * for every {@code batchSize} cuis.
+ * An optional cache of concepts, sized by the property {@code conceptCacheSize}, is shared by all factories
+ * with the same name and database so that common concepts are not fetched again for every document.
+ * Queries use statements borrowed from a {@link JdbcStatementPool} of up to {@code jdbcPoolSize} connections,
+ * so one factory can be used by several pipeline threads at once.
+ * <p/>
  * Author: SPF
  * Affiliation: CHIP-NLP
  * Date: 11/20/13
@@ -30,22 +39,42 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
    static private final String TUI_CLASS = Concept.TUI;
    static private final String PREFTERM_CLASS = Concept.PREFTERM;
 
+   static public final String CONCEPT_CACHE_SIZE = "conceptCacheSize";
+   static public final String BATCH_SIZE = "batchSize";
+   static private final int DEFAULT_BATCH_SIZE = 100;
+
+   // Concept caches shared by factories with the same name and database url
+   static private final Map<String, LongKeyCache<Concept>> CONCEPT_CACHES = new HashMap<>();
+
 
    private final Collection<ConceptTableInfo> _conceptTableInfos;
+   private final JdbcStatementPool<Map<ConceptTableInfo, TableStatements>> _statementPool;
+   private final int _batchSize;
+   private final LongKeyCache<Concept> _conceptCache;
 
 
    static private class ConceptTableInfo {
-      //      private final String __tableName;
+      private final String __tableName;
       private final String __conceptName;
       private final String __classType;
-      private final PreparedStatement __preparedStatement;
 
-      private ConceptTableInfo( final String tableName, final String conceptName, final String classType,
-                                final PreparedStatement preparedStatement ) {
-//         __tableName = tableName;
+      private ConceptTableInfo( final String tableName, final String conceptName, final String classType ) {
+         __tableName = tableName;
          __conceptName = conceptName;
          __classType = classType;
+      }
+   }
+
+   /**
+    * Statements for a single concept table prepared on a single connection
+    */
+   static private class TableStatements {
+      private final PreparedStatement __preparedStatement;
+      private final PreparedStatement __batchStatement;
+
+      private TableStatements( final PreparedStatement preparedStatement, final PreparedStatement batchStatement ) {
          __preparedStatement = preparedStatement;
+         __batchStatement = batchStatement;
       }
    }
 
@@ -112,7 +141,10 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
       this( name,
             properties.getProperty( JDBC_DRIVER ), properties.getProperty( JDBC_URL ),
             properties.getProperty( JDBC_USER ), properties.getProperty( JDBC_PASS ),
-            getConceptTables( properties ) );
+            getConceptTables( properties ),
+            parseInt( properties.getProperty( CONCEPT_CACHE_SIZE ), 0 ),
+            parseInt( properties.getProperty( BATCH_SIZE ), DEFAULT_BATCH_SIZE ),
+            parseInt( properties.getProperty( JDBC_POOL_SIZE ), 0 ) );
    }
 
    public JdbcConceptFactory( final String name,
@@ -120,7 +152,36 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
                               final String jdbcUser, final String jdbcPass,
                               final Map<String, String> conceptTables )
          throws SQLException {
+      this( name, jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, conceptTables, 0, DEFAULT_BATCH_SIZE, 0 );
+   }
+
+   /**
+    * @param conceptCacheSize maximum number of concepts in the shared cache, 0 for no cache
+    * @param batchSize        maximum number of cuis in a single query
+    */
+   public JdbcConceptFactory( final String name,
+                              final String jdbcDriver, final String jdbcUrl,
+                              final String jdbcUser, final String jdbcPass,
+                              final Map<String, String> conceptTables,
+                              final int conceptCacheSize, final int batchSize )
+         throws SQLException {
+      this( name, jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, conceptTables, conceptCacheSize, batchSize, 0 );
+   }
+
+   /**
+    * @param conceptCacheSize maximum number of concepts in the shared cache, 0 for no cache
+    * @param batchSize        maximum number of cuis in a single query
+    * @param poolSize         maximum number of database connections for concurrent queries, 0 for processor count
+    */
+   public JdbcConceptFactory( final String name,
+                              final String jdbcDriver, final String jdbcUrl,
+                              final String jdbcUser, final String jdbcPass,
+                              final Map<String, String> conceptTables,
+                              final int conceptCacheSize, final int batchSize, final int poolSize )
+         throws SQLException {
       super( name );
+      _batchSize = Math.max( 1, batchSize );
+      _conceptCache = conceptCacheSize > 0 ? getSharedCache( name + "|" + jdbcUrl, conceptCacheSize ) : null;
       boolean connected = false;
       try {
          // DO NOT use try with resources here.
@@ -129,6 +190,8 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
                = JdbcConnectionFactory.getInstance().getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
          connected = connection != null;
          _conceptTableInfos = createTableInfos( connection, conceptTables );
+         _statementPool = new JdbcStatementPool<>( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, poolSize,
+               c -> createTableStatements( c, _conceptTableInfos, _batchSize ) );
       } catch ( SQLException sqlE ) {
          if ( !connected ) {
             LOGGER.error( "Could not Connect to Concept Factory " + name );
@@ -144,32 +207,219 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     */
    @Override
    public Concept createConcept( final Long cuiCode ) {
+      Concept concept = _conceptCache == null ? null : _conceptCache.get( cuiCode );
+      if ( concept != null ) {
+         return concept;
+      }
+      concept = selectConcept( cuiCode );
+      if ( concept == null ) {
+         // The failure is not cached so that the cui can be fetched again
+         return new DefaultConcept( CuiCodeUtil.getInstance().getAsCui( cuiCode ) );
+      }
+      if ( _conceptCache != null ) {
+         _conceptCache.put( cuiCode, concept );
+      }
+      return concept;
+   }
+
+   /**
+    * Only creates non-empty concepts; Cuis for which additional info does not exist don't create concepts.
+    * Cuis that are not cached are fetched with one query per concept table for every batch of cuis.
+    * Cuis in a batch that could not be fetched are neither cached nor returned.
+    * {@inheritDoc}
+    */
+   @Override
+   public Map<Long, Concept> createConcepts( final Collection<Long> cuiCodes ) {
+      final Map<Long, Concept> conceptMap = new HashMap<>( cuiCodes.size() );
+      final List<Long> uncachedCodes = new ArrayList<>();
+      for ( Long cuiCode : new HashSet<>( cuiCodes ) ) {
+         final Concept concept = _conceptCache == null ? null : _conceptCache.get( cuiCode );
+         if ( concept == null ) {
+            uncachedCodes.add( cuiCode );
+         } else if ( !concept.isEmpty() ) {
+            conceptMap.put( cuiCode, concept );
+         }
+      }
+      for ( int i = 0; i < uncachedCodes.size(); i += _batchSize ) {
+         final List<Long> batch = uncachedCodes.subList( i, Math.min( uncachedCodes.size(), i + _batchSize ) );
+         final Map<Long, Concept> batchConcepts = selectConcepts( batch );
+         if ( batchConcepts == null ) {
+            continue;
+         }
+         for ( Map.Entry<Long, Concept> entry : batchConcepts.entrySet() ) {
+            if ( _conceptCache != null ) {
+               _conceptCache.put( entry.getKey(), entry.getValue() );
+            }
+            if ( !entry.getValue().isEmpty() ) {
+               conceptMap.put( entry.getKey(), entry.getValue() );
+            }
+         }
+      }
+      return conceptMap;
+   }
+
+   /**
+    * Closes the connections opened for concurrent lookups.
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() {
+      _statementPool.close();
+   }
+
+   /**
+    * @return number of cuis that were answered by the shared cache, 0 if there is no cache
+    */
+   public long getCacheHitCount() {
+      return _conceptCache == null ? 0 : _conceptCache.getHitCount();
+   }
+
+   /**
+    * @return number of cuis that required a query, 0 if there is no cache
+    */
+   public long getCacheMissCount() {
+      return _conceptCache == null ? 0 : _conceptCache.getMissCount();
+   }
+
+   /**
+    * @param cuiCodes no more than batchSize cuis
+    * @return map of each cui to its concept, which may be empty, or null on error so that the failure is not cached
+    */
+   private Map<Long, Concept> selectConcepts( final List<Long> cuiCodes ) {
+      try {
+         return _statementPool.call( s -> selectConcepts( s, cuiCodes ) );
+      } catch ( SQLException e ) {
+         LOGGER.error( "Could not create concepts for " + cuiCodes.size() + " cuis: " + e.getMessage() );
+         return null;
+      }
+   }
+
+   /**
+    * @param tableStatements statements borrowed from the pool
+    * @param cuiCodes        no more than batchSize cuis
+    * @return map of each cui to its concept, which may be empty
+    * @throws SQLException if the cuis could not be fetched with either batch or single cui queries
+    */
+   private Map<Long, Concept> selectConcepts( final Map<ConceptTableInfo, TableStatements> tableStatements,
+                                              final List<Long> cuiCodes ) throws SQLException {
+      final Map<Long, CollectionMap<String, String, ? extends Collection<String>>> codesMap
+            = new HashMap<>( cuiCodes.size() );
+      for ( Long cuiCode : cuiCodes ) {
+         codesMap.put( cuiCode, new HashSetMap<>() );
+      }
+      final Map<Long, String> prefTerms = new HashMap<>();
+      boolean hasPrefTermTable = false;
+      for ( ConceptTableInfo conceptTableInfo : _conceptTableInfos ) {
+         hasPrefTermTable |= conceptTableInfo.__classType.equals( PREFTERM_CLASS );
+         final PreparedStatement batchStatement = tableStatements.get( conceptTableInfo ).__batchStatement;
+         try {
+            fillBatchSelectCall( batchStatement, cuiCodes, _batchSize );
+            final ResultSet resultSet = batchStatement.executeQuery();
+            while ( resultSet.next() ) {
+               final long cuiCode = resultSet.getLong( 1 );
+               final CollectionMap<String, String, ? extends Collection<String>> codes = codesMap.get( cuiCode );
+               if ( codes == null ) {
+                  continue;
+               }
+               switch ( conceptTableInfo.__classType ) {
+                  case TUI_CLASS: {
+                     codes.placeValue( conceptTableInfo.__conceptName,
+                           TuiCodeUtil.getAsTui( resultSet.getInt( 2 ) ) );
+                     break;
+                  }
+                  case PREFTERM_CLASS: {
+                     // Same as the single cui query, the first preferred term is used
+                     prefTerms.putIfAbsent( cuiCode, resultSet.getString( 2 ) );
+                     break;
+                  }
+                  case INT_CLASS: {
+                     codes.placeValue( conceptTableInfo.__conceptName, Integer.toString( resultSet.getInt( 2 ) ) );
+                     break;
+                  }
+                  case LONG_CLASS: {
+                     codes.placeValue( conceptTableInfo.__conceptName, Long.toString( resultSet.getLong( 2 ) ) );
+                     break;
+                  }
+                  case TEXT_CLASS: {
+                     codes.placeValue( conceptTableInfo.__conceptName, resultSet.getString( 2 ) );
+                     break;
+                  }
+               }
+            }
+            // Though the ResultSet interface documentation states that there are automatic closures,
+            // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+            resultSet.close();
+         } catch ( SQLException e ) {
+            LOGGER.warn( "Batch query failed, querying each cui: " + e.getMessage() );
+            // Fall back to one query per cui for this batch
+            final Map<Long, Concept> conceptMap = new HashMap<>( cuiCodes.size() );
+            for ( Long cuiCode : cuiCodes ) {
+               conceptMap.put( cuiCode, selectConcept( tableStatements, cuiCode ) );
+            }
+            return conceptMap;
+         }
+      }
+      final Map<Long, Concept> conceptMap = new HashMap<>( cuiCodes.size() );
+      for ( Map.Entry<Long, CollectionMap<String, String, ? extends Collection<String>>> entry : codesMap.entrySet() ) {
+         final Long cuiCode = entry.getKey();
+         String prefTerm = prefTerms.get( cuiCode );
+         if ( prefTerm == null && hasPrefTermTable ) {
+            prefTerm = "";
+         }
+         conceptMap.put( cuiCode,
+               new DefaultConcept( CuiCodeUtil.getInstance().getAsCui( cuiCode ), prefTerm, entry.getValue() ) );
+      }
+      return conceptMap;
+   }
+
+   /**
+    * @param cuiCode cui of interest
+    * @return concept created with one query per concept table, or null on error so that the failure is not cached
+    */
+   private Concept selectConcept( final Long cuiCode ) {
+      try {
+         return _statementPool.call( s -> selectConcept( s, cuiCode ) );
+      } catch ( SQLException e ) {
+         LOGGER.error( "Could not create concept for cui " + cuiCode + ": " + e.getMessage() );
+         return null;
+      }
+   }
+
+   /**
+    * @param tableStatements statements borrowed from the pool
+    * @param cuiCode         cui of interest
+    * @return concept created with one query per concept table
+    * @throws SQLException if any concept table query fails, so that a partial concept is never created
+    */
+   private Concept selectConcept( final Map<ConceptTableInfo, TableStatements> tableStatements,
+                                  final Long cuiCode ) throws SQLException {
       final CollectionMap<String, String, ? extends Collection<String>> codes = new HashSetMap<>();
       String prefTerm = null;
       for ( ConceptTableInfo conceptTableInfo : _conceptTableInfos ) {
+         final PreparedStatement selectCall = tableStatements.get( conceptTableInfo ).__preparedStatement;
          switch ( conceptTableInfo.__classType ) {
             case TUI_CLASS: {
                codes.addAllValues( conceptTableInfo.__conceptName,
-                     getTuiCodes( conceptTableInfo.__preparedStatement, cuiCode ) );
+                     getTuiCodes( selectCall, cuiCode ) );
                break;
             }
             case PREFTERM_CLASS: {
-               prefTerm = getPreferredTerm( conceptTableInfo.__preparedStatement, cuiCode );
+               prefTerm = getPreferredTerm( selectCall, cuiCode );
                break;
             }
             case INT_CLASS: {
                codes.addAllValues( conceptTableInfo.__conceptName,
-                     getIntegerCodes( conceptTableInfo.__preparedStatement, cuiCode ) );
+                     getIntegerCodes( selectCall, cuiCode ) );
                break;
             }
             case LONG_CLASS: {
                codes.addAllValues( conceptTableInfo.__conceptName,
-                     getLongCodes( conceptTableInfo.__preparedStatement, cuiCode ) );
+                     getLongCodes( selectCall, cuiCode ) );
                break;
             }
             case TEXT_CLASS: {
                codes.addAllValues( conceptTableInfo.__conceptName,
-                     getStringCodes( conceptTableInfo.__preparedStatement, cuiCode ) );
+                     getStringCodes( selectCall, cuiCode ) );
                break;
             }
          }
@@ -181,21 +431,19 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     * @param selectCall jdbc selection call
     * @param cuiCode    cui of interest
     * @return collection of tuis that are related to cui as obtained with the selectCall
+    * @throws SQLException if the query fails
     */
-   static private Collection<String> getTuiCodes( PreparedStatement selectCall, final Long cuiCode ) {
+   static private Collection<String> getTuiCodes( PreparedStatement selectCall, final Long cuiCode )
+         throws SQLException {
       final Collection<String> codes = new HashSet<>();
-      try {
-         fillSelectCall( selectCall, cuiCode );
-         final ResultSet resultSet = selectCall.executeQuery();
-         while ( resultSet.next() ) {
-            codes.add( TuiCodeUtil.getAsTui( resultSet.getInt( 2 ) ) );
-         }
-         // Though the ResultSet interface documentation states that there are automatic closures,
-         // it is up to the driver to implement this behavior ...  historically some drivers have not done so
-         resultSet.close();
-      } catch ( SQLException e ) {
-         LOGGER.error( e.getMessage() );
+      fillSelectCall( selectCall, cuiCode );
+      final ResultSet resultSet = selectCall.executeQuery();
+      while ( resultSet.next() ) {
+         codes.add( TuiCodeUtil.getAsTui( resultSet.getInt( 2 ) ) );
       }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
       return codes;
    }
 
@@ -203,21 +451,19 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     * @param selectCall jdbc selection call
     * @param cuiCode    cui of interest
     * @return preferred term for the cui as obtained with the selectCall
+    * @throws SQLException if the query fails
     */
-   static private String getPreferredTerm( PreparedStatement selectCall, final Long cuiCode ) {
+   static private String getPreferredTerm( PreparedStatement selectCall, final Long cuiCode )
+         throws SQLException {
       String preferredName = "";
-      try {
-         fillSelectCall( selectCall, cuiCode );
-         final ResultSet resultSet = selectCall.executeQuery();
-         if ( resultSet.next() ) {
-            preferredName = resultSet.getString( 2 );
-         }
-         // Though the ResultSet interface documentation states that there are automatic closures,
-         // it is up to the driver to implement this behavior ...  historically some drivers have not done so
-         resultSet.close();
-      } catch ( SQLException e ) {
-         LOGGER.error( e.getMessage() );
+      fillSelectCall( selectCall, cuiCode );
+      final ResultSet resultSet = selectCall.executeQuery();
+      if ( resultSet.next() ) {
+         preferredName = resultSet.getString( 2 );
       }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
       return preferredName;
    }
 
@@ -225,21 +471,19 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     * @param selectCall jdbc selection call
     * @param cuiCode    cui of interest
     * @return collection of ints (as strings) that are related to cui as obtained with the selectCall
+    * @throws SQLException if the query fails
     */
-   static private Collection<String> getIntegerCodes( PreparedStatement selectCall, final Long cuiCode ) {
+   static private Collection<String> getIntegerCodes( PreparedStatement selectCall, final Long cuiCode )
+         throws SQLException {
       final Collection<String> codes = new HashSet<>();
-      try {
-         fillSelectCall( selectCall, cuiCode );
-         final ResultSet resultSet = selectCall.executeQuery();
-         while ( resultSet.next() ) {
-            codes.add( Integer.toString( resultSet.getInt( 2 ) ) );
-         }
-         // Though the ResultSet interface documentation states that there are automatic closures,
-         // it is up to the driver to implement this behavior ...  historically some drivers have not done so
-         resultSet.close();
-      } catch ( SQLException e ) {
-         LOGGER.error( e.getMessage() );
+      fillSelectCall( selectCall, cuiCode );
+      final ResultSet resultSet = selectCall.executeQuery();
+      while ( resultSet.next() ) {
+         codes.add( Integer.toString( resultSet.getInt( 2 ) ) );
       }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
       return codes;
    }
 
@@ -247,21 +491,19 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     * @param selectCall jdbc selection call
     * @param cuiCode    cui of interest
     * @return collection of longs (as strings) that are related to cui as obtained with the selectCall
+    * @throws SQLException if the query fails
     */
-   static private Collection<String> getLongCodes( PreparedStatement selectCall, final Long cuiCode ) {
+   static private Collection<String> getLongCodes( PreparedStatement selectCall, final Long cuiCode )
+         throws SQLException {
       final Collection<String> codes = new HashSet<>();
-      try {
-         fillSelectCall( selectCall, cuiCode );
-         final ResultSet resultSet = selectCall.executeQuery();
-         while ( resultSet.next() ) {
-            codes.add( Long.toString( resultSet.getLong( 2 ) ) );
-         }
-         // Though the ResultSet interface documentation states that there are automatic closures,
-         // it is up to the driver to implement this behavior ...  historically some drivers have not done so
-         resultSet.close();
-      } catch ( SQLException e ) {
-         LOGGER.error( e.getMessage() );
+      fillSelectCall( selectCall, cuiCode );
+      final ResultSet resultSet = selectCall.executeQuery();
+      while ( resultSet.next() ) {
+         codes.add( Long.toString( resultSet.getLong( 2 ) ) );
       }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
       return codes;
    }
 
@@ -269,29 +511,27 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
     * @param selectCall jdbc selection call
     * @param cuiCode    cui of interest
     * @return collection of strings that are related to cui as obtained with the selectCall
+    * @throws SQLException if the query fails
     */
-   static private Collection<String> getStringCodes( PreparedStatement selectCall, final Long cuiCode ) {
+   static private Collection<String> getStringCodes( PreparedStatement selectCall, final Long cuiCode )
+         throws SQLException {
       final Collection<String> codes = new HashSet<>();
-      try {
-         fillSelectCall( selectCall, cuiCode );
-         final ResultSet resultSet = selectCall.executeQuery();
-         while ( resultSet.next() ) {
-            codes.add( resultSet.getString( 2 ) );
-         }
-         // Though the ResultSet interface documentation states that there are automatic closures,
-         // it is up to the driver to implement this behavior ...  historically some drivers have not done so
-         resultSet.close();
-      } catch ( SQLException e ) {
-         LOGGER.error( e.getMessage() );
+      fillSelectCall( selectCall, cuiCode );
+      final ResultSet resultSet = selectCall.executeQuery();
+      while ( resultSet.next() ) {
+         codes.add( resultSet.getString( 2 ) );
       }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
       return codes;
    }
 
    /**
-    * Creates table information objects with table name, concept name, jdbc prepared statement call
+    * Creates table information objects with table name, concept name, class type
     * @param connection -
     * @param conceptTables map of table names to table value types
-    * @return table information objects with table name, concept name, jdbc prepared statement call
+    * @return table information objects with table name, concept name, class type
     * @throws SQLException
     */
    static private Collection<ConceptTableInfo> createTableInfos( final Connection connection,
@@ -326,14 +566,34 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
          }
          String conceptName = conceptTable.getKey().trim();
          conceptName = conceptName.substring( 0, conceptName.length() - 5 );
-         final String lookupSql = "SELECT * FROM " + tableName + " WHERE CUI = ?";
-         final PreparedStatement statement = connection.prepareStatement( lookupSql );
-         tableInfos.add( new ConceptTableInfo( tableName, conceptName, tableClass, statement ) );
+         tableInfos.add( new ConceptTableInfo( tableName, conceptName, tableClass ) );
          LOGGER.info( "Connected to concept table " + tableName + " with class " + tableClass );
       }
       return tableInfos;
    }
 
+   /**
+    * @param connection -
+    * @param tableInfos concept tables
+    * @param batchSize  number of cuis in a batch query
+    * @return single and batch cui selection calls for each concept table, prepared on the given connection
+    * @throws SQLException if a {@code PreparedStatement} could not be created
+    */
+   static private Map<ConceptTableInfo, TableStatements> createTableStatements( final Connection connection,
+                                                                              final Collection<ConceptTableInfo> tableInfos,
+                                                                              final int batchSize )
+         throws SQLException {
+      final Map<ConceptTableInfo, TableStatements> tableStatements = new HashMap<>( tableInfos.size() );
+      for ( ConceptTableInfo tableInfo : tableInfos ) {
+         final String lookupSql = "SELECT * FROM " + tableInfo.__tableName + " WHERE CUI = ?";
+         final PreparedStatement statement = connection.prepareStatement( lookupSql );
+         final PreparedStatement batchStatement
+               = connection.prepareStatement( createBatchSql( tableInfo.__tableName, batchSize ) );
+         tableStatements.put( tableInfo, new TableStatements( statement, batchStatement ) );
+      }
+      return tableStatements;
+   }
+
    /**
     * @param connection -
     * @return all table names in the database
@@ -361,5 +621,60 @@ public class JdbcConceptFactory extends AbstractConceptFactory {
       selectCall.setLong( 1, cuiCode );
    }
 
+   /**
+    * @param tableName -
+    * @param batchSize number of cuis in the query
+    * @return sql to select rows for batchSize cuis
+    */
+   static private String createBatchSql( final String tableName, final int batchSize ) {
+      final StringBuilder sb = new StringBuilder( "SELECT * FROM " ).append( tableName ).append( " WHERE CUI IN (" );
+      for ( int i = 0; i < batchSize; i++ ) {
+         sb.append( i == 0 ? "?" : ",?" );
+      }
+      return sb.append( ")" ).toString();
+   }
+
+   /**
+    * Unused parameters are filled with the last cui, which does not change the results
+    *
+    * @param cuiCodes  no more than batchSize cuis
+    * @param batchSize number of cuis in the query
+    * @throws SQLException if the {@code PreparedStatement} could not be changed
+    */
+   static private void fillBatchSelectCall( final PreparedStatement selectCall, final List<Long> cuiCodes,
+                                            final int batchSize ) throws SQLException {
+      selectCall.clearParameters();
+      final Long lastCode = cuiCodes.get( cuiCodes.size() - 1 );
+      for ( int i = 0; i < batchSize; i++ ) {
+         selectCall.setLong( i + 1, i < cuiCodes.size() ? cuiCodes.get( i ) : lastCode );
+      }
+   }
+
+   /**
+    * @param key     factory name and database url
+    * @param maxSize maximum number of concepts in the cache
+    * @return an existing cache for the key or a new one
+    */
+   static private LongKeyCache<Concept> getSharedCache( final String key, final int maxSize ) {
+      synchronized ( CONCEPT_CACHES ) {
+         return CONCEPT_CACHES.computeIfAbsent( key, k -> {
+            LOGGER.info( "Caching up to " + maxSize + " concepts for " + key );
+            return new LongKeyCache<>( maxSize );
+         } );
+      }
+   }
+
+   static private int parseInt( final String value, final int defaultValue ) {
+      if ( value == null || value.trim().isEmpty() ) {
+         return defaultValue;
+      }
+      try {
+         return Integer.parseInt( value.trim() );
+      } catch ( NumberFormatException nfE ) {
+         LOGGER.warn( "Could not parse " + value + " as an integer, using " + defaultValue );
+         return defaultValue;
+      }
+   }
+
 
 }
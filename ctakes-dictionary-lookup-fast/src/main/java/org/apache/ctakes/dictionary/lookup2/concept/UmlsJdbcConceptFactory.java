@@ -55,4 +55,12 @@ final public class UmlsJdbcConceptFactory implements ConceptFactory {
       return _delegateConceptFactory.createConcepts( cuiCodes );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() {
+      _delegateConceptFactory.close();
+   }
+
 }
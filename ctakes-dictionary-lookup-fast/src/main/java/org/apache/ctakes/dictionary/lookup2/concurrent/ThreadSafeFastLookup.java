@@ -15,6 +15,9 @@ import org.apache.uima.resource.ResourceInitializationException;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for dictionary memory.
+ * Only initialization is locked.  Dictionaries, concept factories and consumers are read-only after initialization,
+ * per-document state is kept on the calling thread and jdbc lookups use pooled statements,
+ * so any number of pipeline threads can process documents at once with the single dictionary lookup.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -46,6 +49,16 @@ final public class ThreadSafeFastLookup extends DefaultJCasTermAnnotator {
       DlSingleton.getInstance().process( jCas );
    }
 
+   /**
+    * Calls destroy on the DlSingleton, which closes the jdbc connections opened for concurrent lookups.
+    * {@inheritDoc}
+    */
+   @Override
+   public void destroy() {
+      super.destroy();
+      DlSingleton.getInstance().destroy();
+   }
+
    /**
     * @return dictionary lookup with defaults
     * @throws ResourceInitializationException -
@@ -73,7 +86,7 @@ final public class ThreadSafeFastLookup extends DefaultJCasTermAnnotator {
       }
 
       private final DefaultJCasTermAnnotator _delegate;
-      private boolean _initialized;
+      private volatile boolean _initialized;
 
       DlSingleton() {
          _delegate = new DefaultJCasTermAnnotator();
@@ -86,6 +99,15 @@ final public class ThreadSafeFastLookup extends DefaultJCasTermAnnotator {
          return LOCK;
       }
 
+      /**
+       * The delegate is reentrant, so process is called without holding the lock
+       * {@inheritDoc}
+       */
+      @Override
+      public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+         _delegate.process( jCas );
+      }
+
       @Override
       public DefaultJCasTermAnnotator getDelegate() {
          return _delegate;
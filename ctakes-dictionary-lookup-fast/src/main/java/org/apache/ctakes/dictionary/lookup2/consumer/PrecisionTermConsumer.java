@@ -68,6 +68,12 @@ final public class PrecisionTermConsumer extends AbstractTermConsumer {
    }
 
 
+   /**
+    * Orders spans by start ascending and then by end descending, so that any span containing another comes first
+    */
+   static private final Comparator<TextSpan> CONTAINER_FIRST_ORDER
+         = Comparator.comparingInt( TextSpan::getStart ).thenComparing( ( s1, s2 ) -> s2.getEnd() - s1.getEnd() );
+
    /**
     * Refine a collection of dictionary terms to only contain the most specific variations:
     * "colon cancer" instead of "cancer", performed by span inclusion /complete containment, not overlap
@@ -77,61 +83,8 @@ final public class PrecisionTermConsumer extends AbstractTermConsumer {
     */
    static public CollectionMap<TextSpan, Long, ? extends Collection<Long>> createPreciseTerms(
          final CollectionMap<TextSpan, Long, ? extends Collection<Long>> semanticTerms ) {
-      final Collection<TextSpan> discardSpans = new HashSet<>();
-      final List<TextSpan> textSpans = new ArrayList<>( semanticTerms.keySet() );
-      final int count = textSpans.size();
-      for ( int i = 0; i < count; i++ ) {
-         final TextSpan spanKeyI = textSpans.get( i );
-         for ( int j = i + 1; j < count; j++ ) {
-            final TextSpan spanKeyJ = textSpans.get( j );
-            if ( (spanKeyJ.getStart() <= spanKeyI.getStart() && spanKeyJ.getEnd() > spanKeyI.getEnd())
-                 || (spanKeyJ.getStart() < spanKeyI.getStart() && spanKeyJ.getEnd() >= spanKeyI.getEnd()) ) {
-               // J contains I, discard less precise concepts for span I and move on to next span I
-               if ( spanKeyJ instanceof MultiTextSpan ) {
-                  boolean spanIok = false;
-                  for ( TextSpan missingSpanKey : ((MultiTextSpan)spanKeyJ).getMissingSpans() ) {
-                     if ( (missingSpanKey.getStart() >= spanKeyI.getStart()
-                           && missingSpanKey.getStart() < spanKeyI.getEnd())
-                          || (missingSpanKey.getEnd() > spanKeyI.getStart()
-                              && missingSpanKey.getEnd() <= spanKeyI.getEnd()) ) {
-                        // I overlaps a missing span, so it is actually ok
-                        spanIok = true;
-                        break;
-                     }
-                  }
-                  if ( !spanIok ) {
-                     discardSpans.add( spanKeyI );
-                     break;
-                  }
-               } else {
-                  discardSpans.add( spanKeyI );
-                  break;
-               }
-            }
-            if ( ((spanKeyI.getStart() <= spanKeyJ.getStart() && spanKeyI.getEnd() > spanKeyJ.getEnd())
-                  || (spanKeyI.getStart() < spanKeyJ.getStart() && spanKeyI.getEnd() >= spanKeyJ.getEnd())) ) {
-               // I contains J, discard less precise concepts for span J and move on to next span J
-               if ( spanKeyI instanceof MultiTextSpan ) {
-                  boolean spanJok = false;
-                  for ( TextSpan missingSpanKey : ((MultiTextSpan)spanKeyI).getMissingSpans() ) {
-                     if ( (missingSpanKey.getStart() >= spanKeyJ.getStart()
-                           && missingSpanKey.getStart() < spanKeyJ.getEnd())
-                          || (missingSpanKey.getEnd() > spanKeyJ.getStart()
-                              && missingSpanKey.getEnd() <= spanKeyJ.getEnd()) ) {
-                        // J overlaps a missing span, so it is actually ok
-                        spanJok = true;
-                        break;
-                     }
-                  }
-                  if ( !spanJok ) {
-                     discardSpans.add( spanKeyJ );
-                  }
-               } else {
-                  discardSpans.add( spanKeyJ );
-               }
-            }
-         }
-      }
+      final Collection<TextSpan> textSpans = semanticTerms.keySet();
+      final Collection<TextSpan> discardSpans = getDiscardSpans( textSpans );
       final CollectionMap<TextSpan, Long, ? extends Collection<Long>> preciseHitMap = new HashSetMap<>(
             textSpans.size() - discardSpans.size() );
       for ( Map.Entry<TextSpan, ? extends Collection<Long>> entry : semanticTerms ) {
@@ -142,5 +95,106 @@ final public class PrecisionTermConsumer extends AbstractTermConsumer {
       return preciseHitMap;
    }
 
+   /**
+    * A span is discarded if another span contains it and is larger.
+    * Contained spans are found with a single sweep over the sorted spans, keeping the farthest end of the
+    * spans already passed, so the cost is O(n log n) instead of comparing every pair of spans.
+    * A {@link MultiTextSpan} does not discard a contained span that overlaps one of its missing spans,
+    * so each multiple span checks only the spans that start within it.
+    *
+    * @param spanKeys spans of all terms
+    * @return spans of terms that are contained by larger terms
+    */
+   static private Collection<TextSpan> getDiscardSpans( final Collection<TextSpan> spanKeys ) {
+      final TextSpan[] textSpans = spanKeys.toArray( new TextSpan[ spanKeys.size() ] );
+      Arrays.sort( textSpans, CONTAINER_FIRST_ORDER );
+      final Collection<TextSpan> discardSpans = new HashSet<>();
+      final Collection<MultiTextSpan> multiSpans = new ArrayList<>();
+      int maxEnd = Integer.MIN_VALUE;
+      int groupStart = 0;
+      while ( groupStart < textSpans.length ) {
+         final int start = textSpans[ groupStart ].getStart();
+         final int end = textSpans[ groupStart ].getEnd();
+         // Spans with identical bounds do not contain each other, so they are checked against previous spans as a group.
+         // A previous span has a lower start or a larger end, so it contains this group if its end is not smaller.
+         int groupEnd = groupStart;
+         boolean hasSingleSpan = false;
+         while ( groupEnd < textSpans.length
+                 && textSpans[ groupEnd ].getStart() == start && textSpans[ groupEnd ].getEnd() == end ) {
+            final TextSpan textSpan = textSpans[ groupEnd ];
+            if ( maxEnd >= end ) {
+               discardSpans.add( textSpan );
+            }
+            if ( textSpan instanceof MultiTextSpan ) {
+               multiSpans.add( (MultiTextSpan)textSpan );
+            } else {
+               hasSingleSpan = true;
+            }
+            groupEnd++;
+         }
+         if ( hasSingleSpan ) {
+            maxEnd = Math.max( maxEnd, end );
+         }
+         groupStart = groupEnd;
+      }
+      for ( MultiTextSpan multiSpan : multiSpans ) {
+         for ( int i = getFirstIndex( textSpans, multiSpan.getStart() );
+               i < textSpans.length && textSpans[ i ].getStart() <= multiSpan.getEnd(); i++ ) {
+            final TextSpan textSpan = textSpans[ i ];
+            if ( isLarger( multiSpan, textSpan ) && !discardSpans.contains( textSpan )
+                 && !isMissingSpanOverlap( multiSpan, textSpan ) ) {
+               discardSpans.add( textSpan );
+            }
+         }
+      }
+      return discardSpans;
+   }
+
+   /**
+    * @param textSpans spans sorted by start
+    * @param start     some start index
+    * @return index of the first span with a start that is not smaller than the given start
+    */
+   static private int getFirstIndex( final TextSpan[] textSpans, final int start ) {
+      int low = 0;
+      int high = textSpans.length;
+      while ( low < high ) {
+         final int mid = (low + high) >>> 1;
+         if ( textSpans[ mid ].getStart() < start ) {
+            low = mid + 1;
+         } else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   /**
+    * @param container possible containing span
+    * @param textSpan  possible contained span
+    * @return true if the container contains the span and is larger
+    */
+   static private boolean isLarger( final TextSpan container, final TextSpan textSpan ) {
+      return (container.getStart() <= textSpan.getStart() && container.getEnd() > textSpan.getEnd())
+             || (container.getStart() < textSpan.getStart() && container.getEnd() >= textSpan.getEnd());
+   }
+
+   /**
+    * @param multiSpan multiple span with missing spans
+    * @param textSpan  span contained by the multiple span
+    * @return true if the span overlaps a missing span, in which case it is actually ok
+    */
+   static private boolean isMissingSpanOverlap( final MultiTextSpan multiSpan, final TextSpan textSpan ) {
+      for ( TextSpan missingSpanKey : multiSpan.getMissingSpans() ) {
+         if ( (missingSpanKey.getStart() >= textSpan.getStart()
+               && missingSpanKey.getStart() < textSpan.getEnd())
+              || (missingSpanKey.getEnd() > textSpan.getStart()
+                  && missingSpanKey.getEnd() <= textSpan.getEnd()) ) {
+            return true;
+         }
+      }
+      return false;
+   }
+
 
 }
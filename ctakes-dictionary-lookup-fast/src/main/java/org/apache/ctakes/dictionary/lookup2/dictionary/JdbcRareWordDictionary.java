@@ -18,8 +18,9 @@
  */
 package org.apache.ctakes.dictionary.lookup2.dictionary;
 
+import org.apache.ctakes.core.util.collection.LruCache;
 import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
-import org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory;
+import org.apache.ctakes.dictionary.lookup2.util.JdbcStatementPool;
 import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
 
@@ -27,10 +28,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Properties;
+import java.util.*;
 
 import static org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory.*;
 
@@ -38,6 +36,16 @@ import static org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory.*;
  * Preferred dictionary to use for large collections of terms.
  * Column indices within the database are constant and not configurable: CUI TUI RINDEX TCOUNT TEXT RWORD
  * If a configurable implementation is desired then create an extension.
+ * <p>
+ * Lookups are held in a bounded lru cache of rare word to terms, sized by the property {@code cacheSize}.
+ * When the cache is enabled, {@link #prefetchRareWordHits(Collection)} resolves all uncached rare words
+ * with {@code IN (...)} queries of up to {@code batchSize} words instead of one query per word.
+ * A cacheSize of 0 disables both the cache and batching.
+ * </p>
+ * <p>
+ * Queries use statements borrowed from a {@link JdbcStatementPool} of up to {@code jdbcPoolSize} connections,
+ * so one dictionary can be used by several pipeline threads at once.
+ * </p>
  * Author: SPF
  * Affiliation: CHIP-NLP
  * Date: 3/26/13
@@ -62,9 +70,31 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
 
 
    static public final String RARE_WORD_TABLE = "rareWordTable";
+   static public final String CACHE_SIZE = "cacheSize";
+   static public final String BATCH_SIZE = "batchSize";
 
+   static private final int DEFAULT_CACHE_SIZE = 10000;
+   static private final int DEFAULT_BATCH_SIZE = 100;
 
-   private PreparedStatement _selectTermCall;
+
+   /**
+    * Statements prepared on a single connection
+    */
+   static private final class RareWordStatements {
+      private final PreparedStatement __selectTermCall;
+      private final PreparedStatement __selectBatchCall;
+
+      private RareWordStatements( final PreparedStatement selectTermCall, final PreparedStatement selectBatchCall ) {
+         __selectTermCall = selectTermCall;
+         __selectBatchCall = selectBatchCall;
+      }
+   }
+
+
+   final private JdbcStatementPool<RareWordStatements> _statementPool;
+   final private boolean _useBatch;
+   final private int _batchSize;
+   final private LruCache<String, Collection<RareWordTerm>> _cache;
 
 
    public JdbcRareWordDictionary( final String name, final UimaContext uimaContext, final Properties properties )
@@ -72,10 +102,12 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
       this( name,
             properties.getProperty( JDBC_DRIVER ), properties.getProperty( JDBC_URL ),
             properties.getProperty( JDBC_USER ), properties.getProperty( JDBC_PASS ),
-            properties.getProperty( RARE_WORD_TABLE ) );
+            properties.getProperty( RARE_WORD_TABLE ),
+            parseInt( properties.getProperty( CACHE_SIZE ), DEFAULT_CACHE_SIZE ),
+            parseInt( properties.getProperty( BATCH_SIZE ), DEFAULT_BATCH_SIZE ),
+            parseInt( properties.getProperty( JDBC_POOL_SIZE ), 0 ) );
    }
 
-
    public JdbcRareWordDictionary( final String name,
                                   final String jdbcDriver,
                                   final String jdbcUrl,
@@ -83,23 +115,48 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
                                   final String jdbcPass,
                                   final String tableName )
          throws SQLException {
+      this( name, jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, tableName, DEFAULT_CACHE_SIZE, DEFAULT_BATCH_SIZE, 0 );
+   }
+
+   public JdbcRareWordDictionary( final String name,
+                                  final String jdbcDriver,
+                                  final String jdbcUrl,
+                                  final String jdbcUser,
+                                  final String jdbcPass,
+                                  final String tableName,
+                                  final int cacheSize,
+                                  final int batchSize )
+         throws SQLException {
+      this( name, jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, tableName, cacheSize, batchSize, 0 );
+   }
+
+
+   public JdbcRareWordDictionary( final String name,
+                                  final String jdbcDriver,
+                                  final String jdbcUrl,
+                                  final String jdbcUser,
+                                  final String jdbcPass,
+                                  final String tableName,
+                                  final int cacheSize,
+                                  final int batchSize,
+                                  final int poolSize )
+         throws SQLException {
       super( name );
-      boolean connected = false;
+      _cache = cacheSize > 0 ? new LruCache<>( cacheSize ) : null;
+      _batchSize = Math.max( 1, batchSize );
+      _useBatch = _cache != null && _batchSize > 1;
       try {
-         // DO NOT use try with resources here.  Try with resources uses a closable and closes it when exiting the try
-         final Connection connection = JdbcConnectionFactory.getInstance()
-               .getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
-         connected = connection != null;
-         _selectTermCall = createSelectCall( connection, tableName );
+         _statementPool = new JdbcStatementPool<>( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass, poolSize,
+               c -> new RareWordStatements( createSelectCall( c, tableName ),
+                     _useBatch ? createBatchSelectCall( c, tableName, _batchSize ) : null ) );
       } catch ( SQLException sqlE ) {
-         if ( !connected ) {
-            LOGGER.error( "Could not Connect to Dictionary " + name );
-         } else {
-            LOGGER.error( "Could not create Term Data Selection Call", sqlE );
-         }
+         LOGGER.error( "Could not create Term Data Selection Call for Dictionary " + name, sqlE );
          throw sqlE;
       }
       LOGGER.info( "Connected to cui and term table " + tableName.toUpperCase() );
+      if ( _cache != null ) {
+         LOGGER.info( "Caching up to " + cacheSize + " rare words, fetched in batches of " + _batchSize );
+      }
    }
 
 
@@ -108,25 +165,134 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
     */
    @Override
    public Collection<RareWordTerm> getRareWordHits( final String rareWordText ) {
+      final Collection<RareWordTerm> rareWordHits = _cache == null
+                                                    ? selectRareWordHits( rareWordText )
+                                                    : _cache.get( rareWordText, this::selectRareWordHits );
+      return rareWordHits == null ? Collections.emptyList() : rareWordHits;
+   }
+
+   /**
+    * Fetches terms for all uncached rare words with as few queries as possible and places them in the cache.
+    * Rare words without terms are cached as empty so that they are not queried again.
+    * {@inheritDoc}
+    */
+   @Override
+   public void prefetchRareWordHits( final Collection<String> rareWordTexts ) {
+      if ( !_useBatch ) {
+         return;
+      }
+      final List<String> uncached = new ArrayList<>();
+      for ( String rareWordText : new HashSet<>( rareWordTexts ) ) {
+         if ( !_cache.containsKey( rareWordText ) ) {
+            uncached.add( rareWordText );
+         }
+      }
+      // Fetching more than the cache can hold would only evict what was just fetched
+      final int fetchCount = Math.min( uncached.size(), _cache.getMaxSize() );
+      for ( int i = 0; i < fetchCount; i += _batchSize ) {
+         final List<String> batch = uncached.subList( i, Math.min( fetchCount, i + _batchSize ) );
+         _cache.putAll( selectRareWordHits( batch ) );
+      }
+      if ( LOGGER.isDebugEnabled() ) {
+         LOGGER.debug( getName() + " prefetched " + fetchCount + " rare words.  " + _cache );
+      }
+   }
+
+   /**
+    * Closes the connections opened for concurrent lookups.
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() {
+      _statementPool.close();
+   }
+
+   /**
+    * @return number of lookups that were answered by the cache, 0 if there is no cache
+    */
+   public long getCacheHitCount() {
+      return _cache == null ? 0 : _cache.getHitCount();
+   }
+
+   /**
+    * @return number of lookups that required a query, 0 if there is no cache
+    */
+   public long getCacheMissCount() {
+      return _cache == null ? 0 : _cache.getMissCount();
+   }
+
+   /**
+    * @param rareWordText text of the rare word to use for term lookup
+    * @return all terms in the table with the given rare word, or null on error so that the failure is not cached
+    */
+   private Collection<RareWordTerm> selectRareWordHits( final String rareWordText ) {
+      try {
+         return _statementPool.call( s -> selectRareWordHits( s.__selectTermCall, rareWordText ) );
+      } catch ( SQLException e ) {
+         LOGGER.error( e.getMessage() );
+      }
+      return null;
+   }
+
+   /**
+    * @param selectCall   jdbc selection call borrowed from the pool
+    * @param rareWordText text of the rare word to use for term lookup
+    * @return all terms in the table with the given rare word
+    * @throws SQLException if the query failed
+    */
+   static private Collection<RareWordTerm> selectRareWordHits( final PreparedStatement selectCall,
+                                                               final String rareWordText ) throws SQLException {
       final List<RareWordTerm> rareWordTerms = new ArrayList<>();
+      fillSelectCall( selectCall, rareWordText );
+      final ResultSet resultSet = selectCall.executeQuery();
+      while ( resultSet.next() ) {
+         rareWordTerms.add( createRareWordTerm( resultSet ) );
+      }
+      // Though the ResultSet interface documentation states that there are automatic closures,
+      // it is up to the driver to implement this behavior ...  historically some drivers have not done so
+      resultSet.close();
+      // The same collection is cached and handed to every caller
+      return Collections.unmodifiableList( rareWordTerms );
+   }
+
+   /**
+    * @param rareWordTexts no more than batchSize rare words to use for term lookup
+    * @return map of every given rare word to all terms in the table with that rare word.  Empty on error.
+    */
+   private Map<String, Collection<RareWordTerm>> selectRareWordHits( final List<String> rareWordTexts ) {
+      final Map<String, Collection<RareWordTerm>> rareWordTermsMap = new HashMap<>( rareWordTexts.size() );
+      for ( String rareWordText : rareWordTexts ) {
+         rareWordTermsMap.put( rareWordText, new ArrayList<>() );
+      }
       try {
-         fillSelectCall( rareWordText );
-         final ResultSet resultSet = _selectTermCall.executeQuery();
-         while ( resultSet.next() ) {
-            final RareWordTerm rareWordTerm = new RareWordTerm( resultSet.getString( FIELD_INDEX.TEXT.__index ),
-                  resultSet.getLong( FIELD_INDEX.CUI.__index ),
-                  resultSet.getString( FIELD_INDEX.RWORD.__index ),
-                  resultSet.getInt( FIELD_INDEX.RINDEX.__index ),
-                  resultSet.getInt( FIELD_INDEX.TCOUNT.__index ) );
-            rareWordTerms.add( rareWordTerm );
-         }
-         // Though the ResultSet interface documentation states that there are automatic closures,
-         // it is up to the driver to implement this behavior ...  historically some drivers have not done so
-         resultSet.close();
+         _statementPool.call( s -> {
+            fillBatchSelectCall( s.__selectBatchCall, rareWordTexts, _batchSize );
+            final ResultSet resultSet = s.__selectBatchCall.executeQuery();
+            while ( resultSet.next() ) {
+               final RareWordTerm rareWordTerm = createRareWordTerm( resultSet );
+               final Collection<RareWordTerm> rareWordTerms = rareWordTermsMap.get( rareWordTerm.getRareWord() );
+               if ( rareWordTerms != null ) {
+                  rareWordTerms.add( rareWordTerm );
+               }
+            }
+            resultSet.close();
+            return null;
+         } );
       } catch ( SQLException e ) {
          LOGGER.error( e.getMessage() );
+         return Collections.emptyMap();
       }
-      return rareWordTerms;
+      rareWordTermsMap.replaceAll( ( rareWordText, rareWordTerms )
+                                         -> Collections.unmodifiableCollection( rareWordTerms ) );
+      return rareWordTermsMap;
+   }
+
+   static private RareWordTerm createRareWordTerm( final ResultSet resultSet ) throws SQLException {
+      return new RareWordTerm( resultSet.getString( FIELD_INDEX.TEXT.__index ),
+            resultSet.getLong( FIELD_INDEX.CUI.__index ),
+            resultSet.getString( FIELD_INDEX.RWORD.__index ),
+            resultSet.getInt( FIELD_INDEX.RINDEX.__index ),
+            resultSet.getInt( FIELD_INDEX.TCOUNT.__index ) );
    }
 
    /**
@@ -144,10 +310,55 @@ final public class JdbcRareWordDictionary extends AbstractRareWordDictionary {
     * @return an sql call to use for term lookup
     * @throws SQLException if the {@code PreparedStatement} could not be created or changed
     */
-   private PreparedStatement fillSelectCall( final String rareWordText ) throws SQLException {
-      _selectTermCall.clearParameters();
-      _selectTermCall.setString( 1, rareWordText );
-      return _selectTermCall;
+   static private PreparedStatement fillSelectCall( final PreparedStatement selectCall, final String rareWordText )
+         throws SQLException {
+      selectCall.clearParameters();
+      selectCall.setString( 1, rareWordText );
+      return selectCall;
+   }
+
+   /**
+    * @return an sql call to use for lookup of several terms at once
+    * @throws SQLException if the {@code PreparedStatement} could not be created or changed
+    */
+   static private PreparedStatement createBatchSelectCall( final Connection connection, final String tableName,
+                                                           final int batchSize ) throws SQLException {
+      final StringBuilder sb = new StringBuilder( "SELECT * FROM " ).append( tableName ).append( " WHERE RWORD IN (" );
+      for ( int i = 0; i < batchSize; i++ ) {
+         sb.append( i == 0 ? "?" : ",?" );
+      }
+      sb.append( ")" );
+      return connection.prepareStatement( sb.toString() );
+   }
+
+   /**
+    * Unused parameters are filled with the last rare word, which does not change the results
+    *
+    * @param rareWordTexts text of no more than batchSize rare words to use for term lookup
+    * @return an sql call to use for lookup of several terms at once
+    * @throws SQLException if the {@code PreparedStatement} could not be created or changed
+    */
+   static private PreparedStatement fillBatchSelectCall( final PreparedStatement selectCall,
+                                                         final List<String> rareWordTexts,
+                                                         final int batchSize ) throws SQLException {
+      selectCall.clearParameters();
+      final String lastRareWord = rareWordTexts.get( rareWordTexts.size() - 1 );
+      for ( int i = 0; i < batchSize; i++ ) {
+         selectCall.setString( i + 1, i < rareWordTexts.size() ? rareWordTexts.get( i ) : lastRareWord );
+      }
+      return selectCall;
+   }
+
+   static private int parseInt( final String value, final int defaultValue ) {
+      if ( value == null || value.trim().isEmpty() ) {
+         return defaultValue;
+      }
+      try {
+         return Integer.parseInt( value.trim() );
+      } catch ( NumberFormatException nfE ) {
+         LOGGER.warn( "Could not parse " + value + " as an integer, using " + defaultValue );
+         return defaultValue;
+      }
    }
 
 
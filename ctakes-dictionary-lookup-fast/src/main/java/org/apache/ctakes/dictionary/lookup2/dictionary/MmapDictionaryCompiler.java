@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+import com.lexicalscope.jewel.cli.CliFactory;
+import com.lexicalscope.jewel.cli.Option;
+import org.apache.ctakes.core.util.collection.ArrayListMap;
+import org.apache.ctakes.core.util.collection.CollectionMap;
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory;
+import org.apache.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.apache.ctakes.dictionary.lookup2.dictionary.MmapRareWordDictionary.*;
+import static org.apache.ctakes.dictionary.lookup2.dictionary.RareWordTermMapCreator.CuiTerm;
+
+/**
+ * Offline compiler that writes the binary file used by {@link MmapRareWordDictionary}.
+ * Terms can be read from a bsv file, as used by {@link BsvRareWordDictionary},
+ * or from a cui_terms table, as used by {@link JdbcRareWordDictionary}.
+ * <p>
+ * Example: {@code MmapDictionaryCompiler -b path/to/terms.bsv -o path/to/terms.rwd}
+ * </p>
+ */
+final public class MmapDictionaryCompiler {
+
+   static private final Logger LOGGER = Logger.getLogger( "MmapDictionaryCompiler" );
+
+   private MmapDictionaryCompiler() {
+   }
+
+   interface CompilerOptions {
+      @Option(
+            shortName = "b",
+            longName = "bsv",
+            description = "path to a bsv file with CUI|Text or CUI|TUI|Text rows.",
+            defaultValue = "" )
+      String getBsvPath();
+
+      @Option(
+            longName = "jdbcDriver",
+            description = "jdbc driver for the database holding the cui_terms table.",
+            defaultValue = "org.hsqldb.jdbcDriver" )
+      String getJdbcDriver();
+
+      @Option(
+            shortName = "u",
+            longName = "jdbcUrl",
+            description = "jdbc url for the database holding the cui_terms table.",
+            defaultValue = "" )
+      String getJdbcUrl();
+
+      @Option(
+            longName = "jdbcUser",
+            description = "user for the database holding the cui_terms table.",
+            defaultValue = "sa" )
+      String getJdbcUser();
+
+      @Option(
+            longName = "jdbcPass",
+            description = "password for the database holding the cui_terms table.",
+            defaultValue = "" )
+      String getJdbcPass();
+
+      @Option(
+            shortName = "t",
+            longName = "table",
+            description = "name of the table with CUI RINDEX TCOUNT TEXT RWORD columns.",
+            defaultValue = "cui_terms" )
+      String getTableName();
+
+      @Option(
+            shortName = "o",
+            longName = "output",
+            description = "path to the binary dictionary file to write." )
+      String getOutputPath();
+   }
+
+   /**
+    * @param args -b bsvPath or -u jdbcUrl, and -o outputPath
+    */
+   public static void main( final String... args ) {
+      final CompilerOptions options = CliFactory.parseArguments( CompilerOptions.class, args );
+      try {
+         final CollectionMap<String, RareWordTerm, ? extends Collection<RareWordTerm>> rareWordTermMap;
+         if ( !options.getBsvPath().isEmpty() ) {
+            rareWordTermMap = readBsv( options.getBsvPath() );
+         } else if ( !options.getJdbcUrl().isEmpty() ) {
+            rareWordTermMap = readJdbc( options.getJdbcDriver(), options.getJdbcUrl(),
+                  options.getJdbcUser(), options.getJdbcPass(), options.getTableName() );
+         } else {
+            LOGGER.error( "Either a bsv path or a jdbc url must be specified" );
+            System.exit( 1 );
+            return;
+         }
+         writeDictionary( rareWordTermMap, new File( options.getOutputPath() ) );
+      } catch ( IOException | SQLException multE ) {
+         LOGGER.error( multE.getMessage() );
+         System.exit( 1 );
+      }
+   }
+
+   /**
+    * @param bsvFilePath path to file containing term rows and bsv columns
+    * @return map of rare words to terms, created exactly as for a {@link BsvRareWordDictionary}
+    */
+   static public CollectionMap<String, RareWordTerm, List<RareWordTerm>> readBsv( final String bsvFilePath ) {
+      final Collection<CuiTerm> cuiTerms = BsvRareWordDictionary.parseBsvFile( bsvFilePath );
+      return RareWordTermMapCreator.createRareWordTermMap( cuiTerms );
+   }
+
+   /**
+    * @return map of rare words to terms, created exactly as for a {@link JdbcRareWordDictionary}
+    * @throws SQLException if the table could not be read
+    */
+   static public CollectionMap<String, RareWordTerm, List<RareWordTerm>> readJdbc( final String jdbcDriver,
+                                                                                  final String jdbcUrl,
+                                                                                  final String jdbcUser,
+                                                                                  final String jdbcPass,
+                                                                                  final String tableName )
+         throws SQLException {
+      final CollectionMap<String, RareWordTerm, List<RareWordTerm>> rareWordTermMap = new ArrayListMap<>();
+      final Connection connection = JdbcConnectionFactory.getInstance()
+            .getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
+      try ( Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery( "SELECT * FROM " + tableName ) ) {
+         // Column order is CUI RINDEX TCOUNT TEXT RWORD, the same as in JdbcRareWordDictionary
+         while ( resultSet.next() ) {
+            final String rareWord = resultSet.getString( 5 );
+            rareWordTermMap.placeValue( rareWord, new RareWordTerm( resultSet.getString( 4 ),
+                  resultSet.getLong( 1 ), rareWord, resultSet.getInt( 2 ), resultSet.getInt( 3 ) ) );
+         }
+      }
+      return rareWordTermMap;
+   }
+
+   /**
+    * Writes the rare word index, term table and utf-8 byte pool described in {@link MmapRareWordDictionary}
+    *
+    * @param rareWordTermMap map of rare words to terms
+    * @param outputFile      binary dictionary file to write
+    * @throws IOException if the file could not be written or would be larger than 2GB
+    */
+   static public void writeDictionary(
+         final CollectionMap<String, RareWordTerm, ? extends Collection<RareWordTerm>> rareWordTermMap,
+         final File outputFile ) throws IOException {
+      final List<byte[]> rareWords = new ArrayList<>( rareWordTermMap.size() );
+      final Map<byte[], Collection<RareWordTerm>> wordTerms = new IdentityHashMap<>( rareWordTermMap.size() );
+      int termCount = 0;
+      for ( Map.Entry<String, ? extends Collection<RareWordTerm>> entry : rareWordTermMap ) {
+         if ( entry.getValue().isEmpty() ) {
+            continue;
+         }
+         final byte[] rareWord = entry.getKey().getBytes( StandardCharsets.UTF_8 );
+         rareWords.add( rareWord );
+         wordTerms.put( rareWord, entry.getValue() );
+         termCount += entry.getValue().size();
+      }
+      rareWords.sort( MmapDictionaryCompiler::compareUtf8 );
+      // Encode all term text up front so that pool offsets are known before anything is written
+      final List<byte[]> termTexts = new ArrayList<>( termCount );
+      long poolSize = 0;
+      for ( byte[] rareWord : rareWords ) {
+         poolSize += rareWord.length;
+         for ( RareWordTerm term : wordTerms.get( rareWord ) ) {
+            final byte[] text = term.getText().getBytes( StandardCharsets.UTF_8 );
+            termTexts.add( text );
+            poolSize += text.length;
+         }
+      }
+      final long poolOffset = HEADER_SIZE + (long)rareWords.size() * WORD_ENTRY_SIZE
+                              + (long)termCount * TERM_ENTRY_SIZE;
+      if ( poolOffset + poolSize > Integer.MAX_VALUE ) {
+         throw new IOException( "Dictionary would be larger than 2GB" );
+      }
+      final File parent = outputFile.getAbsoluteFile().getParentFile();
+      if ( parent != null && !parent.exists() && !parent.mkdirs() ) {
+         throw new IOException( "Could not create directory " + parent.getPath() );
+      }
+      try ( DataOutputStream output
+                  = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( outputFile ) ) ) ) {
+         output.writeInt( MAGIC );
+         output.writeInt( VERSION );
+         output.writeInt( rareWords.size() );
+         output.writeInt( termCount );
+         // rare word index, word text is at the front of the pool
+         int poolIndex = (int)poolOffset;
+         int termIndex = 0;
+         for ( byte[] rareWord : rareWords ) {
+            final int wordTermCount = wordTerms.get( rareWord ).size();
+            output.writeInt( poolIndex );
+            output.writeInt( rareWord.length );
+            output.writeInt( termIndex );
+            output.writeInt( wordTermCount );
+            poolIndex += rareWord.length;
+            termIndex += wordTermCount;
+         }
+         // term table, term text follows the word text in the pool
+         termIndex = 0;
+         for ( byte[] rareWord : rareWords ) {
+            for ( RareWordTerm term : wordTerms.get( rareWord ) ) {
+               final byte[] text = termTexts.get( termIndex );
+               output.writeLong( term.getCuiCode() );
+               output.writeInt( poolIndex );
+               output.writeInt( text.length );
+               output.writeInt( term.getRareWordIndex() );
+               output.writeInt( term.getTokenCount() );
+               poolIndex += text.length;
+               termIndex++;
+            }
+         }
+         for ( byte[] rareWord : rareWords ) {
+            output.write( rareWord );
+         }
+         for ( byte[] text : termTexts ) {
+            output.write( text );
+         }
+      }
+      LOGGER.info( "Wrote " + rareWords.size() + " rare words and " + termCount + " terms to "
+                   + outputFile.getPath() );
+   }
+
+   static private int compareUtf8( final byte[] word1, final byte[] word2 ) {
+      final int count = Math.min( word1.length, word2.length );
+      for ( int i = 0; i < count; i++ ) {
+         final int diff = (word1[ i ] & 0xff) - (word2[ i ] & 0xff);
+         if ( diff != 0 ) {
+            return diff;
+         }
+      }
+      return word1.length - word2.length;
+   }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+import org.apache.ctakes.core.resource.FileLocator;
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.apache.log4j.Logger;
+import org.apache.uima.UimaContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Dictionary that reads terms directly from a precompiled binary file through a read-only memory mapped buffer.
+ * Nothing is loaded onto the heap at startup, and terms are only created for the rare words that are actually hit.
+ * Because the file is mapped read-only, several JVMs on the same host share the same pages in the os cache.
+ * <p>
+ * The file is created with {@link MmapDictionaryCompiler} from a bsv file or a cui_terms table.
+ * Layout, all values big-endian:
+ * <ul>
+ * <li>header: magic, version, rare word count, term count</li>
+ * <li>rare word index, sorted by utf-8 bytes: word offset, word length, first term index, term count</li>
+ * <li>term table: cui code (long), text offset, text length, rare word index, token count</li>
+ * <li>utf-8 byte pool holding the text of all rare words and terms</li>
+ * </ul>
+ * A single mapped buffer is used, so the file cannot exceed 2GB.
+ * </p>
+ */
+final public class MmapRareWordDictionary extends AbstractRareWordDictionary {
+
+   static private final Logger LOGGER = Logger.getLogger( "MmapRareWordDictionary" );
+
+   static public final String MMAP_FILE_PATH = "mmapPath";
+
+   static final int MAGIC = 0x52574431;
+   static final int VERSION = 1;
+   static final int HEADER_SIZE = 16;
+   static final int WORD_ENTRY_SIZE = 16;
+   static final int TERM_ENTRY_SIZE = 24;
+
+   final private ByteBuffer _buffer;
+   final private int _wordCount;
+   final private int _termTableOffset;
+
+
+   public MmapRareWordDictionary( final String name, final UimaContext uimaContext, final Properties properties )
+         throws IOException {
+      this( name, properties.getProperty( MMAP_FILE_PATH ) );
+   }
+
+   public MmapRareWordDictionary( final String name, final String mmapFilePath ) throws IOException {
+      this( name, FileLocator.getFile( mmapFilePath ) );
+   }
+
+   public MmapRareWordDictionary( final String name, final File mmapFile ) throws IOException {
+      super( name );
+      // The mapping remains valid after the channel is closed
+      try ( FileChannel channel = FileChannel.open( mmapFile.toPath(), StandardOpenOption.READ ) ) {
+         if ( channel.size() > Integer.MAX_VALUE ) {
+            throw new IOException( "Dictionary file " + mmapFile.getPath() + " is larger than 2GB" );
+         }
+         _buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+      }
+      if ( _buffer.capacity() < HEADER_SIZE || _buffer.getInt( 0 ) != MAGIC ) {
+         throw new IOException( mmapFile.getPath() + " is not a memory mapped rare word dictionary" );
+      }
+      final int version = _buffer.getInt( 4 );
+      if ( version != VERSION ) {
+         throw new IOException( "Unsupported dictionary version " + version + " in " + mmapFile.getPath() );
+      }
+      _wordCount = _buffer.getInt( 8 );
+      final int termCount = _buffer.getInt( 12 );
+      _termTableOffset = HEADER_SIZE + _wordCount * WORD_ENTRY_SIZE;
+      LOGGER.info( "Mapped " + _wordCount + " rare words and " + termCount + " terms from " + mmapFile.getPath() );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Collection<RareWordTerm> getRareWordHits( final String rareWordText ) {
+      final byte[] key = rareWordText.getBytes( StandardCharsets.UTF_8 );
+      final int wordIndex = findWord( key );
+      if ( wordIndex < 0 ) {
+         return Collections.emptyList();
+      }
+      final int wordEntry = HEADER_SIZE + wordIndex * WORD_ENTRY_SIZE;
+      final int firstTerm = _buffer.getInt( wordEntry + 8 );
+      final int termCount = _buffer.getInt( wordEntry + 12 );
+      final List<RareWordTerm> rareWordTerms = new ArrayList<>( termCount );
+      for ( int i = firstTerm; i < firstTerm + termCount; i++ ) {
+         final int termEntry = _termTableOffset + i * TERM_ENTRY_SIZE;
+         final long cuiCode = _buffer.getLong( termEntry );
+         final String text = readUtf8( _buffer.getInt( termEntry + 8 ), _buffer.getInt( termEntry + 12 ) );
+         rareWordTerms.add( new RareWordTerm( text, cuiCode, rareWordText,
+               _buffer.getInt( termEntry + 16 ), _buffer.getInt( termEntry + 20 ) ) );
+      }
+      return rareWordTerms;
+   }
+
+   /**
+    * Binary search of the sorted rare word index.  Only absolute gets are used, so lookups are thread safe.
+    *
+    * @param key utf-8 bytes of a rare word
+    * @return index of the rare word in the word index or -1 if it is not in the dictionary
+    */
+   private int findWord( final byte[] key ) {
+      int low = 0;
+      int high = _wordCount - 1;
+      while ( low <= high ) {
+         final int mid = (low + high) >>> 1;
+         final int wordEntry = HEADER_SIZE + mid * WORD_ENTRY_SIZE;
+         final int compare = compareUtf8( _buffer.getInt( wordEntry ), _buffer.getInt( wordEntry + 4 ), key );
+         if ( compare < 0 ) {
+            low = mid + 1;
+         } else if ( compare > 0 ) {
+            high = mid - 1;
+         } else {
+            return mid;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * @return unsigned lexicographic comparison of the bytes at the given offset with the key
+    */
+   private int compareUtf8( final int offset, final int length, final byte[] key ) {
+      final int count = Math.min( length, key.length );
+      for ( int i = 0; i < count; i++ ) {
+         final int diff = (_buffer.get( offset + i ) & 0xff) - (key[ i ] & 0xff);
+         if ( diff != 0 ) {
+            return diff;
+         }
+      }
+      return length - key.length;
+   }
+
+   private String readUtf8( final int offset, final int length ) {
+      final byte[] bytes = new byte[ length ];
+      for ( int i = 0; i < length; i++ ) {
+         bytes[ i ] = _buffer.get( offset + i );
+      }
+      return new String( bytes, StandardCharsets.UTF_8 );
+   }
+
+}
@@ -56,4 +56,21 @@ public interface RareWordDictionary {
     */
    public Collection<RareWordTerm> getRareWordHits( final String rareWordText );
 
+   /**
+    * Prepare for a series of lookups by fetching the terms for many rare words at once.
+    * Dictionaries backed by a database can use this to replace many small queries with a few large ones.
+    * The default implementation does nothing.
+    *
+    * @param rareWordTexts text of rare words that are about to be looked up, for instance all words in a document
+    */
+   default void prefetchRareWordHits( final Collection<String> rareWordTexts ) {
+   }
+
+   /**
+    * Release resources held by the dictionary, such as database connections.
+    * The default implementation does nothing.
+    */
+   default void close() {
+   }
+
 }
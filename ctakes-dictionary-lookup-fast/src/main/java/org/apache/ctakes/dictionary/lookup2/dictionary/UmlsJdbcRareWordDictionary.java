@@ -56,5 +56,21 @@ final public class UmlsJdbcRareWordDictionary implements RareWordDictionary {
       return _delegateDictionary.getRareWordHits( rareWordText );
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void prefetchRareWordHits( final Collection<String> rareWordTexts ) {
+      _delegateDictionary.prefetchRareWordHits( rareWordTexts );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void close() {
+      _delegateDictionary.close();
+   }
+
 
 }
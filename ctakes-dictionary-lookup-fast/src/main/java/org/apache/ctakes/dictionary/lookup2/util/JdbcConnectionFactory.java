@@ -26,6 +26,7 @@ public enum JdbcConnectionFactory {
    static public final String JDBC_URL = "jdbcUrl";
    static public final String JDBC_USER = "jdbcUser";
    static public final String JDBC_PASS = "jdbcPass";
+   static public final String JDBC_POOL_SIZE = "jdbcPoolSize";
 
    static final private Logger LOGGER = Logger.getLogger( "JdbcConnectionFactory" );
    static final private Logger DOT_LOGGER = Logger.getLogger( "ProgressAppender" );
@@ -60,6 +61,32 @@ public enum JdbcConnectionFactory {
       if ( connection != null ) {
          return connection;
       }
+      synchronized ( CONNECTIONS ) {
+         connection = CONNECTIONS.get( jdbcUrl );
+         if ( connection == null ) {
+            connection = createConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
+            CONNECTIONS.put( jdbcUrl, connection );
+         }
+      }
+      return connection;
+   }
+
+   /**
+    * Create a new Connection that is not shared.
+    * Used by {@link JdbcStatementPool} so that concurrent lookups do not share a Connection.
+    *
+    * @param jdbcDriver -
+    * @param jdbcUrl    -
+    * @param jdbcUser   -
+    * @param jdbcPass   -
+    * @return a new Connection
+    * @throws SQLException if a JDBC Driver could not be created or registered,
+    *                      or if a Connection could not be made to the given <code>jdbcUrl</code>
+    */
+   public Connection createConnection( final String jdbcDriver,
+                                       final String jdbcUrl,
+                                       final String jdbcUser,
+                                       final String jdbcPass ) throws SQLException {
       String trueJdbcUrl = jdbcUrl;
       if ( jdbcUrl.startsWith( HSQL_FILE_PREFIX ) ) {
          // Hack for hsqldb file needing to be absolute or relative to current working directory
@@ -81,6 +108,7 @@ public enum JdbcConnectionFactory {
       LOGGER.info( "Connecting to " + jdbcUrl + ":" );
       final Timer timer = new Timer();
       timer.scheduleAtFixedRate( new DotPlotter(), 333, 333 );
+      final Connection connection;
       try {
          // DO NOT use try with resources here.
          // Try with resources uses a closable and closes it when exiting the try block
@@ -95,7 +123,6 @@ public enum JdbcConnectionFactory {
       timer.cancel();
       EOL_LOGGER.info( "" );
       LOGGER.info( " Database connected" );
-      CONNECTIONS.put( jdbcUrl, connection );
       return connection;
    }
 
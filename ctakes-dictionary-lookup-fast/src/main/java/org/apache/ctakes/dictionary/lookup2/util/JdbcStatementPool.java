@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.util;
+
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A {@code PreparedStatement} can only run one query at a time, so dictionaries and concept factories that share
+ * statements cannot be used by more than one thread.
+ * This pool holds sets of statements, each set prepared on its own Connection.
+ * A lookup borrows a set for the length of a single call, so up to poolSize threads can query concurrently.
+ * <p>
+ * The first set is prepared on the Connection shared through {@link JdbcConnectionFactory} when the pool is created
+ * so that missing tables are found immediately.
+ * Others are prepared on new Connections only when a thread finds no idle set and the pool is not yet full,
+ * so single-threaded pipelines still use only one Connection.
+ * Those Connections are closed by {@link #close()}.
+ * </p>
+ */
+final public class JdbcStatementPool<S> {
+
+   static private final Logger LOGGER = Logger.getLogger( "JdbcStatementPool" );
+
+   /**
+    * Prepares a set of statements on a connection
+    */
+   @FunctionalInterface
+   public interface StatementCreator<S> {
+      S createStatements( Connection connection ) throws SQLException;
+   }
+
+   /**
+    * A query using a borrowed set of statements
+    */
+   @FunctionalInterface
+   public interface StatementCall<S, R> {
+      R call( S statements ) throws SQLException;
+   }
+
+   private final String _jdbcDriver;
+   private final String _jdbcUrl;
+   private final String _jdbcUser;
+   private final String _jdbcPass;
+   private final int _poolSize;
+   private final StatementCreator<S> _creator;
+   private final BlockingQueue<S> _idle = new LinkedBlockingQueue<>();
+   private final S _firstStatements;
+   private final Collection<Connection> _connections = new ArrayList<>();
+   private int _createdCount;
+
+   /**
+    * @param jdbcDriver -
+    * @param jdbcUrl    -
+    * @param jdbcUser   -
+    * @param jdbcPass   -
+    * @param poolSize   maximum number of statement sets and connections, 0 for the number of processors
+    * @param creator    prepares a set of statements on a connection
+    * @throws SQLException if the first set of statements could not be prepared
+    */
+   public JdbcStatementPool( final String jdbcDriver,
+                             final String jdbcUrl,
+                             final String jdbcUser,
+                             final String jdbcPass,
+                             final int poolSize,
+                             final StatementCreator<S> creator ) throws SQLException {
+      _jdbcDriver = jdbcDriver;
+      _jdbcUrl = jdbcUrl;
+      _jdbcUser = jdbcUser;
+      _jdbcPass = jdbcPass;
+      _poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+      _creator = creator;
+      // DO NOT use try with resources here.  Try with resources uses a closable and closes it when exiting the try
+      final Connection connection = JdbcConnectionFactory.getInstance()
+            .getConnection( jdbcDriver, jdbcUrl, jdbcUser, jdbcPass );
+      _firstStatements = creator.createStatements( connection );
+      _idle.add( _firstStatements );
+      _createdCount = 1;
+   }
+
+   /**
+    * @return maximum number of statement sets and connections
+    */
+   public int getPoolSize() {
+      return _poolSize;
+   }
+
+   /**
+    * Borrows a set of statements for the length of the call
+    *
+    * @param call query using the statements
+    * @param <R>  type returned by the call
+    * @return the value returned by the call
+    * @throws SQLException if the call throws an exception, statements could not be prepared or the wait is interrupted
+    */
+   public <R> R call( final StatementCall<S, R> call ) throws SQLException {
+      final S statements = borrow();
+      try {
+         return call.call( statements );
+      } finally {
+         _idle.add( statements );
+      }
+   }
+
+   /**
+    * @return an idle set of statements, a new set if the pool is not full, or the next set to become idle
+    * @throws SQLException if statements could not be prepared or the wait is interrupted
+    */
+   private S borrow() throws SQLException {
+      final S idle = _idle.poll();
+      if ( idle != null ) {
+         return idle;
+      }
+      synchronized ( this ) {
+         if ( _createdCount < _poolSize ) {
+            final Connection connection = JdbcConnectionFactory.getInstance()
+                  .createConnection( _jdbcDriver, _jdbcUrl, _jdbcUser, _jdbcPass );
+            _connections.add( connection );
+            final S statements = _creator.createStatements( connection );
+            _createdCount++;
+            LOGGER.debug( "Opened connection " + _createdCount + " of " + _poolSize + " to " + _jdbcUrl );
+            return statements;
+         }
+      }
+      try {
+         return _idle.take();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new SQLException( intE );
+      }
+   }
+
+   /**
+    * Closes the Connections opened by this pool and drops their statements.
+    * The first Connection is shared through {@link JdbcConnectionFactory} and is left open.
+    * Should only be called when no thread is using the pool, for instance when the annotator is destroyed.
+    */
+   public synchronized void close() {
+      _idle.clear();
+      _idle.add( _firstStatements );
+      _createdCount = 1;
+      for ( Connection connection : _connections ) {
+         try {
+            connection.close();
+         } catch ( SQLException sqlE ) {
+            LOGGER.warn( "Could not close connection to " + _jdbcUrl + " " + sqlE.getMessage() );
+         }
+      }
+      _connections.clear();
+   }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.concept;
+
+
+import org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+final public class JdbcConceptFactoryTest {
+
+   static private final String DRIVER = "org.hsqldb.jdbcDriver";
+   static private final String URL = "jdbc:hsqldb:mem:conceptTest";
+
+   static private final Collection<Long> CUI_CODES = Arrays.asList( 27051L, 4096L, 11849L, 99999L );
+
+   @BeforeClass
+   static public void createTables() throws SQLException {
+      final Connection connection = JdbcConnectionFactory.getInstance().getConnection( DRIVER, URL, "sa", "" );
+      try ( Statement statement = connection.createStatement() ) {
+         statement.execute( "CREATE TABLE TUI (CUI BIGINT, TUI INTEGER)" );
+         statement.execute( "CREATE TABLE PREFTERM (CUI BIGINT, PREFTERM VARCHAR(255))" );
+         statement.execute( "CREATE TABLE SNOMEDCT_US (CUI BIGINT, SNOMEDCT_US BIGINT)" );
+         statement.execute( "INSERT INTO TUI VALUES (27051, 47)" );
+         statement.execute( "INSERT INTO TUI VALUES (4096, 47)" );
+         statement.execute( "INSERT INTO TUI VALUES (4096, 46)" );
+         statement.execute( "INSERT INTO TUI VALUES (11849, 47)" );
+         statement.execute( "INSERT INTO PREFTERM VALUES (27051, 'Myocardial Infarction')" );
+         statement.execute( "INSERT INTO PREFTERM VALUES (4096, 'Asthma')" );
+         statement.execute( "INSERT INTO SNOMEDCT_US VALUES (27051, 22298006)" );
+         statement.execute( "INSERT INTO SNOMEDCT_US VALUES (4096, 195967001)" );
+         statement.execute( "INSERT INTO SNOMEDCT_US VALUES (4096, 266364000)" );
+      }
+   }
+
+   static private Map<String, String> createConceptTables() {
+      final Map<String, String> conceptTables = new HashMap<>();
+      conceptTables.put( "TUITABLE", "TUI" );
+      conceptTables.put( "PREFTERMTABLE", "PREFTERM" );
+      conceptTables.put( "SNOMEDCT_USTABLE", "LONG" );
+      return conceptTables;
+   }
+
+   @Test
+   public void testBatchedSameAsSingle() throws SQLException {
+      // batch size smaller than the cui count to exercise partial batches
+      final ConceptFactory factory
+            = new JdbcConceptFactory( "batched", DRIVER, URL, "sa", "", createConceptTables(), 0, 3 );
+      final Map<Long, Concept> batched = factory.createConcepts( CUI_CODES );
+      assertEquals( 3, batched.size() );
+      assertFalse( "Cui without data should not create a concept", batched.containsKey( 99999L ) );
+      for ( Map.Entry<Long, Concept> entry : batched.entrySet() ) {
+         final Concept single = factory.createConcept( entry.getKey() );
+         final Concept concept = entry.getValue();
+         assertEquals( single.getCui(), concept.getCui() );
+         assertEquals( single.getPreferredText(), concept.getPreferredText() );
+         assertEquals( new HashSet<>( single.getCodeNames() ), new HashSet<>( concept.getCodeNames() ) );
+         for ( String codeName : single.getCodeNames() ) {
+            assertEquals( new HashSet<>( single.getCodes( codeName ) ),
+                  new HashSet<>( concept.getCodes( codeName ) ) );
+         }
+      }
+   }
+
+   @Test
+   public void testSharedCache() throws SQLException {
+      final ConceptFactory factory1
+            = new JdbcConceptFactory( "cached", DRIVER, URL, "sa", "", createConceptTables(), 10, 100 );
+      final ConceptFactory factory2
+            = new JdbcConceptFactory( "cached", DRIVER, URL, "sa", "", createConceptTables(), 10, 100 );
+      final Map<Long, Concept> first = factory1.createConcepts( CUI_CODES );
+      final Map<Long, Concept> second = factory2.createConcepts( CUI_CODES );
+      assertEquals( first.keySet(), second.keySet() );
+      for ( Map.Entry<Long, Concept> entry : first.entrySet() ) {
+         assertSame( "Concept should come from the shared cache", entry.getValue(), second.get( entry.getKey() ) );
+      }
+   }
+
+   @Test
+   public void testErrorNotCached() throws SQLException {
+      final String url = "jdbc:hsqldb:mem:conceptErrorTest";
+      final Connection connection = JdbcConnectionFactory.getInstance().getConnection( DRIVER, url, "sa", "" );
+      try ( Statement statement = connection.createStatement() ) {
+         statement.execute( "CREATE TABLE TUI (CUI BIGINT, TUI INTEGER)" );
+         statement.execute( "CREATE TABLE PREFTERM (CUI BIGINT, PREFTERM VARCHAR(255))" );
+         statement.execute( "CREATE TABLE SNOMEDCT_US (CUI BIGINT, SNOMEDCT_US BIGINT)" );
+      }
+      final JdbcConceptFactory factory
+            = new JdbcConceptFactory( "error", DRIVER, url, "sa", "", createConceptTables(), 10, 100 );
+      // the only pooled statements are on the shared connection, so every query now fails
+      connection.close();
+      assertTrue( factory.createConcepts( CUI_CODES ).isEmpty() );
+      assertTrue( factory.createConcept( 27051L ).isEmpty() );
+      assertTrue( factory.createConcepts( CUI_CODES ).isEmpty() );
+      assertTrue( factory.createConcept( 27051L ).isEmpty() );
+      assertEquals( "A failed query should not be cached", 0, factory.getCacheHitCount() );
+      assertEquals( 2 * CUI_CODES.size() + 2, factory.getCacheMissCount() );
+   }
+
+}
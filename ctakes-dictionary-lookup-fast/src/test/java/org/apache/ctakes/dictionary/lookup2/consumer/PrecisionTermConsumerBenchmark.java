@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.consumer;
+
+import org.apache.ctakes.core.util.collection.CollectionMap;
+import org.apache.ctakes.core.util.collection.HashSetMap;
+import org.apache.ctakes.dictionary.lookup2.textspan.DefaultTextSpan;
+import org.apache.ctakes.dictionary.lookup2.textspan.MultiTextSpan;
+import org.apache.ctakes.dictionary.lookup2.textspan.TextSpan;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PrecisionTermConsumer#createPreciseTerms(CollectionMap)} to the older pairwise comparison
+ * of every span on synthetic sets of 1k to 100k spans.
+ * Run with the main method from the test classpath.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 3 )
+@Fork( 1 )
+public class PrecisionTermConsumerBenchmark {
+
+   @Param( { "1000", "10000", "100000" } )
+   public int _spanCount;
+
+   private CollectionMap<TextSpan, Long, ? extends Collection<Long>> _semanticTerms;
+
+   @Setup
+   public void createTerms() {
+      _semanticTerms = createSemanticTerms( _spanCount, new Random( 1 ) );
+   }
+
+   @Benchmark
+   public CollectionMap<TextSpan, Long, ? extends Collection<Long>> sortedSweep() {
+      return PrecisionTermConsumer.createPreciseTerms( _semanticTerms );
+   }
+
+   @Benchmark
+   public CollectionMap<TextSpan, Long, ? extends Collection<Long>> pairwise() {
+      return createPairwisePreciseTerms( _semanticTerms );
+   }
+
+   /**
+    * @param spanCount number of spans
+    * @param random    -
+    * @return terms with spans of 3 to 40 characters spread over a note, about one in twenty with a missing span
+    */
+   static CollectionMap<TextSpan, Long, ? extends Collection<Long>> createSemanticTerms( final int spanCount,
+                                                                                        final Random random ) {
+      final CollectionMap<TextSpan, Long, ? extends Collection<Long>> semanticTerms = new HashSetMap<>( spanCount );
+      final int textLength = spanCount * 6;
+      while ( semanticTerms.size() < spanCount ) {
+         final int start = random.nextInt( textLength );
+         final int end = start + 3 + random.nextInt( 38 );
+         final TextSpan textSpan;
+         if ( end - start > 10 && random.nextInt( 20 ) == 0 ) {
+            final int missingStart = start + 2 + random.nextInt( end - start - 8 );
+            final TextSpan missingSpan = new DefaultTextSpan( missingStart, missingStart + 1 + random.nextInt( 4 ) );
+            textSpan = new MultiTextSpan( start, end, Collections.singletonList( missingSpan ) );
+         } else {
+            textSpan = new DefaultTextSpan( start, end );
+         }
+         semanticTerms.placeValue( textSpan, (long)random.nextInt( 1000 ) );
+      }
+      return semanticTerms;
+   }
+
+   /**
+    * The original implementation, which compares every pair of spans
+    *
+    * @param semanticTerms terms in the dictionary
+    * @return terms with the longest spans
+    */
+   static CollectionMap<TextSpan, Long, ? extends Collection<Long>> createPairwisePreciseTerms(
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> semanticTerms ) {
+      final Collection<TextSpan> discardSpans = new HashSet<>();
+      final List<TextSpan> textSpans = new ArrayList<>( semanticTerms.keySet() );
+      final int count = textSpans.size();
+      for ( int i = 0; i < count; i++ ) {
+         final TextSpan spanKeyI = textSpans.get( i );
+         for ( int j = i + 1; j < count; j++ ) {
+            final TextSpan spanKeyJ = textSpans.get( j );
+            if ( (spanKeyJ.getStart() <= spanKeyI.getStart() && spanKeyJ.getEnd() > spanKeyI.getEnd())
+                 || (spanKeyJ.getStart() < spanKeyI.getStart() && spanKeyJ.getEnd() >= spanKeyI.getEnd()) ) {
+               if ( spanKeyJ instanceof MultiTextSpan ) {
+                  boolean spanIok = false;
+                  for ( TextSpan missingSpanKey : ((MultiTextSpan)spanKeyJ).getMissingSpans() ) {
+                     if ( (missingSpanKey.getStart() >= spanKeyI.getStart()
+                           && missingSpanKey.getStart() < spanKeyI.getEnd())
+                          || (missingSpanKey.getEnd() > spanKeyI.getStart()
+                              && missingSpanKey.getEnd() <= spanKeyI.getEnd()) ) {
+                        spanIok = true;
+                        break;
+                     }
+                  }
+                  if ( !spanIok ) {
+                     discardSpans.add( spanKeyI );
+                     break;
+                  }
+               } else {
+                  discardSpans.add( spanKeyI );
+                  break;
+               }
+            }
+            if ( ((spanKeyI.getStart() <= spanKeyJ.getStart() && spanKeyI.getEnd() > spanKeyJ.getEnd())
+                  || (spanKeyI.getStart() < spanKeyJ.getStart() && spanKeyI.getEnd() >= spanKeyJ.getEnd())) ) {
+               if ( spanKeyI instanceof MultiTextSpan ) {
+                  boolean spanJok = false;
+                  for ( TextSpan missingSpanKey : ((MultiTextSpan)spanKeyI).getMissingSpans() ) {
+                     if ( (missingSpanKey.getStart() >= spanKeyJ.getStart()
+                           && missingSpanKey.getStart() < spanKeyJ.getEnd())
+                          || (missingSpanKey.getEnd() > spanKeyJ.getStart()
+                              && missingSpanKey.getEnd() <= spanKeyJ.getEnd()) ) {
+                        spanJok = true;
+                        break;
+                     }
+                  }
+                  if ( !spanJok ) {
+                     discardSpans.add( spanKeyJ );
+                  }
+               } else {
+                  discardSpans.add( spanKeyJ );
+               }
+            }
+         }
+      }
+      final CollectionMap<TextSpan, Long, ? extends Collection<Long>> preciseHitMap = new HashSetMap<>(
+            textSpans.size() - discardSpans.size() );
+      for ( Map.Entry<TextSpan, ? extends Collection<Long>> entry : semanticTerms ) {
+         if ( !discardSpans.contains( entry.getKey() ) ) {
+            preciseHitMap.addAllValues( entry.getKey(), entry.getValue() );
+         }
+      }
+      return preciseHitMap;
+   }
+
+   public static void main( final String... args ) throws RunnerException {
+      final Options options = new OptionsBuilder()
+            .include( PrecisionTermConsumerBenchmark.class.getSimpleName() )
+            .build();
+      new Runner( options ).run();
+   }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.consumer;
+
+import org.apache.ctakes.core.util.collection.CollectionMap;
+import org.apache.ctakes.core.util.collection.HashSetMap;
+import org.apache.ctakes.dictionary.lookup2.textspan.DefaultTextSpan;
+import org.apache.ctakes.dictionary.lookup2.textspan.MultiTextSpan;
+import org.apache.ctakes.dictionary.lookup2.textspan.TextSpan;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrecisionTermConsumerTest {
+
+   @Test
+   public void testContainedSpans() {
+      final CollectionMap<TextSpan, Long, ? extends Collection<Long>> semanticTerms = new HashSetMap<>();
+      // colon cancer, cancer, colon, and a duplicate span for colon cancer
+      semanticTerms.placeValue( new DefaultTextSpan( 0, 12 ), 1L );
+      semanticTerms.placeValue( new DefaultTextSpan( 0, 12 ), 2L );
+      semanticTerms.placeValue( new DefaultTextSpan( 6, 12 ), 3L );
+      semanticTerms.placeValue( new DefaultTextSpan( 0, 5 ), 4L );
+      // lung ... cancer with a missing span that keeps "lung" but not "cancer"
+      final TextSpan missingSpan = new DefaultTextSpan( 25, 30 );
+      semanticTerms.placeValue( new MultiTextSpan( 20, 37, Collections.singletonList( missingSpan ) ), 5L );
+      semanticTerms.placeValue( new DefaultTextSpan( 20, 30 ), 6L );
+      semanticTerms.placeValue( new DefaultTextSpan( 31, 37 ), 7L );
+      final CollectionMap<TextSpan, Long, ? extends Collection<Long>> preciseTerms
+            = PrecisionTermConsumer.createPreciseTerms( semanticTerms );
+      assertEquals( 3, preciseTerms.size() );
+      assertEquals( 2, preciseTerms.getCollection( new DefaultTextSpan( 0, 12 ) ).size() );
+      assertEquals( true, preciseTerms.containsKey( new DefaultTextSpan( 20, 30 ) ) );
+   }
+
+   @Test
+   public void testSameAsPairwise() {
+      final Random random = new Random( 7 );
+      for ( int i = 0; i < 20; i++ ) {
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> semanticTerms
+               = PrecisionTermConsumerBenchmark.createSemanticTerms( 50 + random.nextInt( 1000 ), random );
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> expected
+               = PrecisionTermConsumerBenchmark.createPairwisePreciseTerms( semanticTerms );
+         final CollectionMap<TextSpan, Long, ? extends Collection<Long>> actual
+               = PrecisionTermConsumer.createPreciseTerms( semanticTerms );
+         assertEquals( new HashSet<>( expected.keySet() ), new HashSet<>( actual.keySet() ) );
+         for ( TextSpan textSpan : expected.keySet() ) {
+            assertEquals( expected.getCollection( textSpan ), actual.getCollection( textSpan ) );
+         }
+      }
+   }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.apache.ctakes.dictionary.lookup2.util.JdbcConnectionFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+final public class JdbcRareWordDictionaryTest {
+
+   static private final String DRIVER = "org.hsqldb.jdbcDriver";
+   static private final String URL = "jdbc:hsqldb:mem:rareWordTest";
+   static private final String TABLE = "CUI_TERMS";
+
+   static private final String[] RARE_WORDS = { "infarction", "attack", "asthma", "diabetes", "fracture" };
+
+   @BeforeClass
+   static public void createTable() throws SQLException {
+      final Connection connection = JdbcConnectionFactory.getInstance().getConnection( DRIVER, URL, "sa", "" );
+      try ( Statement statement = connection.createStatement() ) {
+         statement.execute( "CREATE TABLE " + TABLE
+                            + " (CUI BIGINT, RINDEX INTEGER, TCOUNT INTEGER, TEXT VARCHAR(255), RWORD VARCHAR(48))" );
+         statement.execute( "INSERT INTO " + TABLE + " VALUES (27051, 1, 2, 'myocardial infarction', 'infarction')" );
+         statement.execute( "INSERT INTO " + TABLE + " VALUES (27051, 1, 2, 'heart attack', 'attack')" );
+         statement.execute( "INSERT INTO " + TABLE + " VALUES (4096, 0, 1, 'asthma', 'asthma')" );
+         statement.execute( "INSERT INTO " + TABLE + " VALUES (155877, 1, 2, 'allergic asthma', 'asthma')" );
+         statement.execute( "INSERT INTO " + TABLE + " VALUES (11849, 0, 2, 'diabetes mellitus', 'diabetes')" );
+      }
+   }
+
+   @Test
+   public void testBatchedSameAsSingle() throws SQLException {
+      final JdbcRareWordDictionary single
+            = new JdbcRareWordDictionary( "single", DRIVER, URL, "sa", "", TABLE, 0, 1 );
+      // batch size smaller than the word count to exercise partial batches
+      final JdbcRareWordDictionary batched
+            = new JdbcRareWordDictionary( "batched", DRIVER, URL, "sa", "", TABLE, 100, 2 );
+      batched.prefetchRareWordHits( Arrays.asList( RARE_WORDS ) );
+      for ( String rareWord : RARE_WORDS ) {
+         assertEquals( "Different hits for " + rareWord,
+               new HashSet<>( single.getRareWordHits( rareWord ) ),
+               new HashSet<>( batched.getRareWordHits( rareWord ) ) );
+      }
+      assertEquals( "Prefetched words should all be cache hits", RARE_WORDS.length, batched.getCacheHitCount() );
+      assertEquals( 0, batched.getCacheMissCount() );
+   }
+
+   @Test
+   public void testCacheWithoutPrefetch() throws SQLException {
+      final JdbcRareWordDictionary cached
+            = new JdbcRareWordDictionary( "cached", DRIVER, URL, "sa", "", TABLE, 2, 1 );
+      final Collection<RareWordTerm> first = cached.getRareWordHits( "asthma" );
+      final Collection<RareWordTerm> second = cached.getRareWordHits( "asthma" );
+      assertEquals( 2, first.size() );
+      assertEquals( first, second );
+      assertEquals( 1, cached.getCacheHitCount() );
+      assertEquals( 1, cached.getCacheMissCount() );
+   }
+
+   @Test( expected = UnsupportedOperationException.class )
+   public void testCachedHitsUnmodifiable() throws SQLException {
+      final JdbcRareWordDictionary cached
+            = new JdbcRareWordDictionary( "unmodifiable", DRIVER, URL, "sa", "", TABLE, 2, 1 );
+      cached.getRareWordHits( "asthma" ).clear();
+   }
+
+   @Test
+   public void testErrorNotCached() throws SQLException {
+      final String url = "jdbc:hsqldb:mem:rareWordErrorTest";
+      final Connection connection = JdbcConnectionFactory.getInstance().getConnection( DRIVER, url, "sa", "" );
+      try ( Statement statement = connection.createStatement() ) {
+         statement.execute( "CREATE TABLE " + TABLE
+                            + " (CUI BIGINT, RINDEX INTEGER, TCOUNT INTEGER, TEXT VARCHAR(255), RWORD VARCHAR(48))" );
+      }
+      final JdbcRareWordDictionary cached
+            = new JdbcRareWordDictionary( "error", DRIVER, url, "sa", "", TABLE, 2, 1, 1 );
+      // the only pooled statements are on the shared connection, so every query now fails
+      connection.close();
+      assertTrue( cached.getRareWordHits( "asthma" ).isEmpty() );
+      assertTrue( cached.getRareWordHits( "asthma" ).isEmpty() );
+      assertEquals( "A failed query should not be cached", 0, cached.getCacheHitCount() );
+      assertEquals( 2, cached.getCacheMissCount() );
+   }
+
+   @Test
+   public void testConcurrentLookup() throws Exception {
+      final JdbcRareWordDictionary single
+            = new JdbcRareWordDictionary( "single", DRIVER, URL, "sa", "", TABLE, 0, 1 );
+      final Map<String, Collection<RareWordTerm>> expected = new HashMap<>();
+      for ( String rareWord : RARE_WORDS ) {
+         expected.put( rareWord, new HashSet<>( single.getRareWordHits( rareWord ) ) );
+      }
+      // no cache so that every lookup is a query on a pooled statement
+      final JdbcRareWordDictionary pooled
+            = new JdbcRareWordDictionary( "pooled", DRIVER, URL, "sa", "", TABLE, 0, 1, 3 );
+      final ExecutorService executor = Executors.newFixedThreadPool( 6 );
+      final Collection<Future<?>> futures = new ArrayList<>();
+      for ( int i = 0; i < 60; i++ ) {
+         final String rareWord = RARE_WORDS[ i % RARE_WORDS.length ];
+         futures.add( executor.submit( () -> {
+            assertEquals( "Different hits for " + rareWord,
+                  expected.get( rareWord ), new HashSet<>( pooled.getRareWordHits( rareWord ) ) );
+            return null;
+         } ) );
+      }
+      for ( Future<?> future : futures ) {
+         future.get();
+      }
+      executor.shutdown();
+   }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.dictionary;
+
+
+import org.apache.ctakes.core.util.collection.CollectionMap;
+import org.apache.ctakes.dictionary.lookup2.term.RareWordTerm;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.apache.ctakes.dictionary.lookup2.dictionary.RareWordTermMapCreator.CuiTerm;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+final public class MmapRareWordDictionaryTest {
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   static private CollectionMap<String, RareWordTerm, List<RareWordTerm>> createTermMap() {
+      final Collection<CuiTerm> cuiTerms = Arrays.asList(
+            new CuiTerm( "C0027051", "myocardial infarction" ),
+            new CuiTerm( "C0027051", "heart attack" ),
+            new CuiTerm( "C0018787", "heart" ),
+            new CuiTerm( "C0004096", "asthma" ),
+            new CuiTerm( "C0155877", "allergic asthma" ),
+            new CuiTerm( "C0011849", "diabetes mellitus" ),
+            new CuiTerm( "C0019080", "hémorragie" ) );
+      return RareWordTermMapCreator.createRareWordTermMap( cuiTerms );
+   }
+
+   @Test
+   public void testSameHitsAsMemDictionary() throws IOException {
+      final CollectionMap<String, RareWordTerm, List<RareWordTerm>> termMap = createTermMap();
+      final File file = _folder.newFile( "test.rwd" );
+      MmapDictionaryCompiler.writeDictionary( termMap, file );
+      final RareWordDictionary memDictionary = new MemRareWordDictionary( "mem", termMap );
+      final RareWordDictionary mmapDictionary = new MmapRareWordDictionary( "mmap", file );
+      for ( String rareWord : termMap.keySet() ) {
+         final Collection<RareWordTerm> memHits = memDictionary.getRareWordHits( rareWord );
+         final Collection<RareWordTerm> mmapHits = mmapDictionary.getRareWordHits( rareWord );
+         assertEquals( "Hit count differs for " + rareWord, memHits.size(), mmapHits.size() );
+         final Iterator<RareWordTerm> mmapIterator = mmapHits.iterator();
+         for ( RareWordTerm memTerm : memHits ) {
+            final RareWordTerm mmapTerm = mmapIterator.next();
+            assertEquals( memTerm, mmapTerm );
+            assertEquals( memTerm.getRareWord(), mmapTerm.getRareWord() );
+            assertEquals( memTerm.getRareWordIndex(), mmapTerm.getRareWordIndex() );
+            assertEquals( memTerm.getTokenCount(), mmapTerm.getTokenCount() );
+         }
+      }
+   }
+
+   @Test
+   public void testMissingWord() throws IOException {
+      final File file = _folder.newFile( "test.rwd" );
+      MmapDictionaryCompiler.writeDictionary( createTermMap(), file );
+      final RareWordDictionary mmapDictionary = new MmapRareWordDictionary( "mmap", file );
+      assertTrue( mmapDictionary.getRareWordHits( "fracture" ).isEmpty() );
+      assertTrue( mmapDictionary.getRareWordHits( "" ).isEmpty() );
+      assertTrue( mmapDictionary.getRareWordHits( "zzzz" ).isEmpty() );
+   }
+
+   @Test( expected = IOException.class )
+   public void breakNotADictionary() throws IOException {
+      final File file = _folder.newFile( "bad.rwd" );
+      new MmapRareWordDictionary( "bad", file );
+   }
+
+}
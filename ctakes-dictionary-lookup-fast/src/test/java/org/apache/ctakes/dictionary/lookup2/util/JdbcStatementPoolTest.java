@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.dictionary.lookup2.util;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+final public class JdbcStatementPoolTest {
+
+   static private final String DRIVER = "org.hsqldb.jdbcDriver";
+   static private final String URL = "jdbc:hsqldb:mem:statementPoolTest";
+
+   @Test
+   public void testCloseOpenedConnections() throws SQLException {
+      final List<Connection> connections = Collections.synchronizedList( new ArrayList<>() );
+      final JdbcStatementPool<Connection> pool = new JdbcStatementPool<>( DRIVER, URL, "sa", "", 2, c -> {
+         connections.add( c );
+         return c;
+      } );
+      // a nested call borrows a second set while the first is in use
+      pool.call( first -> pool.call( second -> null ) );
+      assertEquals( 2, connections.size() );
+      assertSame( JdbcConnectionFactory.getInstance().getConnection( DRIVER, URL, "sa", "" ), connections.get( 0 ) );
+      pool.close();
+      assertFalse( "The shared connection should stay open", connections.get( 0 ).isClosed() );
+      assertTrue( "The opened connection should be closed", connections.get( 1 ).isClosed() );
+      assertSame( "Only the first set should remain", connections.get( 0 ), pool.call( s -> s ) );
+   }
+
+}
@@ -45,6 +45,7 @@ import org.apache.ctakes.drugner.fsm.machines.elements.DecimalStrengthFSM;
 import org.apache.ctakes.drugner.fsm.machines.elements.DosagesFSM;
 import org.apache.ctakes.drugner.fsm.machines.elements.DrugChangeStatusFSM;
 import org.apache.ctakes.drugner.fsm.machines.elements.DurationFSM;
+import org.apache.ctakes.drugner.fsm.machines.elements.ElementFSMPass;
 import org.apache.ctakes.drugner.fsm.machines.elements.FormFSM;
 import org.apache.ctakes.drugner.fsm.machines.elements.FractionStrengthFSM;
 import org.apache.ctakes.drugner.fsm.machines.elements.FrequencyFSM;
@@ -181,6 +182,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 	private StrengthUnitFSM iv_strengthUnitFSM;
 	private FrequencyUnitFSM iv_frequencyUnitFSM;
 	private FormFSM iv_formFSM;
+	private ElementFSMPass iv_elementPass;
 	private static final int NERTypeIdentifier = 1;
 	private static boolean handledRanges;
 	private Set<String> iv_exclusionTagSet = null;
@@ -210,6 +212,9 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 		iv_frequencyUnitFSM = new FrequencyUnitFSM();
 		iv_formFSM = new FormFSM();
 		iv_subMedSectionFSM = new SubSectionIndicatorFSM();
+		iv_elementPass = new ElementFSMPass(iv_fractionFSM, iv_decimalFSM,
+				iv_statusFSM, iv_rangeFSM, iv_routeFSM, iv_frequencyUnitFSM,
+				iv_formFSM);
 		iv_logger.info("Finite state machines loaded.");
 		
 		try {
@@ -735,19 +740,22 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			{
 		try
 		{
-			Set fractionTokenSet = iv_fractionFSM.execute(baseTokenList);
+			// the fsms that read the plain token list run together in one pass
+			iv_elementPass.execute(baseTokenList);
+
+			Set fractionTokenSet = iv_elementPass.getFractionTokenSet();
 			addAnnotations(jcas, fractionTokenSet, FractionStrengthAnnotation.type);
 
-			Set decimalTokenSet = iv_decimalFSM.execute(baseTokenList);
+			Set decimalTokenSet = iv_elementPass.getDecimalTokenSet();
 
 			addAnnotations(jcas, decimalTokenSet, FractionStrengthAnnotation.type);
 
-			Set statusTokenSet = iv_statusFSM.execute(baseTokenList);
+			Set statusTokenSet = iv_elementPass.getStatusTokenSet();
 
 			addAnnotations(jcas, statusTokenSet, DrugChangeStatusAnnotation.type);    
 			//statusConfidence = true;
 
-			Set rangeTokenSet = iv_rangeFSM.execute(baseTokenList);
+			Set rangeTokenSet = iv_elementPass.getRangeTokenSet();
 
       addAnnotations(jcas, decimalTokenSet, RangeStrengthAnnotation.type);
       //Mayo SPM 2/20/2012 Changed due to separation of strength tokens
@@ -795,8 +803,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 //        }
 //      }
 
-			Set formTokenSet = iv_formFSM.execute(baseTokenList,
-					/* decimalTokenSet */new HashSet());
+			Set formTokenSet = iv_elementPass.getFormTokenSet();
 			Iterator formTokenItr = formTokenSet.iterator();
 
 			while (formTokenItr.hasNext())
@@ -864,7 +871,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 			// This needs to be handled differently. But since I'm not sure if this feature will be utilized
 			// I am going to leave 'as is' for now.
 
-			Set routeTokenSet = iv_routeFSM.execute(baseTokenList);
+			Set routeTokenSet = iv_elementPass.getRouteTokenSet();
 			boolean foundRoute = false;
 			Iterator routeTokenItr = routeTokenSet.iterator();
 			int begSegRT = 0, endSegRT = 0;
@@ -879,7 +886,7 @@ public class DrugMentionAnnotator extends JCasAnnotator_ImplBase
 
 			}
 
-			Set frequencyUnitTokenSet = iv_frequencyUnitFSM.execute(baseTokenList);
+			Set frequencyUnitTokenSet = iv_elementPass.getFrequencyUnitTokenSet();
 			boolean foundFrequencyUnit = false;
 			Iterator frequencyUnitTokenItr = frequencyUnitTokenSet.iterator();
 			int begSegFUT = 0, endSegFUT = 0;
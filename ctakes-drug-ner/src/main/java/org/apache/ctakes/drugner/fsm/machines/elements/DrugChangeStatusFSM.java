@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.drugner.fsm.machines.elements;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -764,6 +765,60 @@ public class DrugChangeStatusFSM {
 		return m;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the drug change status token for the match
+	 */
+	public DrugChangeStatusToken createToken(Machine fsm, List tokens, int tokenStartIndex,
+			int tokenIndex, State currentState) {
+		BaseToken startToken = (BaseToken) tokens.get(tokenStartIndex);
+		BaseToken endToken = (BaseToken) tokens.get(tokenIndex);
+		if (fsm.equals(iv_startStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.START);
+		} else if (fsm.equals(iv_stopStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.STOP);
+		} else if (fsm.equals(iv_increaseFromStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.INCREASEFROM);
+		} else if (fsm.equals(iv_decreaseFromStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.DECREASEFROM);
+		} else if (fsm.equals(iv_increaseStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.INCREASE);
+		} else if (fsm.equals(iv_decreaseStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.DECREASE);
+		} else if (fsm.equals(iv_noChangeStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.NOCHANGE);
+		} else if (fsm.equals(iv_changeStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.OTHER);
+		} else if (fsm.equals(iv_sumStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.SUM);
+		} else if (fsm.equals(iv_maxStatusMachine)) {
+			return new DrugChangeStatusToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), DrugChangeStatusToken.MAX);
+		}
+		return null;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -803,46 +858,8 @@ public class DrugChangeStatusFSM {
 						// skip ahead over single token we don't want
 						tokenStartIndex++;
 					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					DrugChangeStatusToken fractionToken = null;
-					if (fsm.equals(iv_startStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(),DrugChangeStatusToken.START);
-					} else if (fsm.equals(iv_stopStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.STOP);
-					} else if (fsm.equals(iv_increaseFromStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.INCREASEFROM);
-					} else if (fsm.equals(iv_decreaseFromStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.DECREASEFROM);
-					}  else if (fsm.equals(iv_increaseStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.INCREASE);
-					} else if (fsm.equals(iv_decreaseStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.DECREASE);
-					} else if (fsm.equals(iv_noChangeStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.NOCHANGE);
-						
-					} else if (fsm.equals(iv_changeStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.OTHER);
-					} else if (fsm.equals(iv_sumStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.SUM);
-						
-					} else if (fsm.equals(iv_maxStatusMachine)) {
-						fractionToken = new DrugChangeStatusToken(startToken
-								.getStartOffset(), endToken.getEndOffset(), DrugChangeStatusToken.MAX);
-						
-					}
-
-					fractionSet.add(fractionToken);
+					fractionSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
 					fsm.reset();
 				}
 			}
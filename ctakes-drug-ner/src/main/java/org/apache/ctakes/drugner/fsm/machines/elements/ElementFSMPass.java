@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner.fsm.machines.elements;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ctakes.core.fsm.machine.MachinePass;
+import org.apache.ctakes.core.fsm.token.BaseToken;
+
+import net.openai.util.fsm.Machine;
+
+/**
+ * Runs the machines of the element fsms that read the plain token list in a
+ * single shared pass over the tokens: fraction strength, decimal strength, drug
+ * change status, range strength, route, frequency unit and form.  The machines
+ * are compiled into transition tables by {@link MachinePass}, and each condition
+ * is checked at most once per token.  The token sets are the same as those
+ * returned by the execute methods of the separate fsms.
+ * <p>
+ * The other element fsms read token lists rewritten with the tokens found
+ * here, so they still run after this pass.
+ */
+public class ElementFSMPass {
+
+	private final MachinePass iv_pass = new MachinePass();
+
+	private Set iv_fractionTokenSet = new HashSet();
+	private Set iv_decimalTokenSet = new HashSet();
+	private Set iv_statusTokenSet = new HashSet();
+	private Set iv_rangeTokenSet = new HashSet();
+	private Set iv_routeTokenSet = new HashSet();
+	private Set iv_frequencyUnitTokenSet = new HashSet();
+	private Set iv_formTokenSet = new HashSet();
+
+	public ElementFSMPass(final FractionStrengthFSM fractionFSM,
+			final DecimalStrengthFSM decimalFSM,
+			final DrugChangeStatusFSM statusFSM,
+			final RangeStrengthFSM rangeFSM, final RouteFSM routeFSM,
+			final FrequencyUnitFSM frequencyUnitFSM, final FormFSM formFSM) {
+		for (final Machine fsm : fractionFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_fractionTokenSet.add(fractionFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : decimalFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_decimalTokenSet.add(decimalFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : statusFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_statusTokenSet.add(statusFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : rangeFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_rangeTokenSet.add(rangeFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : routeFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_routeTokenSet.add(routeFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : frequencyUnitFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_frequencyUnitTokenSet.add(frequencyUnitFSM.createToken(fsm, tokens, start, end, state)));
+		}
+		for (final Machine fsm : formFSM.getMachines()) {
+			iv_pass.addMachine(fsm, (tokens, start, end, token, state) ->
+				iv_formTokenSet.add(formFSM.createToken(fsm, tokens, start, (BaseToken) token, state)));
+		}
+	}
+
+	/**
+	 * Runs all machines over the tokens.  The token sets of the previous call
+	 * are replaced, not cleared.
+	 * @param tokens fsm base tokens
+	 * @throws Exception from a machine
+	 */
+	public void execute(List tokens) throws Exception {
+		iv_fractionTokenSet = new HashSet();
+		iv_decimalTokenSet = new HashSet();
+		iv_statusTokenSet = new HashSet();
+		iv_rangeTokenSet = new HashSet();
+		iv_routeTokenSet = new HashSet();
+		iv_frequencyUnitTokenSet = new HashSet();
+		iv_formTokenSet = new HashSet();
+		iv_pass.execute(tokens);
+	}
+
+	/**
+	 * @return FractionStrengthToken objects, as {@link FractionStrengthFSM#execute(List)}
+	 */
+	public Set getFractionTokenSet() {
+		return iv_fractionTokenSet;
+	}
+
+	/**
+	 * @return DecimalStrengthToken objects, as {@link DecimalStrengthFSM#execute(List)}
+	 */
+	public Set getDecimalTokenSet() {
+		return iv_decimalTokenSet;
+	}
+
+	/**
+	 * @return DrugChangeStatusToken objects, as {@link DrugChangeStatusFSM#execute(List)}
+	 */
+	public Set getStatusTokenSet() {
+		return iv_statusTokenSet;
+	}
+
+	/**
+	 * @return RangeStrengthToken objects, as {@link RangeStrengthFSM#execute(List)}
+	 */
+	public Set getRangeTokenSet() {
+		return iv_rangeTokenSet;
+	}
+
+	/**
+	 * @return RouteToken objects, as {@link RouteFSM#execute(List)}
+	 */
+	public Set getRouteTokenSet() {
+		return iv_routeTokenSet;
+	}
+
+	/**
+	 * @return FrequencyUnitToken objects, as {@link FrequencyUnitFSM#execute(List)}
+	 */
+	public Set getFrequencyUnitTokenSet() {
+		return iv_frequencyUnitTokenSet;
+	}
+
+	/**
+	 * @return FormToken objects, as {@link FormFSM#execute(List, Set)} with no override tokens
+	 */
+	public Set getFormTokenSet() {
+		return iv_formTokenSet;
+	}
+}
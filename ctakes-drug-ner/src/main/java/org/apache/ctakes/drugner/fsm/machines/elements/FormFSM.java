@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.drugner.fsm.machines.elements;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -147,6 +148,28 @@ public class FormFSM {
 		return m;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List, Set)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List, Set)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param endToken token that moved the machine to the end state, which may be an override token
+	 * @param currentState the end state
+	 * @return the form token for the match
+	 */
+	public FormToken createToken(Machine fsm, List tokens, int tokenStartIndex,
+			BaseToken endToken, State currentState) {
+		BaseToken startToken = (BaseToken) tokens.get(tokenStartIndex);
+		return new FormToken(startToken.getStartOffset(), endToken.getEndOffset());
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * @param tokens
@@ -216,12 +239,8 @@ public class FormFSM {
 						// skip ahead over single token we don't want
 						tokenStartIndex++;
 					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					FormToken measurementToken = new FormToken(startToken
-							.getStartOffset(), endToken.getEndOffset());
-					measurementSet.add(measurementToken);
+					measurementSet.add(createToken(fsm, tokens,
+							tokenStartIndex, token, currentState));
 					fsm.reset();
 				}
 			}
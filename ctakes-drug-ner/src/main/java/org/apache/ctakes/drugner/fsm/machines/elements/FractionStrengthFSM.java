@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.drugner.fsm.machines.elements;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -214,6 +215,29 @@ public class FractionStrengthFSM
         return m;
     }
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the fraction strength token for the match
+	 */
+	public FractionStrengthToken createToken(Machine fsm, List tokens, int tokenStartIndex,
+			int tokenIndex, State currentState) {
+		BaseToken startToken = (BaseToken) tokens.get(tokenStartIndex);
+		BaseToken endToken = (BaseToken) tokens.get(tokenIndex);
+		return new FractionStrengthToken(startToken.getStartOffset(), endToken.getEndOffset());
+	}
+
     /**
      * Executes the finite state machines.
      * @param tokens
@@ -259,14 +283,8 @@ public class FractionStrengthFSM
             			// skip ahead over single token we don't want
             			tokenStartIndex++;						
             		}
-            		BaseToken startToken =
-            			(BaseToken) tokens.get(tokenStartIndex);
-            		BaseToken endToken = token;
-            		FractionStrengthToken fractionToken =
-            			new FractionStrengthToken(
-            					startToken.getStartOffset(),
-            					endToken.getEndOffset());
-            		fractionSet.add(fractionToken);
+            		fractionSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
             		fsm.reset();
             	}
             }
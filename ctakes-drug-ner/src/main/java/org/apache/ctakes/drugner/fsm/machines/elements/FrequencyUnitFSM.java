@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.drugner.fsm.machines.elements;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -1498,6 +1499,77 @@ public class FrequencyUnitFSM {
 		return rangeSet;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the frequency unit token for the match
+	 */
+	public FrequencyUnitToken createToken(Machine fsm, List tokens, int tokenStartIndex,
+			int tokenIndex, State currentState) {
+		BaseToken startToken;
+		if (currentState instanceof IndentStartState) {
+			startToken = (BaseToken) tokens.get(tokenStartIndex + 1);
+		} else {
+			startToken = (BaseToken) tokens.get(tokenStartIndex);
+		}
+		BaseToken endToken;
+		if (currentState instanceof NonTerminalEndState) {
+			endToken = (BaseToken) tokens.get(tokenIndex - 1);
+		} else {
+			endToken = (BaseToken) tokens.get(tokenIndex);
+		}
+		if (fsm.equals(iv_EveryOtherHourMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_24/2);
+		} else if (fsm.equals(iv_SixTimesADayMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_SIX);
+		} else if (fsm.equals(iv_FiveTimesADayMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_FIVE);
+		} else if (fsm.equals(iv_FourTimesADayMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_FOUR);
+		} else if (fsm.equals(iv_ThreeTimesADayMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_THREE);
+		} else if (fsm.equals(iv_HourlyMachine) || fsm.equals(iv_HourlySuffixMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_24);
+		} else if (fsm.equals(iv_TwiceADayMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_TWO);
+		} else if (fsm.equals(iv_DailyMachine) || fsm.equals(iv_DailySuffixMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_ONE);
+		} else if (fsm.equals(iv_EveryOtherDayMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_EVERY_OTHER_DAY);
+		} else if (fsm.equals(iv_WeeklyMachine) || fsm.equals(iv_WeeklySuffixMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_WEEKLY);
+		} else if (fsm.equals(iv_MonthlySuffixMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_MONTHLY);
+		} else if (fsm.equals(iv_YearlySuffixMachine)) {
+			return new FrequencyUnitToken(startToken.getStartOffset(),
+					endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_YEARLY);
+		}
+		return new FrequencyUnitToken(startToken.getStartOffset(),
+				endToken.getEndOffset(), FrequencyUnitToken.QUANTITY_PRN);
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * 
@@ -1522,8 +1594,6 @@ public class FrequencyUnitFSM {
 				fsm.input(token);
 
 				State currentState = fsm.getCurrentState();
-				BaseToken startToken = null;
-
 				if (currentState.getStartStateFlag()) {
 					tokenStartMap.put(fsm, new Integer(i));
 								
@@ -1541,80 +1611,8 @@ public class FrequencyUnitFSM {
 						tokenStartIndex++;
 					}
 					
-	               if (currentState instanceof IndentStartState){
-	                    	startToken = (BaseToken) tokens
-							.get(tokenStartIndex + 1);
-	    					
-	                    }
-	               else {
-	                    	startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					
-	                    }
-                    BaseToken endToken = null;
-                    if (currentState instanceof NonTerminalEndState)
-                    {
-                        endToken = (BaseToken) tokens.get(i - 1);
-                    }
-                    else
-                    {
-                        endToken = token;
-                    }
-					FrequencyUnitToken fractionToken = null;
-					 if (fsm.equals(iv_EveryOtherHourMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_24/2);
-					 else if (fsm.equals(iv_SixTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_SIX);
-					 else if (fsm.equals(iv_FiveTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_FIVE);
-					 else if (fsm.equals(iv_FourTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_FOUR);
-					 else if (fsm.equals(iv_ThreeTimesADayMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_THREE);
-					else if (fsm.equals(iv_HourlyMachine) || fsm.equals(iv_HourlySuffixMachine))
-							fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_24);
-					else if (fsm.equals(iv_TwiceADayMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_TWO);
-					else if (fsm.equals(iv_DailyMachine) || fsm.equals(iv_DailySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset(), FrequencyUnitToken.QUANTITY_ONE);
-					else if (fsm.equals(iv_EveryOtherDayMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_EVERY_OTHER_DAY);
-					else if (fsm.equals(iv_WeeklyMachine)|| fsm.equals(iv_WeeklySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_WEEKLY);
-					else if (fsm.equals(iv_MonthlySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_MONTHLY);
-					else if (fsm.equals(iv_YearlySuffixMachine))
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_YEARLY);
-					else 
-						fractionToken = new FrequencyUnitToken(
-							startToken.getStartOffset(), endToken
-									.getEndOffset(), FrequencyUnitToken.QUANTITY_PRN);
-				
-					fractionSet.add(fractionToken);
+	               fractionSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
 					fsm.reset();
 				}
 			}
@@ -18,6 +18,7 @@
  */
 package org.apache.ctakes.drugner.fsm.machines.elements;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -695,6 +696,55 @@ public class RouteFSM {
 		return rangeSet;
 	}
 
+	/**
+	 * @return the finite state machines run by {@link #execute(List)}
+	 */
+	public Set<Machine> getMachines() {
+		return Collections.unmodifiableSet(iv_machineSet);
+	}
+
+	/**
+	 * Creates the token for a match found by {@link #execute(List)}.
+	 * @param fsm machine that reached an end state
+	 * @param tokens input tokens
+	 * @param tokenStartIndex index of the first token of the match
+	 * @param tokenIndex index of the token that moved the machine to the end state
+	 * @param currentState the end state
+	 * @return the route token for the match
+	 */
+	public RouteToken createToken(Machine fsm, List tokens, int tokenStartIndex,
+			int tokenIndex, State currentState) {
+		BaseToken startToken = (BaseToken) tokens.get(tokenStartIndex);
+		BaseToken endToken = (BaseToken) tokens.get(tokenIndex);
+		RouteToken segmentToken = null;
+		if (fsm.equals(iv_PatchesMachine)) {
+			segmentToken = new RouteToken(startToken.getStartOffset(),
+					endToken.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.TRANSDERMAL);
+		} else if (fsm.equals(iv_GastricMachine)) {
+			segmentToken = new RouteToken(startToken.getStartOffset(),
+					endToken.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.GASTRIC);
+		} else if (fsm.equals(iv_TopicalMachine)) {
+			segmentToken = new RouteToken(startToken.getStartOffset(),
+					endToken.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.TOPICAL);
+		} else if (fsm.equals(iv_OralMachine)) {
+			segmentToken = new RouteToken(startToken.getStartOffset(),
+					endToken.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.ORAL);
+		} else if (fsm.equals(iv_RectalMachine)) {
+			segmentToken = new RouteToken(startToken.getStartOffset(),
+					endToken.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.RECTAL);
+		} else if (fsm.equals(iv_InjectMachine)) {
+			segmentToken = new RouteToken(startToken.getStartOffset(),
+					endToken.getEndOffset());
+			segmentToken.setFormMethod(RouteToken.INTRAVENOUS);
+		}
+		return segmentToken;
+	}
+
 	/**
 	 * Executes the finite state machines.
 	 * @param tokens
@@ -733,49 +783,8 @@ public class RouteFSM {
 						// skip ahead over single token we don't want
 						tokenStartIndex++;
 					}
-					BaseToken startToken = (BaseToken) tokens
-							.get(tokenStartIndex);
-					BaseToken endToken = token;
-					RouteToken segmentToken = null;
-					
-					if (fsm.equals(iv_PatchesMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.TRANSDERMAL);
-					}
-					else if (fsm.equals(iv_GastricMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.GASTRIC);
-					}
-					else if (fsm.equals(iv_TopicalMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.TOPICAL);
-					}
-					else if (fsm.equals(iv_OralMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.ORAL);
-					}
-					else if (fsm.equals(iv_RectalMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.RECTAL);
-					}
-					else if (fsm.equals(iv_InjectMachine)){
-						segmentToken = new RouteToken(
-								startToken.getStartOffset(), endToken
-										.getEndOffset());
-						segmentToken.setFormMethod(RouteToken.INTRAVENOUS);
-					}
-					
-					fractionSet.add(segmentToken);
+					fractionSet.add(createToken(fsm, tokens, tokenStartIndex, i,
+							currentState));
 					fsm.reset();
 				}
 			}
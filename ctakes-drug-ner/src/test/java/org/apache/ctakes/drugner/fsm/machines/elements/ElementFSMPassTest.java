@@ -0,0 +1,252 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.drugner.fsm.machines.elements;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.ctakes.core.fsm.token.BaseToken;
+import org.apache.ctakes.core.fsm.token.DecimalToken;
+import org.apache.ctakes.core.fsm.token.IntegerToken;
+import org.apache.ctakes.core.fsm.token.NumberToken;
+import org.apache.ctakes.core.fsm.token.PunctuationToken;
+import org.apache.ctakes.core.fsm.token.WordToken;
+import org.apache.ctakes.drugner.fsm.output.elements.DrugChangeStatusToken;
+import org.apache.ctakes.drugner.fsm.output.elements.FrequencyUnitToken;
+import org.apache.ctakes.drugner.fsm.output.elements.RouteToken;
+import org.junit.Test;
+
+public class ElementFSMPassTest {
+
+	private static final String[] WORDS = ("a an as by the via tube in po p o mouth orally oral iv injection drops"
+			+ " cream topical rectally pr transdermal gastric daily twice day times every other hour hours week"
+			+ " weekly month monthly year yearly q qd bid tid qid prn needed start started stop stopped increase"
+			+ " increased decrease from to change max maximum total tablet tablets capsule cap tab mg ml one two"
+			+ " three four five six half x per h hs am pm at night morning evening").split(" ");
+
+	private final FractionStrengthFSM iv_fractionFSM = new FractionStrengthFSM();
+	private final DecimalStrengthFSM iv_decimalFSM = new DecimalStrengthFSM();
+	private final DrugChangeStatusFSM iv_statusFSM = new DrugChangeStatusFSM();
+	private final RangeStrengthFSM iv_rangeFSM = new RangeStrengthFSM();
+	private final RouteFSM iv_routeFSM = new RouteFSM();
+	private final FrequencyUnitFSM iv_frequencyUnitFSM = new FrequencyUnitFSM();
+	private final FormFSM iv_formFSM = new FormFSM();
+	private final ElementFSMPass iv_pass = new ElementFSMPass(iv_fractionFSM,
+			iv_decimalFSM, iv_statusFSM, iv_rangeFSM, iv_routeFSM,
+			iv_frequencyUnitFSM, iv_formFSM);
+
+	/**
+	 * The pass must find the same tokens as the execute methods of the
+	 * separate fsms.
+	 */
+	@Test
+	public void testRandomAgainstSeparateFsms() throws Exception {
+		Random random = new Random(7);
+		for (int i = 0; i < 5000; i++) {
+			List<BaseToken> tokens = randomTokens(random);
+			String text = tokens.toString();
+			iv_pass.execute(tokens);
+			assertEquals(text, keys(iv_fractionFSM.execute(tokens)),
+					keys(iv_pass.getFractionTokenSet()));
+			assertEquals(text, keys(iv_decimalFSM.execute(tokens)),
+					keys(iv_pass.getDecimalTokenSet()));
+			assertEquals(text, keys(iv_statusFSM.execute(tokens)),
+					keys(iv_pass.getStatusTokenSet()));
+			assertEquals(text, keys(iv_rangeFSM.execute(tokens)),
+					keys(iv_pass.getRangeTokenSet()));
+			assertEquals(text, keys(iv_routeFSM.execute(tokens)),
+					keys(iv_pass.getRouteTokenSet()));
+			assertEquals(text, keys(iv_frequencyUnitFSM.execute(tokens)),
+					keys(iv_pass.getFrequencyUnitTokenSet()));
+			assertEquals(text, keys(iv_formFSM.execute(tokens, new HashSet())),
+					keys(iv_pass.getFormTokenSet()));
+		}
+	}
+
+	private static List<BaseToken> randomTokens(Random random) {
+		List<BaseToken> tokens = new ArrayList<BaseToken>();
+		int offset = 0;
+		int count = 1 + random.nextInt(25);
+		for (int i = 0; i < count; i++) {
+			int kind = random.nextInt(10);
+			BaseToken token;
+			if (kind < 6) {
+				token = new TestWord(WORDS[random.nextInt(WORDS.length)], offset);
+			} else if (kind < 8) {
+				token = new TestInteger(random.nextInt(12), offset);
+			} else if (kind < 9) {
+				token = new TestDecimal(random.nextInt(5) + 0.5, offset);
+			} else {
+				token = new TestPunctuation("-/.,()".charAt(random.nextInt(6)), offset);
+			}
+			tokens.add(token);
+			offset = token.getEndOffset() + 1;
+		}
+		return tokens;
+	}
+
+	/**
+	 * @return the type, span and attribute of each token, sorted
+	 */
+	private static List<String> keys(Set tokens) {
+		List<String> keys = new ArrayList<String>();
+		for (Object o : tokens) {
+			BaseToken token = (BaseToken) o;
+			String key = o.getClass().getSimpleName() + ":"
+					+ token.getStartOffset() + "-" + token.getEndOffset();
+			if (o instanceof DrugChangeStatusToken) {
+				key += ":" + ((DrugChangeStatusToken) o).getDrugChangeStatus();
+			} else if (o instanceof FrequencyUnitToken) {
+				key += ":" + ((FrequencyUnitToken) o).getFrequencyUnitQuantity();
+			} else if (o instanceof RouteToken) {
+				key += ":" + ((RouteToken) o).getFormMethod();
+			}
+			keys.add(key);
+		}
+		Collections.sort(keys);
+		return keys;
+	}
+
+	private static class TestWord implements WordToken {
+		private final String iv_text;
+		private final int iv_begin;
+
+		TestWord(String text, int begin) {
+			iv_text = text;
+			iv_begin = begin;
+		}
+
+		public String getText() {
+			return iv_text;
+		}
+
+		public byte getCaps() {
+			return CAPS_NONE;
+		}
+
+		public byte getNumPosition() {
+			return NUM_NONE;
+		}
+
+		public int getStartOffset() {
+			return iv_begin;
+		}
+
+		public int getEndOffset() {
+			return iv_begin + iv_text.length();
+		}
+
+		public String toString() {
+			return iv_text;
+		}
+	}
+
+	private static class TestInteger implements IntegerToken, NumberToken {
+		private final long iv_value;
+		private final int iv_begin;
+
+		TestInteger(long value, int begin) {
+			iv_value = value;
+			iv_begin = begin;
+		}
+
+		public long getValue() {
+			return iv_value;
+		}
+
+		public boolean getPositive() {
+			return true;
+		}
+
+		public int getStartOffset() {
+			return iv_begin;
+		}
+
+		public int getEndOffset() {
+			return iv_begin + String.valueOf(iv_value).length();
+		}
+
+		public String toString() {
+			return String.valueOf(iv_value);
+		}
+	}
+
+	private static class TestDecimal implements DecimalToken {
+		private final double iv_value;
+		private final int iv_begin;
+
+		TestDecimal(double value, int begin) {
+			iv_value = value;
+			iv_begin = begin;
+		}
+
+		public double getValue() {
+			return iv_value;
+		}
+
+		public boolean getPositive() {
+			return true;
+		}
+
+		public int getStartOffset() {
+			return iv_begin;
+		}
+
+		public int getEndOffset() {
+			return iv_begin + String.valueOf(iv_value).length();
+		}
+
+		public String toString() {
+			return String.valueOf(iv_value);
+		}
+	}
+
+	private static class TestPunctuation implements PunctuationToken {
+		private final char iv_char;
+		private final int iv_begin;
+
+		TestPunctuation(char c, int begin) {
+			iv_char = c;
+			iv_begin = begin;
+		}
+
+		public char getChar() {
+			return iv_char;
+		}
+
+		public int getStartOffset() {
+			return iv_begin;
+		}
+
+		public int getEndOffset() {
+			return iv_begin + 1;
+		}
+
+		public String toString() {
+			return String.valueOf(iv_char);
+		}
+	}
+
+}
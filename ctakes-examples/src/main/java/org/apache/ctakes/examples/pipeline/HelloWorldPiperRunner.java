@@ -43,6 +43,8 @@ final public class HelloWorldPiperRunner {
          }
          // Run the pipeline with specified text
          builder.run( DOC_TEXT );
+         // Complete the collection so that writers finish their output
+         builder.close();
       } catch ( IOException | UIMAException multE ) {
          LOGGER.error( multE.getMessage() );
       }
@@ -47,6 +47,8 @@ final public class HelloWorldPropsPiperRunner {
          }
          // Run the pipeline with specified text
          builder.run( DOC_TEXT );
+         // Complete the collection so that writers finish their output
+         builder.close();
          // Log the IdentifiedAnnotation objects
          LOGGER.info( "\n" + EntityCollector.getInstance().toString() );
       } catch ( IOException | UIMAException multE ) {
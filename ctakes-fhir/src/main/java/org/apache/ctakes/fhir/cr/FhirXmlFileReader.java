@@ -152,11 +152,11 @@ public class FhirXmlFileReader extends AbstractFileTreeReader {
    }
 
 
-   static private Bundle readBundle( final File file ) throws IOException {
+   private Bundle readBundle( final File file ) throws IOException {
       IBaseResource baseResource;
       final FhirContext fhirContext = FhirContext.forDstu3();
       final IParser xmlParser = fhirContext.newXmlParser();
-      try ( Reader reader = new BufferedReader( new FileReader( file ) ) ) {
+      try ( Reader reader = new BufferedReader( new InputStreamReader( openFile( file ) ) ) ) {
          baseResource = xmlParser.parseResource( reader );
 
       } catch ( IOException | ConfigurationException | DataFormatException multE ) {
@@ -41,6 +41,7 @@ import java.util.StringTokenizer;
 import java.util.Vector;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.ctakes.core.concurrent.DelegatePool;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.ListFactory;
 import org.apache.ctakes.lvg.resource.LvgCmdApiResource;
@@ -73,6 +74,10 @@ import org.apache.uima.fit.factory.ExternalResourceFactory;
  *         misspelled. It seems that if you automatically normalize a word from
  *         the cache, this may be bad if it is misspelled in the case where the
  *         misspelling is a word in the lexicon.
+ *
+ *         process may be called by several threads at once.  The caches are
+ *         shared and words that miss them are looked up with one of a pool of
+ *         LVG instances.
  */
 @PipeBitInfo(
 		name = "LVG Annotator",
@@ -199,6 +204,31 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 	private String[] wordsToExclude = defaultExclusionWords;
   private Set<String> exclusionSet;
   
+	public static final String PARAM_RUNTIME_CACHE_SIZE = "RuntimeCacheSize";
+	@ConfigurationParameter(
+	    name = PARAM_RUNTIME_CACHE_SIZE,
+	    mandatory = false,
+	    description = "Maximum number of words whose LVG output is remembered during the run, 0 for none",
+	    defaultValue = "50000"
+	    )
+	private int runtimeCacheSize;
+
+	public static final String PARAM_RUNTIME_CACHE_FILE = "RuntimeCacheFile";
+	@ConfigurationParameter(
+	    name = PARAM_RUNTIME_CACHE_FILE,
+	    mandatory = false,
+	    description = "File from which the run time cache is loaded at start and to which it is saved at collection end"
+	    )
+	private String runtimeCacheFile;
+
+	@ConfigurationParameter(
+	    name = DelegatePool.PARAM_POOL_SIZE,
+	    mandatory = false,
+	    description = "Number of LVG instances, created at initialization, for concurrent lookups of words that are not cached.  0 uses the number of processors.  ThreadSafeLvg sets this to its own pool size.",
+	    defaultValue = "1"
+	    )
+	private int poolSize;
+
 	// LOG4J logger based on class name
 	private Logger logger = Logger.getLogger(getClass().getName());
 
@@ -209,9 +239,10 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
       )
   private LvgCmdApiResource lvgResource;
       
-	private LvgCmdApi lvgCmd;
+	// LVG instances are not thread safe, so each lookup borrows one
+	private LvgApiPool<LvgCmdApi> lvgCmdPool;
 
-	private LvgLexItemApi lvgLexItem;
+	private LvgApiPool<LvgLexItemApi> lvgLexItemPool;
 
 	// key = word, value = canonical word
 	private Map<String, String> normCacheMap;
@@ -219,6 +250,9 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 	// key = word, value = Set of Lemma objects
 	private Map<String, Set<LemmaLocalClass>> lemmaCacheMap;
 
+	// LVG output for words that are not in the static caches, shared with other annotators
+	private LvgCache runtimeCache;
+
 
 	/**
 	 * Performs initialization logic. This implementation just reads values for
@@ -229,10 +263,22 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 	@Override
   public void initialize(UimaContext aContext) throws ResourceInitializationException {
 		super.initialize(aContext);
+		initializeLvg();
+	}
+
+	/**
+	 * Initializes with a pool size declared by a wrapper such as ThreadSafeLvg instead of this annotator.
+	 */
+	void initialize(UimaContext aContext, int poolSize) throws ResourceInitializationException {
+		super.initialize(aContext);
+		this.poolSize = poolSize;
+		initializeLvg();
+	}
 
+	private void initializeLvg() throws ResourceInitializationException {
 		configInit();
 		try {
-			lvgCmd = lvgResource.getLvg();
+			lvgCmdPool = new LvgApiPool<>(lvgResource.getLvg(), lvgResource::createLvg, poolSize);
 
 			if (useCmdCache) {
 				logger.info("Loading Cmd cache=" + cmdCacheFileLocation);
@@ -241,13 +287,17 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 			}
 
 			if (postLemmas) {
-				lvgLexItem = lvgResource.getLvgLex();
+				lvgLexItemPool = new LvgApiPool<>(lvgResource.getLvgLex(), lvgResource::createLvgLex, poolSize);
 				if (useLemmaCache) {
 					logger.info("Loading Lemma cache=" + lemmaCacheFileLocation);
 					loadLemmaCacheFile(lemmaCacheFileLocation);
 					logger.info("Loaded " + lemmaCacheMap.size() + " entries");
 				}
 			}
+
+			if (runtimeCacheSize > 0) {
+				runtimeCache = LvgCache.getCache(runtimeCacheFile, lvgResource.getConfiguration(), runtimeCacheSize);
+			}
 		} catch (IOException e) {
 			throw new ResourceInitializationException(e);
 		}
@@ -360,8 +410,17 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 			}
 		}
 
+		// then words already seen in this or a previous run
+		if (canonicalForm == null && runtimeCache != null) {
+			canonicalForm = runtimeCache.getCanonicalForm(word);
+			if (LvgCache.NO_CANONICAL_FORM.equals(canonicalForm)) {
+				return;
+			}
+		}
+
 		// only apply LVG processing if not found in cache first
 		if (canonicalForm == null) {
+			LvgCmdApi lvgCmd = lvgCmdPool.borrow();
 			try {
 				String out = lvgCmd.MutateToString(word);
 
@@ -373,8 +432,12 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 				}
 			} catch (Exception e) {
 				throw new AnalysisEngineProcessException(e);
+			} finally {
+				lvgCmdPool.release(lvgCmd);
+			}
+			if (runtimeCache != null) {
+				runtimeCache.putCanonicalForm(word, canonicalForm);
 			}
-
 		}
 
 		if (canonicalForm != null) {
@@ -404,36 +467,35 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		}
 
 		if (lemmaMap == null) {
+			// key = lemma string, value = Set of Xerox POS tags
+			Map<String, Set<String>> xeroxLemmaMap = null;
+			if (runtimeCache != null) {
+				xeroxLemmaMap = runtimeCache.getLemmas(word);
+			}
+			if (xeroxLemmaMap == null) {
+				xeroxLemmaMap = getXeroxLemmas(word);
+				if (runtimeCache != null) {
+					runtimeCache.putLemmas(word, xeroxLemmaMap);
+				}
+			}
 			lemmaMap = new HashMap<>();
-			try {
-				Vector<?> lexItems = lvgLexItem.MutateLexItem(word);
-				Iterator<?> lexItemItr = lexItems.iterator();
-				while (lexItemItr.hasNext()) {
-					LexItem li = (LexItem) lexItemItr.next();
-
-					Category c = li.GetTargetCategory();
-					String lemmaStr = li.GetTargetTerm();
-					long[] bitValues = Category.ToValuesArray(c.GetValue());
-					for (int i = 0; i < bitValues.length; i++) {
-						// note that POS is Xerox tagset
-						String lemmaPos = Category.ToName(bitValues[i]);
-						// convert Xerox tagset to PennTreebank tagset
-						String treebankTag = xeroxTreebankMap
-								.get(lemmaPos);
-						if (treebankTag != null) {
-							Set<String> posSet = null;
-							if (lemmaMap.containsKey(lemmaStr)) {
-								posSet = lemmaMap.get(lemmaStr);
-							} else {
-								posSet = new HashSet<>();
-							}
-							posSet.add(treebankTag);
-							lemmaMap.put(lemmaStr, posSet);
+			for (Map.Entry<String, Set<String>> xeroxLemma : xeroxLemmaMap.entrySet()) {
+				String lemmaStr = xeroxLemma.getKey();
+				for (String lemmaPos : xeroxLemma.getValue()) {
+					// convert Xerox tagset to PennTreebank tagset
+					String treebankTag = xeroxTreebankMap
+							.get(lemmaPos);
+					if (treebankTag != null) {
+						Set<String> posSet = null;
+						if (lemmaMap.containsKey(lemmaStr)) {
+							posSet = lemmaMap.get(lemmaStr);
+						} else {
+							posSet = new HashSet<>();
 						}
+						posSet.add(treebankTag);
+						lemmaMap.put(lemmaStr, posSet);
 					}
 				}
-			} catch (Exception e) {
-				throw new AnalysisEngineProcessException(e);
 			}
 		}
 
@@ -459,6 +521,55 @@ public class LvgAnnotator extends JCasAnnotator_ImplBase {
 		wordAnnotation.setLemmaEntries(fsList);
 	}
 
+	/**
+	 * Runs LVG to get the lemmas of a word.
+	 * 
+	 * @return key = lemma string, value = Set of Xerox POS tags
+	 */
+	private Map<String, Set<String>> getXeroxLemmas(String word)
+			throws AnalysisEngineProcessException {
+		Map<String, Set<String>> xeroxLemmaMap = new HashMap<>();
+		LvgLexItemApi lvgLexItem = lvgLexItemPool.borrow();
+		try {
+			Vector<?> lexItems = lvgLexItem.MutateLexItem(word);
+			Iterator<?> lexItemItr = lexItems.iterator();
+			while (lexItemItr.hasNext()) {
+				LexItem li = (LexItem) lexItemItr.next();
+
+				Category c = li.GetTargetCategory();
+				String lemmaStr = li.GetTargetTerm();
+				long[] bitValues = Category.ToValuesArray(c.GetValue());
+				for (int i = 0; i < bitValues.length; i++) {
+					// note that POS is Xerox tagset
+					String lemmaPos = Category.ToName(bitValues[i]);
+					Set<String> posSet = xeroxLemmaMap.get(lemmaStr);
+					if (posSet == null) {
+						posSet = new HashSet<>();
+						xeroxLemmaMap.put(lemmaStr, posSet);
+					}
+					posSet.add(lemmaPos);
+				}
+			}
+		} catch (Exception e) {
+			throw new AnalysisEngineProcessException(e);
+		} finally {
+			lvgLexItemPool.release(lvgLexItem);
+		}
+		return xeroxLemmaMap;
+	}
+
+	/**
+	 * Saves the run time cache for the next run and logs how well it did.
+	 */
+	@Override
+	public void collectionProcessComplete() throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		if (runtimeCache != null) {
+			logger.info(runtimeCache.toString());
+			runtimeCache.save();
+		}
+	}
+
 	/**
 	 * Helper method that loads a Norm cache file.
 	 * 
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.lvg.ae;
+
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Pool of LVG api objects, which cannot be used by more than one thread at a time.
+ * A thread borrows an api object for a single lookup and then returns it.
+ * All api objects are created with the pool.  Creating one changes the jvm working directory,
+ * which must not happen while other threads are processing documents.
+ */
+final class LvgApiPool<T> {
+
+   private final BlockingQueue<T> _idle = new LinkedBlockingQueue<>();
+
+   /**
+    * @param first   an api object to start the pool
+    * @param creator creates another api object with the same configuration
+    * @param size    number of api objects, 0 for the number of processors
+    */
+   LvgApiPool( final T first, final Supplier<T> creator, final int size ) {
+      final int poolSize = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+      _idle.add( first );
+      for ( int i = 1; i < poolSize; i++ ) {
+         _idle.add( creator.get() );
+      }
+   }
+
+   /**
+    * @return an idle api object, waiting for one to become idle if all are in use
+    * @throws AnalysisEngineProcessException if the wait is interrupted
+    */
+   T borrow() throws AnalysisEngineProcessException {
+      try {
+         return _idle.take();
+      } catch ( InterruptedException intE ) {
+         Thread.currentThread().interrupt();
+         throw new AnalysisEngineProcessException( intE );
+      }
+   }
+
+   /**
+    * @param api api object obtained with {@link #borrow()}
+    */
+   void release( final T api ) {
+      _idle.add( api );
+   }
+
+}
@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.lvg.ae;
+
+import org.apache.ctakes.core.util.collection.LruCache;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the LVG output for words at run time so that each word only goes through the LVG flow engine once.
+ * LVG output for a word does not change between documents, so any annotator using the same LVG data can share it.
+ * <p>
+ * The cache is bounded and evicts the least recently used words.
+ * If it has a file then it is loaded from that file when it is created and written back by {@link #save()},
+ * so a corpus with a stable vocabulary is nearly all cache hits after one run.
+ * LVG output depends on the LVG configuration, so caches are shared only by callers with the same configuration,
+ * and a file saved with another configuration is not loaded.
+ * The file starts with the configuration line, followed by one tab separated line per word:
+ * <pre>
+ * C  configuration
+ * N  word  canonicalForm
+ * L  word  lemma  xeroxPos,xeroxPos  lemma  xeroxPos ...
+ * </pre>
+ * </p>
+ */
+final public class LvgCache {
+
+   static private final Logger LOGGER = Logger.getLogger( "LvgCache" );
+
+   /**
+    * Cached canonical form for words that have none.  LVG itself returns "No Output" for such words,
+    * so it can never be a canonical form.
+    */
+   static public final String NO_CANONICAL_FORM = "No Output";
+
+   static private final String CONFIGURATION_LINE = "C";
+   static private final String NORM_LINE = "N";
+   static private final String LEMMA_LINE = "L";
+
+   static private final Map<String, LvgCache> CACHES = new HashMap<>();
+
+   /**
+    * @param filePath      file to load from and save to, null for a cache that only lives in memory
+    * @param configuration LVG configuration that produces the cached output, see {@link
+    *                      org.apache.ctakes.lvg.resource.LvgCmdApiResource#getConfiguration()}
+    * @param maxSize       maximum number of words held for canonical forms and for lemmas.
+    *                      Only used by the first call for the file path and configuration.
+    * @return the cache shared by all callers with the same file path and configuration
+    */
+   static public LvgCache getCache( final String filePath, final String configuration, final int maxSize ) {
+      final File file = filePath == null ? null : new File( filePath ).getAbsoluteFile();
+      final String key = (file == null ? "" : file.getPath()) + '\n' + configuration;
+      synchronized ( CACHES ) {
+         return CACHES.computeIfAbsent( key, k -> new LvgCache( file, configuration, maxSize ) );
+      }
+   }
+
+   private final File _file;
+   private final String _configuration;
+   private final LruCache<String, String> _normCache;
+   private final LruCache<String, Map<String, Set<String>>> _lemmaCache;
+
+   /**
+    * Creates a cache that is not shared, use {@link #getCache(String, String, int)} to share it.
+    */
+   LvgCache( final File file, final String configuration, final int maxSize ) {
+      _file = file;
+      _configuration = configuration;
+      _normCache = new LruCache<>( maxSize );
+      _lemmaCache = new LruCache<>( maxSize );
+      if ( _file != null && _file.isFile() ) {
+         load();
+      }
+   }
+
+   /**
+    * @param word -
+    * @return the canonical form of the word, {@link #NO_CANONICAL_FORM} if it has none, or null if the word is not cached
+    */
+   public String getCanonicalForm( final String word ) {
+      return _normCache.get( word );
+   }
+
+   /**
+    * @param word          -
+    * @param canonicalForm canonical form of the word, null or {@link #NO_CANONICAL_FORM} if it has none
+    */
+   public void putCanonicalForm( final String word, final String canonicalForm ) {
+      _normCache.put( word, canonicalForm == null ? NO_CANONICAL_FORM : canonicalForm );
+   }
+
+   /**
+    * @param word -
+    * @return map of lemma to Xerox part of speech names for the word, or null if the word is not cached.
+    * The map is shared and must not be modified.
+    */
+   public Map<String, Set<String>> getLemmas( final String word ) {
+      return _lemmaCache.get( word );
+   }
+
+   /**
+    * @param word   -
+    * @param lemmas map of lemma to Xerox part of speech names for the word.  It must not be modified afterwards.
+    */
+   public void putLemmas( final String word, final Map<String, Set<String>> lemmas ) {
+      _lemmaCache.put( word, Collections.unmodifiableMap( lemmas ) );
+   }
+
+   /**
+    * Writes the cache contents to the cache file, if there is one.
+    * The file is replaced in one step so that a concurrent or failed save never leaves a partial file.
+    */
+   public void save() {
+      if ( _file == null ) {
+         return;
+      }
+      final Map<String, String> norms = _normCache.toMap();
+      final Map<String, Map<String, Set<String>>> lemmas = _lemmaCache.toMap();
+      try {
+         final File parent = _file.getAbsoluteFile().getParentFile();
+         if ( parent != null ) {
+            parent.mkdirs();
+         }
+         final File tempFile = File.createTempFile( _file.getName(), ".tmp", parent );
+         try ( Writer writer = Files.newBufferedWriter( tempFile.toPath(), StandardCharsets.UTF_8 ) ) {
+            writer.write( createConfigurationLine() );
+            for ( Map.Entry<String, String> norm : norms.entrySet() ) {
+               if ( isWritable( norm.getKey() ) && isWritable( norm.getValue() ) ) {
+                  writer.write( NORM_LINE + '\t' + norm.getKey() + '\t' + norm.getValue() + '\n' );
+               }
+            }
+            for ( Map.Entry<String, Map<String, Set<String>>> lemma : lemmas.entrySet() ) {
+               final String line = createLemmaLine( lemma.getKey(), lemma.getValue() );
+               if ( line != null ) {
+                  writer.write( line );
+               }
+            }
+         }
+         Files.move( tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+         LOGGER.info( "Saved " + norms.size() + " canonical forms and " + lemmas.size() + " lemma sets to "
+                      + _file.getPath() );
+      } catch ( IOException ioE ) {
+         LOGGER.error( "Could not save LVG cache to " + _file.getPath() + " : " + ioE.getMessage() );
+      }
+   }
+
+   private String createConfigurationLine() {
+      return CONFIGURATION_LINE + '\t' + _configuration.replaceAll( "[\t\r\n]", " " ) + '\n';
+   }
+
+   static private String createLemmaLine( final String word, final Map<String, Set<String>> lemmas ) {
+      if ( !isWritable( word ) ) {
+         return null;
+      }
+      final StringBuilder sb = new StringBuilder( LEMMA_LINE ).append( '\t' ).append( word );
+      for ( Map.Entry<String, Set<String>> lemma : lemmas.entrySet() ) {
+         if ( !isWritable( lemma.getKey() ) || lemma.getValue().isEmpty() ) {
+            return null;
+         }
+         sb.append( '\t' ).append( lemma.getKey() ).append( '\t' ).append( String.join( ",", lemma.getValue() ) );
+      }
+      return sb.append( '\n' ).toString();
+   }
+
+   static private boolean isWritable( final String text ) {
+      return !text.isEmpty() && text.indexOf( '\t' ) < 0 && text.indexOf( '\n' ) < 0 && text.indexOf( '\r' ) < 0;
+   }
+
+   private void load() {
+      final Map<String, String> norms = new LinkedHashMap<>();
+      final Map<String, Map<String, Set<String>>> lemmas = new LinkedHashMap<>();
+      try ( BufferedReader reader = Files.newBufferedReader( _file.toPath(), StandardCharsets.UTF_8 ) ) {
+         String line = reader.readLine();
+         if ( line == null || !(line + '\n').equals( createConfigurationLine() ) ) {
+            LOGGER.warn( "Not loading LVG cache " + _file.getPath() + " saved with another LVG configuration" );
+            return;
+         }
+         line = reader.readLine();
+         while ( line != null ) {
+            final String[] splits = line.split( "\t" );
+            if ( splits.length == 3 && splits[ 0 ].equals( NORM_LINE ) ) {
+               norms.put( splits[ 1 ], splits[ 2 ] );
+            } else if ( splits.length % 2 == 0 && splits[ 0 ].equals( LEMMA_LINE ) ) {
+               final Map<String, Set<String>> lemmaMap = new HashMap<>();
+               for ( int i = 2; i < splits.length; i += 2 ) {
+                  lemmaMap.put( splits[ i ], new HashSet<>( Arrays.asList( splits[ i + 1 ].split( "," ) ) ) );
+               }
+               lemmas.put( splits[ 1 ], Collections.unmodifiableMap( lemmaMap ) );
+            } else {
+               LOGGER.warn( "Invalid LVG cache line: " + line );
+            }
+            line = reader.readLine();
+         }
+      } catch ( IOException ioE ) {
+         LOGGER.error( "Could not load LVG cache from " + _file.getPath() + " : " + ioE.getMessage() );
+         return;
+      }
+      // entries were saved from least to most recently used, so putAll keeps their order
+      _normCache.putAll( norms );
+      _lemmaCache.putAll( lemmas );
+      LOGGER.info( "Loaded " + norms.size() + " canonical forms and " + lemmas.size() + " lemma sets from "
+                   + _file.getPath() );
+   }
+
+   /**
+    * @return hit and miss summary of the canonical form and lemma caches
+    */
+   @Override
+   public String toString() {
+      return "LVG canonical form " + _normCache + " ; LVG lemma " + _lemmaCache;
+   }
+
+}
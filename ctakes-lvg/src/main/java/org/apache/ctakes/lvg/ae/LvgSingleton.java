@@ -17,6 +17,7 @@ import java.net.URL;
 /**
  * Holds a single instance of the LvgAnnotator.
  * Use this singleton from an annotator instead of the LvgAnnotator directly to help prevent thread safety issues.
+ * Initialization is locked, but the LvgAnnotator process is reentrant so documents are processed concurrently.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -37,7 +38,7 @@ enum LvgSingleton {
    private final LvgAnnotator _lvgAnnotator;
 
    private ExternalResourceDescription _lvgCmdApi;
-   private boolean _initialized;
+   private volatile boolean _initialized;
 
 
    LvgSingleton() {
@@ -46,19 +47,37 @@ enum LvgSingleton {
 
    /**
     * Calls initialize on the single LVG instance if and only if it has not already been initialized
+    *
+    * @param poolSize maximum number of LVG instances for concurrent lookups, 0 or less for the number of processors
     */
-   public void initialize( final UimaContext context ) throws ResourceInitializationException {
+   public void initialize( final UimaContext context, final int poolSize ) throws ResourceInitializationException {
       synchronized ( LOCK ) {
          if ( !_initialized ) {
+            _lvgAnnotator.initialize( context, poolSize );
             _initialized = true;
-            _lvgAnnotator.initialize( context );
          }
       }
    }
 
+   /**
+    * Calls process on the single LVG instance without locking.  Threads only wait on each other for LVG lookups
+    * when more words miss the caches at once than there are pooled LVG instances.
+    */
    public void process( final JCas jCas ) throws AnalysisEngineProcessException {
+      if ( !_initialized ) {
+         throw new AnalysisEngineProcessException( new IllegalStateException( "LVG has not been initialized" ) );
+      }
+      _lvgAnnotator.process( jCas );
+   }
+
+   /**
+    * Saves the single LVG instance's run time cache.  Safe to call once for each annotator that uses the singleton.
+    */
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
       synchronized ( LOCK ) {
-         _lvgAnnotator.process( jCas );
+         if ( _initialized ) {
+            _lvgAnnotator.collectionProcessComplete();
+         }
       }
    }
 
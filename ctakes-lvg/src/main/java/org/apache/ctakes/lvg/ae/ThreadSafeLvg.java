@@ -1,11 +1,14 @@
 package org.apache.ctakes.lvg.ae;
 
+import org.apache.ctakes.core.concurrent.DelegatePool;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.component.initialize.ConfigurationParameterInitializer;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -15,6 +18,8 @@ import java.io.IOException;
 
 /**
  * Utilizes a singleton to access a single instance of the LvgAnnotator.  This should help prevent thread safety issues.
+ * Documents are processed concurrently by the single instance, which pools LVG lookups up to the
+ * {@link org.apache.ctakes.core.concurrent.DelegatePool#PARAM_POOL_SIZE} parameter.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -29,6 +34,10 @@ final public class ThreadSafeLvg extends JCasAnnotator_ImplBase {
 
    static private final Logger LOGGER = Logger.getLogger( "ThreadSafeLvg" );
 
+   @ConfigurationParameter( name = DelegatePool.PARAM_POOL_SIZE, mandatory = false,
+         description = DelegatePool.DESC_POOL_SIZE, defaultValue = "0" )
+   private int _poolSize;
+
 
    /**
     * Calls initialize on the LvgSingleton.
@@ -36,7 +45,8 @@ final public class ThreadSafeLvg extends JCasAnnotator_ImplBase {
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      LvgSingleton.getInstance().initialize( context );
+      ConfigurationParameterInitializer.initialize( this, context );
+      LvgSingleton.getInstance().initialize( context, _poolSize );
    }
 
    /**
@@ -48,6 +58,16 @@ final public class ThreadSafeLvg extends JCasAnnotator_ImplBase {
       LvgSingleton.getInstance().process( jCas );
    }
 
+   /**
+    * Calls collectionProcessComplete on the LvgSingleton.
+    * {@inheritDoc}
+    */
+   @Override
+   public void collectionProcessComplete() throws AnalysisEngineProcessException {
+      super.collectionProcessComplete();
+      LvgSingleton.getInstance().collectionProcessComplete();
+   }
+
 
    /**
     * Necessary if the lvg.properties need to be copied into a temporary file.  Otherwise all defaults are fine.
@@ -34,4 +34,21 @@ public interface LvgCmdApiResource {
     
     public LvgLexItemApi getLvgLex();
 
+    /**
+     * @return a new Lvg with the same configuration as {@link #getLvg()},
+     * for callers that need one instance per thread
+     */
+    public LvgCmdApi createLvg();
+
+    /**
+     * @return a new LvgLexItemApi with the same configuration as {@link #getLvgLex()},
+     * for callers that need one instance per thread
+     */
+    public LvgLexItemApi createLvgLex();
+
+    /**
+     * @return the config file and flows of the lvg instances, which determine their output
+     */
+    public String getConfiguration();
+
 }
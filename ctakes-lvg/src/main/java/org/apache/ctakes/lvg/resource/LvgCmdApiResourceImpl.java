@@ -55,52 +55,97 @@ public class LvgCmdApiResourceImpl
     
     private static String CWD_PROPERTY = "user.dir"; // Name of property for current working directory
     
+    // Lvg flows used by this resource
+    private static final String LVG_FLOW = "-f:l:b";
+    private static final String LVG_LEX_FLOW = "-f:i -SC";
+
+    // the current working directory is global, so only one lvg instance is created at a time
+    private static final Object CWD_LOCK = new Object();
+
+    private String configFileName;
+    private String lvgDir;
+
     public void load(DataResource dr) throws ResourceInitializationException
     {
-    	String configFileName = null;
-    	String cwd = null;
-    	try
-    	{
-    		
-    		File configFile = new File(dr.getUrl().toExternalForm());
-	        configFileName = configFile.getPath();
-	         
-	        logger.info("Loading NLM Norm and Lvg with config file = " + configFileName);
-	        logger.info("  config file absolute path = " + configFile.getAbsolutePath());
-
-	    	// Set the current working directory appropriately so the lvg files
-	        // will be found if the lvg properties file contains LVG_DIR=AUTO_MODE
-	        // If unable to change the current working directory, continue, so that
-	        // if the properties file LVG_DIR value was changed to a hardcoded path,
-	        // we allow that path to be used.
-	    	String lvgDir = getLvgDir(configFile);
-	    	cwd = getCurrentWorkingDirectory();
-	    	if (cwd!=null) {
-	    		logger.info("cwd = " + cwd);
-	    		changeCurrentWorkingDirectory(lvgDir);
-	    	}
-
-	    	// See http://lexsrv2.nlm.nih.gov/SPECIALIST/Projects/ctakes-lvg/2008/docs/userDoc/index.html
-	        // See http://lexsrv3.nlm.nih.gov/SPECIALIST/Projects/ctakes-lvg/2008/docs/designDoc/UDF/flow/index.html        
-	        // Lower-case the terms and then uninflect
-	        // f = using flow components (in this order) 
-	        //     l = lower case
-	        //     b = uninflect a term
-	        lvg = new LvgCmdApi("-f:l:b", configFileName);
-	        // Generate inflectional variants and get categories as strings rather than bit vectors
-	        // f = using flow components (only one (i) used here) 
-	        //     i = generate inflectional variants
-	        // -SC = Show category names (returns the categories as strings rather than bit vectors)
-	        lvgLexItem = new LvgLexItemApi("-f:i -SC", configFileName);
+		File configFile = new File(dr.getUrl().toExternalForm());
+        configFileName = configFile.getPath();
+         
+        logger.info("Loading NLM Norm and Lvg with config file = " + configFileName);
+        logger.info("  config file absolute path = " + configFile.getAbsolutePath());
+
+    	// Set the current working directory appropriately so the lvg files
+        // will be found if the lvg properties file contains LVG_DIR=AUTO_MODE
+        // If unable to change the current working directory, continue, so that
+        // if the properties file LVG_DIR value was changed to a hardcoded path,
+        // we allow that path to be used.
+    	lvgDir = getLvgDir(configFile);
+
+    	// See http://lexsrv2.nlm.nih.gov/SPECIALIST/Projects/ctakes-lvg/2008/docs/userDoc/index.html
+        // See http://lexsrv3.nlm.nih.gov/SPECIALIST/Projects/ctakes-lvg/2008/docs/designDoc/UDF/flow/index.html        
+        // Lower-case the terms and then uninflect
+        // f = using flow components (in this order) 
+        //     l = lower case
+        //     b = uninflect a term
+        lvg = createLvg();
+        // Generate inflectional variants and get categories as strings rather than bit vectors
+        // f = using flow components (only one (i) used here) 
+        //     i = generate inflectional variants
+        // -SC = Show category names (returns the categories as strings rather than bit vectors)
+        lvgLexItem = createLvgLex();
+    }
 
+    /**
+     * @see org.apache.ctakes.lvg.resource.LvgCmdApiResource#createLvg()
+     */
+    public LvgCmdApi createLvg() {
+    	synchronized (CWD_LOCK) {
+    		String cwd = enterLvgDir();
+    		try {
+    			return new LvgCmdApi(LVG_FLOW, configFileName);
+    		} finally {
+    			leaveLvgDir(cwd);
+    		}
     	}
-    	finally {
-    		// try to change the current working directory back to what it was
-			if (cwd!=null) {
-				changeCurrentWorkingDirectory(cwd);
-			}
-			
-	    }
+    }
+
+    /**
+     * @see org.apache.ctakes.lvg.resource.LvgCmdApiResource#getConfiguration()
+     */
+    public String getConfiguration() {
+    	return new File(configFileName).getAbsolutePath() + " " + LVG_FLOW + " " + LVG_LEX_FLOW;
+    }
+
+    /**
+     * @see org.apache.ctakes.lvg.resource.LvgCmdApiResource#createLvgLex()
+     */
+    public LvgLexItemApi createLvgLex() {
+    	synchronized (CWD_LOCK) {
+    		String cwd = enterLvgDir();
+    		try {
+    			return new LvgLexItemApi(LVG_LEX_FLOW, configFileName);
+    		} finally {
+    			leaveLvgDir(cwd);
+    		}
+    	}
+    }
+
+    /**
+     * @return the current working directory to restore with {@link #leaveLvgDir(String)}
+     */
+    private String enterLvgDir() {
+    	String cwd = getCurrentWorkingDirectory();
+    	if (cwd!=null) {
+    		logger.info("cwd = " + cwd);
+    		changeCurrentWorkingDirectory(lvgDir);
+    	}
+    	return cwd;
+    }
+
+    private void leaveLvgDir(String cwd) {
+		// try to change the current working directory back to what it was
+		if (cwd!=null) {
+			changeCurrentWorkingDirectory(cwd);
+		}
     }
 
     private String getCurrentWorkingDirectory() {
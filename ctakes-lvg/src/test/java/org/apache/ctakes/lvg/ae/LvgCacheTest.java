@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.lvg.ae;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LvgCacheTest {
+
+   static private final String CONFIGURATION = "/lvg/data/config/lvg.properties -f:l:b -f:i -SC";
+
+   @Rule
+   public TemporaryFolder _folder = new TemporaryFolder();
+
+   @Test
+   public void testSaveAndLoad() throws IOException {
+      final File file = new File( _folder.getRoot(), "cache/lvg.cache" );
+      final LvgCache cache = new LvgCache( file, CONFIGURATION, 10 );
+      cache.putCanonicalForm( "Coughs", "cough" );
+      cache.putCanonicalForm( "xyzzy", null );
+      cache.putCanonicalForm( "tab\tword", "tab word" );
+      final Map<String, Set<String>> lemmas = new HashMap<>();
+      lemmas.put( "run", new HashSet<>( Arrays.asList( "noun", "verb" ) ) );
+      lemmas.put( "running", new HashSet<>( Arrays.asList( "adj" ) ) );
+      cache.putLemmas( "running", lemmas );
+      cache.save();
+
+      final LvgCache loaded = new LvgCache( file, CONFIGURATION, 10 );
+      assertEquals( "cough", loaded.getCanonicalForm( "Coughs" ) );
+      assertEquals( LvgCache.NO_CANONICAL_FORM, loaded.getCanonicalForm( "xyzzy" ) );
+      assertNull( "Words that cannot be written are not saved", loaded.getCanonicalForm( "tab\tword" ) );
+      assertEquals( lemmas, loaded.getLemmas( "running" ) );
+      assertNull( loaded.getLemmas( "Coughs" ) );
+   }
+
+   @Test
+   public void testOtherConfiguration() {
+      final File file = new File( _folder.getRoot(), "lvg.cache" );
+      final LvgCache cache = new LvgCache( file, CONFIGURATION, 10 );
+      cache.putCanonicalForm( "Coughs", "cough" );
+      cache.save();
+
+      final LvgCache other = new LvgCache( file, CONFIGURATION + " -CR:o", 10 );
+      assertNull( "A file saved with another configuration should not be loaded", other.getCanonicalForm( "Coughs" ) );
+   }
+
+   @Test
+   public void testSharedCaches() {
+      final String path = new File( _folder.getRoot(), "shared.cache" ).getPath();
+      assertSame( LvgCache.getCache( path, CONFIGURATION, 10 ), LvgCache.getCache( path, CONFIGURATION, 10 ) );
+      assertNotSame( LvgCache.getCache( path, CONFIGURATION, 10 ), LvgCache.getCache( path, "other", 10 ) );
+      assertSame( LvgCache.getCache( null, CONFIGURATION, 10 ), LvgCache.getCache( null, CONFIGURATION, 10 ) );
+      assertNotSame( LvgCache.getCache( null, CONFIGURATION, 10 ), LvgCache.getCache( null, "other", 10 ) );
+   }
+
+}
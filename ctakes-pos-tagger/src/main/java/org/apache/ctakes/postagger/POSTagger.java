@@ -50,10 +50,13 @@
 
 package org.apache.ctakes.postagger;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.resource.FileLocator;
@@ -99,6 +102,8 @@ public class POSTagger extends JCasAnnotator_ImplBase {
 	private String posModelPath;
 	private opennlp.tools.postag.POSTaggerME tagger;
 
+	static private final Map<String, POSModel> MODELS = new HashMap<>();
+
 	@Override
 	public void initialize(UimaContext uimaContext)
 			throws ResourceInitializationException {
@@ -106,15 +111,35 @@ public class POSTagger extends JCasAnnotator_ImplBase {
 
 		logger.info("POS tagger model file: " + posModelPath);
 
-		try (InputStream fis = FileLocator.getAsStream(posModelPath)) {
-			POSModel modelFile = new POSModel(fis);
-			tagger = new opennlp.tools.postag.POSTaggerME(modelFile);
+		try {
+			tagger = new opennlp.tools.postag.POSTaggerME(getModel(posModelPath));
 		} catch (Exception e) {
 			logger.info("Error loading POS tagger model: " + posModelPath);
 			throw new ResourceInitializationException(e);
 		}
 	}
 
+	/**
+	 * POSModel is immutable and thread safe, so a single instance is shared by all taggers using the same path.
+	 * POSTaggerME is not thread safe, so each tagger creates its own.
+	 *
+	 * @param modelPath path to the model file
+	 * @return shared model for the path
+	 * @throws IOException if the model could not be read
+	 */
+	static private POSModel getModel(final String modelPath) throws IOException {
+		synchronized (MODELS) {
+			POSModel model = MODELS.get(modelPath);
+			if (model == null) {
+				try (InputStream fis = FileLocator.getAsStream(modelPath)) {
+					model = new POSModel(fis);
+				}
+				MODELS.put(modelPath, model);
+			}
+			return model;
+		}
+	}
+
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
 
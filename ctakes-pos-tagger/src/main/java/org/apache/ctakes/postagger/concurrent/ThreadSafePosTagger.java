@@ -1,6 +1,7 @@
 package org.apache.ctakes.postagger.concurrent;
 
-import org.apache.ctakes.core.concurrent.ThreadSafeWrapper;
+import org.apache.ctakes.core.concurrent.DelegatePool;
+import org.apache.ctakes.core.concurrent.PooledThreadSafeWrapper;
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.postagger.POSTagger;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
@@ -10,6 +11,8 @@ import org.apache.log4j.Logger;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.initialize.ConfigurationParameterInitializer;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.fit.factory.TypePrioritiesFactory;
 import org.apache.uima.fit.factory.TypeSystemDescriptionFactory;
@@ -19,6 +22,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 /**
  * Normally I would use composition and a singleton, but here extension is done for @ConfigurationParameter discovery.
  * Made a singleton mostly for model memory.
+ * The model is shared, but each document is processed by one of a pool of taggers so that threads do not wait on a lock.
  *
  * @author SPF , chip-nlp
  * @version %I%
@@ -32,6 +36,10 @@ import org.apache.uima.resource.ResourceInitializationException;
 )
 final public class ThreadSafePosTagger extends POSTagger {
 
+   @ConfigurationParameter( name = DelegatePool.PARAM_POOL_SIZE, mandatory = false,
+         description = DelegatePool.DESC_POOL_SIZE, defaultValue = "0" )
+   private int _poolSize;
+
    static private final Logger LOGGER = Logger.getLogger( "ThreadSafePosTagger" );
 
    /**
@@ -39,7 +47,8 @@ final public class ThreadSafePosTagger extends POSTagger {
     */
    @Override
    public void initialize( final UimaContext context ) throws ResourceInitializationException {
-      PosSingleton.getInstance().initialize( context );
+      ConfigurationParameterInitializer.initialize( this, context );
+      PosSingleton.getInstance().initialize( context, _poolSize );
    }
 
    /**
@@ -76,40 +85,18 @@ final public class ThreadSafePosTagger extends POSTagger {
    }
 
 
-   private enum PosSingleton implements ThreadSafeWrapper<POSTagger> {
+   private enum PosSingleton implements PooledThreadSafeWrapper<POSTagger> {
       INSTANCE;
 
       static public PosSingleton getInstance() {
          return INSTANCE;
       }
 
-      private final POSTagger _delegate;
-      private boolean _initialized;
-
-      PosSingleton() {
-         _delegate = new POSTagger();
-      }
-
-      final private Object LOCK = new Object();
-
-      @Override
-      public Object getLock() {
-         return LOCK;
-      }
-
-      @Override
-      public POSTagger getDelegate() {
-         return _delegate;
-      }
-
-      @Override
-      public boolean isInitialized() {
-         return _initialized;
-      }
+      private final DelegatePool<POSTagger> _pool = new DelegatePool<>( POSTagger::new );
 
       @Override
-      public void setInitialized( final boolean initialized ) {
-         _initialized = initialized;
+      public DelegatePool<POSTagger> getPool() {
+         return _pool;
       }
    }
 
@@ -65,7 +65,7 @@ public class DependencyParseUtils {
 	 */
 	public static ConllDependencyNode findAnnotationHead(JCas jcas, Annotation annotation) {
 	
-	    for (ConllDependencyNode depNode : JCasUtil.selectCovered(jcas, ConllDependencyNode.class, annotation)) {
+	    for (ConllDependencyNode depNode : DocumentAnnotationIndex.get(jcas).selectCovered(ConllDependencyNode.class, annotation)) {
 	    	
 	    	ConllDependencyNode head = depNode.getHead();
 	    	if (head == null || head.getEnd() <= annotation.getBegin() || head.getBegin() > annotation.getEnd()) {
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae.features;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Spatial lookups over the annotations of one document, shared by the feature
+ * extractors that run on every candidate pair of that document.
+ * <p>
+ * An annotator opens the index at the start of process() and closes it at the
+ * end, e.g. <code>try (DocumentAnnotationIndex index = DocumentAnnotationIndex.open(jCas)) {...}</code>.
+ * While it is open, {@link #get(JCas)} on the same thread returns it, and the
+ * annotations of each type are selected once and kept as arrays sorted by offset,
+ * so that "tokens between A and B" is a binary search and a slice, and covering
+ * maps are built once instead of once per pair. Annotations added to the CAS
+ * while the index is open are not seen.
+ * <p>
+ * Outside of an open index, {@link #get(JCas)} returns an index that simply
+ * delegates to {@link JCasUtil}, so extractors behave the same in any annotator.
+ */
+public final class DocumentAnnotationIndex implements AutoCloseable {
+
+	private static final ThreadLocal<DocumentAnnotationIndex> OPEN_INDEX = new ThreadLocal<>();
+
+	private final JCas jCas;
+	private final boolean cached;
+	private final DocumentAnnotationIndex previous;
+	private int openCount;
+
+	private final Map<Class<? extends Annotation>, TypeIndex<?>> typeIndices = new HashMap<>();
+	private final Map<List<Class<? extends Annotation>>, Map<?, ?>> coveringMaps = new HashMap<>();
+
+	private DocumentAnnotationIndex(JCas jCas, boolean cached, DocumentAnnotationIndex previous) {
+		this.jCas = jCas;
+		this.cached = cached;
+		this.previous = previous;
+		this.openCount = 1;
+	}
+
+	/**
+	 * Open a caching index for the document on the current thread. Opening it
+	 * again for the same document returns the open index; each open must be
+	 * matched by a {@link #close()}.
+	 */
+	public static DocumentAnnotationIndex open(JCas jCas) {
+		DocumentAnnotationIndex current = OPEN_INDEX.get();
+		if (current != null && current.jCas == jCas) {
+			current.openCount++;
+			return current;
+		}
+		DocumentAnnotationIndex index = new DocumentAnnotationIndex(jCas, true, current);
+		OPEN_INDEX.set(index);
+		return index;
+	}
+
+	/**
+	 * @return the index opened for the document on this thread, or one that
+	 *         delegates to {@link JCasUtil} if none is open
+	 */
+	public static DocumentAnnotationIndex get(JCas jCas) {
+		DocumentAnnotationIndex current = OPEN_INDEX.get();
+		if (current != null && current.jCas == jCas) {
+			return current;
+		}
+		return new DocumentAnnotationIndex(jCas, false, null);
+	}
+
+	@Override
+	public void close() {
+		if (!this.cached || --this.openCount > 0) {
+			return;
+		}
+		if (this.previous == null) {
+			OPEN_INDEX.remove();
+		} else {
+			OPEN_INDEX.set(this.previous);
+		}
+		this.typeIndices.clear();
+		this.coveringMaps.clear();
+	}
+
+	/**
+	 * Same as {@link JCasUtil#selectCovered(JCas, Class, int, int)}
+	 */
+	public <T extends Annotation> List<T> selectCovered(Class<T> type, int begin, int end) {
+		if (!this.cached) {
+			return JCasUtil.selectCovered(this.jCas, type, begin, end);
+		}
+		return this.getTypeIndex(type).covered(begin, end, null);
+	}
+
+	/**
+	 * Same as {@link JCasUtil#selectCovered(JCas, Class, org.apache.uima.cas.text.AnnotationFS)}
+	 */
+	public <T extends Annotation> List<T> selectCovered(Class<T> type, Annotation coveringAnnotation) {
+		if (!this.cached) {
+			return JCasUtil.selectCovered(this.jCas, type, coveringAnnotation);
+		}
+		return this.getTypeIndex(type).covered(coveringAnnotation.getBegin(), coveringAnnotation.getEnd(),
+				coveringAnnotation);
+	}
+
+	/**
+	 * Same as {@link JCasUtil#selectBetween(JCas, Class, org.apache.uima.cas.text.AnnotationFS, org.apache.uima.cas.text.AnnotationFS)}
+	 */
+	public <T extends Annotation> List<T> selectBetween(Class<T> type, Annotation ann1, Annotation ann2) {
+		if (!this.cached) {
+			return JCasUtil.selectBetween(this.jCas, type, ann1, ann2);
+		}
+		Annotation left = ann1;
+		Annotation right = ann2;
+		if (left.getBegin() > right.getBegin()) {
+			left = ann2;
+			right = ann1;
+		}
+		return this.getTypeIndex(type).covered(left.getEnd(), right.getBegin(), null);
+	}
+
+	/**
+	 * Same as {@link JCasUtil#indexCovering(JCas, Class, Class)}, built once per
+	 * document while the index is open. The map must not be modified.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Annotation, S extends Annotation> Map<T, Collection<S>> indexCovering(Class<T> type,
+			Class<S> coveringType) {
+		if (!this.cached) {
+			return JCasUtil.indexCovering(this.jCas, type, coveringType);
+		}
+		List<Class<? extends Annotation>> key = Arrays.<Class<? extends Annotation>>asList(type, coveringType);
+		Map<T, Collection<S>> coveringMap = (Map<T, Collection<S>>) this.coveringMaps.get(key);
+		if (coveringMap == null) {
+			coveringMap = JCasUtil.indexCovering(this.jCas, type, coveringType);
+			this.coveringMaps.put(key, coveringMap);
+		}
+		return coveringMap;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends Annotation> TypeIndex<T> getTypeIndex(Class<T> type) {
+		TypeIndex<T> typeIndex = (TypeIndex<T>) this.typeIndices.get(type);
+		if (typeIndex == null) {
+			typeIndex = new TypeIndex<>(new ArrayList<>(JCasUtil.select(this.jCas, type)));
+			this.typeIndices.put(type, typeIndex);
+		}
+		return typeIndex;
+	}
+
+	/**
+	 * Annotations of one type in index order (begin ascending, end descending)
+	 * with their offsets.
+	 */
+	private static final class TypeIndex<T extends Annotation> {
+		private final List<T> annotations;
+		private final int[] begins;
+		private final int[] ends;
+
+		private TypeIndex(List<T> annotations) {
+			this.annotations = annotations;
+			this.begins = new int[annotations.size()];
+			this.ends = new int[annotations.size()];
+			for (int i = 0; i < annotations.size(); i++) {
+				this.begins[i] = annotations.get(i).getBegin();
+				this.ends[i] = annotations.get(i).getEnd();
+			}
+		}
+
+		/**
+		 * @return the annotations that begin at or after begin and end at or before
+		 *         end, except the excluded one, as a slice when possible
+		 */
+		private List<T> covered(int begin, int end, Annotation excluded) {
+			// first annotation that does not begin before begin
+			int low = 0;
+			int high = this.begins.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.begins[mid] < begin) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			int from = low;
+			int to = from;
+			boolean contiguous = true;
+			while (to < this.begins.length && this.begins[to] <= end) {
+				if (this.ends[to] > end || this.annotations.get(to) == excluded) {
+					contiguous = false;
+				}
+				to++;
+			}
+			if (contiguous) {
+				return Collections.unmodifiableList(this.annotations.subList(from, to));
+			}
+			List<T> covered = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				if (this.ends[i] <= end && this.annotations.get(i) != excluded) {
+					covered.add(this.annotations.get(i));
+				}
+			}
+			return covered;
+		}
+	}
+}
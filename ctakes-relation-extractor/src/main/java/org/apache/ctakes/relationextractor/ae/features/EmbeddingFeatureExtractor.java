@@ -27,7 +27,6 @@ import org.apache.ctakes.relationextractor.data.analysis.Utils;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
@@ -82,7 +81,7 @@ public class EmbeddingFeatureExtractor implements RelationFeaturesExtractor<Iden
     features.add(new Feature("arg_cos_sim", similarity));
     
     // words between argument features
-    List<WordToken> wordsBetweenArgs = JCasUtil.selectBetween(jCas, WordToken.class, arg1, arg2);
+    List<WordToken> wordsBetweenArgs = DocumentAnnotationIndex.get(jCas).selectBetween(WordToken.class, arg1, arg2);
     if(wordsBetweenArgs.size() < 1) {
       return features;  
     }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.relationextractor.ae;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
+import org.apache.ctakes.typesystem.type.syntax.BaseToken;
+import org.apache.ctakes.typesystem.type.syntax.WordToken;
+import org.apache.ctakes.typesystem.type.textsem.EntityMention;
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+public class DocumentAnnotationIndexTest {
+
+  @Test
+  public void testSameAsJCasUtil() throws Exception {
+    JCas jCas = JCasFactory.createJCas();
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      text.append("word ");
+    }
+    jCas.setDocumentText(text.toString());
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      new WordToken(jCas, i * 5, i * 5 + 4).addToIndexes();
+    }
+    for (int i = 0; i < 100; i++) {
+      // overlapping, nested and empty mentions
+      int begin = random.nextInt(1000);
+      new EntityMention(jCas, begin, begin + random.nextInt(30)).addToIndexes();
+    }
+    for (int i = 0; i < 10; i++) {
+      new Sentence(jCas, i * 100, i * 100 + 99).addToIndexes();
+    }
+    List<EntityMention> mentions = new ArrayList<>(JCasUtil.select(jCas, EntityMention.class));
+
+    try (DocumentAnnotationIndex index = DocumentAnnotationIndex.open(jCas)) {
+      assertSame(index, DocumentAnnotationIndex.get(jCas));
+      for (int i = 0; i < 500; i++) {
+        int begin = random.nextInt(1000);
+        int end = begin + random.nextInt(100);
+        assertEquals(JCasUtil.selectCovered(jCas, BaseToken.class, begin, end),
+            index.selectCovered(BaseToken.class, begin, end));
+        assertEquals(JCasUtil.selectCovered(jCas, EntityMention.class, begin, end),
+            index.selectCovered(EntityMention.class, begin, end));
+      }
+      for (EntityMention mention : mentions) {
+        assertEquals(JCasUtil.selectCovered(jCas, EntityMention.class, mention),
+            index.selectCovered(EntityMention.class, mention));
+        EntityMention other = mentions.get(random.nextInt(mentions.size()));
+        assertEquals(JCasUtil.selectBetween(jCas, WordToken.class, mention, other),
+            index.selectBetween(WordToken.class, mention, other));
+      }
+      assertEquals(JCasUtil.indexCovering(jCas, EntityMention.class, Sentence.class),
+          index.indexCovering(EntityMention.class, Sentence.class));
+      assertSame(index.indexCovering(EntityMention.class, Sentence.class),
+          index.indexCovering(EntityMention.class, Sentence.class));
+
+      // nested opens share the index until the outermost close
+      DocumentAnnotationIndex.open(jCas).close();
+      assertSame(index, DocumentAnnotationIndex.get(jCas));
+    }
+    assertNotSame(DocumentAnnotationIndex.get(jCas), DocumentAnnotationIndex.get(jCas));
+  }
+}
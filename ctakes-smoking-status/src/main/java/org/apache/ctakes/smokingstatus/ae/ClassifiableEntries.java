@@ -57,9 +57,11 @@ import org.apache.ctakes.smokingstatus.i2b2.type.RecordSentence;
 
 import org.apache.ctakes.smokingstatus.type.SmokingDocumentClassification;
 
+import org.apache.ctakes.core.resource.FileLocator;
 import org.apache.ctakes.core.resource.FileResource;
 import org.apache.ctakes.smokingstatus.Const;
 import org.apache.ctakes.smokingstatus.util.ClassifiableEntry;
+import org.apache.ctakes.smokingstatus.util.KeywordScanner;
 import org.apache.ctakes.smokingstatus.util.TruthValue;
 import org.apache.ctakes.typesystem.type.structured.DocumentID;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
@@ -112,6 +114,14 @@ public class ClassifiableEntries extends JCasAnnotator_ImplBase {
 	 */
 	public static final String PARAM_IGNORE_SECTIONS = "SectionsToIgnore";
 
+	/**
+	 * Name of configuration parameter that must be set to the smoking keyword
+	 * file of the KuRuleBasedClassifierAnnotator.  Sentences without any of
+	 * these keywords are classified as UNKNOWN without running the nested
+	 * descriptors.  This is optional; if not set, every sentence is run.
+	 */
+	public static final String PARAM_SMOKING_WORDS_FILE = "SmokingWordsFile";
+
 	public void initialize(UimaContext aContext)
 			throws ResourceInitializationException {
 		boolean windowsSystem = true;
@@ -174,6 +184,10 @@ public class ClassifiableEntries extends JCasAnnotator_ImplBase {
 			sectionsToIgnore = new HashSet<String>();
 			for (int i = 0; i < sections.length; i++)
 				sectionsToIgnore.add(sections[i]);
+
+			String smokingWordsFileName = (String) getContext().getConfigParameterValue(PARAM_SMOKING_WORDS_FILE);
+			if (smokingWordsFileName != null && smokingWordsFileName.length() > 0)
+				iv_keywordScanner = new KeywordScanner(FileLocator.getFile(smokingWordsFileName));
 		} catch (Exception e) {
 			throw new ResourceInitializationException(e);
 		}
@@ -355,13 +369,24 @@ public class ClassifiableEntries extends JCasAnnotator_ImplBase {
 		try {
 			for (iv_classifiableIdx = 0; iv_classifiableIdx < iv_procEntryList
 					.size(); iv_classifiableIdx++) {
+				// all sentences should be added to one list in iv_entryIndexMap
+				ClassifiableEntry entry = (ClassifiableEntry) iv_procEntryList
+						.get(iv_classifiableIdx);
+
+				/**
+				 * The KU classifier finds a sentence without a smoking keyword
+				 * UNKNOWN, and the resolution keeps that value, so there is no
+				 * need to run the nested descriptors for it.
+				 */
+				if (iv_keywordScanner != null && !iv_keywordScanner.occursIn(entry.iv_text)) {
+					storeAssignedClasses(Const.CLASS_UNKNOWN);
+					continue;
+				}
+
 				jcas_local.reset();
 				// create a new JCas object
 				// jcas_local.setDocumentText(jcas.getDocumentText());
 
-				// all sentences should be added to one list in iv_entryIndexMap
-				ClassifiableEntry entry = (ClassifiableEntry) iv_procEntryList
-						.get(iv_classifiableIdx);
 				// add object to CAS that captures entry data
 				RecordSentence rs = new RecordSentence(jcas_local);
 				rs.setRecordID(entry.iv_recordID);
@@ -653,5 +678,7 @@ public class ClassifiableEntries extends JCasAnnotator_ImplBase {
 	private ResolutionAnnotator ra;
 	private ResourceManager ResMgr;
 	private Set<String> sectionsToIgnore;
+	// finds the sentences that may hold a smoking keyword, null to run all
+	private KeywordScanner iv_keywordScanner;
 
 }
@@ -23,9 +23,11 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,6 +54,17 @@ public class PcsClassifierAnnotator_libsvm extends JCasAnnotator_ImplBase {
 	Map<?, ?> tokenCounts;
 	svm_model model; // trained libsvm model
 
+	// Most sentences share a few feature vectors, and libsvm scores one vector
+	// per call, so each distinct vector is scored once.
+	// key = features with value 1.0, value = predicted class label
+	private static final int MAX_CACHED_PREDICTIONS = 4096;
+	private final Map<BitSet, Double> predictions = new LinkedHashMap<BitSet, Double>(
+			16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry<BitSet, Double> eldest) {
+			return size() > MAX_CACHED_PREDICTIONS;
+		}
+	};
+
 	public void initialize(UimaContext aContext)
 			throws ResourceInitializationException {
 		super.initialize(aContext);
@@ -171,17 +184,7 @@ public class PcsClassifierAnnotator_libsvm extends JCasAnnotator_ImplBase {
 
 		feature.add(new Double(dateInfo));
 
-		// set the libSVM feature vector
-		svm_node[] x = new svm_node[feature.size()];
-		for (int j = 0; j < feature.size(); j++) {
-			x[j] = new svm_node();
-			x[j].index = j + 1;
-			x[j].value = ((Double) feature.get(j)).doubleValue();
-		}
-
-		double clsLabel; // 1:CURRENT_SMOKER, 2:PAST_SMOKER, 3:SMOKER
-		clsLabel = svm.svm_predict(model, x); // predict class label using
-		// libSVM
+		double clsLabel = predict(feature); // 1:CURRENT_SMOKER, 2:PAST_SMOKER, 3:SMOKER
 		String clsVal; // string value
 		if (clsLabel == Const.CLASS_CURR_SMOKER_INT)
 			clsVal = Const.CLASS_CURR_SMOKER;
@@ -201,6 +204,34 @@ public class PcsClassifierAnnotator_libsvm extends JCasAnnotator_ImplBase {
 		nominalAttributeValue.addToIndexes();
 	}
 
+	/**
+	 * Predicts the class label of a feature vector using libSVM.  All features
+	 * are 0.0 or 1.0, so the features set to 1.0 identify the vector.
+	 * 
+	 * @param feature feature values
+	 * @return predicted class label
+	 */
+	private double predict(List<Double> feature) {
+		BitSet key = new BitSet(feature.size());
+		for (int j = 0; j < feature.size(); j++) {
+			if (feature.get(j).doubleValue() == 1.0)
+				key.set(j);
+		}
+		Double clsLabel = predictions.get(key);
+		if (clsLabel == null) {
+			// set the libSVM feature vector
+			svm_node[] x = new svm_node[feature.size()];
+			for (int j = 0; j < feature.size(); j++) {
+				x[j] = new svm_node();
+				x[j].index = j + 1;
+				x[j].value = ((Double) feature.get(j)).doubleValue();
+			}
+			clsLabel = new Double(svm.svm_predict(model, x));
+			predictions.put(key, clsLabel);
+		}
+		return clsLabel.doubleValue();
+	}
+
 	private Set<String> readLinesFromFile(String fileName) throws IOException {
 		Set<String> returnValues = new HashSet<String>();
 		File file = new File(fileName);
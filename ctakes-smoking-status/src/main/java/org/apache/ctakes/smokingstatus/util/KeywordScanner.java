@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.smokingstatus.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Finds whether any keyword of a list occurs in a text, ignoring case.  The
+ * keywords are compiled into a character trie once, and a text is scanned
+ * without creating any strings.
+ * <p>
+ * Used to find the sentences that may hold a smoking keyword.  A word token
+ * that equals a keyword, ignoring case, always makes the scan succeed.  Keywords
+ * that are not plain ascii may lower case to a different length, so any such
+ * keyword makes every text a match.
+ */
+public class KeywordScanner
+{
+    private final Node iv_root = new Node();
+    private boolean iv_matchAll = false;
+
+    /**
+     * @param file keyword file, one keyword per line
+     * @throws IOException if the file cannot be read
+     */
+    public KeywordScanner(File file) throws IOException
+    {
+        BufferedReader fileReader = new BufferedReader(new FileReader(file));
+        try
+        {
+            String line;
+            while ((line = fileReader.readLine()) != null)
+            {
+                addKeyword(line);
+            }
+        } finally
+        {
+            fileReader.close();
+        }
+    }
+
+    /**
+     * @param keywords keywords to look for
+     */
+    public KeywordScanner(Iterable<String> keywords)
+    {
+        for (String keyword : keywords)
+        {
+            addKeyword(keyword);
+        }
+    }
+
+    private void addKeyword(String keyword)
+    {
+        keyword = keyword.trim();
+        if (keyword.length() == 0)
+        {
+            return;
+        }
+        Node node = iv_root;
+        for (int i = 0; i < keyword.length(); i++)
+        {
+            char c = keyword.charAt(i);
+            if (c > 0x7f)
+            {
+                iv_matchAll = true;
+            }
+            node = node.addChild(Character.toLowerCase(c));
+        }
+        node.iv_keywordEnd = true;
+    }
+
+    /**
+     * @param text text to scan
+     * @return true if a keyword occurs in the text, ignoring case
+     */
+    public boolean occursIn(CharSequence text)
+    {
+        if (iv_matchAll)
+        {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++)
+        {
+            Node node = iv_root;
+            for (int j = i; j < text.length(); j++)
+            {
+                node = node.getChild(Character.toLowerCase(text.charAt(j)));
+                if (node == null)
+                {
+                    break;
+                }
+                if (node.iv_keywordEnd)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class Node
+    {
+        // sorted child characters, parallel to iv_children
+        private char[] iv_chars = new char[0];
+        private Node[] iv_children = new Node[0];
+        private boolean iv_keywordEnd = false;
+
+        private Node getChild(char c)
+        {
+            int index = Arrays.binarySearch(iv_chars, c);
+            return index < 0 ? null : iv_children[index];
+        }
+
+        private Node addChild(char c)
+        {
+            int index = Arrays.binarySearch(iv_chars, c);
+            if (index >= 0)
+            {
+                return iv_children[index];
+            }
+            index = -index - 1;
+            char[] chars = new char[iv_chars.length + 1];
+            Node[] children = new Node[iv_children.length + 1];
+            System.arraycopy(iv_chars, 0, chars, 0, index);
+            System.arraycopy(iv_children, 0, children, 0, index);
+            System.arraycopy(iv_chars, index, chars, index + 1, iv_chars.length - index);
+            System.arraycopy(iv_children, index, children, index + 1, iv_children.length - index);
+            chars[index] = c;
+            children[index] = new Node();
+            iv_chars = chars;
+            iv_children = children;
+            return children[index];
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.ae;
+
+import java.util.List;
+
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.CleartkProcessingException;
+import org.cleartk.ml.Feature;
+
+/**
+ * A classifier that can score many instances in one pass, e.g. every candidate
+ * pair of a sentence. {@link TemporalRelationExtractorAnnotator} hands all the
+ * instances of a covering annotation to classifiers that implement this
+ * interface instead of classifying them one at a time, unless the annotator
+ * overrides its own classify method. Only the script (Keras) classifiers
+ * implement it.
+ */
+public interface BatchClassifier<OUTCOME_TYPE> extends Classifier<OUTCOME_TYPE> {
+
+	/**
+	 * @param featureLists
+	 *          the features of each instance
+	 * @return the predicted outcome of each instance, in the same order
+	 */
+	List<OUTCOME_TYPE> classifyAll(List<List<Feature>> featureLists) throws CleartkProcessingException;
+
+}
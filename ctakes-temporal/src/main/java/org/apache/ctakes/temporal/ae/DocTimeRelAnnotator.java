@@ -20,6 +20,7 @@ package org.apache.ctakes.temporal.ae;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.core.util.DotLogger;
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.temporal.ae.feature.*;
 import org.apache.ctakes.temporal.utils.SoftMaxUtil;
 import org.apache.ctakes.typesystem.type.refsem.Event;
@@ -190,79 +191,84 @@ public class DocTimeRelAnnotator extends CleartkAnnotator<String> {
 
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
-		for (EventMention eventMention : JCasUtil.select(jCas, EventMention.class)) {
-			List<Sentence> sents = JCasUtil.selectCovering(jCas, Sentence.class, eventMention);
-			List<Feature> features = new ArrayList<>();
-			if(sents!=null && sents.size()>0){
-				features.addAll(this.contextExtractor.extractWithin(jCas, eventMention, sents.get(0)));
-				features.addAll(this.tokenVectorContext.extractWithin(jCas, eventMention, sents.get(0)));
-				features.addAll(this.tokenVectorContext2.extractWithin(jCas, eventMention, sents.get(0)));
-			}else{
-				features.addAll(this.contextExtractor.extract(jCas, eventMention));
-				features.addAll(this.tokenVectorContext.extract(jCas, eventMention));
-				features.addAll(this.tokenVectorContext2.extract(jCas, eventMention));
-			}
+		DocumentAnnotationIndex index = DocumentAnnotationIndex.open(jCas);
+		try {
+			for (EventMention eventMention : JCasUtil.select(jCas, EventMention.class)) {
+				List<Sentence> sents = JCasUtil.selectCovering(jCas, Sentence.class, eventMention);
+				List<Feature> features = new ArrayList<>();
+				if(sents!=null && sents.size()>0){
+					features.addAll(this.contextExtractor.extractWithin(jCas, eventMention, sents.get(0)));
+					features.addAll(this.tokenVectorContext.extractWithin(jCas, eventMention, sents.get(0)));
+					features.addAll(this.tokenVectorContext2.extractWithin(jCas, eventMention, sents.get(0)));
+				}else{
+					features.addAll(this.contextExtractor.extract(jCas, eventMention));
+					features.addAll(this.tokenVectorContext.extract(jCas, eventMention));
+					features.addAll(this.tokenVectorContext2.extract(jCas, eventMention));
+				}
 
-			features.addAll(this.sectionIDExtractor.extract(jCas, eventMention)); //add section heading
-			features.addAll(this.closestVerbExtractor.extract(jCas, eventMention)); //add closest verb
-			features.addAll(this.timeXExtractor.extract(jCas, eventMention)); //add the closest time expression types
-			features.addAll(this.genericExtractor.extract(jCas, eventMention)); //add the closest time expression types
+				features.addAll(this.sectionIDExtractor.extract(jCas, eventMention)); //add section heading
+				features.addAll(this.closestVerbExtractor.extract(jCas, eventMention)); //add closest verb
+				features.addAll(this.timeXExtractor.extract(jCas, eventMention)); //add the closest time expression types
+				features.addAll(this.genericExtractor.extract(jCas, eventMention)); //add the closest time expression types
 //			features.addAll(this.umlsExtractor.extract(jCas, eventMention)); //add umls features
-			features.addAll(this.verbTensePatternExtractor.extract(jCas, eventMention));//add nearby verb POS pattern feature
+				features.addAll(this.verbTensePatternExtractor.extract(jCas, eventMention));//add nearby verb POS pattern feature
 
-			//    
-			features.addAll(this.dateExtractor.extract(jCas, eventMention)); //add the closest NE type
+				//    
+				features.addAll(this.dateExtractor.extract(jCas, eventMention)); //add the closest NE type
 //			features.addAll(this.durationExtractor.extract(jCas, eventMention)); //add duration feature
 //			features.addAll(this.disSemExtractor.extract(jCas, eventMention)); //add distributional semantic features
-			if (this.isTraining()) {
-				if(eventMention.getEvent() != null){
-					String outcome = eventMention.getEvent().getProperties().getDocTimeRel();
-					this.dataWriter.write(new Instance<>(outcome, features));
-				}
-			} else {
-				//        String outcome = this.classifier.classify(features);
-				Map<String,Double> scores = this.classifier.score(features);
-				Map.Entry<String, Double> maxEntry = null;
-				for( Map.Entry<String, Double> entry: scores.entrySet() ){
-					if(maxEntry == null || entry.getValue().compareTo(maxEntry.getValue()) > 0){
-						maxEntry = entry;
+				if (this.isTraining()) {
+					if(eventMention.getEvent() != null){
+						String outcome = eventMention.getEvent().getProperties().getDocTimeRel();
+						this.dataWriter.write(new Instance<>(outcome, features));
 					}
-				}
-
-				if (probViewname != null){
-					Map<String,Double> probs = SoftMaxUtil.getDistributionFromScores(scores);
-					try {
-						JCas probView = jCas.getView(probViewname);
-						for(String label : probs.keySet()){
-							EventMention mention = new EventMention(probView);
-							mention.setId(eventMention.getId());
-							mention.setConfidence(probs.get(label).floatValue());
-							Event event = new Event(probView);
-							EventProperties props = new EventProperties(probView);
-							props.setDocTimeRel(label);
-							event.setProperties(props);
-							mention.setEvent(event);
-							mention.addToIndexes();
+				} else {
+					//        String outcome = this.classifier.classify(features);
+					Map<String,Double> scores = this.classifier.score(features);
+					Map.Entry<String, Double> maxEntry = null;
+					for( Map.Entry<String, Double> entry: scores.entrySet() ){
+						if(maxEntry == null || entry.getValue().compareTo(maxEntry.getValue()) > 0){
+							maxEntry = entry;
 						}
-					} catch (CASException e) {
-						e.printStackTrace();
-						throw new AnalysisEngineProcessException(e);
 					}
 
-				}
+					if (probViewname != null){
+						Map<String,Double> probs = SoftMaxUtil.getDistributionFromScores(scores);
+						try {
+							JCas probView = jCas.getView(probViewname);
+							for(String label : probs.keySet()){
+								EventMention mention = new EventMention(probView);
+								mention.setId(eventMention.getId());
+								mention.setConfidence(probs.get(label).floatValue());
+								Event event = new Event(probView);
+								EventProperties props = new EventProperties(probView);
+								props.setDocTimeRel(label);
+								event.setProperties(props);
+								mention.setEvent(event);
+								mention.addToIndexes();
+							}
+						} catch (CASException e) {
+							e.printStackTrace();
+							throw new AnalysisEngineProcessException(e);
+						}
 
-				if (eventMention.getEvent() == null) {
-					Event event = new Event(jCas);
-					eventMention.setEvent(event);
-					EventProperties props = new EventProperties(jCas);
-					event.setProperties(props);
-				}
-				if( maxEntry != null){
-					eventMention.getEvent().getProperties().setDocTimeRel(maxEntry.getKey());
-					eventMention.getEvent().setConfidence(maxEntry.getValue().floatValue());
-					//        	System.out.println("event DocTimeRel confidence:"+maxEntry.getValue().floatValue());
+					}
+
+					if (eventMention.getEvent() == null) {
+						Event event = new Event(jCas);
+						eventMention.setEvent(event);
+						EventProperties props = new EventProperties(jCas);
+						event.setProperties(props);
+					}
+					if( maxEntry != null){
+						eventMention.getEvent().getProperties().setDocTimeRel(maxEntry.getKey());
+						eventMention.getEvent().setConfidence(maxEntry.getValue().floatValue());
+						//        	System.out.println("event DocTimeRel confidence:"+maxEntry.getValue().floatValue());
+					}
 				}
 			}
+		} finally {
+			index.close();
 		}
 	}
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ctakes.core.pipeline.PipeBitInfo;
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.temporal.ae.TemporalRelationExtractorAnnotator.IdentifiedAnnotationPair;
 import org.apache.ctakes.typesystem.type.relation.BinaryTextRelation;
 import org.apache.ctakes.typesystem.type.relation.RelationArgument;
@@ -44,98 +45,99 @@ public class EventTimeCNNAnnotator extends CleartkAnnotator<String> {
 
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
+		try (DocumentAnnotationIndex index = DocumentAnnotationIndex.open(jCas)) {
+			Map<EventMention, Collection<EventMention>> coveringMap =
+					index.indexCovering(EventMention.class, EventMention.class);
 		
-		Map<EventMention, Collection<EventMention>> coveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
-		
-		//get all gold relation lookup
-		Map<List<Annotation>, BinaryTextRelation> relationLookup;
-		relationLookup = new HashMap<>();
-		if (this.isTraining()) {
+			//get all gold relation lookup
+			Map<List<Annotation>, BinaryTextRelation> relationLookup;
 			relationLookup = new HashMap<>();
-			for (BinaryTextRelation relation : JCasUtil.select(jCas, BinaryTextRelation.class)) {
-				Annotation arg1 = relation.getArg1().getArgument();
-				Annotation arg2 = relation.getArg2().getArgument();
-				// The key is a list of args so we can do bi-directional lookup
-				List<Annotation> key = Arrays.asList(arg1, arg2);
-				if(relationLookup.containsKey(key)){
-					String reln = relationLookup.get(key).getCategory();
-					System.err.println("Error in: "+ ViewUriUtil.getURI(jCas).toString());
-					System.err.println("Error! This attempted relation " + relation.getCategory() + " already has a relation " + reln + " at this span: " + arg1.getCoveredText() + " -- " + arg2.getCoveredText());
-				}else{
-					relationLookup.put(key, relation);
+			if (this.isTraining()) {
+				relationLookup = new HashMap<>();
+				for (BinaryTextRelation relation : JCasUtil.select(jCas, BinaryTextRelation.class)) {
+					Annotation arg1 = relation.getArg1().getArgument();
+					Annotation arg2 = relation.getArg2().getArgument();
+					// The key is a list of args so we can do bi-directional lookup
+					List<Annotation> key = Arrays.asList(arg1, arg2);
+					if(relationLookup.containsKey(key)){
+						String reln = relationLookup.get(key).getCategory();
+						System.err.println("Error in: "+ ViewUriUtil.getURI(jCas).toString());
+						System.err.println("Error! This attempted relation " + relation.getCategory() + " already has a relation " + reln + " at this span: " + arg1.getCoveredText() + " -- " + arg2.getCoveredText());
+					}else{
+						relationLookup.put(key, relation);
+					}
 				}
 			}
-		}
 
-		// go over sentences, extracting event-time relation instances
-		for(Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
-			// collect all relevant relation arguments from the sentence
-			List<IdentifiedAnnotationPair> candidatePairs =
-					getCandidateRelationArgumentPairs(jCas, sentence);
+			// go over sentences, extracting event-time relation instances
+			for(Sentence sentence : JCasUtil.select(jCas, Sentence.class)) {
+				// collect all relevant relation arguments from the sentence
+				List<IdentifiedAnnotationPair> candidatePairs =
+						getCandidateRelationArgumentPairs(jCas, sentence);
 
-			// walk through the pairs of annotations
-			for (IdentifiedAnnotationPair pair : candidatePairs) {
-				IdentifiedAnnotation arg1 = pair.getArg1();
-				IdentifiedAnnotation arg2 = pair.getArg2();
+				// walk through the pairs of annotations
+				for (IdentifiedAnnotationPair pair : candidatePairs) {
+					IdentifiedAnnotation arg1 = pair.getArg1();
+					IdentifiedAnnotation arg2 = pair.getArg2();
 
-				String context;
-				if(arg2.getBegin() < arg1.getBegin()) {
-					// ... time ... event ... scenario
+					String context;
+					if(arg2.getBegin() < arg1.getBegin()) {
+						// ... time ... event ... scenario
 //					context = eventTimeRelationPrinter.getTokensBetween(jCas, sentence, arg2, "t", arg1, "e", 5); 
-					context = getTokensBetweenExpanded(jCas, sentence, arg2, "t", arg1, "e", 5, coveringMap);
-				} else {
-					// ... event ... time ... scenario
+						context = getTokensBetweenExpanded(jCas, sentence, arg2, "t", arg1, "e", 5, coveringMap);
+					} else {
+						// ... event ... time ... scenario
 //					context = eventTimeRelationPrinter.getTokensBetween(jCas, sentence, arg1, "e", arg2, "t", 5);
-					context = getTokensBetweenExpanded(jCas, sentence, arg1, "e", arg2, "t", 5, coveringMap);
-				}
-
-				//derive features based on context:
-				List<Feature> feats = new ArrayList<>();
-				String[] tokens = context.split(" ");
-				for (String token: tokens){
-					feats.add(new Feature(token.toLowerCase()));
-				}
-
-				// during training, feed the features to the data writer
-				if (this.isTraining()) {
-					String category = getRelationCategory(relationLookup, arg1, arg2);
-					if (category == null) {
-						category = NO_RELATION_CATEGORY;
-					}else{
-						category = category.toLowerCase();
+						context = getTokensBetweenExpanded(jCas, sentence, arg1, "e", arg2, "t", 5, coveringMap);
 					}
-					this.dataWriter.write(new Instance<>(category, feats));
-				}
 
-				// during classification feed the features to the classifier and create annotations
-				else {
-					String predictedCategory = this.classifier.classify(feats);
-
-					// add a relation annotation if a true relation was predicted
-					if (predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
+					//derive features based on context:
+					List<Feature> feats = new ArrayList<>();
+					String[] tokens = context.split(" ");
+					for (String token: tokens){
+						feats.add(new Feature(token.toLowerCase()));
+					}
 
-						// if we predict an inverted relation, reverse the order of the arguments
-						if (predictedCategory.endsWith("-1")) {
-							predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
-							if(arg1 instanceof TimeMention){
-								IdentifiedAnnotation temp = arg1;
-								arg1 = arg2;
-								arg2 = temp;
-							}
+					// during training, feed the features to the data writer
+					if (this.isTraining()) {
+						String category = getRelationCategory(relationLookup, arg1, arg2);
+						if (category == null) {
+							category = NO_RELATION_CATEGORY;
 						}else{
-							if(arg1 instanceof EventMention){
-								IdentifiedAnnotation temp = arg1;
-								arg1 = arg2;
-								arg2 = temp;
-							}
+							category = category.toLowerCase();
 						}
+						this.dataWriter.write(new Instance<>(category, feats));
+					}
 
-						createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
+					// during classification feed the features to the classifier and create annotations
+					else {
+						String predictedCategory = this.classifier.classify(feats);
+
+						// add a relation annotation if a true relation was predicted
+						if (predictedCategory != null && !predictedCategory.equals(NO_RELATION_CATEGORY)) {
+
+							// if we predict an inverted relation, reverse the order of the arguments
+							if (predictedCategory.endsWith("-1")) {
+								predictedCategory = predictedCategory.substring(0, predictedCategory.length() - 2);
+								if(arg1 instanceof TimeMention){
+									IdentifiedAnnotation temp = arg1;
+									arg1 = arg2;
+									arg2 = temp;
+								}
+							}else{
+								if(arg1 instanceof EventMention){
+									IdentifiedAnnotation temp = arg1;
+									arg1 = arg2;
+									arg2 = temp;
+								}
+							}
+
+							createRelation(jCas, arg1, arg2, predictedCategory.toUpperCase(), 0.0);
+						}
 					}
 				}
-			}
 
+			}
 		}
 	}
 
@@ -189,15 +191,15 @@ public class EventTimeCNNAnnotator extends CleartkAnnotator<String> {
 		tokens.add(left.getCoveredText());
 		tokens.add("</" + leftType + ">");
 		if(leftIsExpanded){
-			for(BaseToken baseToken : JCasUtil.selectBetween(jCas, BaseToken.class, longerLeft, right)) {
+			for(BaseToken baseToken : DocumentAnnotationIndex.get(jCas).selectBetween(BaseToken.class, longerLeft, right)) {
 				tokens.add(baseToken.getCoveredText());
 			}
 		}else if(rightIsExpanded){
-			for(BaseToken baseToken : JCasUtil.selectBetween(jCas, BaseToken.class, left, longerRight)) {
+			for(BaseToken baseToken : DocumentAnnotationIndex.get(jCas).selectBetween(BaseToken.class, left, longerRight)) {
 				tokens.add(baseToken.getCoveredText());
 			}
 		}else{
-			for(BaseToken baseToken : JCasUtil.selectBetween(jCas, BaseToken.class, left, right)) {
+			for(BaseToken baseToken : DocumentAnnotationIndex.get(jCas).selectBetween(BaseToken.class, left, right)) {
 				tokens.add(baseToken.getCoveredText());
 			}
 		}
@@ -247,27 +249,27 @@ public class EventTimeCNNAnnotator extends CleartkAnnotator<String> {
 	 * @param arg2
 	 * @return
 	 */
-	//	protected String getRelationCategory(
-	//			Map<List<Annotation>, BinaryTextRelation> relationLookup,
-	//			IdentifiedAnnotation arg1,
-	//			IdentifiedAnnotation arg2) {
-	//		BinaryTextRelation relation = relationLookup.get(Arrays.asList(arg1, arg2));
-	//		String category = null;
-	//		if (relation != null) {
-	//			category = relation.getCategory();
-	//		} else {
-	//			relation = relationLookup.get(Arrays.asList(arg2, arg1));
-	//			if (relation != null) {
-	//				if(relation.getCategory().equals("OVERLAP")){
-	//					category = relation.getCategory();
-	//				}else{
-	//					category = relation.getCategory() + "-1";
-	//				}
-	//			}
-	//		}
+//	protected String getRelationCategory(
+//			Map<List<Annotation>, BinaryTextRelation> relationLookup,
+//			IdentifiedAnnotation arg1,
+//			IdentifiedAnnotation arg2) {
+//		BinaryTextRelation relation = relationLookup.get(Arrays.asList(arg1, arg2));
+//		String category = null;
+//		if (relation != null) {
+//			category = relation.getCategory();
+//		} else {
+//			relation = relationLookup.get(Arrays.asList(arg2, arg1));
+//			if (relation != null) {
+//				if(relation.getCategory().equals("OVERLAP")){
+//					category = relation.getCategory();
+//				}else{
+//					category = relation.getCategory() + "-1";
+//				}
+//			}
+//		}
 	//
-	//		return category;
-	//	}
+//		return category;
+//	}
 
 	/** Dima's way of getting lables
 	 * @param relationLookup
@@ -320,7 +322,7 @@ public class EventTimeCNNAnnotator extends CleartkAnnotator<String> {
 
 	private List<IdentifiedAnnotationPair> getCandidateRelationArgumentPairs(JCas jCas, Sentence sentence) {
 		Map<EventMention, Collection<EventMention>> coveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(EventMention.class, EventMention.class);
 
 		List<IdentifiedAnnotationPair> pairs = Lists.newArrayList();
 		for (EventMention event : JCasUtil.selectCovered(jCas, EventMention.class, sentence)) {
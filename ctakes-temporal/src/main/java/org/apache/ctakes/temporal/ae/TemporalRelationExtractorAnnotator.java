@@ -75,6 +75,9 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 
 	private Class<? extends Annotation> coveringClass = getCoveringClass();
 
+	// a subclass that overrides classify(List) gets it called for every instance
+	private final boolean classifyOverridden = overridesClassify(this.getClass());
+
 	//private ZscoreNormalizationExtractor<String, Annotation> featureTransformExtractor;//for normalization
 
 	//protected static URI minmaxExtractorURI;//for normalization
@@ -167,95 +170,114 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 	 */
 	@Override
 	public void process(JCas jCas) throws AnalysisEngineProcessException {
-
-		// lookup from pair of annotations to binary text relation
-		// note: assumes that there will be at most one relation per pair
-		Map<List<Annotation>, BinaryTextRelation> relationLookup;
-		relationLookup = new HashMap<>();
-		if (this.isTraining()) {
+		DocumentAnnotationIndex index = DocumentAnnotationIndex.open(jCas);
+		try {
+			// lookup from pair of annotations to binary text relation
+			// note: assumes that there will be at most one relation per pair
+			Map<List<Annotation>, BinaryTextRelation> relationLookup;
 			relationLookup = new HashMap<>();
-			for (BinaryTextRelation relation : JCasUtil.select(jCas, this.getRelationClass())) {
-				Annotation arg1 = relation.getArg1().getArgument();
-				Annotation arg2 = relation.getArg2().getArgument();
-				// The key is a list of args so we can do bi-directional lookup
-				List<Annotation> key = Arrays.asList(arg1, arg2);
-				if(relationLookup.containsKey(key)){
-					String reln = relationLookup.get(key).getCategory();
-					System.err.println("Error in: "+ ViewUriUtil.getURI(jCas).toString());
-					System.err.println("Error! This attempted relation " + relation.getCategory() + " already has a relation " + reln + " at this span: " + arg1.getCoveredText() + " -- " + arg2.getCoveredText());
+			if (this.isTraining()) {
+				relationLookup = new HashMap<>();
+				for (BinaryTextRelation relation : JCasUtil.select(jCas, this.getRelationClass())) {
+					Annotation arg1 = relation.getArg1().getArgument();
+					Annotation arg2 = relation.getArg2().getArgument();
+					// The key is a list of args so we can do bi-directional lookup
+					List<Annotation> key = Arrays.asList(arg1, arg2);
+					if(relationLookup.containsKey(key)){
+						String reln = relationLookup.get(key).getCategory();
+						System.err.println("Error in: "+ ViewUriUtil.getURI(jCas).toString());
+						System.err.println("Error! This attempted relation " + relation.getCategory() + " already has a relation " + reln + " at this span: " + arg1.getCoveredText() + " -- " + arg2.getCoveredText());
+					}
+					relationLookup.put(key, relation);
 				}
-				relationLookup.put(key, relation);
 			}
-		}
 
-		// walk through each sentence in the text
-		for (Annotation coveringAnnotation : JCasUtil.select(jCas, coveringClass)) {
-
-			// collect all relevant relation arguments from the sentence
-			List<IdentifiedAnnotationPair> candidatePairs =
-					this.getCandidateRelationArgumentPairs(jCas, coveringAnnotation);
-
-			// walk through the pairs of annotations
-			for (IdentifiedAnnotationPair pair : candidatePairs) {
-				IdentifiedAnnotation arg1 = pair.getArg1();
-				IdentifiedAnnotation arg2 = pair.getArg2();
-				// apply all the feature extractors to extract the list of features
-				List<Feature> features = new ArrayList<>();
-				for (RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> extractor : this.featureExtractors) {
-					List<Feature> feats = extractor.extract(jCas, arg1, arg2);
-					if (feats != null)  features.addAll(feats);
-				}
+			// walk through each sentence in the text
+			for (Annotation coveringAnnotation : JCasUtil.select(jCas, coveringClass)) {
+
+				// collect all relevant relation arguments from the sentence
+				List<IdentifiedAnnotationPair> candidatePairs =
+						this.getCandidateRelationArgumentPairs(jCas, coveringAnnotation);
+
+				// during classification the features of all pairs are collected first
+				// and classified together
+				List<IdentifiedAnnotationPair> classifyPairs = new ArrayList<>();
+				List<List<Feature>> classifyFeatures = new ArrayList<>();
+
+				// walk through the pairs of annotations
+				for (IdentifiedAnnotationPair pair : candidatePairs) {
+					IdentifiedAnnotation arg1 = pair.getArg1();
+					IdentifiedAnnotation arg2 = pair.getArg2();
+					// apply all the feature extractors to extract the list of features
+					List<Feature> features = new ArrayList<>();
+					for (RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> extractor : this.featureExtractors) {
+						List<Feature> feats = extractor.extract(jCas, arg1, arg2);
+						if (feats != null)  features.addAll(feats);
+					}
 
-				// sanity check on feature values
-				//List<Feature> transformedFeatures = new ArrayList<>();//for normalization
-				for (Feature feature : features) {
-					if (feature.getValue() == null) {
-						feature.setValue("NULL");
-						String message = String.format("Null value found in %s from %s", feature, features);
-						System.err.println(message);
-						//            throw new IllegalArgumentException(String.format(message, feature, features));
+					// sanity check on feature values
+					//List<Feature> transformedFeatures = new ArrayList<>();//for normalization
+					for (Feature feature : features) {
+						if (feature.getValue() == null) {
+							feature.setValue("NULL");
+							String message = String.format("Null value found in %s from %s", feature, features);
+							System.err.println(message);
+							//            throw new IllegalArgumentException(String.format(message, feature, features));
+						}
+						/**for normalization
+						//transform feature:
+						Object featureValue = feature.getValue();
+						if (this.featureTransformExtractor != null) {
+							if (featureValue instanceof Number) {
+								transformedFeatures.add(featureTransformExtractor.transform(feature));
+							}else{
+								transformedFeatures.add(feature);
+							}
+						}*/
 					}
+
 					/**for normalization
-					//transform feature:
-					Object featureValue = feature.getValue();
+					//transform features:
 					if (this.featureTransformExtractor != null) {
-						if (featureValue instanceof Number) {
-							transformedFeatures.add(featureTransformExtractor.transform(feature));
-						}else{
-							transformedFeatures.add(feature);
-						}
+						features = transformedFeatures;
 					}*/
-				}
 
-				/**for normalization
-				//transform features:
-				if (this.featureTransformExtractor != null) {
-					features = transformedFeatures;
-				}*/
-
-				// during training, feed the features to the data writer
-				if (this.isTraining()) {
-					String category = this.getRelationCategory(relationLookup, arg1, arg2);
-					if (category == null) {
-						continue;
+					// during training, feed the features to the data writer
+					if (this.isTraining()) {
+						String category = this.getRelationCategory(relationLookup, arg1, arg2);
+						if (category == null) {
+							continue;
+						}
+
+						//populate category_frequency count:
+						if(category_frequency.containsKey(category)){
+							category_frequency.put(category, category_frequency.get(category)+1);
+						}else{
+							category_frequency.put(category, 1);
+						}
+						// create a classification instance and write it to the training data
+						this.dataWriter.write(new Instance<>(category, features));
 					}
 
-					//populate category_frequency count:
-					if(category_frequency.containsKey(category)){
-						category_frequency.put(category, category_frequency.get(category)+1);
-					}else{
-						category_frequency.put(category, 1);
+					// during classification keep the features for the batch
+					else {
+						classifyPairs.add(pair);
+						classifyFeatures.add(features);
 					}
-					// create a classification instance and write it to the training data
-					this.dataWriter.write(new Instance<>(category, features));
+				} // end pair in pairs
+
+				if (classifyPairs.isEmpty()) {
+					continue;
 				}
 
-				// during classification feed the features to the classifier and create
-				// annotations
-				else {
-					String predictedCategory = this.classify(features);
+				// feed the features of all pairs to the classifier and create annotations
+				List<String> predictedCategories = this.classifyAll(classifyFeatures);
+				for (int i = 0; i < classifyPairs.size(); i++) {
+					IdentifiedAnnotation arg1 = classifyPairs.get(i).getArg1();
+					IdentifiedAnnotation arg2 = classifyPairs.get(i).getArg2();
+					String predictedCategory = predictedCategories.get(i);
 					/**
-					Map<String,Double> scores = this.classifier.score(features);
+					Map<String,Double> scores = this.classifier.score(classifyFeatures.get(i));
 
 					Map.Entry<String, Double> maxEntry = null;
 					for( Map.Entry<String, Double> entry: scores.entrySet() ){
@@ -301,9 +323,11 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 
 						createRelation(jCas, arg1, arg2, predictedCategory, 0.0);
 					}
-				}
-			} // end pair in pairs
-		} // end for(Sentence)
+				} // end prediction in predictions
+			} // end for(Sentence)
+		} finally {
+			index.close();
+		}
 	}
 
 	/**
@@ -342,6 +366,48 @@ public abstract class TemporalRelationExtractorAnnotator extends CleartkAnnotato
 		return this.classifier.classify(features);
 	}
 
+	/**
+	 * Predict the outcomes of all candidate pairs of a covering annotation. If
+	 * the <code>classifier</code> is a {@link BatchClassifier} all instances are
+	 * scored in one pass, otherwise each is passed to {@link #classify(List)}.
+	 * Only the script (Keras) classifiers are batch classifiers, ClearTK's
+	 * liblinear and other jar classifiers always classify one instance at a time.
+	 * If a subclass overrides {@link #classify(List)} the override is always
+	 * used, even with a {@link BatchClassifier}.
+	 * 
+	 * @param featureLists
+	 *          The features of each instance.
+	 * @return The predicted outcome (label) of each instance, in order.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<String> classifyAll(List<List<Feature>> featureLists) throws CleartkProcessingException {
+		if (this.classifier instanceof BatchClassifier && !this.classifyOverridden) {
+			return ((BatchClassifier<String>) this.classifier).classifyAll(featureLists);
+		}
+		List<String> predictedCategories = new ArrayList<>(featureLists.size());
+		for (List<Feature> features : featureLists) {
+			predictedCategories.add(this.classify(features));
+		}
+		return predictedCategories;
+	}
+
+	/**
+	 * @return true if the annotator class or a superclass below this one
+	 *         declares its own {@link #classify(List)}
+	 */
+	static boolean overridesClassify(Class<?> annotatorClass) {
+		for (Class<?> c = annotatorClass; c != null
+				&& c != TemporalRelationExtractorAnnotator.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("classify", List.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared by this class, check its superclass
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Create a UIMA relation type based on arguments and the relation label. This
 	 * allows subclasses to create/define their own types: e.g. coreference can
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.TreeMap;
 //import java.util.logging.Logger;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
@@ -53,7 +54,7 @@ public class ClosestVerbExtractor implements FeatureExtractor1 {
 	  
 	  //1 get covering sentence:
 	  Map<EventMention, Collection<Sentence>> coveringMap =
-			  JCasUtil.indexCovering(view, EventMention.class, Sentence.class);
+			  DocumentAnnotationIndex.get(view).indexCovering(EventMention.class, Sentence.class);
 	  EventMention targetTokenAnnotation = (EventMention)annotation;
 	  Collection<Sentence> sentList = coveringMap.get(targetTokenAnnotation);
 	  
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
@@ -31,7 +32,6 @@ import org.apache.ctakes.typesystem.type.textsem.TimeMention;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
-import org.apache.uima.fit.util.JCasUtil;
 
 public class DependencyFeatureExtractor implements
 RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
@@ -52,7 +52,7 @@ RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 		}		
 		//1 get covering ConllDependencyNode:
 		Map<IdentifiedAnnotation, Collection<ConllDependencyNode>> dependencyCoveringMap =
-				JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, ConllDependencyNode.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(IdentifiedAnnotation.class, ConllDependencyNode.class);
 		Collection<ConllDependencyNode> eventDNodeList = dependencyCoveringMap.get(event);
 		Collection<ConllDependencyNode> timeDNodeList = dependencyCoveringMap.get(time);
 		
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.typesystem.type.syntax.ConllDependencyNode;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
@@ -93,7 +94,7 @@ public class DependencyParseUtils {
    */
   public static ConllDependencyNode findAnnotationHead(JCas jcas, Annotation annotation) {
 
-    for (ConllDependencyNode depNode : JCasUtil.selectCovered(jcas, ConllDependencyNode.class, annotation)) {
+    for (ConllDependencyNode depNode : DocumentAnnotationIndex.get(jcas).selectCovered(ConllDependencyNode.class, annotation)) {
 
       ConllDependencyNode head = depNode.getHead();
       if (head == null || head.getHead()==null||head.getEnd() <= annotation.getBegin() || head.getBegin() > annotation.getEnd()) {
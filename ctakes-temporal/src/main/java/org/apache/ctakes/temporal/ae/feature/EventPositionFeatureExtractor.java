@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 //import java.util.logging.Logger;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.ctakes.typesystem.type.textspan.Sentence;
@@ -100,7 +101,7 @@ public class EventPositionFeatureExtractor implements FeatureExtractor1 {
 
 		//get covering segment:
 		Map<EventMention, Collection<Segment>> coveringMap =
-				JCasUtil.indexCovering(view, EventMention.class, Segment.class);
+				DocumentAnnotationIndex.get(view).indexCovering(EventMention.class, Segment.class);
 		EventMention targetTokenAnnotation = (EventMention)annotation;
 		Collection<Segment> segList = coveringMap.get(targetTokenAnnotation);
 
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -59,7 +60,7 @@ public class EventPositionRelationFeaturesExtractor implements RelationFeaturesE
 		
 		//get covering segment:
 		Map<EventMention, Collection<Segment>> coveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, Segment.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(EventMention.class, Segment.class);
 		
 		Collection<EventMention> allevents = JCasUtil.select(jCas, EventMention.class);
 		List<EventMention> eventList = Lists.newArrayList();
@@ -28,9 +28,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.cleartk.ml.Feature;
@@ -116,7 +116,7 @@ public class IdentifiedAnnotationFeatureExtractor implements FeatureExtractor1 {
   public List<Feature> extract(JCas view, Annotation annotation) throws CleartkExtractorException {
 
 	  Map<BaseToken, Collection<IdentifiedAnnotation>> coveringMap =
-			  JCasUtil.indexCovering(view, BaseToken.class, IdentifiedAnnotation.class);
+			  DocumentAnnotationIndex.get(view).indexCovering(BaseToken.class, IdentifiedAnnotation.class);
 
 	  BaseToken targetTokenAnnotation = (BaseToken)annotation;
 
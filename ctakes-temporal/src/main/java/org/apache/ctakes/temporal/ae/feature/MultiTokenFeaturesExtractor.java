@@ -25,6 +25,7 @@ import java.util.Map;
 
 import org.apache.ctakes.constituency.parser.util.AnnotationTreeUtils;
 import org.apache.ctakes.core.util.DocumentIDAnnotationUtil;
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.BaseToken;
 import org.apache.ctakes.typesystem.type.syntax.TerminalTreebankNode;
@@ -119,7 +120,7 @@ public class MultiTokenFeaturesExtractor implements RelationFeaturesExtractor<Id
 		if(!docId.equals(cachedDocID)){
 			// rebuild event-event map
 			cachedDocID = docId;
-			coveringMap = JCasUtil.indexCovering(jCas, EventMention.class, EventMention.class);
+			coveringMap = DocumentAnnotationIndex.get(jCas).indexCovering(EventMention.class, EventMention.class);
 		}
 
 		List<Feature> features = new ArrayList<>();
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
@@ -31,7 +32,6 @@ import org.apache.ctakes.typesystem.type.textspan.Sentence;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
-import org.apache.uima.fit.util.JCasUtil;
 
 public class NearbyVerbTenseRelationExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation>{
 
@@ -52,7 +52,7 @@ public class NearbyVerbTenseRelationExtractor implements RelationFeaturesExtract
 
 		//1 get covering sentence:
 		Map<EventMention, Collection<Sentence>> coveringMap =
-				JCasUtil.indexCovering(jcas, EventMention.class, Sentence.class);
+				DocumentAnnotationIndex.get(jcas).indexCovering(EventMention.class, Sentence.class);
 		
 		Sentence knowSentence = null;
 		String seenVbPattern = null;
@@ -64,7 +64,7 @@ public class NearbyVerbTenseRelationExtractor implements RelationFeaturesExtract
 			if (sentList != null && !sentList.isEmpty()){
 				for(Sentence sent : sentList) {
 					String verbTP ="";
-					for ( WordToken wt : JCasUtil.selectCovered(jcas, WordToken.class, sent)) {
+					for ( WordToken wt : DocumentAnnotationIndex.get(jcas).selectCovered(WordToken.class, sent)) {
 						if (wt != null){
 							String pos = wt.getPartOfSpeech();
 							if (pos.startsWith("VB")){
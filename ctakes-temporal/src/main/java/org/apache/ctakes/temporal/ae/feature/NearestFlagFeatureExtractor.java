@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -61,10 +62,10 @@ RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 		
 		//1 get covering sentence:
 		Map<EventMention, Collection<Sentence>> eventCoveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, Sentence.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(EventMention.class, Sentence.class);
 		Collection<Sentence> eventSentList = eventCoveringMap.get(event);
 		Map<TimeMention, Collection<Sentence>> timeCoveringMap =
-				JCasUtil.indexCovering(jCas, TimeMention.class, Sentence.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(TimeMention.class, Sentence.class);
 		Collection<Sentence> timeSentList = timeCoveringMap.get(time);
 
 		//2 get TimeX
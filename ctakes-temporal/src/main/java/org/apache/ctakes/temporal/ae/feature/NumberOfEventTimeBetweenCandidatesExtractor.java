@@ -21,6 +21,7 @@ package org.apache.ctakes.temporal.ae.feature;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.NewlineToken;
 import org.apache.ctakes.typesystem.type.syntax.NumToken;
@@ -69,10 +70,11 @@ RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 //		int numsInBetween   = 0;
 //		int newlineInBetween= 0;
 		
-		List<EventMention> events = JCasUtil.selectCovered(jCas, EventMention.class, begin, end);
-		List<TimeMention> times   = JCasUtil.selectCovered(jCas, TimeMention.class, begin, end);
-		List<WordToken> words 	  = JCasUtil.selectCovered(jCas, WordToken.class, begin, end);
-		List<PunctuationToken>punc= JCasUtil.selectCovered(jCas, PunctuationToken.class, begin, end);
+		DocumentAnnotationIndex index = DocumentAnnotationIndex.get(jCas);
+		List<EventMention> events = index.selectCovered(EventMention.class, begin, end);
+		List<TimeMention> times   = index.selectCovered(TimeMention.class, begin, end);
+		List<WordToken> words 	  = index.selectCovered(WordToken.class, begin, end);
+		List<PunctuationToken>punc= index.selectCovered(PunctuationToken.class, begin, end);
 //		List<NumToken> numTokens  = JCasUtil.selectCovered(jCas, NumToken.class, begin, end);
 //		List<NewlineToken> newline= JCasUtil.selectCovered(jCas, NewlineToken.class, begin, end);
 		
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -49,7 +50,7 @@ RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 
 		//get the sentence that covers the first argument, suppose arg1 and arg2 are within the same sentence
 		Map<IdentifiedAnnotation, Collection<Sentence>> coveringMap =
-				JCasUtil.indexCovering(jCas, IdentifiedAnnotation.class, Sentence.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(IdentifiedAnnotation.class, Sentence.class);
 		Collection<Sentence> sentList = coveringMap.get(arg1);
 		if (sentList == null && sentList.isEmpty()) return feats;
 
@@ -24,9 +24,9 @@ import java.util.List;
 import java.util.Map;
 //import java.util.logging.Logger;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textspan.Segment;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.cleartk.ml.Feature;
@@ -51,7 +51,7 @@ public class SectionHeaderExtractor implements FeatureExtractor1 {
 
 		//1 get covering sentence:
 		Map<EventMention, Collection<Segment>> coveringMap =
-				JCasUtil.indexCovering(view, EventMention.class, Segment.class);
+				DocumentAnnotationIndex.get(view).indexCovering(EventMention.class, Segment.class);
 		EventMention targetTokenAnnotation = (EventMention)annotation;
 		Collection<Segment> segList = coveringMap.get(targetTokenAnnotation);
 
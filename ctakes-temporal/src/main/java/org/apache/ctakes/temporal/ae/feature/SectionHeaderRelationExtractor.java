@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -30,7 +31,6 @@ import org.apache.ctakes.typesystem.type.textspan.Segment;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
-import org.apache.uima.fit.util.JCasUtil;
 
 import com.google.common.collect.Lists;
 
@@ -57,7 +57,7 @@ public class SectionHeaderRelationExtractor implements RelationFeaturesExtractor
 
 		//get covering segment set:
 		Map<EventMention, Collection<Segment>> coveringMap =
-				JCasUtil.indexCovering(jcas, EventMention.class, Segment.class);
+				DocumentAnnotationIndex.get(jcas).indexCovering(EventMention.class, Segment.class);
 		List<Segment> segListA = Lists.newArrayList();
 		List<Segment> segListB = Lists.newArrayList();
 		if(eventA != null){
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.textsem.EventMention;
 import org.apache.ctakes.typesystem.type.textsem.FractionAnnotation;
@@ -56,7 +57,7 @@ public class SpecialAnnotationRelationExtractor implements RelationFeaturesExtra
 
 		//1 get covering sentence:
 		Map<EventMention, Collection<Sentence>> coveringMap =
-				JCasUtil.indexCovering(jcas, EventMention.class, Sentence.class);
+				DocumentAnnotationIndex.get(jcas).indexCovering(EventMention.class, Sentence.class);
 
 		Sentence sentenceA = getCoveringSentence(eventA, coveringMap);
 		Sentence sentenceB = getCoveringSentence(eventB, coveringMap);
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.WordToken;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
@@ -51,7 +52,7 @@ public class TimeXPropertyRelationFeaturesExtractor implements RelationFeaturesE
 		if(arg2 instanceof TimeMention) times.add((TimeMention)arg2);
 
 		Map<TimeMention, Collection<Sentence>> coveringMap =
-				JCasUtil.indexCovering(jCas, TimeMention.class, Sentence.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(TimeMention.class, Sentence.class);
 
 		for(TimeMention time : times){
 			Collection<Sentence> sentList = coveringMap.get(time);
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.apache.ctakes.relationextractor.ae.features.DocumentAnnotationIndex;
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
 import org.apache.ctakes.typesystem.type.syntax.TreebankNode;
 import org.apache.ctakes.typesystem.type.textsem.DateAnnotation;
@@ -55,7 +56,7 @@ public class TimeXRelationFeaturesExtractor implements RelationFeaturesExtractor
 		if(arg2 instanceof EventMention) events.add((EventMention)arg2);
 
 		Map<EventMention, Collection<Sentence>> coveringMap =
-				JCasUtil.indexCovering(jCas, EventMention.class, Sentence.class);
+				DocumentAnnotationIndex.get(jCas).indexCovering(EventMention.class, Sentence.class);
 
 		for(EventMention event : events){
 			Collection<Sentence> sentList = coveringMap.get(event);
@@ -18,12 +18,10 @@
  */
 package org.apache.ctakes.temporal.ae.feature.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
+import org.apache.ctakes.temporal.duration.DurationDistributionStore;
 import org.apache.ctakes.temporal.duration.Utils;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
@@ -31,32 +29,27 @@ import org.cleartk.ml.Feature;
 import org.cleartk.ml.feature.extractor.CleartkExtractorException;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 public class DurationDistributionFeatureExtractor implements FeatureExtractor1 {
 
   @Override
   public List<Feature> extract(JCas view, Annotation annotation) throws CleartkExtractorException { 
 
     List<Feature> features = new ArrayList<Feature>();
-    File durationLookup = new File(Utils.durationDistributionPath);
     String eventText = annotation.getCoveredText().toLowerCase();
     
-    Map<String, Map<String, Float>> textToDistribution = null;
-    try {
-      textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());
-    } catch(IOException e) {
-      e.printStackTrace();
+    DurationDistributionStore store = DurationDistributionStore.getInstance();
+    if(!store.isLoaded()) {
       return features;
     }
     
-    Map<String, Float> distribution = textToDistribution.get(eventText);
+    float[] distribution = store.getDistribution(eventText);
     if(distribution == null) {
       features.add(new Feature("no_duration_info"));
     } else {
-      for(String timeUnit : distribution.keySet()) {
-        features.add(new Feature("duration_" + timeUnit, distribution.get(timeUnit)));  
+      for(int bin = 0; bin < Utils.bins.length; bin++) {
+        if(!Float.isNaN(distribution[bin])) {
+          features.add(new Feature("duration_" + Utils.bins[bin], distribution[bin]));
+        }
       }
     }
     
@@ -18,22 +18,17 @@
  */
 package org.apache.ctakes.temporal.ae.feature.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
+import org.apache.ctakes.temporal.duration.DurationDistributionStore;
 import org.apache.ctakes.temporal.duration.Utils;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 public class DurationEventEventFeatureExtractor implements RelationFeaturesExtractor<IdentifiedAnnotation,IdentifiedAnnotation> {
 
   @Override
@@ -48,15 +43,12 @@ public class DurationEventEventFeatureExtractor implements RelationFeaturesExtra
     Float expectedDuration1;
     Float expectedDuration2;
     
-    Map<String, Map<String, Float>> textToDistribution = null;
-    try {
-      textToDistribution = Files.readLines(new File(Utils.durationDistributionPath), Charsets.UTF_8, new Utils.Callback());
-    } catch(IOException e) {
-      e.printStackTrace();
+    DurationDistributionStore store = DurationDistributionStore.getInstance();
+    if(!store.isLoaded()) {
       return features;
     }
     
-    Map<String, Float> arg1Distribution = textToDistribution.get(arg1text);
+    float[] arg1Distribution = store.getDistribution(arg1text);
     if(arg1Distribution == null) {
       // this shouldn't happen if relations with no durations for args filtered out
       features.add(new Feature("arg1_no_duration_info"));
@@ -65,7 +57,7 @@ public class DurationEventEventFeatureExtractor implements RelationFeaturesExtra
     
     expectedDuration1 = Utils.expectedDuration(arg1Distribution);
     
-    Map<String, Float> arg2Distribution = textToDistribution.get(arg2text);
+    float[] arg2Distribution = store.getDistribution(arg2text);
     if(arg2Distribution == null) {
       // this shouldn't happen if relations with no durations for args filtered out
       features.add(new Feature("arg2_no_duration_info"));
@@ -18,23 +18,18 @@
  */
 package org.apache.ctakes.temporal.ae.feature.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.ctakes.relationextractor.ae.features.RelationFeaturesExtractor;
+import org.apache.ctakes.temporal.duration.DurationDistributionStore;
 import org.apache.ctakes.temporal.duration.Utils;
 import org.apache.ctakes.typesystem.type.textsem.IdentifiedAnnotation;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
 import org.cleartk.ml.Feature;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 /**
  * Calculate probability that CONTAINS relation can exist between two arguments.
  */
@@ -49,25 +44,23 @@ public class DurationEventTimeFeatureExtractor implements RelationFeaturesExtrac
     String eventText = Utils.normalizeEventText(jCas, arg1); // arg1 is an event
     String timeText = arg2.getCoveredText().toLowerCase();  // arg2 is a time mention
 
-    File durationLookup = new File(Utils.durationDistributionPath);
-    Map<String, Map<String, Float>> textToDistribution = null;
-    try {
-      textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());
-    } catch(IOException e) {
-      e.printStackTrace();
+    DurationDistributionStore store = DurationDistributionStore.getInstance();
+    if(!store.isLoaded()) {
+      return features;
+    }
+    float[] eventDistribution = store.getDistribution(eventText);
+    if(eventDistribution == null) {
       return features;
     }
-    Map<String, Float> eventDistribution = textToDistribution.get(eventText);
 
     HashSet<String> timeUnits = Utils.getTimeUnits(timeText);
     String timeUnit = timeUnits.iterator().next();
     float cumulativeProbability = 0f;
-    for(String bin : Utils.bins) { 
-      if(bin.equals(timeUnit)) {
-        cumulativeProbability = cumulativeProbability + eventDistribution.get(bin); 
+    for(int bin = 0; bin < Utils.bins.length; bin++) { 
+      cumulativeProbability = cumulativeProbability + eventDistribution[bin]; 
+      if(Utils.bins[bin].equals(timeUnit)) {
         break;
       }
-      cumulativeProbability = cumulativeProbability + eventDistribution.get(bin); 
     }
     features.add(new Feature("cumulative_probability", cumulativeProbability));
     
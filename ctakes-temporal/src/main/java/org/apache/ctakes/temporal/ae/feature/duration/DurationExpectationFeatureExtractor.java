@@ -18,12 +18,10 @@
  */
 package org.apache.ctakes.temporal.ae.feature.duration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
+import org.apache.ctakes.temporal.duration.DurationDistributionStore;
 import org.apache.ctakes.temporal.duration.Utils;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.jcas.JCas;
@@ -32,16 +30,12 @@ import org.cleartk.ml.Feature;
 import org.cleartk.ml.feature.extractor.CleartkExtractorException;
 import org.cleartk.ml.feature.extractor.FeatureExtractor1;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 public class DurationExpectationFeatureExtractor implements FeatureExtractor1 {
 
   @Override
   public List<Feature> extract(JCas view, Annotation annotation) throws CleartkExtractorException { 
 
     List<Feature> features = new ArrayList<>();
-    File durationLookup = new File(Utils.durationDistributionPath);
     
     String eventText;
     try {
@@ -51,15 +45,12 @@ public class DurationExpectationFeatureExtractor implements FeatureExtractor1 {
       return features;
     } 
     
-    Map<String, Map<String, Float>> textToDistribution = null;
-    try {
-      textToDistribution = Files.readLines(durationLookup, Charsets.UTF_8, new Utils.Callback());
-    } catch(IOException e) {
-      e.printStackTrace();
+    DurationDistributionStore store = DurationDistributionStore.getInstance();
+    if(!store.isLoaded()) {
       return features;
     }
     
-    Map<String, Float> eventDistribution = textToDistribution.get(eventText);
+    float[] eventDistribution = store.getDistribution(eventText);
     if(eventDistribution == null) {
       features.add(new Feature("no_duration_info"));
       return features;
@@ -68,16 +59,16 @@ public class DurationExpectationFeatureExtractor implements FeatureExtractor1 {
     float expectation = Utils.expectedDuration(eventDistribution);
     features.add(new Feature("expected_duration", expectation));
     
-    for(String bin : Utils.bins) {
-      features.add(new Feature(bin, eventDistribution.get(bin)));
+    for(int bin = 0; bin < Utils.bins.length; bin++) {
+      features.add(new Feature(Utils.bins[bin], eventDistribution[bin]));
     }
 
     String largestBin = null;
     float largestValue = 0f;
-    for(String bin : Utils.bins) {
-      if(eventDistribution.get(bin) > largestValue) {
-        largestBin = bin;
-        largestValue = eventDistribution.get(bin);
+    for(int bin = 0; bin < Utils.bins.length; bin++) {
+      if(eventDistribution[bin] > largestValue) {
+        largestBin = Utils.bins[bin];
+        largestValue = eventDistribution[bin];
       }
     }
     features.add(new Feature("largest_bin_" + largestBin));
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.io.LineProcessor;
+
+/**
+ * Event duration distributions read once from {@link Utils#durationDistributionPath}
+ * and shared by every duration feature extractor in the process.
+ * Each distribution is a float array indexed like {@link Utils#bins}.
+ * A bin that is not listed for an event in the distribution file is NaN.
+ * <p>
+ * The file is loaded on first use.
+ * If it cannot be read the error is logged once and the store is empty.
+ * Safe for concurrent use once loaded.
+ */
+public final class DurationDistributionStore {
+
+  private static final Logger LOGGER = Logger.getLogger("DurationDistributionStore");
+
+  // initialization on demand holder: the jvm loads the file once, on first access
+  private static final class Holder {
+    private static final DurationDistributionStore INSTANCE = load(new File(Utils.durationDistributionPath));
+  }
+
+  /**
+   * @return the store for {@link Utils#durationDistributionPath}, loading it if necessary
+   */
+  public static DurationDistributionStore getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * @param file distribution file, one event per line, e.g. pain, second:0.000, minute:0.005, hour:0.099, ...
+   * @return store for the file, empty if the file cannot be read
+   */
+  static DurationDistributionStore load(final File file) {
+    try {
+      final long start = System.currentTimeMillis();
+      final Map<String, float[]> textToDistribution = Files.readLines(file, Charsets.UTF_8, new Parser());
+      LOGGER.info("Loaded " + textToDistribution.size() + " duration distributions from " + file.getPath()
+          + " in " + (System.currentTimeMillis() - start) + " ms");
+      return new DurationDistributionStore(textToDistribution, true);
+    } catch (IOException ioE) {
+      LOGGER.error("Could not load duration distributions from " + file.getPath() + " : " + ioE.getMessage());
+      return new DurationDistributionStore(new HashMap<String, float[]>(), false);
+    }
+  }
+
+  private final Map<String, float[]> _textToDistribution;
+  private final boolean _loaded;
+
+  private DurationDistributionStore(final Map<String, float[]> textToDistribution, final boolean loaded) {
+    _textToDistribution = textToDistribution;
+    _loaded = loaded;
+  }
+
+  /**
+   * @return false if the distribution file could not be read
+   */
+  public boolean isLoaded() {
+    return _loaded;
+  }
+
+  /**
+   * @param eventText lower case event text
+   * @return probabilities indexed like {@link Utils#bins}, or null if there is no distribution for the event.
+   * The array is shared and must not be modified.
+   */
+  public float[] getDistribution(final String eventText) {
+    return _textToDistribution.get(eventText);
+  }
+
+  public boolean contains(final String eventText) {
+    return _textToDistribution.containsKey(eventText);
+  }
+
+  public int size() {
+    return _textToDistribution.size();
+  }
+
+  /**
+   * @param bin one of {@link Utils#bins}
+   * @return index of the bin in a distribution array, -1 if it is not a bin
+   */
+  public static int getBinIndex(final String bin) {
+    for (int i = 0; i < Utils.bins.length; i++) {
+      if (Utils.bins[i].equals(bin)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+
+  /**
+   * Same line format as {@link Utils.Callback}, parsed straight into bin arrays
+   */
+  private static final class Parser implements LineProcessor<Map<String, float[]>> {
+    private final Map<String, float[]> _textToDistribution = new HashMap<>();
+
+    @Override
+    public boolean processLine(final String line) {
+      final String[] elements = line.split(", ");
+      final float[] distribution = new float[Utils.bins.length];
+      Arrays.fill(distribution, Float.NaN);
+      for (int i = 1; i < elements.length; i++) {
+        final String[] durationAndValue = elements[i].split(":");
+        final int binIndex = getBinIndex(durationAndValue[0]);
+        if (binIndex < 0) {
+          LOGGER.warn("Unknown duration bin " + durationAndValue[0] + " for " + elements[0]);
+          continue;
+        }
+        distribution[binIndex] = Float.parseFloat(durationAndValue[1]);
+      }
+      _textToDistribution.put(elements[0], distribution);
+      return true;
+    }
+
+    @Override
+    public Map<String, float[]> getResult() {
+      return _textToDistribution;
+    }
+  }
+
+}
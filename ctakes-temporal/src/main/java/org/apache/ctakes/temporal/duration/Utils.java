@@ -76,6 +76,10 @@ public class Utils {
   
   // eight bins over which we define a duration distribution
   public static final String[] bins = {"second", "minute", "hour", "day", "week", "month", "year", "decade"};
+
+  // duration of each bin in seconds
+  private static final int[] binSeconds = {1, 60, 60 * 60, 60 * 60 * 24, 60 * 60 * 24 * 7, 60 * 60 * 24 * 30,
+      60 * 60 * 24 * 365, 60 * 60 * 24 * 365 * 10};
   
   /**
    * Extract time unit(s) from a temporal expression 
@@ -236,6 +240,23 @@ public class Utils {
   
     return expectation / timeUnitInSeconds.get("decade");
   }
+
+  /**
+   * Compute expected duration in seconds for a distribution indexed like the bins,
+   * e.g. from {@link DurationDistributionStore}. Bins that are NaN are skipped.
+   * Normalize by number of seconds in a decade.
+   */
+  public static float expectedDuration(float[] distribution) {
+
+    float expectation = 0f;
+    for(int bin = 0; bin < bins.length; bin++) {
+      if(!Float.isNaN(distribution[bin])) {
+        expectation = expectation + (binSeconds[bin] * distribution[bin]);
+      }
+    }
+
+    return expectation / binSeconds[bins.length - 1];
+  }
   
   /**
    * Take a time unit and return a probability distribution
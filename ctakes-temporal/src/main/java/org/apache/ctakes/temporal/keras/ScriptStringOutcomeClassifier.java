@@ -5,9 +5,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
+import org.apache.ctakes.temporal.ae.BatchClassifier;
 import org.apache.uima.UIMAFramework;
 import org.apache.uima.util.Level;
 import org.apache.uima.util.Logger;
@@ -30,7 +32,12 @@ import com.google.common.annotations.Beta;
  * 
  */
 @Beta
-public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<FeatureVector, String, Integer> {
+public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<FeatureVector, String, Integer>
+    implements BatchClassifier<String> {
+  // instances written before reading their predictions, small enough that the
+  // predictions fit in the pipe buffer while the script waits for us to read them
+  private static final int BATCH_SIZE = 256;
+
   File modelDir = null;
   Process classifierProcess = null;
   PrintStream toClassifier = null;
@@ -82,6 +89,34 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     // and then read the standard output prediction, which will be in the string format expected by
     // the annotator.    
 
+    this.toClassifier.println(toLine(features));
+    this.toClassifier.flush();
+    
+    return readPrediction();
+  }
+
+  /**
+   * Write up to {@link #BATCH_SIZE} instances to the classifier process before
+   * reading their predictions, saving a round trip per instance.
+   */
+  @Override
+  public List<String> classifyAll(List<List<Feature>> featureLists)
+      throws CleartkProcessingException {
+    List<String> predictions = new ArrayList<>(featureLists.size());
+    for (int start = 0; start < featureLists.size(); start += BATCH_SIZE) {
+      int end = Math.min(start + BATCH_SIZE, featureLists.size());
+      for (int i = start; i < end; i++) {
+        this.toClassifier.println(toLine(featureLists.get(i)));
+      }
+      this.toClassifier.flush();
+      for (int i = start; i < end; i++) {
+        predictions.add(readPrediction());
+      }
+    }
+    return predictions;
+  }
+
+  private static String toLine(List<Feature> features) {
     StringBuilder buf = new StringBuilder();
     
 //    for (FeatureVector.Entry featureNode : this.featuresEncoder.encodeAll(features)) {
@@ -93,10 +128,10 @@ public abstract class ScriptStringOutcomeClassifier extends Classifier_ImplBase<
     		buf.append(" ");
     	}
     }
+    return buf.toString();
+  }
 
-    this.toClassifier.println(buf);
-    this.toClassifier.flush();
-    
+  private String readPrediction() {
     String line = "";
     String eLine = "";
     try {
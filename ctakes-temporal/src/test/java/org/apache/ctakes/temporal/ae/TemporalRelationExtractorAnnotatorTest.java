@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.ae;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.ctakes.typesystem.type.textspan.Sentence;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.cleartk.ml.Classifier;
+import org.cleartk.ml.CleartkProcessingException;
+import org.cleartk.ml.Feature;
+import org.junit.Test;
+
+public class TemporalRelationExtractorAnnotatorTest {
+
+	@Test
+	public void testBatchedOutcomes() throws CleartkProcessingException {
+		List<List<Feature>> featureLists = createFeatureLists(600);
+		LastValueClassifier classifier = new LastValueClassifier();
+		TestAnnotator annotator = new TestAnnotator(classifier);
+
+		List<String> perInstance = new ArrayList<>();
+		for (List<Feature> features : featureLists) {
+			perInstance.add(annotator.classify(features));
+		}
+		assertEquals(0, classifier.batches);
+
+		assertEquals(perInstance, annotator.classifyAll(featureLists));
+		assertEquals(1, classifier.batches);
+	}
+
+	@Test
+	public void testClassifyOverride() throws CleartkProcessingException {
+		List<List<Feature>> featureLists = createFeatureLists(10);
+		LastValueClassifier classifier = new LastValueClassifier();
+		TestAnnotator annotator = new OverridingAnnotator(classifier);
+
+		assertEquals(Collections.nCopies(10, OverridingAnnotator.OUTCOME), annotator.classifyAll(featureLists));
+		assertEquals(0, classifier.batches);
+	}
+
+	@Test
+	public void testOverridesClassify() {
+		assertFalse(TemporalRelationExtractorAnnotator.overridesClassify(TestAnnotator.class));
+		assertFalse(TemporalRelationExtractorAnnotator.overridesClassify(EventEventRelationAnnotator.class));
+		assertTrue(TemporalRelationExtractorAnnotator.overridesClassify(OverridingAnnotator.class));
+		assertTrue(TemporalRelationExtractorAnnotator.overridesClassify(OverridingAnnotator.Subclass.class));
+	}
+
+	private static List<List<Feature>> createFeatureLists(int count) {
+		Random random = new Random(17);
+		List<List<Feature>> featureLists = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			List<Feature> features = new ArrayList<>();
+			for (int j = random.nextInt(4); j >= 0; j--) {
+				features.add(new Feature("f" + j, "v" + random.nextInt(20)));
+			}
+			featureLists.add(features);
+		}
+		return featureLists;
+	}
+
+	/**
+	 * Predicts the value of the last feature and counts the batches it is given.
+	 */
+	private static class LastValueClassifier implements BatchClassifier<String> {
+		private int batches = 0;
+
+		@Override
+		public String classify(List<Feature> features) {
+			return String.valueOf(features.get(features.size() - 1).getValue());
+		}
+
+		@Override
+		public Map<String, Double> score(List<Feature> features) {
+			Map<String, Double> scores = new HashMap<>();
+			scores.put(this.classify(features), 1.0);
+			return scores;
+		}
+
+		@Override
+		public List<String> classifyAll(List<List<Feature>> featureLists) {
+			this.batches++;
+			List<String> outcomes = new ArrayList<>(featureLists.size());
+			for (List<Feature> features : featureLists) {
+				outcomes.add(this.classify(features));
+			}
+			return outcomes;
+		}
+	}
+
+	private static class TestAnnotator extends TemporalRelationExtractorAnnotator {
+		TestAnnotator(Classifier<String> classifier) {
+			this.classifier = classifier;
+		}
+
+		@Override
+		protected Class<? extends Annotation> getCoveringClass() {
+			return Sentence.class;
+		}
+
+		@Override
+		protected List<IdentifiedAnnotationPair> getCandidateRelationArgumentPairs(
+				JCas identifiedAnnotationView,
+				Annotation coveringAnnotation) {
+			return new ArrayList<>();
+		}
+	}
+
+	private static class OverridingAnnotator extends TestAnnotator {
+		private static final String OUTCOME = "OVERLAP";
+
+		OverridingAnnotator(Classifier<String> classifier) {
+			super(classifier);
+		}
+
+		@Override
+		protected String classify(List<Feature> features) {
+			return OUTCOME;
+		}
+
+		private static class Subclass extends OverridingAnnotator {
+			Subclass(Classifier<String> classifier) {
+				super(classifier);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class DurationDistributionStoreTest {
+
+  private static final String LINES =
+      "pain, second:0.0, minute:0.1, hour:0.2, day:0.3, week:0.2, month:0.1, year:0.1, decade:0.0\n"
+      + "surgery, hour:0.5, day:0.5\n";
+
+  @Test
+  public void testSameAsCallback() throws IOException {
+    File file = File.createTempFile("DurationDistributionStoreTest", ".txt");
+    file.deleteOnExit();
+    Files.write(LINES, file, Charsets.UTF_8);
+
+    DurationDistributionStore store = DurationDistributionStore.load(file);
+    Map<String, Map<String, Float>> textToDistribution = Files.readLines(file, Charsets.UTF_8, new Utils.Callback());
+
+    assertTrue(store.isLoaded());
+    assertEquals(textToDistribution.size(), store.size());
+    for(String eventText : textToDistribution.keySet()) {
+      Map<String, Float> expected = textToDistribution.get(eventText);
+      float[] distribution = store.getDistribution(eventText);
+      for(int bin = 0; bin < Utils.bins.length; bin++) {
+        Float value = expected.get(Utils.bins[bin]);
+        if(value == null) {
+          assertTrue(Float.isNaN(distribution[bin]));
+        } else {
+          assertEquals(value, distribution[bin], 0f);
+        }
+      }
+      assertEquals(Utils.expectedDuration(expected), Utils.expectedDuration(distribution), 1e-6f);
+    }
+    assertNull(store.getDistribution("walk"));
+  }
+
+  @Test
+  public void testMissingFile() {
+    DurationDistributionStore store = DurationDistributionStore.load(new File("no/such/distribution.txt"));
+    assertFalse(store.isLoaded());
+    assertEquals(0, store.size());
+  }
+}
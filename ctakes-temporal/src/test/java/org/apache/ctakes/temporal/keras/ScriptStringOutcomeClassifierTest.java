@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.temporal.keras;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cleartk.ml.CleartkProcessingException;
+import org.cleartk.ml.Feature;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ScriptStringOutcomeClassifierTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Batched predictions, which span several script round trips, must equal
+	 * the predictions made one instance at a time.
+	 */
+	@Test
+	public void testBatchedOutcomes() throws IOException, CleartkProcessingException {
+		assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+		File scriptDir = folder.newFolder("script");
+		File script = new File(scriptDir, "classify.sh");
+		// predicts the last value on each line, an empty line ends the script
+		try (PrintStream out = new PrintStream(script)) {
+			out.print("#!/bin/sh\n"
+					+ "echo \"Using the test backend\" >&2\n"
+					+ "while read line; do\n"
+					+ "  if [ -z \"$line\" ]; then exit 0; fi\n"
+					+ "  echo \"${line##* }\"\n"
+					+ "done\n");
+		}
+		script.setExecutable(true);
+		File modelDir = folder.newFolder("model");
+
+		Random random = new Random(5);
+		List<List<Feature>> featureLists = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			List<Feature> features = new ArrayList<>();
+			for (int j = random.nextInt(4); j >= 0; j--) {
+				features.add(new Feature("f" + j, "v" + random.nextInt(50)));
+			}
+			featureLists.add(features);
+			expected.add((String) features.get(features.size() - 1).getValue());
+		}
+
+		ScriptStringOutcomeClassifier classifier = new KerasStringOutcomeClassifier(null, null, modelDir, scriptDir);
+		List<String> perInstance = new ArrayList<>();
+		for (List<Feature> features : featureLists) {
+			perInstance.add(classifier.classify(features));
+		}
+		assertEquals(expected, perInstance);
+		assertEquals(perInstance, classifier.classifyAll(featureLists));
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.utils.kernel;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A parse tree flattened into integer arrays for the subset tree kernel.
+ * Nodes are numbered in post-order, so every child has a lower index than its parent.
+ * Each node carries the id of its production (its label plus the ordered labels of its children)
+ * as assigned by a shared {@link ProductionIndex}.  A preterminal also carries a second production id
+ * that ignores its word, as two preterminals with the same label always share their top production.
+ * No strings are kept once the tree is encoded.
+ * <p>
+ * Two trees encoded by the same {@link ProductionIndex} are equal if they have the same shape and productions,
+ * so equal trees can share cached values such as kernel normalizers.
+ */
+public final class CompactTree {
+
+   // per node, in post-order
+   final int[] _productions;
+   // -1 for nodes that are not preterminals
+   final int[] _preterminalProductions;
+   final int[] _childStarts;
+   // child node indices of node i are _children[ _childStarts[i] ] .. _children[ _childStarts[i+1] - 1 ]
+   final int[] _children;
+   // node indices ordered by production id
+   final NodeOrder _byProduction;
+   // preterminal node indices ordered by preterminal production id
+   final NodeOrder _byPreterminalProduction;
+   private final int _hashCode;
+
+   CompactTree( final int[] productions, final int[] preterminalProductions, final int[] childStarts,
+                final int[] children ) {
+      _productions = productions;
+      _preterminalProductions = preterminalProductions;
+      _childStarts = childStarts;
+      _children = children;
+      _byProduction = new NodeOrder( productions );
+      _byPreterminalProduction = new NodeOrder( preterminalProductions );
+      _hashCode = 31 * Arrays.hashCode( productions ) + Arrays.hashCode( children );
+   }
+
+   /**
+    * @return number of nodes, including leaves
+    */
+   public int size() {
+      return _productions.length;
+   }
+
+   /**
+    * @return index of the root node, which is last in post-order
+    */
+   public int getRoot() {
+      return _productions.length - 1;
+   }
+
+   public int getChildCount( final int node ) {
+      return _childStarts[ node + 1 ] - _childStarts[ node ];
+   }
+
+   public int getChild( final int node, final int index ) {
+      return _children[ _childStarts[ node ] + index ];
+   }
+
+   public int getProduction( final int node ) {
+      return _productions[ node ];
+   }
+
+   /**
+    * @return true if the node has a single child and that child is a leaf
+    */
+   public boolean isPreterminal( final int node ) {
+      return _preterminalProductions[ node ] >= 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean equals( final Object other ) {
+      if ( other == this ) {
+         return true;
+      }
+      if ( !(other instanceof CompactTree) ) {
+         return false;
+      }
+      final CompactTree tree = (CompactTree)other;
+      // preterminal productions follow from the productions
+      return _hashCode == tree._hashCode
+             && Arrays.equals( _productions, tree._productions )
+             && Arrays.equals( _childStarts, tree._childStarts )
+             && Arrays.equals( _children, tree._children );
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int hashCode() {
+      return _hashCode;
+   }
+
+   /**
+    * Node indices sorted by some per-node id, skipping nodes whose id is negative.
+    */
+   static final class NodeOrder {
+      final int[] _nodes;
+      final int[] _ids;
+
+      private NodeOrder( final int[] nodeIds ) {
+         final Integer[] order = new Integer[ nodeIds.length ];
+         int count = 0;
+         for ( int i = 0; i < nodeIds.length; i++ ) {
+            if ( nodeIds[ i ] >= 0 ) {
+               order[ count++ ] = i;
+            }
+         }
+         Arrays.sort( order, 0, count, Comparator.comparingInt( i -> nodeIds[ i ] ) );
+         _nodes = new int[ count ];
+         _ids = new int[ count ];
+         for ( int i = 0; i < count; i++ ) {
+            _nodes[ i ] = order[ i ];
+            _ids[ i ] = nodeIds[ order[ i ] ];
+         }
+      }
+
+      /**
+       * @param id some id
+       * @return position of the first node with the id, or -1 if no node has it
+       */
+      int first( final int id ) {
+         int low = 0;
+         int high = _ids.length;
+         while ( low < high ) {
+            final int mid = (low + high) >>> 1;
+            if ( _ids[ mid ] < id ) {
+               low = mid + 1;
+            } else {
+               high = mid;
+            }
+         }
+         return low < _ids.length && _ids[ low ] == id ? low : -1;
+      }
+   }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.utils.kernel;
+
+import org.apache.ctakes.utils.tree.SimpleTree;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subset tree kernel (Collins and Duffy) computed with the fast tree kernel algorithm (Moschitti):
+ * only node pairs with equal productions are visited, found through the production-sorted node order
+ * of each {@link CompactTree}, and the number of common subtrees of each pair is kept in a dynamic
+ * programming table so that it is computed once.
+ * As in {@code TreeKernel}, two preterminals with the same label count as a common subtree whatever their words.
+ * <p>
+ * {@link #eval(Object, Object)} accepts {@link CompactTree}s encoded by {@link #getProductionIndex()},
+ * {@link SimpleTree}s, or bracketed tree strings as produced by the relation and temporal tree features.
+ * Normalization values are cached per distinct tree, so equal trees built from different objects share one value.
+ */
+public class FastTreeKernel extends Kernel {
+
+   static private final ThreadLocal<double[]> DELTA_TABLE = ThreadLocal.withInitial( () -> new double[ 0 ] );
+
+   private final double _lambdaSquared;
+   private final boolean _normalize;
+   private final ProductionIndex _productionIndex;
+   private final ConcurrentHashMap<CompactTree, Double> _normalizers = new ConcurrentHashMap<>();
+
+   public FastTreeKernel() {
+      this( 0.4, false );
+   }
+
+   public FastTreeKernel( final double lambda, final boolean normalize ) {
+      this( lambda, normalize, new ProductionIndex() );
+   }
+
+   public FastTreeKernel( final double lambda, final boolean normalize, final ProductionIndex productionIndex ) {
+      _lambdaSquared = lambda * lambda;
+      _normalize = normalize;
+      _productionIndex = productionIndex;
+   }
+
+   /**
+    * @return the index used to encode trees passed to this kernel
+    */
+   public ProductionIndex getProductionIndex() {
+      return _productionIndex;
+   }
+
+   public double eval( final Object o1, final Object o2 ) {
+      final CompactTree tree1 = toCompactTree( o1 );
+      final CompactTree tree2 = o2 == o1 ? tree1 : toCompactTree( o2 );
+      final double sim = sim( tree1, tree2, _lambdaSquared );
+      if ( !_normalize ) {
+         return sim;
+      }
+      return sim / Math.sqrt( getNormalizer( tree1 ) * getNormalizer( tree2 ) );
+   }
+
+   private double getNormalizer( final CompactTree tree ) {
+      return _normalizers.computeIfAbsent( tree, t -> sim( t, t, _lambdaSquared ) );
+   }
+
+   private CompactTree toCompactTree( final Object o ) {
+      if ( o instanceof CompactTree ) {
+         return (CompactTree)o;
+      } else if ( o instanceof SimpleTree ) {
+         return _productionIndex.encode( (SimpleTree)o );
+      } else if ( o instanceof String ) {
+         return _productionIndex.encode( SimpleTree.fromString( (String)o ) );
+      }
+      throw new IllegalArgumentException( "Cannot compute a tree kernel for " + o );
+   }
+
+   /**
+    * @param tree1         some tree
+    * @param tree2         another tree encoded by the same {@link ProductionIndex}
+    * @param lambdaSquared squared decay factor
+    * @return the sum over all node pairs of the weighted number of common subtrees rooted at the pair
+    */
+   static public double sim( final CompactTree tree1, final CompactTree tree2, final double lambdaSquared ) {
+      final int size2 = tree2.size();
+      final double[] deltas = getDeltaTable( tree1.size() * size2 );
+      final CompactTree.NodeOrder byProduction = tree2._byProduction;
+      final CompactTree.NodeOrder byPreterminal = tree2._byPreterminalProduction;
+      // Nodes are visited in post-order of tree1, so the pairs of children are always filled before their parents.
+      // Only matching pairs are ever written or read, so the table does not need to be cleared.
+      double sim = 0;
+      for ( int n1 = 0; n1 < tree1.size(); n1++ ) {
+         final int production = tree1._productions[ n1 ];
+         if ( tree1.isPreterminal( n1 ) ) {
+            // a preterminal shares exactly its top production with any node of the same production
+            // and with any other preterminal of the same label
+            for ( int i = byProduction.first( production );
+                  i >= 0 && i < byProduction._nodes.length && byProduction._ids[ i ] == production; i++ ) {
+               deltas[ n1 * size2 + byProduction._nodes[ i ] ] = lambdaSquared;
+               sim += lambdaSquared;
+            }
+            final int preterminal = tree1._preterminalProductions[ n1 ];
+            for ( int i = byPreterminal.first( preterminal );
+                  i >= 0 && i < byPreterminal._nodes.length && byPreterminal._ids[ i ] == preterminal; i++ ) {
+               final int n2 = byPreterminal._nodes[ i ];
+               if ( tree2._productions[ n2 ] != production ) {
+                  deltas[ n1 * size2 + n2 ] = lambdaSquared;
+                  sim += lambdaSquared;
+               }
+            }
+            continue;
+         }
+         final int childCount = tree1.getChildCount( n1 );
+         for ( int i = byProduction.first( production );
+               i >= 0 && i < byProduction._nodes.length && byProduction._ids[ i ] == production; i++ ) {
+            final int n2 = byProduction._nodes[ i ];
+            double delta = lambdaSquared;
+            if ( !tree2.isPreterminal( n2 ) ) {
+               for ( int c = 0; c < childCount; c++ ) {
+                  final int child1 = tree1.getChild( n1, c );
+                  final int child2 = tree2.getChild( n2, c );
+                  if ( isMatch( tree1, child1, tree2, child2 ) ) {
+                     delta *= 1 + deltas[ child1 * size2 + child2 ];
+                  }
+               }
+            }
+            deltas[ n1 * size2 + n2 ] = delta;
+            sim += delta;
+         }
+      }
+      return sim;
+   }
+
+   static private boolean isMatch( final CompactTree tree1, final int node1, final CompactTree tree2, final int node2 ) {
+      return tree1._productions[ node1 ] == tree2._productions[ node2 ]
+             || (tree1.isPreterminal( node1 )
+                 && tree1._preterminalProductions[ node1 ] == tree2._preterminalProductions[ node2 ]);
+   }
+
+   static private double[] getDeltaTable( final int size ) {
+      double[] deltas = DELTA_TABLE.get();
+      if ( deltas.length < size ) {
+         deltas = new double[ size ];
+         DELTA_TABLE.set( deltas );
+      }
+      return deltas;
+   }
+
+}
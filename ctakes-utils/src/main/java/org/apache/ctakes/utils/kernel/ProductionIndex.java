@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.utils.kernel;
+
+import org.apache.ctakes.utils.tree.SimpleTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns integer ids to node labels and to productions, and encodes trees as {@link CompactTree}s.
+ * Trees that are compared with each other must be encoded by the same index.
+ * Safe for use by multiple threads.
+ */
+public final class ProductionIndex {
+
+   /**
+    * Read access to the nodes of some tree implementation.
+    *
+    * @param <T> node type
+    */
+   public interface NodeAccess<T> {
+      String getLabel( T node );
+
+      int getChildCount( T node );
+
+      T getChild( T node, int index );
+   }
+
+   static private final NodeAccess<SimpleTree> SIMPLE_TREE_ACCESS = new NodeAccess<SimpleTree>() {
+      @Override
+      public String getLabel( final SimpleTree node ) {
+         return node.cat;
+      }
+
+      @Override
+      public int getChildCount( final SimpleTree node ) {
+         return node.isLeaf() ? 0 : node.children.size();
+      }
+
+      @Override
+      public SimpleTree getChild( final SimpleTree node, final int index ) {
+         return node.children.get( index );
+      }
+   };
+
+   // stands in for the child label in the production of a preterminal; label ids are never negative
+   static private final int PRETERMINAL = -1;
+
+   private final Map<String, Integer> _labelIds = new ConcurrentHashMap<>();
+   private final Map<ProductionKey, Integer> _productionIds = new ConcurrentHashMap<>();
+   private final AtomicInteger _nextLabelId = new AtomicInteger();
+   private final AtomicInteger _nextProductionId = new AtomicInteger();
+
+   public CompactTree encode( final SimpleTree root ) {
+      return encode( root, SIMPLE_TREE_ACCESS );
+   }
+
+   public <T> CompactTree encode( final T root, final NodeAccess<T> access ) {
+      final List<T> postOrder = new ArrayList<>();
+      addPostOrder( root, access, postOrder );
+      final int size = postOrder.size();
+      final int[] labels = new int[ size ];
+      final int[] productions = new int[ size ];
+      final int[] preterminalProductions = new int[ size ];
+      final int[] childStarts = new int[ size + 1 ];
+      final int[] children = new int[ Math.max( 0, size - 1 ) ];
+      // a node's children are the closest preceding subtrees in post-order, so walk them back from the node
+      final int[] subtreeSizes = new int[ size ];
+      int childCount = 0;
+      for ( int i = 0; i < size; i++ ) {
+         final T node = postOrder.get( i );
+         labels[ i ] = getLabelId( access.getLabel( node ) );
+         final int count = access.getChildCount( node );
+         childStarts[ i ] = childCount;
+         final int[] key = new int[ count + 1 ];
+         key[ 0 ] = labels[ i ];
+         int subtreeSize = 1;
+         int child = i - 1;
+         for ( int c = count - 1; c >= 0; c-- ) {
+            children[ childCount + c ] = child;
+            key[ c + 1 ] = labels[ child ];
+            subtreeSize += subtreeSizes[ child ];
+            child -= subtreeSizes[ child ];
+         }
+         subtreeSizes[ i ] = subtreeSize;
+         childCount += count;
+         productions[ i ] = getProductionId( key );
+         // two preterminals with the same label have the same top production whatever their words
+         preterminalProductions[ i ] = count == 1 && subtreeSizes[ i - 1 ] == 1
+                                       ? getProductionId( new int[] { labels[ i ], PRETERMINAL } )
+                                       : -1;
+      }
+      childStarts[ size ] = childCount;
+      return new CompactTree( productions, preterminalProductions, childStarts, children );
+   }
+
+   private int getLabelId( final String label ) {
+      return _labelIds.computeIfAbsent( label, l -> _nextLabelId.getAndIncrement() );
+   }
+
+   private int getProductionId( final int[] key ) {
+      return _productionIds.computeIfAbsent( new ProductionKey( key ), k -> _nextProductionId.getAndIncrement() );
+   }
+
+   static private <T> void addPostOrder( final T node, final NodeAccess<T> access, final List<T> postOrder ) {
+      final int count = access.getChildCount( node );
+      for ( int i = 0; i < count; i++ ) {
+         addPostOrder( access.getChild( node, i ), access, postOrder );
+      }
+      postOrder.add( node );
+   }
+
+   static private final class ProductionKey {
+      private final int[] _labels;
+      private final int _hashCode;
+
+      private ProductionKey( final int[] labels ) {
+         _labels = labels;
+         _hashCode = Arrays.hashCode( labels );
+      }
+
+      @Override
+      public int hashCode() {
+         return _hashCode;
+      }
+
+      @Override
+      public boolean equals( final Object other ) {
+         return other instanceof ProductionKey && Arrays.equals( _labels, ((ProductionKey)other)._labels );
+      }
+   }
+
+}
@@ -32,6 +32,7 @@ import org.apache.ctakes.core.pipeline.PipeBitInfo;
 import org.apache.ctakes.ytex.uima.ApplicationContextHolder;
 import org.apache.ctakes.ytex.uima.mapper.DocumentMapperService;
 import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.analysis_component.JCasAnnotator_ImplBase;
 import org.apache.uima.cas.impl.XmiCasSerializer;
 import org.apache.uima.jcas.JCas;
@@ -148,4 +149,18 @@ public class DBConsumer extends JCasAnnotator_ImplBase {
 		}
 	}
 
+	/**
+	 * wait for queued documents to be written
+	 */
+	@Override
+	public void collectionProcessComplete()
+			throws AnalysisEngineProcessException {
+		super.collectionProcessComplete();
+		try {
+			documentMapperService.flush();
+		} catch (RuntimeException e) {
+			throw new AnalysisEngineProcessException(e);
+		}
+	}
+
 }
@@ -36,4 +36,12 @@ public interface DocumentMapperService {
 			boolean bStoreDocText, boolean bStoreCAS,
 			boolean bInsertAnnotationContainmentLinks, Set<String> typesToIgnore);
 
+	/**
+	 * Wait until all documents passed to saveDocument have been written.
+	 * 
+	 * @throws RuntimeException
+	 *             if a document could not be written
+	 */
+	public abstract void flush();
+
 }
\ No newline at end of file
@@ -35,11 +35,14 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.zip.GZIPOutputStream;
 
 import javax.sql.DataSource;
@@ -68,10 +71,15 @@ import org.apache.uima.jcas.cas.TOP;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.util.XMLSerializer;
 import org.hibernate.Query;
+import org.hibernate.ReplicationMode;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.jdbc.Work;
 import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -99,7 +107,7 @@ import com.google.common.collect.SetMultimap;
  * 
  */
 public class DocumentMapperServiceImpl implements DocumentMapperService,
-		InitializingBean {
+		InitializingBean, DisposableBean {
 	/**
 	 * holder for FeatureStruct attributes
 	 * 
@@ -209,6 +217,7 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	}
 	private Set<AnnoMappingInfo> annoMappingInfos;
 	private int batchSize = 100;
+	private int commitDocumentCount = 100;
 	private DataSource dataSource;
 	private String dbSchema;
 	private String dbType;
@@ -222,6 +231,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	private JdbcTemplate jdbcTemplate;
 
 	private Map<String, AnnoMappingInfo> mapAnnoMappingInfo = new HashMap<String, AnnoMappingInfo>();
+	/**
+	 * number of documents queued or being written by the writer
+	 */
+	private int pendingDocumentCount = 0;
 	private SessionFactory sessionFactory;
 
 	private ThreadLocal<Map<String, AnnoMappingInfo>> tl_mapAnnoMappingInfo = new ThreadLocal<Map<String, AnnoMappingInfo>>() {
@@ -243,8 +256,19 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		}
 
 	};
+	/**
+	 * document being saved by the current thread when writes are queued
+	 */
+	private ThreadLocal<PendingDocument> tl_pendingDocument = new ThreadLocal<PendingDocument>();
 	private PlatformTransactionManager transactionManager;
 	private Map<String, UimaType> uimaTypeMap = new HashMap<String, UimaType>();
+	/**
+	 * first error of the writer, after which queued documents are discarded
+	 */
+	private volatile RuntimeException writeFailure;
+	private BlockingQueue<PendingDocument> writeQueue;
+	private int writeQueueSize = 0;
+	private Thread writerThread;
 	private Properties ytexProperties;
 
 	private void addAnnoLinks(JCas jcas,
@@ -371,6 +395,35 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 				return null;
 			}
 		});
+		if (writeQueueSize > 0)
+			startWriter();
+	}
+
+	/**
+	 * create the write queue and start the writer thread
+	 */
+	void startWriter() {
+		writeQueue = new ArrayBlockingQueue<PendingDocument>(writeQueueSize);
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeQueuedDocuments();
+			}
+		}, "DocumentMapperService writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * transaction in which a document, or a batch of queued documents, is
+	 * saved
+	 */
+	private DefaultTransactionDefinition createSaveTxDef() {
+		final DefaultTransactionDefinition txDef = new DefaultTransactionDefinition(
+				TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		txDef.setIsolationLevel("orcl".equals(this.dbType) ? TransactionDefinition.ISOLATION_READ_COMMITTED
+				: TransactionDefinition.ISOLATION_READ_UNCOMMITTED);
+		return txDef;
 	}
 
 	private Document createDocument(JCas jcas, String analysisBatch,
@@ -465,6 +518,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return batchSize;
 	}
 
+	public int getCommitDocumentCount() {
+		return commitDocumentCount;
+	}
+
 	public DataSource getDataSource() {
 		return jdbcTemplate.getDataSource();
 	}
@@ -520,6 +577,10 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return transactionManager;
 	}
 
+	public int getWriteQueueSize() {
+		return writeQueueSize;
+	}
+
 	public Properties getYtexProperties() {
 		return ytexProperties;
 	}
@@ -861,6 +922,9 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		List<Annotation> listAnno = new ArrayList<Annotation>(annoIdx.size());
 		Map<Annotation, DocumentAnnotation> mapAnnoToHib = new HashMap<Annotation, DocumentAnnotation>();
 		FSIterator<Annotation> annoIterator = annoIdx.iterator();
+		PendingDocument pending = tl_pendingDocument.get();
+		String annoBaseSql = "insert into " + getTablePrefix()
+				+ "anno_base (anno_base_id, document_id, span_begin, span_end, uima_type_id) values (?, ?, ?, ?, ?)";
 		int count = 0;
 		// iterate over annotations and save them
 		while (annoIterator.hasNext()) {
@@ -875,14 +939,25 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 				hibAnno.setBegin(anno.getBegin());
 				hibAnno.setEnd(anno.getEnd());
 				hibAnno.setUimaType(uimaTypeMap.get(annoClass));
-				sessionFactory.getCurrentSession().save(hibAnno);
-				if (++count % batchSize == 0)
-					sessionFactory.getCurrentSession().flush();
-				doc.getDocumentAnnotations().add(hibAnno);
+				if (pending != null) {
+					// allocate the id now, the writer inserts the row later
+					hibAnno.setDocumentAnnotationID(generateId(hibAnno));
+					recordUpdate(pending, annoBaseSql, Arrays.<Object> asList(
+							hibAnno.getDocumentAnnotationID(),
+							doc.getDocumentID(), anno.getBegin(),
+							anno.getEnd(), hibAnno.getUimaType()
+									.getUimaTypeID()));
+				} else {
+					sessionFactory.getCurrentSession().save(hibAnno);
+					if (++count % batchSize == 0)
+						sessionFactory.getCurrentSession().flush();
+					doc.getDocumentAnnotations().add(hibAnno);
+				}
 				mapAnnoToHib.put(anno, hibAnno);
 			}
 		}
-		sessionFactory.getCurrentSession().flush();
+		if (pending == null)
+			sessionFactory.getCurrentSession().flush();
 		BiMap<Annotation, Integer> mapAnnoToId = HashBiMap.create();
 		for (Map.Entry<Annotation, DocumentAnnotation> e : mapAnnoToHib
 				.entrySet()) {
@@ -1069,7 +1144,8 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	 * for the list l, perform l.size()/batchSize batch updates. Avoid mysql
 	 * packet too large exceptions with large batch updates. Call spring
 	 * jdbcTemplate.batchUpdate internally with sublists of l with size
-	 * batchSize.
+	 * batchSize. If the current thread is saving a queued document, the rows
+	 * are recorded for the writer instead.
 	 * 
 	 * @param sql
 	 * @param l
@@ -1077,6 +1153,17 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 	 */
 	private <T> void chunkedBatchUpdate(String sql, List<T> l,
 			final ChunkPreparedStatementSetter<T> cpss) {
+		PendingDocument pending = tl_pendingDocument.get();
+		if (pending != null) {
+			try {
+				for (int i = 0; i < l.size(); i++) {
+					cpss.setValues(pending.recordRow(sql), i, l.get(i));
+				}
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+			return;
+		}
 		int chunks = (int) Math.ceil((double) l.size()
 				/ (double) this.batchSize);
 		for (int i = 0; i < chunks; i++) {
@@ -1288,7 +1375,9 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 			log.trace("begin saveAnnotationsHib");
 		BiMap<Annotation, Integer> mapAnnoToId = saveAnnoBaseHib(jcas,
 				setTypesToIgnore, doc);
-		if (bInsertAnnotationContainmentLinks)
+		// queued documents get their links from the writer
+		if (bInsertAnnotationContainmentLinks
+				&& tl_pendingDocument.get() == null)
 			insertAnnotationContainmentLinks(doc.getDocumentID());
 		// split the annotations up by type
 		// create a map of class name to anno id
@@ -1381,10 +1470,48 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 			if (log.isDebugEnabled()) {
 				log.debug(sql);
 			}
-			jdbcTemplate.update(sql, args.toArray());
+			PendingDocument pending = tl_pendingDocument.get();
+			if (pending != null)
+				recordUpdate(pending, sql, args);
+			else
+				jdbcTemplate.update(sql, args.toArray());
+		}
+	}
+
+	/**
+	 * record a row of an update for the writer
+	 * 
+	 * @param pending
+	 * @param sql
+	 * @param args
+	 */
+	private void recordUpdate(PendingDocument pending, String sql,
+			List<Object> args) {
+		PreparedStatement ps = pending.recordRow(sql);
+		try {
+			for (int i = 0; i < args.size(); i++) {
+				ps.setObject(i + 1, args.get(i));
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * allocate an id from the entity's hibernate id generator without saving
+	 * the entity
+	 * 
+	 * @param entity
+	 * @return id
+	 */
+	private int generateId(Object entity) {
+		SessionImplementor session = (SessionImplementor) sessionFactory
+				.getCurrentSession();
+		return ((Number) ((SessionFactoryImplementor) sessionFactory)
+				.getIdentifierGenerator(entity.getClass().getName())
+				.generate(session, entity)).intValue();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1398,13 +1525,13 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 			final Set<String> setTypesToIgnore) {
 		if (log.isTraceEnabled())
 			log.trace("begin saveDocument");
+		if (writeQueue != null)
+			return queueDocument(jcas, analysisBatch, bStoreDocText,
+					bStoreCAS, bInsertAnnotationContainmentLinks,
+					setTypesToIgnore);
 		// communicate options to mappers using thread local variable
-		final DefaultTransactionDefinition txDef = new DefaultTransactionDefinition(
-				TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-		txDef.setIsolationLevel("orcl".equals(this.dbType) ? TransactionDefinition.ISOLATION_READ_COMMITTED
-				: TransactionDefinition.ISOLATION_READ_UNCOMMITTED);
 		final TransactionTemplate txTemplate = new TransactionTemplate(
-				this.getTransactionManager(), txDef);
+				this.getTransactionManager(), createSaveTxDef());
 		final int documentId = txTemplate
 				.execute(new TransactionCallback<Integer>() {
 
@@ -1427,6 +1554,216 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return documentId;
 	}
 
+	/**
+	 * extract the rows of the document and queue them for the writer. Ids are
+	 * allocated up front, so the document id can be returned before the
+	 * document is written.
+	 * 
+	 * @return document id
+	 */
+	private Integer queueDocument(final JCas jcas, final String analysisBatch,
+			final boolean bStoreDocText, final boolean bStoreCAS,
+			final boolean bInsertAnnotationContainmentLinks,
+			final Set<String> setTypesToIgnore) {
+		throwWriteFailure();
+		// the transaction is only used to allocate ids
+		final TransactionTemplate txTemplate = new TransactionTemplate(
+				this.getTransactionManager(), createSaveTxDef());
+		final PendingDocument pending = txTemplate
+				.execute(new TransactionCallback<PendingDocument>() {
+
+					@Override
+					public PendingDocument doInTransaction(
+							TransactionStatus arg0) {
+						Document doc = createDocument(jcas, analysisBatch,
+								bStoreDocText, bStoreCAS);
+						doc.setDocumentID(generateId(doc));
+						PendingDocument pending = new PendingDocument(doc,
+								bInsertAnnotationContainmentLinks);
+						tl_pendingDocument.set(pending);
+						try {
+							saveAnnotationsHib(jcas,
+									bInsertAnnotationContainmentLinks,
+									setTypesToIgnore, doc);
+							extractAndSaveDocKey(jcas, doc);
+						} finally {
+							tl_pendingDocument.remove();
+						}
+						return pending;
+					}
+				});
+		enqueue(pending);
+		if (log.isTraceEnabled())
+			log.trace("end saveDocument");
+		return pending.getDocument().getDocumentID();
+	}
+
+	/**
+	 * queue the document for the writer, wait if the queue is full
+	 * 
+	 * @param pending
+	 */
+	void enqueue(PendingDocument pending) {
+		synchronized (this) {
+			pendingDocumentCount++;
+		}
+		try {
+			writeQueue.put(pending);
+		} catch (InterruptedException e) {
+			documentsWritten(1);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * writer thread loop: take the queued documents and write up to
+	 * commitDocumentCount of them per transaction
+	 */
+	private void writeQueuedDocuments() {
+		List<PendingDocument> documents = new ArrayList<PendingDocument>();
+		try {
+			while (true) {
+				documents.add(writeQueue.take());
+				writeQueue.drainTo(documents,
+						Math.max(1, commitDocumentCount) - 1);
+				try {
+					if (writeFailure == null)
+						writeDocuments(documents);
+				} catch (RuntimeException e) {
+					log.error("error writing documents, discarding "
+							+ "documents that have not been written", e);
+					writeFailure = e;
+				} finally {
+					documentsWritten(documents.size());
+					documents.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			// destroyed
+		}
+	}
+
+	/**
+	 * write the documents in one transaction, with one jdbc batch per
+	 * statement and chunk across all documents
+	 * 
+	 * @param documents
+	 */
+	void writeDocuments(final List<PendingDocument> documents) {
+		if (log.isDebugEnabled())
+			log.debug("writing " + documents.size() + " documents");
+		final TransactionTemplate txTemplate = new TransactionTemplate(
+				this.getTransactionManager(), createSaveTxDef());
+		txTemplate.execute(new TransactionCallback<Object>() {
+
+			@Override
+			public Object doInTransaction(TransactionStatus arg0) {
+				Session session = sessionFactory.getCurrentSession();
+				// documents already have their ids
+				for (PendingDocument pending : documents) {
+					session.replicate(pending.getDocument(),
+							ReplicationMode.EXCEPTION);
+				}
+				session.flush();
+				for (Map.Entry<String, List<PendingDocument.RecordedRow>> e : mergeRows(
+						documents).entrySet()) {
+					chunkedBatchUpdate(
+							e.getKey(),
+							e.getValue(),
+							new ChunkPreparedStatementSetter<PendingDocument.RecordedRow>() {
+
+								@Override
+								public void setValues(PreparedStatement ps,
+										int idx,
+										PendingDocument.RecordedRow record)
+										throws SQLException {
+									record.replay(ps);
+								}
+							});
+				}
+				for (PendingDocument pending : documents) {
+					if (pending.isInsertAnnotationContainmentLinks())
+						insertAnnotationContainmentLinks(pending.getDocument()
+								.getDocumentID());
+				}
+				session.flush();
+				session.clear();
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * merge the rows of the documents by statement. Statements are in the
+	 * order in which they were first used, and the rows of each statement in
+	 * document order.
+	 * 
+	 * @param documents
+	 * @return statement sql to rows of all documents
+	 */
+	static Map<String, List<PendingDocument.RecordedRow>> mergeRows(
+			List<PendingDocument> documents) {
+		Map<String, List<PendingDocument.RecordedRow>> rows = new LinkedHashMap<String, List<PendingDocument.RecordedRow>>();
+		for (PendingDocument pending : documents) {
+			for (Map.Entry<String, List<PendingDocument.RecordedRow>> e : pending
+					.getRows().entrySet()) {
+				List<PendingDocument.RecordedRow> sqlRows = rows
+						.get(e.getKey());
+				if (sqlRows == null) {
+					sqlRows = new ArrayList<PendingDocument.RecordedRow>();
+					rows.put(e.getKey(), sqlRows);
+				}
+				sqlRows.addAll(e.getValue());
+			}
+		}
+		return rows;
+	}
+
+	private synchronized void documentsWritten(int count) {
+		pendingDocumentCount -= count;
+		this.notifyAll();
+	}
+
+	private void throwWriteFailure() {
+		if (writeFailure != null)
+			throw new RuntimeException(
+					"documents could not be written, see earlier error",
+					writeFailure);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.ctakes.ytex.uima.mapper.DocumentMapperService#flush()
+	 */
+	public void flush() {
+		synchronized (this) {
+			while (pendingDocumentCount > 0) {
+				try {
+					this.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
+			}
+		}
+		throwWriteFailure();
+	}
+
+	/**
+	 * write the queued documents and stop the writer
+	 */
+	public void destroy() {
+		if (writerThread != null) {
+			try {
+				flush();
+			} finally {
+				writerThread.interrupt();
+			}
+		}
+	}
+
 	/**
 	 * initialize mapAnnoMappingInfo from the set
 	 * 
@@ -1443,6 +1780,15 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		this.batchSize = batchSize;
 	}
 
+	/**
+	 * @param commitDocumentCount
+	 *            maximum number of queued documents written in one
+	 *            transaction
+	 */
+	public void setCommitDocumentCount(int commitDocumentCount) {
+		this.commitDocumentCount = commitDocumentCount;
+	}
+
 	public void setDataSource(DataSource dataSource) {
 		this.dataSource = dataSource;
 		jdbcTemplate = new JdbcTemplate(dataSource);
@@ -1515,6 +1861,18 @@ public class DocumentMapperServiceImpl implements DocumentMapperService,
 		return null;
 	}
 
+	/**
+	 * @param writeQueueSize
+	 *            if &gt; 0, documents are written by a background thread, up
+	 *            to commitDocumentCount documents per transaction, and up to
+	 *            writeQueueSize documents wait to be written. If 0 (default),
+	 *            each document is written by saveDocument in its own
+	 *            transaction.
+	 */
+	public void setWriteQueueSize(int writeQueueSize) {
+		this.writeQueueSize = writeQueueSize;
+	}
+
 	public void setYtexProperties(Properties ytexProperties) {
 		this.ytexProperties = ytexProperties;
 	}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ctakes.ytex.uima.model.Document;
+
+/**
+ * A document whose rows have been extracted from the cas but not yet written.
+ * The rows of each insert or update statement are recorded as the setter calls
+ * made on a prepared statement, so that the writer can replay rows of many
+ * documents in one jdbc batch per statement.
+ *
+ * @see DocumentMapperServiceImpl#setWriteQueueSize(int)
+ */
+class PendingDocument {
+	/**
+	 * setter calls for one row of a statement
+	 */
+	static class RecordedRow implements InvocationHandler {
+		private final List<Method> methods = new ArrayList<Method>();
+		private final List<Object[]> args = new ArrayList<Object[]>();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] methodArgs)
+				throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(this, methodArgs);
+			}
+			if (!method.getName().startsWith("set")) {
+				throw new UnsupportedOperationException(method.getName());
+			}
+			methods.add(method);
+			args.add(methodArgs);
+			return null;
+		}
+
+		/**
+		 * make the recorded setter calls on a real statement
+		 *
+		 * @param ps
+		 * @throws SQLException
+		 */
+		void replay(PreparedStatement ps) throws SQLException {
+			try {
+				for (int i = 0; i < methods.size(); i++) {
+					methods.get(i).invoke(ps, args.get(i));
+				}
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof SQLException)
+					throw (SQLException) e.getCause();
+				throw new RuntimeException(e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private final Document document;
+	private final boolean insertAnnotationContainmentLinks;
+	/**
+	 * statement sql to rows, in the order in which statements were first used
+	 */
+	private final Map<String, List<RecordedRow>> rows = new LinkedHashMap<String, List<RecordedRow>>();
+
+	PendingDocument(Document document, boolean insertAnnotationContainmentLinks) {
+		this.document = document;
+		this.insertAnnotationContainmentLinks = insertAnnotationContainmentLinks;
+	}
+
+	Document getDocument() {
+		return document;
+	}
+
+	boolean isInsertAnnotationContainmentLinks() {
+		return insertAnnotationContainmentLinks;
+	}
+
+	Map<String, List<RecordedRow>> getRows() {
+		return rows;
+	}
+
+	/**
+	 * @param sql
+	 *            insert or update statement
+	 * @return statement that records its parameters as a new row of the sql
+	 */
+	PreparedStatement recordRow(String sql) {
+		RecordedRow row = new RecordedRow();
+		List<RecordedRow> sqlRows = rows.get(sql);
+		if (sqlRows == null) {
+			sqlRows = new ArrayList<RecordedRow>();
+			rows.put(sql, sqlRows);
+		}
+		sqlRows.add(row);
+		return (PreparedStatement) Proxy.newProxyInstance(
+				PreparedStatement.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, row);
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ctakes.ytex.uima.model.Document;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * tests of the background writer that need no database: documents are
+ * written by overriding writeDocuments
+ */
+public class DocumentMapperServiceImplTest {
+
+	/**
+	 * records the ids of the documents of each write, and fails the write of
+	 * the document with id failDocumentId
+	 */
+	static class RecordingMapperService extends DocumentMapperServiceImpl {
+		final List<List<Integer>> writes = new ArrayList<List<Integer>>();
+		int failDocumentId = -1;
+
+		@Override
+		void writeDocuments(List<PendingDocument> documents) {
+			List<Integer> ids = new ArrayList<Integer>();
+			for (PendingDocument pending : documents) {
+				ids.add(pending.getDocument().getDocumentID());
+			}
+			synchronized (writes) {
+				writes.add(ids);
+			}
+			if (ids.contains(failDocumentId))
+				throw new IllegalStateException("write failed");
+			try {
+				// let documents queue up
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static PendingDocument createPendingDocument(int documentId) {
+		Document doc = new Document();
+		doc.setDocumentID(documentId);
+		return new PendingDocument(doc, false);
+	}
+
+	@Test
+	public void testMergeRows() throws SQLException {
+		PendingDocument doc1 = createPendingDocument(1);
+		doc1.recordRow("a").setInt(1, 1);
+		doc1.recordRow("b").setInt(1, 1);
+		PendingDocument doc2 = createPendingDocument(2);
+		doc2.recordRow("b").setInt(1, 2);
+		doc2.recordRow("c").setInt(1, 2);
+		doc2.recordRow("b").setInt(1, 2);
+		Map<String, List<PendingDocument.RecordedRow>> rows = DocumentMapperServiceImpl
+				.mergeRows(Arrays.asList(doc1, doc2));
+		Assert.assertEquals(Arrays.asList("a", "b", "c"),
+				new ArrayList<String>(rows.keySet()));
+		List<PendingDocument.RecordedRow> expectedB = new ArrayList<PendingDocument.RecordedRow>();
+		expectedB.addAll(doc1.getRows().get("b"));
+		expectedB.addAll(doc2.getRows().get("b"));
+		Assert.assertEquals(expectedB, rows.get("b"));
+		Assert.assertEquals(doc2.getRows().get("c"), rows.get("c"));
+		// the documents' own rows are left alone
+		Assert.assertEquals(1, doc1.getRows().get("b").size());
+	}
+
+	@Test
+	public void testFlush() {
+		RecordingMapperService service = new RecordingMapperService();
+		service.setWriteQueueSize(2);
+		service.setCommitDocumentCount(3);
+		service.startWriter();
+		try {
+			for (int i = 0; i < 20; i++) {
+				service.enqueue(createPendingDocument(i));
+			}
+			service.flush();
+			List<Integer> written = new ArrayList<Integer>();
+			synchronized (service.writes) {
+				for (List<Integer> ids : service.writes) {
+					Assert.assertTrue(ids.size() <= 3);
+					written.addAll(ids);
+				}
+			}
+			List<Integer> expected = new ArrayList<Integer>();
+			for (int i = 0; i < 20; i++) {
+				expected.add(i);
+			}
+			Assert.assertEquals(expected, written);
+		} finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	public void testWriteFailure() {
+		RecordingMapperService service = new RecordingMapperService();
+		service.setWriteQueueSize(2);
+		service.setCommitDocumentCount(3);
+		service.failDocumentId = 5;
+		service.startWriter();
+		for (int i = 0; i < 20; i++) {
+			service.enqueue(createPendingDocument(i));
+		}
+		try {
+			service.flush();
+			Assert.fail("flush should report the write failure");
+		} catch (RuntimeException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		// documents after the failure are discarded
+		synchronized (service.writes) {
+			Assert.assertTrue(service.writes.get(service.writes.size() - 1)
+					.contains(5));
+		}
+		// the failure is reported until the service is destroyed
+		try {
+			service.destroy();
+			Assert.fail("destroy should report the write failure");
+		} catch (RuntimeException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+}
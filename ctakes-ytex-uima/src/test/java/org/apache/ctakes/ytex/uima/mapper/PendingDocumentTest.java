@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.uima.mapper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ctakes.ytex.uima.model.Document;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PendingDocumentTest {
+
+	/**
+	 * statement that records the calls made on it
+	 */
+	static class CallRecorder implements InvocationHandler {
+		final List<String> calls = new ArrayList<String>();
+		SQLException exception;
+
+		PreparedStatement createStatement() {
+			return (PreparedStatement) Proxy.newProxyInstance(
+					PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+				throws Throwable {
+			if (exception != null)
+				throw exception;
+			calls.add(method.getName() + Arrays.toString(args));
+			return null;
+		}
+	}
+
+	@Test
+	public void testReplay() throws SQLException {
+		PendingDocument pending = new PendingDocument(new Document(), false);
+		PreparedStatement ps = pending.recordRow("insert into t values (?, ?, ?)");
+		ps.setInt(1, 5);
+		ps.setString(2, "x");
+		ps.setNull(3, Types.INTEGER);
+		ps = pending.recordRow("insert into t values (?, ?, ?)");
+		ps.setObject(1, 6);
+		CallRecorder recorder = new CallRecorder();
+		List<PendingDocument.RecordedRow> rows = pending.getRows().get(
+				"insert into t values (?, ?, ?)");
+		Assert.assertEquals(2, rows.size());
+		rows.get(0).replay(recorder.createStatement());
+		Assert.assertEquals(Arrays.asList("setInt[1, 5]", "setString[2, x]",
+				"setNull[3, " + Types.INTEGER + "]"), recorder.calls);
+		recorder.calls.clear();
+		rows.get(1).replay(recorder.createStatement());
+		Assert.assertEquals(Arrays.asList("setObject[1, 6]"), recorder.calls);
+	}
+
+	@Test
+	public void testStatementOrder() throws SQLException {
+		PendingDocument pending = new PendingDocument(new Document(), true);
+		pending.recordRow("b").setInt(1, 1);
+		pending.recordRow("a").setInt(1, 2);
+		pending.recordRow("b").setInt(1, 3);
+		Assert.assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(
+				pending.getRows().keySet()));
+		Assert.assertEquals(2, pending.getRows().get("b").size());
+		Assert.assertEquals(1, pending.getRows().get("a").size());
+		Assert.assertTrue(pending.isInsertAnnotationContainmentLinks());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testExecuteUnsupported() throws SQLException {
+		new PendingDocument(new Document(), false).recordRow("a")
+				.executeUpdate();
+	}
+
+	@Test
+	public void testReplayException() throws SQLException {
+		PendingDocument pending = new PendingDocument(new Document(), false);
+		pending.recordRow("a").setInt(1, 1);
+		CallRecorder recorder = new CallRecorder();
+		recorder.exception = new SQLException("test");
+		try {
+			pending.getRows().get("a").get(0)
+					.replay(recorder.createStatement());
+			Assert.fail("replay should throw the statement's exception");
+		} catch (SQLException e) {
+			Assert.assertSame(recorder.exception, e);
+		}
+	}
+
+}
@@ -21,6 +21,7 @@ package org.apache.ctakes.ytex.kernel.dao;
 import java.io.IOException;
 import java.util.Set;
 
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 
 /**
@@ -54,9 +55,22 @@ public interface ConceptDao {
 	 */
 	public abstract ConceptGraph getConceptGraph(String name);
 
+	/**
+	 * retrieve the compact form of an existing concept graph. Memory maps
+	 * [name].csr from the classpath or concept graph directory, searched as
+	 * in {@link #getConceptGraph(String)}. If there is no such file then the
+	 * concept graph is converted, and the converted graph is written to the
+	 * concept graph directory so that later calls can map it.
+	 * 
+	 * @param name
+	 *            name of concept graph
+	 * @return compact concept graph, null if the concept graph does not exist
+	 */
+	public abstract CompactConceptGraph getCompactConceptGraph(String name);
+
 	/**
 	 * create the concept graph with specified name using specified query. Will
-	 * create a file [name].gz under dir.
+	 * create the files [name].gz and [name].csr under dir.
 	 * 
 	 * @param dir
 	 *            directory of concept graph (optional). If null will use
@@ -52,6 +52,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.ctakes.ytex.kernel.FileUtil;
 import org.apache.ctakes.ytex.kernel.IntrinsicInfoContentEvaluator;
 import org.apache.ctakes.ytex.kernel.KernelContextHolder;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConcRel;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 import org.hibernate.SessionFactory;
@@ -64,6 +65,10 @@ import com.google.common.collect.ImmutableMap;
 
 public class ConceptDaoImpl implements ConceptDao {
 	private static final String CONCEPT_GRAPH_PATH = "org/apache/ctakes/ytex/conceptGraph/";
+	/**
+	 * suffix of the memory mappable concept graph
+	 */
+	private static final String COMPACT_SUFFIX = ".csr";
 	/**
 	 * the default concept id for the root. override with -Dytex.defaultRootId
 	 */
@@ -341,6 +346,8 @@ public class ConceptDaoImpl implements ConceptDao {
 						.evaluateIntrinsicInfoContent(name, outputDir, cg);
 			}
 			writeConceptGraph(outputDir, name, cg);
+			CompactConceptGraph.fromConceptGraph(cg).write(
+					new File(outputDir + "/" + name + COMPACT_SUFFIX));
 		}
 	}
 
@@ -363,6 +370,75 @@ public class ConceptDaoImpl implements ConceptDao {
 		return cg;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.apache.ctakes.ytex.kernel.dao.ConceptDao#getCompactConceptGraph(java
+	 * .lang.String)
+	 */
+	@Override
+	public CompactConceptGraph getCompactConceptGraph(String name) {
+		File f = getCompactConceptGraphFile(name);
+		try {
+			if (f != null && f.exists()) {
+				log.info("mapping compact concept graph: "
+						+ f.getAbsolutePath());
+				return CompactConceptGraph.map(f);
+			}
+			ConceptGraph cg = this.readConceptGraph(name);
+			if (cg == null)
+				return null;
+			CompactConceptGraph ccg = CompactConceptGraph.fromConceptGraph(cg);
+			if (f != null) {
+				// write to a temporary file so that other processes never map
+				// a partially written graph
+				File tmp = new File(f.getPath() + ".tmp");
+				try {
+					ccg.write(tmp);
+					if (tmp.renameTo(f) || f.exists()) {
+						log.info("wrote compact concept graph: "
+								+ f.getAbsolutePath());
+						return CompactConceptGraph.map(f);
+					}
+				} catch (IOException ioe) {
+					log.warn("could not write compact concept graph: "
+							+ f.getAbsolutePath() + ", keeping it on the heap",
+							ioe);
+				} finally {
+					tmp.delete();
+				}
+			}
+			return ccg;
+		} catch (IOException ioe) {
+			throw new RuntimeException(ioe);
+		}
+	}
+
+	/**
+	 * the compact concept graph is looked for on the classpath, else next to
+	 * the serialized concept graph, else in the default concept graph
+	 * directory.
+	 * 
+	 * @param name
+	 * @return compact concept graph file, which may not exist. null if there
+	 *         is nowhere to put it.
+	 */
+	private File getCompactConceptGraphFile(String name) {
+		ClassLoader cl = this.getClass().getClassLoader();
+		File f = urlToFile(cl.getResource(CONCEPT_GRAPH_PATH + name
+				+ COMPACT_SUFFIX));
+		if (f != null)
+			return f;
+		File gz = urlToFile(cl.getResource(CONCEPT_GRAPH_PATH + name + ".gz"));
+		if (gz != null)
+			return new File(gz.getParentFile(), name + COMPACT_SUFFIX);
+		String cdir = this.getDefaultConceptGraphDir();
+		if (Strings.isNullOrEmpty(cdir))
+			return null;
+		return new File(cdir + "/" + name + COMPACT_SUFFIX);
+	}
+
 	private File urlToFile(URL url) {
 		if (url != null && "file".equals(url.getProtocol())) {
 			File f;
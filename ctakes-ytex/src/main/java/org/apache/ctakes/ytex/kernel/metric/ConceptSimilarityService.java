@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 
 
@@ -77,8 +78,16 @@ public interface ConceptSimilarityService {
 
 	public int lcs(String concept1, String concept2, List<LCSPath> lcsPath);
 
+	/**
+	 * the object graph is loaded on first use; similarity and pagerank
+	 * computations use {@link #getCompactConceptGraph()}.
+	 * 
+	 * @return
+	 */
 	public abstract ConceptGraph getConceptGraph();
 
+	public abstract CompactConceptGraph getCompactConceptGraph();
+
 	/**
 	 * cui - tui map. tuis are bitsets, indices correspond to tuis in
 	 * {@link #getTuiList()}
@@ -39,9 +39,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
-import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -52,6 +50,7 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.ctakes.core.util.collection.LongKeyCache;
 import org.apache.ctakes.ytex.kernel.ImputedFeatureEvaluator;
 import org.apache.ctakes.ytex.kernel.InfoContentEvaluator;
 import org.apache.ctakes.ytex.kernel.IntrinsicInfoContentEvaluator;
@@ -59,7 +58,7 @@ import org.apache.ctakes.ytex.kernel.OrderedPair;
 import org.apache.ctakes.ytex.kernel.SimSvcContextHolder;
 import org.apache.ctakes.ytex.kernel.dao.ClassifierEvaluationDao;
 import org.apache.ctakes.ytex.kernel.dao.ConceptDao;
-import org.apache.ctakes.ytex.kernel.model.ConcRel;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.FeatureRank;
 import org.apache.ctakes.ytex.kernel.pagerank.PageRankService;
@@ -146,6 +145,12 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 						conceptPairs, metricList, null, lcs);
 				printSimilarities(conceptPairs, conceptSimMap, metricList,
 						simInfos, lcs, os);
+				if (simSvc instanceof ConceptSimilarityServiceImpl) {
+					LongKeyCache<int[]> lcsCache = ((ConceptSimilarityServiceImpl) simSvc)
+							.getLcsCache();
+					if (lcsCache != null)
+						log.info("lcs cache: " + lcsCache);
+				}
 				// try {
 				// Thread.sleep(60*1000);
 				// } catch (InterruptedException e) {
@@ -263,7 +268,12 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 
 	private CacheManager cacheManager;
 
-	private ConceptGraph cg = null;
+	/**
+	 * loaded on demand, only needed by clients that walk the object graph
+	 */
+	private volatile ConceptGraph cg = null;
+
+	private CompactConceptGraph ccg = null;
 
 	private ClassifierEvaluationDao classifierEvaluationDao;
 
@@ -285,9 +295,15 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	// private ConceptInfo[] conceptInfoCache;
 
 	/**
-	 * cache to hold lcs's
+	 * cache to hold lcs's. key - node indices of the concept pair packed into
+	 * a long, smaller index first. value - path length followed by the node
+	 * indices of the lcses, or just -1 if there is no lcs.
+	 */
+	private LongKeyCache<int[]> lcsCache;
+	/**
+	 * maximum number of concept pairs in the lcs cache, 0 to disable
 	 */
-	private Cache lcsCache;
+	private int lcsCacheSize = 10000;
 	private String lcsImputedType = ImputedFeatureEvaluator.MeasureType.INFOGAIN
 			.getName();
 
@@ -493,9 +509,20 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 
 	@Override
 	public ConceptGraph getConceptGraph() {
+		if (cg == null && ccg != null) {
+			synchronized (this) {
+				if (cg == null)
+					cg = conceptDao.getConceptGraph(conceptGraphName);
+			}
+		}
 		return cg;
 	}
 
+	@Override
+	public CompactConceptGraph getCompactConceptGraph() {
+		return ccg;
+	}
+
 	public String getConceptGraphName() {
 		return conceptGraphName;
 	}
@@ -528,9 +555,9 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		// if (frMap.containsKey(concept))
 		// return frMap.get(concept).getRank();
 		// }
-		ConcRel cr = this.cg.getConceptMap().get(concept);
-		if (cr != null)
-			return cr.getDepth();
+		int index = this.ccg.getIndex(concept);
+		if (index >= 0)
+			return this.ccg.getDepth(index);
 		return 0;
 	}
 
@@ -538,9 +565,9 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	public double getIC(String concept, boolean intrinsicICMap) {
 		double ic = 0d;
 		if (intrinsicICMap) {
-			ConcRel cr = this.cg.getConceptMap().get(concept);
-			if (cr != null)
-				ic = cr.getIntrinsicInfoContent();
+			int index = this.ccg.getIndex(concept);
+			if (index >= 0)
+				ic = this.ccg.getIntrinsicInfoContent(index);
 		} else {
 			Double icC = null;
 			if (isPreload()) {
@@ -616,9 +643,9 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	public int getLCS(String concept1, String concept2, Set<String> lcses,
 			List<LCSPath> lcsPaths) {
 		int lcsDist = 0;
-		ConcRel cr1 = getConceptGraph().getConceptMap().get(concept1);
-		ConcRel cr2 = getConceptGraph().getConceptMap().get(concept2);
-		if (cr1 != null && cr2 != null) {
+		int cr1 = ccg.getIndex(concept1);
+		int cr2 = ccg.getIndex(concept2);
+		if (cr1 >= 0 && cr2 >= 0) {
 			lcses.clear();
 			if (lcsPaths == null) {
 				// no need to get paths which we don't cache - look in the cache
@@ -633,58 +660,51 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 			}
 		} else {
 			if (log.isDebugEnabled()) {
-				if (cr1 == null)
+				if (cr1 < 0)
 					log.debug("could not find concept:" + concept1);
-				if (cr2 == null)
+				if (cr2 < 0)
 					log.debug("could not find concept:" + concept2);
 			}
 		}
 		return lcsDist;
 	}
 
-	public Cache getLcsCache() {
+	/**
+	 * @return the lcs cache, whose toString() reports size and hit rate. null
+	 *         before init() or if the cache is disabled.
+	 */
+	public LongKeyCache<int[]> getLcsCache() {
 		return lcsCache;
 	}
 
-	@SuppressWarnings("unchecked")
-	private int getLCSFromCache(ConcRel cr1, ConcRel cr2, Set<String> lcses) {
-		StringBuilder cacheKeyBuilder = new StringBuilder(this.conceptGraphName);
-		cacheKeyBuilder
-				.append(cr1.getConceptID().compareTo(cr2.getConceptID()) < 0 ? cr1
-						.getConceptID() : cr2.getConceptID());
-		cacheKeyBuilder
-				.append(cr1.getConceptID().compareTo(cr2.getConceptID()) >= 0 ? cr2
-						.getConceptID() : cr1.getConceptID());
-		String cacheKey = cacheKeyBuilder.toString();
-		Element e = this.lcsCache != null ? this.lcsCache.get(cacheKey) : null;
-		if (e != null) {
-			// hit the cache - unpack the lcs
-			if (e.getObjectValue() != null) {
-				Object[] val = (Object[]) e.getObjectValue();
-				lcses.addAll((Set<String>) val[1]);
-				return (Integer) val[0];
-			} else {
-				return -1;
-			}
-		} else {
+	public int getLcsCacheSize() {
+		return lcsCacheSize;
+	}
+
+	private int getLCSFromCache(int cr1, int cr2, Set<String> lcses) {
+		// the lcs is symmetric - put the smaller index in the high bits
+		long cacheKey = cr1 < cr2 ? ((long) cr1 << 32) | cr2
+				: ((long) cr2 << 32) | cr1;
+		int[] val = this.lcsCache != null ? this.lcsCache.get(cacheKey) : null;
+		if (val == null) {
 			// missed the cache - save the lcs
-			Object[] val = null;
-			Set<ConcRel> lcsCRSet = new HashSet<ConcRel>(2);
-			int dist = ConcRel.getLeastCommonConcept(cr1, cr2, lcsCRSet, null);
-			if (dist >= 0) {
-				val = new Object[2];
-				val[0] = dist;
-				for (ConcRel cr : lcsCRSet) {
-					lcses.add(cr.getConceptID());
-				}
-				val[1] = lcses;
+			Set<Integer> lcsCRSet = new HashSet<Integer>(2);
+			int dist = ccg.getLeastCommonConcept(cr1, cr2, lcsCRSet, null);
+			val = new int[dist >= 0 ? lcsCRSet.size() + 1 : 1];
+			val[0] = dist;
+			int i = 1;
+			for (int cr : lcsCRSet) {
+				val[i++] = cr;
 			}
 			if (this.lcsCache != null) {
-				e = new Element(cacheKey, val);
-				this.lcsCache.put(e);
+				this.lcsCache.put(cacheKey, val);
 			}
-			return dist;
 		}
+		// unpack the lcs
+		for (int i = 1; i < val.length; i++) {
+			lcses.add(ccg.getConceptID(val[i]));
+		}
+		return val[0];
 	}
 
 	public String getLcsImputedType() {
@@ -710,8 +730,10 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 
 	public void init() {
 		log.info("begin initialization for concept graph: " + conceptGraphName);
-		cg = conceptDao.getConceptGraph(conceptGraphName);
-		if (cg == null) {
+		ccg = conceptDao.getCompactConceptGraph(conceptGraphName);
+		lcsCache = lcsCacheSize > 0 ? new LongKeyCache<int[]>(lcsCacheSize)
+				: null;
+		if (ccg == null) {
 			log.warn("concept graph null, name: " + conceptGraphName);
 		} else {
 			initSimilarityMetricMap();
@@ -826,9 +848,8 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		}
 		ImmutableMap.Builder<String, Double> mb = new ImmutableMap.Builder<String, Double>();
 		for (Map.Entry<String, Double> corpusICEntry : corpusICMap.entrySet()) {
-			ConcRel cr = cg.getConceptMap().get(corpusICEntry.getKey());
-			if (cr != null) {
-				mb.put(cr.getConceptID(), corpusICEntry.getValue());
+			if (ccg.getIndex(corpusICEntry.getKey()) >= 0) {
+				mb.put(corpusICEntry.getKey(), corpusICEntry.getValue());
 			}
 		}
 		this.corpusICMap = mb.build();
@@ -856,8 +877,8 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		// conceptGraphName);
 		// Integer maxDepth = this.classifierEvaluationDao
 		// .getMaxDepth(conceptGraphName);
-		double maxIC = this.cg.getIntrinsicICMax();
-		int maxDepth = this.cg.getDepthMax();
+		double maxIC = this.ccg.getIntrinsicICMax();
+		int maxDepth = this.ccg.getDepthMax();
 		this.similarityMetricMap = new HashMap<SimilarityMetricEnum, SimilarityMetric>(
 				SimilarityMetricEnum.values().length);
 		if (maxDepth > 0) {
@@ -894,13 +915,13 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 	}
 
 	public int lcs(String concept1, String concept2, List<LCSPath> lcsPaths) {
-		ConcRel cr1 = cg.getConceptMap().get(concept1);
-		ConcRel cr2 = cg.getConceptMap().get(concept2);
+		int cr1 = ccg.getIndex(concept1);
+		int cr2 = ccg.getIndex(concept2);
 		int dist = -1;
-		if (cr1 != null && cr2 != null) {
-			Set<ConcRel> crlcses = new HashSet<ConcRel>();
-			Map<ConcRel, LCSPath> crpaths = new HashMap<ConcRel, LCSPath>();
-			dist = ConcRel.getLeastCommonConcept(cr1, cr2, crlcses, crpaths);
+		if (cr1 >= 0 && cr2 >= 0) {
+			Set<Integer> crlcses = new HashSet<Integer>();
+			Map<Integer, LCSPath> crpaths = new HashMap<Integer, LCSPath>();
+			dist = ccg.getLeastCommonConcept(cr1, cr2, crlcses, crpaths);
 			lcsPaths.addAll(crpaths.values());
 		}
 		return dist;
@@ -996,8 +1017,8 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 		this.corpusName = corpusName;
 	}
 
-	public void setLcsCache(Cache lcsCache) {
-		this.lcsCache = lcsCache;
+	public void setLcsCacheSize(int lcsCacheSize) {
+		this.lcsCacheSize = lcsCacheSize;
 	}
 
 	public void setLcsImputedType(String lcsImputedType) {
@@ -1086,7 +1107,7 @@ public class ConceptSimilarityServiceImpl implements ConceptSimilarityService {
 			simInfo.setLcsPaths(new ArrayList<LCSPath>(1));
 		// allocate result map
 		List<Double> similarities = new ArrayList<Double>(metrics.size());
-		if (cg != null) {
+		if (ccg != null) {
 			// iterate over metrics, compute, stuff in map
 			for (SimilarityMetricEnum metric : metrics) {
 				double sim = this.similarityMetricMap.get(metric).similarity(
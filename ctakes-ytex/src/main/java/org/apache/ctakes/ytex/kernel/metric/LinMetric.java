@@ -33,7 +33,7 @@ public class LinMetric extends BaseSimilarityMetric {
 	private static final Log log = LogFactory.getLog(LinMetric.class);
 	private boolean intrinsicIC = true;
 	private boolean validCG = false;
-	private String rootConcept = simSvc.getConceptGraph().getRoot();
+	private String rootConcept = simSvc.getCompactConceptGraph().getRoot();
 
 	public boolean isIntrinsicIC() {
 		return intrinsicIC;
@@ -73,9 +73,9 @@ public class LinMetric extends BaseSimilarityMetric {
 	public LinMetric(ConceptSimilarityService simSvc, boolean intrinsicIC) {
 		super(simSvc);
 		this.intrinsicIC = intrinsicIC;
-		this.validCG = simSvc.getConceptGraph() != null;
+		this.validCG = simSvc.getCompactConceptGraph() != null;
 		if (!this.intrinsicIC && validCG) {
-			rootConcept = simSvc.getConceptGraph().getRoot();
+			rootConcept = simSvc.getCompactConceptGraph().getRoot();
 		}
 	}
 
@@ -36,7 +36,7 @@ public class PageRankMetric extends BaseSimilarityMetric {
 	public double similarity(String concept1, String concept2,
 			Map<String, Double> conceptFilter, SimilarityInfo simInfo) {
 		return pageRankService.sim(concept1, concept2,
-				this.simSvc.getConceptGraph(), 30, 1e-3, 0.85);
+				this.simSvc.getCompactConceptGraph(), 30, 1e-3, 0.85);
 	}
 
 }
@@ -0,0 +1,691 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ctakes.ytex.kernel.metric.LCSPath;
+
+/**
+ * Compressed sparse row representation of a {@link ConceptGraph}. A node is
+ * identified by its index in the concept list of the graph it was built from.
+ * The parents of node i are parentIndices[parentOffsets[i]] up to
+ * parentIndices[parentOffsets[i+1]], likewise for the children. Depth and
+ * intrinsic infocontent are kept in primitive arrays, concept ids in a single
+ * utf-8 block with an index sorted by concept id.
+ * <p/>
+ * There is no object per node, so a graph with hundreds of thousands of
+ * concepts takes a few MB instead of the hundreds of MB used by the
+ * {@link ConcRel} objects and their sets. The graph can be written to a binary
+ * file and memory mapped, in which case it is read straight from the page
+ * cache and shared by every jvm that maps the same file.
+ * <p/>
+ * Immutable and safe for concurrent use.
+ */
+public class CompactConceptGraph {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	/**
+	 * 'YCSR'
+	 */
+	private static final int MAGIC = 0x59435352;
+	private static final int VERSION = 1;
+	/**
+	 * magic, version, node count, parent edge count, child edge count, concept
+	 * id byte count, root index, max depth + padding, max intrinsic ic
+	 */
+	private static final int HEADER_BYTES = 7 * 4 + 4 + 8;
+
+	/**
+	 * convert a concept graph. Works on graphs that have been read but not
+	 * initialized (only the parent/children arrays are set) as well as graphs
+	 * that have been constructed or initialized (only the parent/children sets
+	 * are set).
+	 *
+	 * @param cg
+	 *            concept graph
+	 * @return compact copy of the concept graph
+	 */
+	public static CompactConceptGraph fromConceptGraph(ConceptGraph cg) {
+		List<ConcRel> conceptList = cg.getConceptList();
+		int nodeCount = conceptList.size();
+		int[][] parents = new int[nodeCount][];
+		int[][] children = new int[nodeCount][];
+		byte[][] conceptIds = new byte[nodeCount][];
+		int parentEdgeCount = 0;
+		int childEdgeCount = 0;
+		int conceptIdByteCount = 0;
+		int rootIndex = -1;
+		for (int i = 0; i < nodeCount; i++) {
+			ConcRel cr = conceptList.get(i);
+			if (cr.getNodeIndex() != i) {
+				throw new IllegalArgumentException("node index of "
+						+ cr.getConceptID() + " is " + cr.getNodeIndex()
+						+ ", expected " + i);
+			}
+			parents[i] = cr.getParentsArray() != null ? cr.getParentsArray()
+					: toIndexArray(cr.getParents());
+			children[i] = cr.getChildrenArray() != null ? cr
+					.getChildrenArray() : toIndexArray(cr.getChildren());
+			conceptIds[i] = cr.getConceptID().getBytes(UTF8);
+			parentEdgeCount += parents[i].length;
+			childEdgeCount += children[i].length;
+			conceptIdByteCount += conceptIds[i].length;
+			if (cr.getConceptID().equals(cg.getRoot()))
+				rootIndex = i;
+		}
+		int[] parentOffsets = new int[nodeCount + 1];
+		int[] parentIndices = new int[parentEdgeCount];
+		int[] childOffsets = new int[nodeCount + 1];
+		int[] childIndices = new int[childEdgeCount];
+		int[] conceptIdOffsets = new int[nodeCount + 1];
+		byte[] conceptIdBytes = new byte[conceptIdByteCount];
+		short[] depths = new short[nodeCount];
+		double[] intrinsicICs = new double[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			ConcRel cr = conceptList.get(i);
+			System.arraycopy(parents[i], 0, parentIndices, parentOffsets[i],
+					parents[i].length);
+			parentOffsets[i + 1] = parentOffsets[i] + parents[i].length;
+			System.arraycopy(children[i], 0, childIndices, childOffsets[i],
+					children[i].length);
+			childOffsets[i + 1] = childOffsets[i] + children[i].length;
+			System.arraycopy(conceptIds[i], 0, conceptIdBytes,
+					conceptIdOffsets[i], conceptIds[i].length);
+			conceptIdOffsets[i + 1] = conceptIdOffsets[i]
+					+ conceptIds[i].length;
+			depths[i] = cr.getDepth();
+			intrinsicICs[i] = cr.getIntrinsicInfoContent();
+		}
+		return new CompactConceptGraph(nodeCount, rootIndex, cg.getDepthMax(),
+				cg.getIntrinsicICMax(), IntBuffer.wrap(parentOffsets),
+				IntBuffer.wrap(parentIndices), IntBuffer.wrap(childOffsets),
+				IntBuffer.wrap(childIndices), IntBuffer.wrap(conceptIdOffsets),
+				IntBuffer.wrap(sortConceptIds(conceptIds)),
+				ShortBuffer.wrap(depths), DoubleBuffer.wrap(intrinsicICs),
+				ByteBuffer.wrap(conceptIdBytes));
+	}
+
+	/**
+	 * memory map a graph written with {@link #write(File)}. The file must not
+	 * be modified while the graph is in use.
+	 *
+	 * @param file
+	 *            binary concept graph
+	 * @return graph backed by the mapped file
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compact concept graph
+	 */
+	public static CompactConceptGraph map(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		ByteBuffer buffer;
+		try {
+			// the mapping remains valid after the channel is closed
+			buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+					raf.length());
+		} finally {
+			raf.close();
+		}
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+			throw new IOException(file.getAbsolutePath()
+					+ " is not a compact concept graph");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException(file.getAbsolutePath()
+					+ " has unsupported version " + buffer.getInt(4));
+		}
+		int nodeCount = buffer.getInt(8);
+		int parentEdgeCount = buffer.getInt(12);
+		int childEdgeCount = buffer.getInt(16);
+		int conceptIdByteCount = buffer.getInt(20);
+		int rootIndex = buffer.getInt(24);
+		short depthMax = buffer.getShort(28);
+		double intrinsicICMax = buffer.getDouble(32);
+		int position = HEADER_BYTES;
+		IntBuffer parentOffsets = slice(buffer, position, (nodeCount + 1) * 4)
+				.asIntBuffer();
+		position += (nodeCount + 1) * 4;
+		IntBuffer parentIndices = slice(buffer, position, parentEdgeCount * 4)
+				.asIntBuffer();
+		position += parentEdgeCount * 4;
+		IntBuffer childOffsets = slice(buffer, position, (nodeCount + 1) * 4)
+				.asIntBuffer();
+		position += (nodeCount + 1) * 4;
+		IntBuffer childIndices = slice(buffer, position, childEdgeCount * 4)
+				.asIntBuffer();
+		position += childEdgeCount * 4;
+		IntBuffer conceptIdOffsets = slice(buffer, position,
+				(nodeCount + 1) * 4).asIntBuffer();
+		position += (nodeCount + 1) * 4;
+		IntBuffer conceptIdOrder = slice(buffer, position, nodeCount * 4)
+				.asIntBuffer();
+		position += nodeCount * 4;
+		DoubleBuffer intrinsicICs = slice(buffer, position, nodeCount * 8)
+				.asDoubleBuffer();
+		position += nodeCount * 8;
+		ShortBuffer depths = slice(buffer, position, nodeCount * 2)
+				.asShortBuffer();
+		position += nodeCount * 2;
+		ByteBuffer conceptIdBytes = slice(buffer, position, conceptIdByteCount);
+		return new CompactConceptGraph(nodeCount, rootIndex, depthMax,
+				intrinsicICMax, parentOffsets, parentIndices, childOffsets,
+				childIndices, conceptIdOffsets, conceptIdOrder, depths,
+				intrinsicICs, conceptIdBytes);
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(position);
+		dup.limit(position + length);
+		return dup.slice();
+	}
+
+	/**
+	 * @return node indices sorted by concept id bytes
+	 */
+	private static int[] sortConceptIds(final byte[][] conceptIds) {
+		Integer[] order = new Integer[conceptIds.length];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				byte[] b1 = conceptIds[o1];
+				byte[] b2 = conceptIds[o2];
+				int len = Math.min(b1.length, b2.length);
+				for (int i = 0; i < len; i++) {
+					int diff = (b1[i] & 0xff) - (b2[i] & 0xff);
+					if (diff != 0)
+						return diff;
+				}
+				return b1.length - b2.length;
+			}
+		});
+		int[] sorted = new int[order.length];
+		for (int i = 0; i < order.length; i++)
+			sorted[i] = order[i];
+		return sorted;
+	}
+
+	private static int[] toIndexArray(Set<ConcRel> crs) {
+		int[] indices = new int[crs.size()];
+		int i = 0;
+		for (ConcRel cr : crs)
+			indices[i++] = cr.getNodeIndex();
+		return indices;
+	}
+
+	private final IntBuffer childIndices;
+	private final IntBuffer childOffsets;
+	private final ByteBuffer conceptIdBytes;
+	private final IntBuffer conceptIdOffsets;
+	/**
+	 * node indices sorted by concept id, for lookup by concept id
+	 */
+	private final IntBuffer conceptIdOrder;
+	private final short depthMax;
+	private final ShortBuffer depths;
+	private final double intrinsicICMax;
+	private final DoubleBuffer intrinsicICs;
+	private final int nodeCount;
+	private final IntBuffer parentIndices;
+	private final IntBuffer parentOffsets;
+	private final int rootIndex;
+
+	private CompactConceptGraph(int nodeCount, int rootIndex, short depthMax,
+			double intrinsicICMax, IntBuffer parentOffsets,
+			IntBuffer parentIndices, IntBuffer childOffsets,
+			IntBuffer childIndices, IntBuffer conceptIdOffsets,
+			IntBuffer conceptIdOrder, ShortBuffer depths,
+			DoubleBuffer intrinsicICs, ByteBuffer conceptIdBytes) {
+		this.nodeCount = nodeCount;
+		this.rootIndex = rootIndex;
+		this.depthMax = depthMax;
+		this.intrinsicICMax = intrinsicICMax;
+		this.parentOffsets = parentOffsets;
+		this.parentIndices = parentIndices;
+		this.childOffsets = childOffsets;
+		this.childIndices = childIndices;
+		this.conceptIdOffsets = conceptIdOffsets;
+		this.conceptIdOrder = conceptIdOrder;
+		this.depths = depths;
+		this.intrinsicICs = intrinsicICs;
+		this.conceptIdBytes = conceptIdBytes;
+	}
+
+	/**
+	 * compare the id of a node to a concept id
+	 */
+	private int compareConceptId(int index, byte[] conceptId) {
+		int start = conceptIdOffsets.get(index);
+		int len = conceptIdOffsets.get(index + 1) - start;
+		int minLen = Math.min(len, conceptId.length);
+		for (int i = 0; i < minLen; i++) {
+			int diff = (conceptIdBytes.get(start + i) & 0xff)
+					- (conceptId[i] & 0xff);
+			if (diff != 0)
+				return diff;
+		}
+		return len - conceptId.length;
+	}
+
+	public int getChild(int index, int n) {
+		return childIndices.get(childOffsets.get(index) + n);
+	}
+
+	public int getChildCount(int index) {
+		return childOffsets.get(index + 1) - childOffsets.get(index);
+	}
+
+	public String getConceptID(int index) {
+		int start = conceptIdOffsets.get(index);
+		byte[] bytes = new byte[conceptIdOffsets.get(index + 1) - start];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = conceptIdBytes.get(start + i);
+		return new String(bytes, UTF8);
+	}
+
+	public short getDepth(int index) {
+		return depths.get(index);
+	}
+
+	public short getDepthMax() {
+		return depthMax;
+	}
+
+	/**
+	 * binary search of the concept id index
+	 *
+	 * @param conceptID
+	 * @return node index of the concept, -1 if the concept is not in the graph
+	 */
+	public int getIndex(String conceptID) {
+		byte[] key = conceptID.getBytes(UTF8);
+		int low = 0;
+		int high = nodeCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int index = conceptIdOrder.get(mid);
+			int cmp = compareConceptId(index, key);
+			if (cmp < 0)
+				low = mid + 1;
+			else if (cmp > 0)
+				high = mid - 1;
+			else
+				return index;
+		}
+		return -1;
+	}
+
+	public double getIntrinsicICMax() {
+		return intrinsicICMax;
+	}
+
+	public double getIntrinsicInfoContent(int index) {
+		return intrinsicICs.get(index);
+	}
+
+	/**
+	 * Same search as
+	 * {@link ConcRel#getLeastCommonConcept(ConcRel, ConcRel, Set, Map)}, over
+	 * node indices.
+	 *
+	 * @param c1
+	 *            index of concept1
+	 * @param c2
+	 *            index of concept2
+	 * @param lcses
+	 *            indices of least common subsumers, required
+	 * @param paths
+	 *            paths between concepts via lcses, optional. Key - lcs index.
+	 *            Value - paths to lcs from c1 and c2
+	 * @return path length, -1 if no lcs
+	 */
+	public int getLeastCommonConcept(int c1, int c2, Set<Integer> lcses,
+			Map<Integer, LCSPath> paths) {
+		// each concept's ancestor distance map
+		IntIntMap cand1 = new IntIntMap();
+		IntIntMap cand2 = new IntIntMap();
+		// node from which each ancestor was first reached, only if paths are
+		// asked of us
+		IntIntMap from1 = paths != null ? new IntIntMap() : null;
+		IntIntMap from2 = paths != null ? new IntIntMap() : null;
+		IntList parC1 = new IntList();
+		parC1.add(c1);
+		IntList parC2 = new IntList();
+		parC2.add(c2);
+		// ancestors added to the distance maps in the current iteration
+		IntList added1 = new IntList();
+		IntList added2 = new IntList();
+		IntIntMap candidateLCSes = new IntIntMap();
+		IntList tmp = new IntList();
+		int maxIter = -1;
+		int dist = 0;
+		int minDist = Integer.MAX_VALUE - 1;
+		while ((parC1.size() > 0 || parC2.size() > 0) && maxIter != 0) {
+			parC1 = updateParent(cand1, parC1, added1, dist, from1);
+			parC2 = updateParent(cand2, parC2, added2, dist, from2);
+			// a node can only join the intersection in the iteration in which
+			// it is added to one of the distance maps
+			tmp.clear();
+			addNewCandidates(added1, cand2, candidateLCSes, tmp);
+			addNewCandidates(added2, cand1, candidateLCSes, tmp);
+			if (tmp.size() > 0) {
+				removeParents(tmp, parC1);
+				removeParents(tmp, parC2);
+				for (int i = 0; i < tmp.size(); i++) {
+					int lcs = tmp.get(i);
+					int distTmp = cand1.get(lcs) + cand2.get(lcs) + 1;
+					if (distTmp <= minDist) {
+						if (distTmp < minDist) {
+							lcses.clear();
+						}
+						minDist = distTmp;
+						lcses.add(lcs);
+					}
+					int minLcsToConceptLen = Math.min(cand1.get(lcs),
+							cand2.get(lcs));
+					if (maxIter < 0 || maxIter > minLcsToConceptLen) {
+						maxIter = minLcsToConceptLen;
+					}
+				}
+			}
+			maxIter--;
+			++dist;
+		}
+		if (lcses.isEmpty())
+			return -1;
+		if (paths != null) {
+			for (int lcs : lcses) {
+				LCSPath lcsPath = new LCSPath();
+				lcsPath.setLcs(getConceptID(lcs));
+				lcsPath.setConcept1Path(getPath(c1, lcs, from1));
+				lcsPath.setConcept2Path(getPath(c2, lcs, from2));
+				paths.put(lcs, lcsPath);
+			}
+		}
+		return minDist;
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public int getParent(int index, int n) {
+		return parentIndices.get(parentOffsets.get(index) + n);
+	}
+
+	public int getParentCount(int index) {
+		return parentOffsets.get(index + 1) - parentOffsets.get(index);
+	}
+
+	/**
+	 * @return path from the concept to the node below the lcs, null if the
+	 *         concept is the lcs
+	 */
+	private List<String> getPath(int start, int lcs, IntIntMap from) {
+		if (lcs == start)
+			return null;
+		List<String> path = new ArrayList<String>();
+		int node = from.get(lcs);
+		while (node >= 0) {
+			path.add(getConceptID(node));
+			node = node == start ? -1 : from.get(node);
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	public String getRoot() {
+		return rootIndex >= 0 ? getConceptID(rootIndex) : null;
+	}
+
+	public int getRootIndex() {
+		return rootIndex;
+	}
+
+	private void addNewCandidates(IntList added, IntIntMap otherCand,
+			IntIntMap candidateLCSes, IntList newCandidates) {
+		for (int i = 0; i < added.size(); i++) {
+			int node = added.get(i);
+			if (otherCand.containsKey(node)
+					&& !candidateLCSes.containsKey(node)) {
+				candidateLCSes.put(node, 0);
+				newCandidates.add(node);
+			}
+		}
+	}
+
+	/**
+	 * remove the parents of candidate lcses from the list of parents we were
+	 * planning on looking at in the next iteration
+	 */
+	private void removeParents(IntList lcses, IntList parents) {
+		IntIntMap lcsParents = new IntIntMap();
+		for (int i = 0; i < lcses.size(); i++) {
+			int lcs = lcses.get(i);
+			for (int p = parentOffsets.get(lcs); p < parentOffsets
+					.get(lcs + 1); p++)
+				lcsParents.put(parentIndices.get(p), 0);
+		}
+		parents.removeAll(lcsParents);
+	}
+
+	/**
+	 * perform 1 iteration of breadth-first search on lcs.
+	 *
+	 * @return the ancestors for the next iteration
+	 */
+	private IntList updateParent(IntIntMap cand, IntList parC, IntList added,
+			int dist, IntIntMap from) {
+		added.clear();
+		IntList next = new IntList();
+		IntIntMap nextSet = new IntIntMap();
+		for (int i = 0; i < parC.size(); i++) {
+			int cr = parC.get(i);
+			if (!cand.containsKey(cr)) {
+				cand.put(cr, dist);
+				added.add(cr);
+				for (int p = parentOffsets.get(cr); p < parentOffsets
+						.get(cr + 1); p++) {
+					int parent = parentIndices.get(p);
+					if (!nextSet.containsKey(parent)) {
+						nextSet.put(parent, 0);
+						next.add(parent);
+					}
+					if (from != null && !from.containsKey(parent))
+						from.put(parent, cr);
+				}
+			}
+		}
+		// remove concepts already in the distance map
+		next.removeAll(cand);
+		return next;
+	}
+
+	/**
+	 * write the graph in the format read by {@link #map(File)}, create parent
+	 * directories as required
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		if (file.getParentFile() != null && !file.getParentFile().exists())
+			file.getParentFile().mkdirs();
+		DataOutputStream os = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			os.writeInt(MAGIC);
+			os.writeInt(VERSION);
+			os.writeInt(nodeCount);
+			os.writeInt(parentIndices.capacity());
+			os.writeInt(childIndices.capacity());
+			os.writeInt(conceptIdBytes.capacity());
+			os.writeInt(rootIndex);
+			os.writeShort(depthMax);
+			os.writeShort(0);
+			os.writeDouble(intrinsicICMax);
+			writeInts(os, parentOffsets);
+			writeInts(os, parentIndices);
+			writeInts(os, childOffsets);
+			writeInts(os, childIndices);
+			writeInts(os, conceptIdOffsets);
+			writeInts(os, conceptIdOrder);
+			for (int i = 0; i < intrinsicICs.capacity(); i++)
+				os.writeDouble(intrinsicICs.get(i));
+			for (int i = 0; i < depths.capacity(); i++)
+				os.writeShort(depths.get(i));
+			for (int i = 0; i < conceptIdBytes.capacity(); i++)
+				os.writeByte(conceptIdBytes.get(i));
+		} finally {
+			os.close();
+		}
+	}
+
+	private static void writeInts(DataOutputStream os, IntBuffer ints)
+			throws IOException {
+		for (int i = 0; i < ints.capacity(); i++)
+			os.writeInt(ints.get(i));
+	}
+
+	/**
+	 * growable list of node indices
+	 */
+	private static final class IntList {
+		private int[] values = new int[8];
+		private int size = 0;
+
+		private void add(int value) {
+			if (size == values.length)
+				values = Arrays.copyOf(values, size * 2);
+			values[size++] = value;
+		}
+
+		private void clear() {
+			size = 0;
+		}
+
+		private int get(int i) {
+			return values[i];
+		}
+
+		/**
+		 * remove the values that are keys of the map, keeping the order of
+		 * the others
+		 */
+		private void removeAll(IntIntMap keys) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!keys.containsKey(values[i]))
+					values[kept++] = values[i];
+			}
+			size = kept;
+		}
+
+		private int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * open addressing map of node index to a non-negative value. The ancestors
+	 * visited by an lcs search are a tiny fraction of the graph, so this is
+	 * cheaper than an array per search.
+	 */
+	private static final class IntIntMap {
+		private static final int EMPTY = -1;
+		private int[] keys;
+		private int size = 0;
+		private int[] values;
+
+		private IntIntMap() {
+			keys = new int[16];
+			values = new int[16];
+			Arrays.fill(keys, EMPTY);
+		}
+
+		private boolean containsKey(int key) {
+			return get(key) >= 0;
+		}
+
+		/**
+		 * @return value for the key, -1 if the key is not in the map
+		 */
+		private int get(int key) {
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			while (keys[i] != EMPTY) {
+				if (keys[i] == key)
+					return values[i];
+				i = (i + 1) & mask;
+			}
+			return -1;
+		}
+
+		private static int hash(int key) {
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+		private void put(int key, int value) {
+			if ((size + 1) * 2 > keys.length) {
+				int[] oldKeys = keys;
+				int[] oldValues = values;
+				keys = new int[oldKeys.length * 2];
+				values = new int[oldKeys.length * 2];
+				Arrays.fill(keys, EMPTY);
+				size = 0;
+				for (int i = 0; i < oldKeys.length; i++) {
+					if (oldKeys[i] != EMPTY)
+						put(oldKeys[i], oldValues[i]);
+				}
+			}
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			while (keys[i] != EMPTY) {
+				if (keys[i] == key) {
+					values[i] = value;
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			values[i] = value;
+			size++;
+		}
+	}
+}
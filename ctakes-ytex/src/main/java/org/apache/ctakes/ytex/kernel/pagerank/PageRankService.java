@@ -20,6 +20,7 @@ package org.apache.ctakes.ytex.kernel.pagerank;
 
 import java.util.Map;
 
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 
 
@@ -61,4 +62,25 @@ public interface PageRankService {
 	public abstract double[] rank2(Map<Integer, Double> dampingVector, ConceptGraph cg, int iter,
 			double threshold, double dampingFactor);
 
+	/**
+	 * personalized pagerank similarity over the compact concept graph
+	 * 
+	 * @see #sim(String, String, ConceptGraph, int, double, double)
+	 */
+	public abstract double sim(String concept1, String concept2,
+			CompactConceptGraph cg, int iter, double threshold,
+			double dampingFactor);
+
+	/**
+	 * pagerank over the compact concept graph
+	 * 
+	 * @param dampingVector
+	 *            key = node index, value = weight. If null will use normal
+	 *            pagerank.
+	 * @see #rank2(Map, ConceptGraph, int, double, double)
+	 */
+	public abstract double[] rank2(Map<Integer, Double> dampingVector,
+			CompactConceptGraph cg, int iter, double threshold,
+			double dampingFactor);
+
 }
\ No newline at end of file
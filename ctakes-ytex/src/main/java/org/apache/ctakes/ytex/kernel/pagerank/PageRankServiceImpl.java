@@ -37,6 +37,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.ctakes.ytex.kernel.KernelContextHolder;
 import org.apache.ctakes.ytex.kernel.dao.ConceptDao;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 import org.apache.ctakes.ytex.kernel.model.ConcRel;
 import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
 
@@ -210,6 +211,77 @@ public class PageRankServiceImpl implements PageRankService {
 		return newScores;
 	}
 
+	/**
+	 * one iteration of pagerank over the compact concept graph. in-links are
+	 * read straight from the parent arrays.
+	 * 
+	 * @param currentScores
+	 * @param jumpVector
+	 *            probability of randomly jumping to each node, adjusted by the
+	 *            damping factor. null for uniform damping.
+	 * @param cg
+	 * @param dampingFactor
+	 * @return
+	 */
+	public double[] pagerankIter(double[] currentScores, double[] jumpVector,
+			CompactConceptGraph cg, double dampingFactor) {
+		int n = currentScores.length;
+		double newScores[] = new double[n];
+		double jump = ((1 - dampingFactor) / n);
+		for (int i = 0; i < n; i++) {
+			double score = 0d;
+			int nParents = cg.getParentCount(i);
+			// get nodes pointing at node i
+			for (int k = 0; k < nParents; k++) {
+				int parentIndex = cg.getParent(i, k);
+				// add the pagerank divided by the number of nodes the parent
+				// is pointing at
+				score += (currentScores[parentIndex] / (double) cg
+						.getChildCount(parentIndex));
+			}
+			if (jumpVector == null) {
+				newScores[i] = (score * dampingFactor) + jump;
+			} else {
+				newScores[i] = (score * dampingFactor) + jumpVector[i];
+			}
+		}
+		return newScores;
+	}
+
+	@Override
+	public double[] rank2(Map<Integer, Double> dampingVector,
+			CompactConceptGraph cg, int iter, double threshold,
+			double dampingFactor) {
+		int n = cg.getNodeCount();
+		double scoresCurrent[] = new double[n];
+		double jumpVector[] = null;
+		if (dampingVector != null) {
+			// for personalized page rank, the possibility of randomly jumping
+			// to a specific node
+			jumpVector = new double[n];
+			for (Map.Entry<Integer, Double> dvEntry : dampingVector.entrySet()) {
+				jumpVector[dvEntry.getKey()] = dvEntry.getValue()
+						* (1 - dampingFactor);
+				scoresCurrent[dvEntry.getKey()] = dvEntry.getValue();
+			}
+		} else {
+			Arrays.fill(scoresCurrent, 1d / n);
+		}
+		double diff = 1d;
+		for (int i = 0; i < iter; i++) {
+			double scoresOld[] = scoresCurrent;
+			scoresCurrent = pagerankIter(scoresCurrent, jumpVector, cg,
+					dampingFactor);
+			if ((diff = difference(scoresCurrent, scoresOld)) <= threshold)
+				break;
+		}
+		if (log.isDebugEnabled() && diff > threshold) {
+			log.debug("did not converge, diff = " + diff + ", dampingVector = "
+					+ dampingVector);
+		}
+		return scoresCurrent;
+	}
+
 	@Override
 	public double[] rank2(Map<Integer, Double> dampingVector, ConceptGraph cg,
 			int iter, double threshold, double dampingFactor) {
@@ -438,6 +510,23 @@ public class PageRankServiceImpl implements PageRankService {
 		return cosine(c1pr, c2pr);
 	}
 
+	@Override
+	public double sim(String concept1, String concept2,
+			CompactConceptGraph cg, int iter, double threshold,
+			double dampingFactor) {
+		int c1 = cg.getIndex(concept1);
+		int c2 = cg.getIndex(concept2);
+		if (c1 < 0 || c2 < 0)
+			return 0d;
+		Map<Integer, Double> c1dv = new HashMap<Integer, Double>(1);
+		c1dv.put(c1, 1d);
+		double[] c1pr = this.rank2(c1dv, cg, iter, threshold, dampingFactor);
+		Map<Integer, Double> c2dv = new HashMap<Integer, Double>(1);
+		c2dv.put(c2, 1d);
+		double[] c2pr = this.rank2(c2dv, cg, iter, threshold, dampingFactor);
+		return cosine(c1pr, c2pr);
+	}
+
 	/**
 	 * cosine of two vectors
 	 * 
@@ -498,13 +587,15 @@ public class PageRankServiceImpl implements PageRankService {
 					.getBean(ConceptDao.class);
 			PageRankService pageRankService = KernelContextHolder
 					.getApplicationContext().getBean(PageRankService.class);
-			ConceptGraph cg = conceptDao.getConceptGraph(ytexProps
-					.getProperty("org.apache.ctakes.ytex.conceptGraphName"));
+			String conceptGraphName = ytexProps
+					.getProperty("org.apache.ctakes.ytex.conceptGraphName");
 			if (line.hasOption("sim")) {
+				CompactConceptGraph ccg = conceptDao
+						.getCompactConceptGraph(conceptGraphName);
 				String cs = line.getOptionValue("sim");
 				String concept[] = cs.split(",");
 				System.out.println(pageRankService.sim(concept[0], concept[1],
-						cg, 30, 1e-4, 0.85));
+						ccg, 30, 1e-4, 0.85));
 			} else if (line.hasOption("ppr")) {
 				String cs = line.getOptionValue("ppr");
 				String concept[] = cs.split(",");
@@ -513,7 +604,8 @@ public class PageRankServiceImpl implements PageRankService {
 				for (String c : concept) {
 					ppv.put(c, weight);
 				}
-				System.out.println(pageRankService.rank(ppv, cg));
+				System.out.println(pageRankService.rank(ppv,
+						conceptDao.getConceptGraph(conceptGraphName)));
 			}
 		} catch (ParseException pe) {
 			HelpFormatter formatter = new HelpFormatter();
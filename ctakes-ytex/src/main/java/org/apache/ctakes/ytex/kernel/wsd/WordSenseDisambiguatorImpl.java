@@ -31,7 +31,7 @@ import java.util.TreeMap;
 import org.apache.ctakes.ytex.kernel.metric.ConceptPairSimilarity;
 import org.apache.ctakes.ytex.kernel.metric.ConceptSimilarityService;
 import org.apache.ctakes.ytex.kernel.metric.ConceptSimilarityService.SimilarityMetricEnum;
-import org.apache.ctakes.ytex.kernel.model.ConcRel;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
 
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.TreeMultimap;
@@ -141,13 +141,13 @@ public class WordSenseDisambiguatorImpl implements WordSenseDisambiguator {
 			// multiple best candidates - pick concept with lowest ic - most
 			// general concept
 			double ic = 1e6;
-			Map<String, ConcRel> conceptMap = this
-					.getConceptSimilarityService().getConceptGraph()
-					.getConceptMap();
+			CompactConceptGraph cg = this.getConceptSimilarityService()
+					.getCompactConceptGraph();
 			for (String c : bestConcepts) {
-				ConcRel cr = conceptMap.get(c);
-				if (cr != null && cr.getIntrinsicInfoContent() < ic) {
-					ic = cr.getIntrinsicInfoContent();
+				int nodeIndex = cg.getIndex(c);
+				if (nodeIndex >= 0
+						&& cg.getIntrinsicInfoContent(nodeIndex) < ic) {
+					ic = cg.getIntrinsicInfoContent(nodeIndex);
 					bestConcept = c;
 				}
 			}
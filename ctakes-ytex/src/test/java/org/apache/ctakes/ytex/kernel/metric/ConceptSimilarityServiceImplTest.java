@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.metric;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.ctakes.ytex.kernel.dao.ConceptDao;
+import org.apache.ctakes.ytex.kernel.model.CompactConceptGraph;
+import org.apache.ctakes.ytex.kernel.model.ConcRel;
+import org.apache.ctakes.ytex.kernel.model.ConceptGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConceptSimilarityServiceImplTest {
+	private ConceptSimilarityServiceImpl simSvc;
+
+	@Before
+	public void setUp() {
+		final ConceptGraph cg = new ConceptGraph();
+		addRelation(cg, "root", "animal");
+		addRelation(cg, "animal", "vertebrate");
+		addRelation(cg, "vertebrate", "cat");
+		addRelation(cg, "vertebrate", "dog");
+		addRelation(cg, "root", "bacteria");
+		addRelation(cg, "bacteria", "e coli");
+		cg.setRoot("root");
+		cg.setDepthMax((short) 3);
+		simSvc = new ConceptSimilarityServiceImpl();
+		simSvc.setPreload(false);
+		simSvc.setLcsCacheSize(10);
+		simSvc.setConceptGraphName("test");
+		simSvc.setConceptDao(new ConceptDao() {
+			@Override
+			public ConceptGraph getConceptGraph(String name) {
+				return cg;
+			}
+
+			@Override
+			public CompactConceptGraph getCompactConceptGraph(String name) {
+				return CompactConceptGraph.fromConceptGraph(cg);
+			}
+
+			@Override
+			public void createConceptGraph(String dir, String name,
+					String query, boolean checkCycle,
+					Set<String> forbiddenConcepts) {
+			}
+		});
+		simSvc.init();
+	}
+
+	private static void addRelation(ConceptGraph cg, String parent,
+			String child) {
+		ConcRel crPar = cg.getConceptMap().get(parent);
+		if (crPar == null)
+			crPar = cg.addConcept(parent);
+		ConcRel crChild = cg.addConcept(child);
+		crPar.getChildren().add(crChild);
+		crChild.getParents().add(crPar);
+	}
+
+	@Test
+	public void testLcsCache() {
+		Set<String> lcses = new HashSet<String>();
+		assertEquals(3, simSvc.getLCS("dog", "cat", lcses, null));
+		assertEquals(Collections.singleton("vertebrate"), lcses);
+		// same pair in the other order is a hit
+		assertEquals(3, simSvc.getLCS("cat", "dog", lcses, null));
+		assertEquals(Collections.singleton("vertebrate"), lcses);
+		assertEquals(6, simSvc.getLCS("dog", "e coli", lcses, null));
+		assertEquals(new HashSet<String>(Arrays.asList("root")), lcses);
+		assertEquals(1, simSvc.getLcsCache().getHitCount());
+		assertEquals(2, simSvc.getLcsCache().getMissCount());
+		assertEquals(2, simSvc.getLcsCache().size());
+	}
+}
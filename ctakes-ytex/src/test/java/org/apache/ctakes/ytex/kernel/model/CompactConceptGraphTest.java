@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ctakes.ytex.kernel.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.ctakes.ytex.kernel.metric.LCSPath;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactConceptGraphTest {
+	private static ConceptGraph cg;
+
+	/**
+	 * random dag: every concept but the root has 1-3 parents with a lower
+	 * index
+	 */
+	@BeforeClass
+	public static void createConceptGraph() {
+		Random random = new Random(42);
+		cg = new ConceptGraph();
+		cg.addConcept("C0000000");
+		for (int i = 1; i < 2000; i++) {
+			ConcRel cr = cg.addConcept(String.format("C%07d",
+					i * 7919 % 10000000));
+			cr.setDepth((short) (i % 20));
+			cr.setIntrinsicInfoContent(i / 2000d);
+			int nParents = 1 + random.nextInt(3);
+			for (int p = 0; p < nParents; p++) {
+				ConcRel parent = cg.getConceptList().get(random.nextInt(i));
+				cr.getParents().add(parent);
+				parent.getChildren().add(cr);
+			}
+		}
+		cg.setRoot("C0000000");
+		cg.setDepthMax((short) 19);
+		cg.setIntrinsicICMax(1d);
+	}
+
+	@Test
+	public void testSameAsConcRel() {
+		assertSameAsConcRel(CompactConceptGraph.fromConceptGraph(cg));
+	}
+
+	@Test
+	public void testMap() throws IOException {
+		File file = File.createTempFile("CompactConceptGraphTest", ".csr");
+		file.deleteOnExit();
+		CompactConceptGraph.fromConceptGraph(cg).write(file);
+		CompactConceptGraph ccg = CompactConceptGraph.map(file);
+		assertEquals(cg.getConceptList().size(), ccg.getNodeCount());
+		assertEquals("C0000000", ccg.getRoot());
+		assertEquals(19, ccg.getDepthMax());
+		assertEquals(1d, ccg.getIntrinsicICMax(), 0d);
+		for (ConcRel cr : cg.getConceptList()) {
+			int index = ccg.getIndex(cr.getConceptID());
+			assertEquals(cr.getNodeIndex(), index);
+			assertEquals(cr.getDepth(), ccg.getDepth(index));
+			assertEquals(cr.getIntrinsicInfoContent(),
+					ccg.getIntrinsicInfoContent(index), 0d);
+			assertEquals(cr.getParents().size(), ccg.getParentCount(index));
+			assertEquals(cr.getChildren().size(), ccg.getChildCount(index));
+		}
+		assertEquals(-1, ccg.getIndex("C9999999"));
+		assertSameAsConcRel(ccg);
+	}
+
+	private void assertSameAsConcRel(CompactConceptGraph ccg) {
+		Random random = new Random(7);
+		int n = cg.getConceptList().size();
+		for (int i = 0; i < 500; i++) {
+			ConcRel cr1 = cg.getConceptList().get(random.nextInt(n));
+			ConcRel cr2 = cg.getConceptList().get(random.nextInt(n));
+			Set<ConcRel> lcses = new HashSet<ConcRel>();
+			Map<ConcRel, LCSPath> paths = new HashMap<ConcRel, LCSPath>();
+			int dist = ConcRel.getLeastCommonConcept(cr1, cr2, lcses, paths);
+			Set<Integer> compactLcses = new HashSet<Integer>();
+			Map<Integer, LCSPath> compactPaths = new HashMap<Integer, LCSPath>();
+			assertEquals(dist, ccg.getLeastCommonConcept(cr1.getNodeIndex(),
+					cr2.getNodeIndex(), compactLcses, compactPaths));
+			Set<Integer> expected = new HashSet<Integer>();
+			for (ConcRel lcs : lcses)
+				expected.add(lcs.getNodeIndex());
+			assertEquals(expected, compactLcses);
+			// paths may differ when there are several shortest paths, but
+			// their lengths and ends may not
+			for (ConcRel lcs : lcses) {
+				LCSPath path = paths.get(lcs);
+				LCSPath compactPath = compactPaths.get(lcs.getNodeIndex());
+				assertEquals(path.getLcs(), compactPath.getLcs());
+				assertSamePath(path.getConcept1Path(),
+						compactPath.getConcept1Path());
+				assertSamePath(path.getConcept2Path(),
+						compactPath.getConcept2Path());
+			}
+		}
+	}
+
+	private void assertSamePath(List<String> expected,
+			List<String> actual) {
+		if (expected == null) {
+			assertNull(actual);
+		} else {
+			assertEquals(expected.size(), actual.size());
+			assertEquals(expected.get(0), actual.get(0));
+		}
+	}
+}